@@ -34,6 +34,8 @@ public class Console {
     static boolean interactive;
     static boolean forceVisible;
     static boolean debuggingFormat;
+    static int serverPort = -1;
+    static int connectPort = -1;
 
     static Option[] options = new Option[]{
             //
@@ -62,6 +64,18 @@ public class Console {
                     forceVisible = true;
                 }
             }, //
+            new Option("--server", "Run scripts sent by clients on the given local port, keeping the JVM warm", 1) {
+
+                @Override protected void processOption(String name, String[] opts) {
+                    serverPort = Integer.parseInt(opts[0]);
+                }
+            }, //
+            new Option("--connect", "Run the script (-f, or stdin) on the server at the given local port", 1) {
+
+                @Override protected void processOption(String name, String[] opts) {
+                    connectPort = Integer.parseInt(opts[0]);
+                }
+            }, //
             new Option("--waitForKey", "Wait for 'ENTER' before starting execution") {
 
                 @Override protected void processOption(String name, String[] opts) {
@@ -120,6 +134,24 @@ public class Console {
         } catch (Exception e1) {
             return;
         }
+        if (connectPort != -1) {
+            int status;
+            try {
+                status = ConsoleServer.connect(connectPort, inputFile, trailingArgs);
+            } catch (IOException e) {
+                System.err.println("Cannot run on the server: " + e);
+                status = 2;
+            }
+            System.exit(status);
+        }
+        if (serverPort != -1) {
+            try {
+                ConsoleServer.serve(serverPort);
+            } catch (IOException e) {
+                System.err.println("Cannot start the server: " + e);
+            }
+            return;
+        }
         long before = System.nanoTime();
         try {
             RContext.debuggingFormat(debuggingFormat);
@@ -158,6 +190,12 @@ public class Console {
         if (TracingView.VIEW_TRACING) {
             TracingView.ViewTrace.printGlobalStats();
         }
+        if (RefCount.STATISTICS) {
+            RefCount.printStatistics(System.err);
+        }
+        if (r.nodes.exec.FunctionCall.STATISTICS) {
+            r.nodes.exec.CallSiteStatistics.printStatistics(System.err);
+        }
     }
 
     interface RLineReader {
@@ -282,14 +320,15 @@ public class Console {
     static void parseError(RParser parser, RecognitionException e) {
         Token token = e.token;
         String[] tokenNames = parser.getTokenNames();
-        System.err.print("Parse error on '" + token.getText() + "' at " + token.getLine() + ":" + (token.getCharPositionInLine() + 1)
+        PrintStream err = RContext.stderr();
+        err.print("Parse error on '" + token.getText() + "' at " + token.getLine() + ":" + (token.getCharPositionInLine() + 1)
                 + ((token.getType() > 0) ? " (" + tokenNames[token.getType()] + "): " : ": "));
-        System.err.println(parser.getErrorMessage(e, tokenNames) + ".");
+        err.println(parser.getErrorMessage(e, tokenNames) + ".");
     }
 
     static void lexerError(RLexer lexer, RecognitionException e) {
         String[] tokenNames = lexer.getTokenNames();
-        System.err.println("Parse error (lexer): " + lexer.getErrorMessage(e, tokenNames) + ".");
+        RContext.stderr().println("Parse error (lexer): " + lexer.getErrorMessage(e, tokenNames) + ".");
     }
 
     static void printResult(ASTNode expr, RAny result) {
@@ -300,6 +339,6 @@ public class Console {
     }
 
     public static void println(String str) {
-        System.out.println(str);
+        RContext.stdout().println(str);
     }
 }
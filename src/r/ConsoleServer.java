@@ -0,0 +1,227 @@
+package r;
+
+import java.io.*;
+import java.net.*;
+import java.nio.charset.*;
+import java.util.*;
+
+import org.antlr.runtime.*;
+
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+
+// runs scripts on behalf of thin clients (Console --connect), in one long-lived JVM, so that the classes are loaded and
+// the interpreter is JIT-compiled once for many jobs rather than once per job
+//   each job runs in a fresh global environment, parsed scripts are kept (and re-parsed when the file changes)
+//   each job runs in the working directory of the client: user.dir is set to it for the job, and file names are resolved
+//   against it (RContext.resolvePath), so relative paths in a script mean what they mean in a standalone run
+//   the server only listens on the loopback interface and runs one job at a time
+//
+// a request is: kind ("file" or "source"), the script file name, the working directory of the client, the number of
+// trailing arguments and the arguments (each written by DataOutput.writeUTF), and for "source" the length and UTF-8 bytes
+// of the script text
+// the response is a sequence of frames of a channel byte and a length-prefixed chunk of bytes, for stdout (OUT) and
+// stderr (ERR), ended by EXIT with the exit status instead of a length
+public class ConsoleServer {
+
+    static final byte OUT = 'O';
+    static final byte ERR = 'E';
+    static final byte EXIT = 'X';
+
+    static final String FILE = "file";
+    static final String SOURCE = "source";
+
+    private static final int OUTPUT_BUFFER_SIZE = 8192;
+
+    static final class CachedTree {
+        final long lastModified;
+        final long length;
+        final ASTNode tree;
+
+        CachedTree(long lastModified, long length, ASTNode tree) {
+            this.lastModified = lastModified;
+            this.length = length;
+            this.tree = tree;
+        }
+    }
+
+    private static final Map<String, CachedTree> trees = new HashMap<>();
+
+    public static void serve(int port) throws IOException {
+        ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+        System.err.println("FastR server listening on " + server.getLocalSocketAddress());
+        try {
+            while (true) {
+                Socket socket = server.accept();
+                try {
+                    runJob(socket);
+                } catch (IOException e) {
+                    System.err.println("Job failed: " + e); // the client went away
+                } finally {
+                    socket.close();
+                }
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    static void runJob(Socket socket) throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+
+        String kind = in.readUTF();
+        String fileName = in.readUTF();
+        String workingDirectory = in.readUTF();
+        int nargs = in.readInt();
+        String[] args = new String[nargs + 3];
+        args[0] = "-f";
+        args[1] = fileName;
+        args[2] = "--args";
+        for (int i = 0; i < nargs; i++) {
+            args[i + 3] = in.readUTF();
+        }
+        String source = null;
+        if (SOURCE.equals(kind)) {
+            byte[] bytes = new byte[in.readInt()];
+            in.readFully(bytes);
+            source = new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        PrintStream jobOut = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, OUT), OUTPUT_BUFFER_SIZE), true);
+        PrintStream jobErr = new PrintStream(new BufferedOutputStream(new FrameOutputStream(out, ERR), OUTPUT_BUFFER_SIZE), true);
+        RContext.setOutput(jobOut, jobErr);
+        String serverDirectory = System.getProperty("user.dir");
+        System.setProperty("user.dir", workingDirectory);
+        int status = 1;
+        long before = System.nanoTime();
+        try {
+            Console.storeCommandLineArguments(args);
+            RSymbol.resetTable();
+            ASTNode tree = source != null ? RContext.parseFile(new ANTLRStringStream(source)) : parse(fileName);
+            if (tree != null) {
+                Console.printResult(tree, RContext.eval(tree));
+                status = 0;
+            }
+        } catch (RError e) {
+            // reported by the error manager
+        } catch (IOException e) {
+            jobErr.println(e.getMessage());
+        } catch (RuntimeException e) {
+            e.printStackTrace(jobErr);
+        } catch (StackOverflowError e) {
+            jobErr.println("Error: stack overflow");
+        } finally {
+            jobErr.println("\n" + fileName + ": Elapsed " + ((System.nanoTime() - before) / 1000000L) + " milliseconds");
+            jobOut.flush();
+            jobErr.flush();
+            RContext.setOutput(null, null);
+            System.setProperty("user.dir", serverDirectory);
+            RSymbol.resetTable(); // do not keep the job's data alive
+        }
+        out.writeByte(EXIT);
+        out.writeInt(status);
+        out.flush();
+    }
+
+    static ASTNode parse(String fileName) throws IOException {
+        File f = new File(fileName);
+        String key = f.getCanonicalPath();
+        long lastModified = f.lastModified();
+        long length = f.length();
+        CachedTree c = trees.get(key);
+        if (c != null && c.lastModified == lastModified && c.length == length) {
+            return c.tree;
+        }
+        ASTNode tree = RContext.parseFile(new ANTLRFileStream(key));
+        if (tree != null) {
+            trees.put(key, new CachedTree(lastModified, length, tree));
+        }
+        return tree;
+    }
+
+    // sends the bytes written to it as frames of the given channel
+    static final class FrameOutputStream extends OutputStream {
+        final DataOutputStream out;
+        final byte channel;
+
+        FrameOutputStream(DataOutputStream out, byte channel) {
+            this.out = out;
+            this.channel = channel;
+        }
+
+        @Override public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override public void write(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return;
+            }
+            synchronized (out) {
+                out.writeByte(channel);
+                out.writeInt(len);
+                out.write(b, off, len);
+            }
+        }
+
+        @Override public void flush() throws IOException {
+            synchronized (out) {
+                out.flush();
+            }
+        }
+    }
+
+    // sends the script (a file name, or the text of the script for "-") to the server and copies the output of the job
+    // to stdout and stderr, returns the exit status
+    public static int connect(int port, String inputFile, String[] trailingArgs) throws IOException {
+        Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+        try {
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            boolean fromStdin = inputFile == null || inputFile.equals("-");
+            out.writeUTF(fromStdin ? SOURCE : FILE);
+            out.writeUTF(fromStdin ? "(stdin)" : new File(inputFile).getAbsolutePath());
+            out.writeUTF(System.getProperty("user.dir"));
+            out.writeInt(trailingArgs.length);
+            for (String a : trailingArgs) {
+                out.writeUTF(a);
+            }
+            if (fromStdin) {
+                ByteArrayOutputStream source = new ByteArrayOutputStream();
+                byte[] buf = new byte[OUTPUT_BUFFER_SIZE];
+                int n;
+                while ((n = System.in.read(buf)) != -1) {
+                    source.write(buf, 0, n);
+                }
+                out.writeInt(source.size());
+                source.writeTo(out);
+            }
+            out.flush();
+
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            byte[] buf = new byte[OUTPUT_BUFFER_SIZE];
+            while (true) {
+                byte channel = in.readByte();
+                if (channel == EXIT) {
+                    System.out.flush();
+                    System.err.flush();
+                    return in.readInt();
+                }
+                int len = in.readInt();
+                PrintStream dst = channel == ERR ? System.err : System.out;
+                while (len > 0) {
+                    int n = in.read(buf, 0, Math.min(len, buf.length));
+                    if (n == -1) {
+                        throw new EOFException();
+                    }
+                    dst.write(buf, 0, n);
+                    len -= n;
+                }
+                dst.flush();
+            }
+        } finally {
+            socket.close();
+        }
+    }
+}
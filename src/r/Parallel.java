@@ -0,0 +1,63 @@
+package r;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+// a pool of daemon threads shared by the builtins that split their work (parsing a large file, inflating blocks) into tasks
+//   the tasks must not evaluate R code, and must not submit tasks to the pool and wait for them
+public class Parallel {
+
+    public static final int NTHREADS = Runtime.getRuntime().availableProcessors();
+
+    private static ExecutorService pool;
+
+    public static synchronized ExecutorService pool() {
+        if (pool == null) {
+            pool = Executors.newFixedThreadPool(NTHREADS, new ThreadFactory() {
+                int n;
+
+                @Override public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "fastr-worker-" + n++);
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+        }
+        return pool;
+    }
+
+    // runs the tasks (on the pool, unless there is only one task or one processor) and returns their results in order
+    //   an exception of a task is re-thrown (unchecked exceptions as they are)
+    public static <T> List<T> run(List<? extends Callable<T>> tasks) {
+        ArrayList<T> results = new ArrayList<>(tasks.size());
+        try {
+            if (tasks.size() == 1 || NTHREADS == 1) {
+                for (Callable<T> t : tasks) {
+                    results.add(t.call());
+                }
+                return results;
+            }
+            for (Future<T> f : pool().invokeAll(tasks)) {
+                results.add(f.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            throw unchecked(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (Exception e) {
+            throw unchecked(e);
+        }
+    }
+
+    private static RuntimeException unchecked(Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new RuntimeException(t);
+    }
+}
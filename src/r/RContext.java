@@ -1,5 +1,6 @@
 package r;
 
+import java.io.*;
 import java.util.*;
 
 import org.antlr.runtime.*;
@@ -23,6 +24,8 @@ public class RContext {
 
     private static boolean debuggingFormat = false;
     private static ManageError errorManager = new ManageError(System.err);
+    private static PrintStream stdout; // null for System.out
+    private static PrintStream stderr; // null for System.err
     private static BuildExecutableTree executableTreeBuilder = new BuildExecutableTree();
     private static final int NCONNECTIONS = 128;
     private static final Connection[] connections = new Connection[NCONNECTIONS];
@@ -41,6 +44,32 @@ public class RContext {
         return previous;
     }
 
+    // the streams the program writes its output and messages to; the console server sets them for each job, rather than
+    // replacing the process-wide System.out and System.err
+    public static PrintStream stdout() {
+        return stdout != null ? stdout : System.out;
+    }
+
+    public static PrintStream stderr() {
+        return stderr != null ? stderr : System.err;
+    }
+
+    // null resets a stream to System.out or System.err
+    public static void setOutput(PrintStream out, PrintStream err) {
+        stdout = out;
+        stderr = err;
+    }
+
+    // a file name resolved against the working directory, which is user.dir (changed by setwd, and set by the console server
+    // to the directory of the client for each job); java.io itself resolves relative names against the directory the JVM
+    // was started in
+    public static String resolvePath(String name) {
+        if (name.length() == 0 || new File(name).isAbsolute()) {
+            return name;
+        }
+        return new File(System.getProperty("user.dir"), name).getPath();
+    }
+
     public static RAny eval(ASTNode expr, boolean useDebuggingFormat) {
         debuggingFormat(useDebuggingFormat);
         return eval(expr);
@@ -87,15 +116,18 @@ public class RContext {
         };
     }
 
+    // a warning is handled by an enclosing tryCatch, if there is one, otherwise it is reported
     public static void warning(ASTNode expr, String msg, Object... args) {
-        errorManager.warning(expr, String.format(msg, args));
+        warning(expr, String.format(msg, args));
     }
 
     public static void warning(ASTNode expr, String msg) {
+        RCondition.signalWarning(msg);
         errorManager.warning(expr, msg);
     }
 
     public static void warning(RError err) {
+        RCondition.signalWarning(err.getMessage());
         errorManager.warning(err);
     }
 
@@ -123,6 +155,12 @@ public class RContext {
         connections[i] = null;
     }
 
+    /** Replace a connection currently in use, keeping its number. */
+    public static void replaceConnection(int i, Connection connection) {
+        assert Utils.check(connections[i] != null);
+        connections[i] = connection;
+    }
+
     /** Return a connection or null. */
     public static Connection getConnection(int i) {
         return i >= 0 && i < NCONNECTIONS ? connections[i] : null;
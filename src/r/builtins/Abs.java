@@ -62,40 +62,69 @@ public class Abs extends CallFactory {
         return RComplex.RComplexUtils.eitherIsNA(real, imag) ? RDouble.NA : Arithmetic.chypot(real, imag);
     }
 
+    static final FusedDoubleView.Stage STAGE = new FusedDoubleView.Stage() {
+        @Override public double op(double x) {
+            return abs(x);
+        }
+
+        @Override public boolean op(double[] x, double[] res, int from, int to) {
+            for (int i = from; i < to; i++) {
+                res[i] = abs(x[i]);
+            }
+            return false;
+        }
+    };
+
     public static RDouble abs(final RDouble orig) {
+        if (FusedDoubleView.isFusable(orig)) {
+            return FusedDoubleView.fuse(orig, STAGE, orig.dimensions(), orig.names(), orig.attributes());
+        }
+        return TracingView.ViewTrace.trace(new AbsView(orig));
+    }
 
-        return TracingView.ViewTrace.trace(new View.RDoubleProxy<RDouble>(orig) {
+    static final class AbsView extends View.RDoubleProxy<RDouble> implements FusedDoubleView.Fusable {
 
-            @Override public double getDouble(int i) {
-                return abs(orig.getDouble(i));
-            }
+        AbsView(RDouble orig) {
+            super(orig);
+        }
 
-            @Override
-            public void materializeInto(double[] resContent) {
-                if (orig instanceof DoubleImpl) {
-                    abs(orig.getContent(), resContent);
-                } else if (orig instanceof RDoubleView) {
-                    ((RDoubleView) orig).materializeInto(resContent);
-                    abs(resContent, resContent);
-                } else  {
-                    super.materializeInto(resContent);
-                }
-            }
+        @Override public double getDouble(int i) {
+            return abs(orig.getDouble(i));
+        }
 
-            @Override
-            public void materializeIntoOnTheFly(double[] resContent) {
-                if (orig instanceof DoubleImpl) {
-                    abs(orig.getContent(), resContent);
-                } else  {
-                    super.materializeIntoOnTheFly(resContent);
-                }
+        @Override
+        public void materializeInto(double[] resContent) {
+            if (orig instanceof DoubleImpl) {
+                abs(orig.getContent(), resContent);
+            } else if (orig instanceof RDoubleView) {
+                ((RDoubleView) orig).materializeInto(resContent);
+                abs(resContent, resContent);
+            } else  {
+                super.materializeInto(resContent);
             }
+        }
 
-            @Override
-            public void accept(ValueVisitor v) {
-                v.visit(this);
+        @Override
+        public void materializeIntoOnTheFly(double[] resContent) {
+            if (orig instanceof DoubleImpl) {
+                abs(orig.getContent(), resContent);
+            } else  {
+                super.materializeIntoOnTheFly(resContent);
             }
-        });
+        }
+
+        @Override
+        public void accept(ValueVisitor v) {
+            v.visit(this);
+        }
+
+        @Override public RDouble fusableArgument() {
+            return orig;
+        }
+
+        @Override public FusedDoubleView.Stage fusableStage() {
+            return STAGE;
+        }
     }
 
     public static RInt abs(final RInt orig) {
@@ -105,6 +134,18 @@ public class Abs extends CallFactory {
                 return abs(orig.getInt(i));
             }
 
+            @Override
+            public void materializeInto(int[] resContent) {
+                if (orig instanceof IntImpl) {
+                    VectorKernels.abs(orig.getContent(), resContent, resContent.length);
+                } else if (orig instanceof RIntView) {
+                    ((RIntView) orig).materializeInto(resContent);
+                    VectorKernels.abs(resContent, resContent, resContent.length);
+                } else  {
+                    super.materializeInto(resContent);
+                }
+            }
+
             @Override
             public void accept(ValueVisitor v) {
                 v.visit(this);
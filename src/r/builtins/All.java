@@ -2,6 +2,7 @@ package r.builtins;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -59,6 +60,16 @@ public class All extends CallFactory {
                             didWarn = true;
                         }
                     }
+                    if (l instanceof PackedLogicalImpl) {
+                        PackedLogicalImpl p = (PackedLogicalImpl) l;
+                        if (p.anyFalse()) {
+                            return RLogical.BOXED_FALSE;
+                        }
+                        if (p.hasNA()) {
+                            hasNA = true;
+                        }
+                        continue;
+                    }
                     int size = l.size();
                     for (int j = 0; j < size; j++) {
                         int ll = l.getLogical(j);
@@ -2,6 +2,7 @@ package r.builtins;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -47,6 +48,16 @@ public class Any extends CallFactory {
                             didWarn = true;
                         }
                     }
+                    if (l instanceof PackedLogicalImpl) {
+                        PackedLogicalImpl p = (PackedLogicalImpl) l;
+                        if (p.anyTrue()) {
+                            return RLogical.BOXED_TRUE;
+                        }
+                        if (p.hasNA()) {
+                            hasNA = true;
+                        }
+                        continue;
+                    }
                     int size = l.size();
                     for (int j = 0; j < size; j++) {
                         int ll = l.getLogical(j);
@@ -276,6 +276,9 @@ final class Aperm extends CallFactory {
                 if (!(ary instanceof DoubleImpl)) { throw new SpecializationException(null); }
                 int arySize = ary.size();
                 int[] aryDim = ary.dimensions();
+                if (resize && aryDim.length == 2 && perm[0] == 1) { // a matrix transpose, lazy like in "t"
+                    return TracingView.ViewTrace.trace(new RDouble.RDoubleTransposed((RDouble) ary, aryDim[0], aryDim[1], ary.names(), null));
+                }
                 int[] resultDim = calculateResizedDimension(aryDim, perm);
                 double[] source = ((DoubleImpl) ary).getContent();
                 double[] dest = new double[source.length];
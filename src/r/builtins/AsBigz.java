@@ -0,0 +1,53 @@
+package r.builtins;
+
+import java.math.*;
+
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "as.bigz"
+ * 
+ * <pre>
+ * a -- a number or a character string of decimal digits, of length one; numbers are truncated towards zero.
+ * </pre>
+ */
+final class AsBigz extends CallFactory {
+    static final CallFactory _ = new AsBigz("as.bigz", new String[]{"a"}, new String[]{"a"});
+
+    private AsBigz(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        check(call, names, exprs);
+        return new Builtin.Builtin1(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny arg) {
+                return asBigz(ast, arg);
+            }
+        };
+    }
+
+    static RBigInt asBigz(ASTNode ast, RAny arg) {
+        if (arg instanceof RBigInt) {
+            return (RBigInt) arg;
+        }
+        BigInteger value;
+        if (arg instanceof RString) {
+            RString s = (RString) arg;
+            if (s.size() != 1) {
+                throw RError.getGenericError(ast, RError.BIGZ_NOT_SCALAR);
+            }
+            value = RBigInt.RBigIntUtils.fromString(s.getString(0));
+        } else {
+            value = RBigInt.RBigIntUtils.operand(arg, ast);
+        }
+        if (value == null) {
+            throw RError.getGenericError(ast, RError.BIGZ_INVALID);
+        }
+        return RBigInt.RBigIntFactory.getScalar(value);
+    }
+}
@@ -19,6 +19,7 @@ final class AsCharacter extends AsBase {
     }
 
     @Override RAny genericCast(ASTNode ast, RAny arg) {
+        if (RInt.RFactorUtils.isFactor(arg)) { return RInt.RFactorUtils.labels((RInt) arg).stripAttributes(); }
         return genericAsString(ast, arg);
     }
 
@@ -18,6 +18,7 @@ final class AsInteger extends AsBase {
     }
 
     @Override public RAny genericCast(ASTNode ast, RAny arg) {
+        if (RInt.RFactorUtils.isFactor(arg)) { return RInt.RFactorUtils.codes((RInt) arg); } // no copy of the codes
         return genericAsInt(ast, arg);
     }
 
@@ -0,0 +1,707 @@
+package r.builtins;
+
+import java.util.*;
+
+// a regular expression matched over the bytes of a string, used for useBytes=TRUE
+//   only the regular subset of the syntax is supported: literals, ".", character classes, the \d \w \s escapes, groups,
+//   alternation and greedy quantifiers; compile returns null for anything else (back-references, anchors, look-around, lazy
+//   and possessive quantifiers, non-ASCII characters in the pattern) and the caller falls back to java.util.regex
+//
+//   the pattern is compiled into a Thompson NFA, which is run as a DFA built lazily from ordered sets of NFA states; the
+//   order encodes the priority of alternatives and quantifiers, and lower-priority states are dropped once a match is
+//   reached, so a match is the one java.util.regex finds (leftmost, then first by priority), not the longest one
+final class ByteRegex {
+
+    static final int MAX_PROGRAM = 10000;
+    static final int MAX_STATES = 10000; // DFA states built before the automaton is discarded and built again
+    static final int MAX_REPEAT = 1000;
+
+    // NFA instructions
+    static final int SET = 0;
+    static final int SPLIT = 1; // continues at x, then (lower priority) at y
+    static final int JMP = 2;
+    static final int MATCH = 3;
+
+    final int[] op;
+    final int[] x;
+    final int[] y;
+    final boolean[][] sets;
+    final int size;
+
+    final boolean[] first; // bytes that can start a match (when the pattern does not match the empty string)
+    final boolean nullable;
+
+    private final HashMap<String, State> states = new HashMap<>();
+    private final State start;
+    private int built; // states built since the automaton was last discarded
+    private final State dead;
+
+    // the end of the last match found by find
+    int matchEnd;
+
+    static final class State {
+        final int[] pcs; // SET instructions ordered by priority, possibly followed by MATCH
+        final boolean match;
+        final State[] next = new State[256];
+
+        State(int[] pcs, boolean match) {
+            this.pcs = pcs;
+            this.match = match;
+        }
+    }
+
+    private ByteRegex(Compiler c) {
+        op = c.op;
+        x = c.x;
+        y = c.y;
+        sets = c.sets;
+        size = c.size;
+        dead = new State(new int[0], false);
+        Arrays.fill(dead.next, dead);
+        start = startState();
+        nullable = start.match;
+        first = new boolean[256];
+        for (int b = 0; b < 256; b++) {
+            first[b] = next(start, b) != dead;
+        }
+    }
+
+    // returns null when the pattern is not supported
+    public static ByteRegex compile(String pattern, boolean ignoreCase) {
+        Node n = new Parser(pattern, ignoreCase).parse();
+        if (n == null) {
+            return null;
+        }
+        Compiler c = new Compiler();
+        if (!c.emit(n) || !c.add(MATCH, 0, 0, null)) {
+            return null;
+        }
+        return new ByteRegex(c);
+    }
+
+    // the start of the first match at or after from, or -1; the end of the match is then in matchEnd
+    public int find(byte[] s, int from, int end) {
+        if (nullable) {
+            if (from <= end) {
+                matchEnd = matchAt(s, from, end);
+                return from;
+            }
+            return -1;
+        }
+        boolean[] f = first;
+        for (int p = from; p < end; p++) {
+            if (f[s[p] & 0xff]) {
+                int e = matchAt(s, p, end);
+                if (e != -1) {
+                    matchEnd = e;
+                    return p;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // the end of the match starting at from, or -1
+    public int matchAt(byte[] s, int from, int end) {
+        State st = start;
+        int res = st.match ? from : -1;
+        for (int i = from; i < end; i++) {
+            int b = s[i] & 0xff;
+            State n = st.next[b];
+            if (n == null) {
+                n = next(st, b);
+            }
+            if (n == dead) {
+                break;
+            }
+            st = n;
+            if (st.match) {
+                res = i + 1;
+            }
+        }
+        return res;
+    }
+
+    private State startState() {
+        Closure c = new Closure(size);
+        c.add(this, 0);
+        return state(c);
+    }
+
+    private State next(State st, int b) {
+        Closure c = new Closure(size);
+        for (int pc : st.pcs) {
+            if (c.cut) {
+                break;
+            }
+            if (op[pc] == SET && sets[pc][b]) {
+                c.add(this, pc + 1);
+            }
+        }
+        State n = state(c);
+        st.next[b] = n;
+        return n;
+    }
+
+    private State state(Closure c) {
+        if (c.n == 0) {
+            return dead;
+        }
+        String k = key(c.pcs, c.n);
+        State st = states.get(k);
+        if (st == null) {
+            if (built >= MAX_STATES) {
+                discard();
+            }
+            st = new State(Arrays.copyOf(c.pcs, c.n), op[c.pcs[c.n - 1]] == MATCH);
+            states.put(k, st);
+            built++;
+        }
+        return st;
+    }
+
+    private static String key(int[] pcs, int n) {
+        char[] key = new char[n];
+        for (int i = 0; i < n; i++) {
+            key[i] = (char) pcs[i];
+        }
+        return new String(key);
+    }
+
+    // drops all states but the start state, which loses its transitions; the states are only reachable from the start state
+    // (and from a match in progress, which continues in the new automaton), so the memory used stays bounded even for patterns
+    // with an exponential number of DFA states
+    private void discard() {
+        states.clear();
+        Arrays.fill(start.next, null);
+        states.put(key(start.pcs, start.pcs.length), start);
+        built = 1;
+    }
+
+    // the SET and MATCH instructions reachable from a set of instructions without consuming input, in priority order
+    static final class Closure {
+        final int[] pcs;
+        final boolean[] visited;
+        int n;
+        boolean cut; // a MATCH has been reached, the remaining instructions would have lower priority
+
+        Closure(int size) {
+            pcs = new int[size];
+            visited = new boolean[size];
+        }
+
+        void add(ByteRegex re, int pc) {
+            if (cut || visited[pc]) {
+                return;
+            }
+            visited[pc] = true;
+            switch (re.op[pc]) {
+                case JMP:
+                    add(re, re.x[pc]);
+                    break;
+                case SPLIT:
+                    add(re, re.x[pc]);
+                    add(re, re.y[pc]);
+                    break;
+                case MATCH:
+                    pcs[n++] = pc;
+                    cut = true;
+                    break;
+                default:
+                    pcs[n++] = pc;
+            }
+        }
+    }
+
+    // the last compiled pattern of a call site, so that the DFA built so far is reused when the call site executes again
+    static final class Cache {
+        String pattern;
+        boolean ignoreCase;
+        ByteRegex regex;
+
+        ByteRegex get(String pat, boolean ic) {
+            if (!pat.equals(pattern) || ic != ignoreCase) {
+                regex = compile(pat, ic);
+                pattern = pat;
+                ignoreCase = ic;
+            }
+            return regex;
+        }
+    }
+
+    static final class Node {
+        static final int SET = 0;
+        static final int CAT = 1;
+        static final int ALT = 2;
+        static final int REPEAT = 3;
+
+        final int kind;
+        boolean[] set;
+        Node[] children;
+        int min;
+        int max; // -1 for no upper bound
+
+        Node(int kind) {
+            this.kind = kind;
+        }
+
+        boolean nullable() {
+            switch (kind) {
+                case SET:
+                    return false;
+                case CAT:
+                    for (Node c : children) {
+                        if (!c.nullable()) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case ALT:
+                    for (Node c : children) {
+                        if (c.nullable()) {
+                            return true;
+                        }
+                    }
+                    return false;
+                default:
+                    return min == 0 || children[0].nullable();
+            }
+        }
+    }
+
+    // a recursive descent parser, which returns null on anything not supported (or not valid, so that java.util.regex
+    // reports the error)
+    static final class Parser {
+        final String p;
+        final boolean ignoreCase;
+        int i;
+
+        Parser(String pattern, boolean ignoreCase) {
+            this.p = pattern;
+            this.ignoreCase = ignoreCase;
+        }
+
+        Node parse() {
+            for (int j = 0; j < p.length(); j++) {
+                if (p.charAt(j) >= 128) {
+                    return null;
+                }
+            }
+            Node n = alternation();
+            if (n == null || i != p.length()) {
+                return null;
+            }
+            return n;
+        }
+
+        Node alternation() {
+            ArrayList<Node> alts = new ArrayList<>();
+            for (;;) {
+                Node n = concatenation();
+                if (n == null) {
+                    return null;
+                }
+                alts.add(n);
+                if (i < p.length() && p.charAt(i) == '|') {
+                    i++;
+                } else {
+                    break;
+                }
+            }
+            if (alts.size() == 1) {
+                return alts.get(0);
+            }
+            Node n = new Node(Node.ALT);
+            n.children = alts.toArray(new Node[alts.size()]);
+            return n;
+        }
+
+        Node concatenation() {
+            ArrayList<Node> items = new ArrayList<>();
+            while (i < p.length() && p.charAt(i) != '|' && p.charAt(i) != ')') {
+                Node n = repetition();
+                if (n == null) {
+                    return null;
+                }
+                items.add(n);
+            }
+            Node n = new Node(Node.CAT);
+            n.children = items.toArray(new Node[items.size()]);
+            return n;
+        }
+
+        Node repetition() {
+            Node a = atom();
+            if (a == null || i == p.length()) {
+                return a;
+            }
+            int min;
+            int max;
+            char c = p.charAt(i);
+            if (c == '*') {
+                min = 0;
+                max = -1;
+                i++;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+                i++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                i++;
+            } else if (c == '{') {
+                int close = p.indexOf('}', i);
+                if (close == -1) {
+                    return null;
+                }
+                String[] bounds = p.substring(i + 1, close).split(",", -1);
+                if (bounds.length > 2) {
+                    return null;
+                }
+                min = bound(bounds[0]);
+                max = bounds.length == 1 ? min : bounds[1].length() == 0 ? -1 : bound(bounds[1]);
+                if (min < 0 || (bounds.length == 2 && bounds[1].length() > 0 && max < min)) {
+                    return null;
+                }
+                i = close + 1;
+            } else {
+                return a;
+            }
+            if (i < p.length() && "*+?{".indexOf(p.charAt(i)) != -1) {
+                return null; // lazy or possessive quantifiers, repeated quantifiers
+            }
+            if (a.nullable() && max != 0 && max != 1) {
+                return null; // the semantics of repeating an empty match is not modeled
+            }
+            Node n = new Node(Node.REPEAT);
+            n.children = new Node[]{a};
+            n.min = min;
+            n.max = max;
+            return n;
+        }
+
+        static int bound(String s) {
+            if (s.length() == 0 || s.length() > 4) {
+                return -1;
+            }
+            for (int j = 0; j < s.length(); j++) {
+                if (!java.lang.Character.isDigit(s.charAt(j))) {
+                    return -1;
+                }
+            }
+            int v = java.lang.Integer.parseInt(s);
+            return v <= MAX_REPEAT ? v : -1;
+        }
+
+        Node atom() {
+            char c = p.charAt(i++);
+            switch (c) {
+                case '(':
+                    if (i < p.length() && p.charAt(i) == '?') {
+                        if (i + 1 < p.length() && p.charAt(i + 1) == ':') {
+                            i += 2;
+                        } else {
+                            return null;
+                        }
+                    }
+                    Node n = alternation();
+                    if (n == null || i == p.length() || p.charAt(i) != ')') {
+                        return null;
+                    }
+                    i++;
+                    return n;
+                case '[':
+                    return charClass();
+                case '.': {
+                    boolean[] set = new boolean[256];
+                    Arrays.fill(set, true);
+                    set['\n'] = false;
+                    set['\r'] = false;
+                    return setNode(set);
+                }
+                case '\\': {
+                    boolean[] set = new boolean[256];
+                    if (!escape(set)) {
+                        return null;
+                    }
+                    return setNode(set);
+                }
+                case '^':
+                case '$':
+                case '*':
+                case '+':
+                case '?':
+                case '{':
+                case ')':
+                    return null;
+                default: {
+                    boolean[] set = new boolean[256];
+                    addChar(set, c);
+                    return setNode(set);
+                }
+            }
+        }
+
+        Node charClass() {
+            boolean[] set = new boolean[256];
+            boolean negate = false;
+            if (i < p.length() && p.charAt(i) == '^') {
+                negate = true;
+                i++;
+                if (ignoreCase) {
+                    return null;
+                }
+            }
+            if (i < p.length() && p.charAt(i) == ']') {
+                return null;
+            }
+            for (;;) {
+                if (i == p.length()) {
+                    return null;
+                }
+                char c = p.charAt(i++);
+                if (c == ']') {
+                    break;
+                }
+                if (c == '[' || (c == '&' && i < p.length() && p.charAt(i) == '&')) {
+                    return null; // unions and intersections
+                }
+                int lo;
+                if (c == '\\') {
+                    if (i == p.length()) {
+                        return null;
+                    }
+                    char e = p.charAt(i);
+                    if ("dDwWsS".indexOf(e) != -1) {
+                        if (!escape(set)) {
+                            return null;
+                        }
+                        continue;
+                    }
+                    lo = escapedChar();
+                    if (lo == -1) {
+                        return null;
+                    }
+                } else {
+                    lo = c;
+                }
+                if (i + 1 < p.length() && p.charAt(i) == '-' && p.charAt(i + 1) != ']') {
+                    i++;
+                    int hi = p.charAt(i++);
+                    if (hi == '\\') {
+                        hi = escapedChar();
+                    } else if (hi == '[') {
+                        return null;
+                    }
+                    if (hi == -1 || hi < lo) {
+                        return null;
+                    }
+                    for (int ch = lo; ch <= hi; ch++) {
+                        addChar(set, (char) ch);
+                    }
+                } else {
+                    addChar(set, (char) lo);
+                }
+            }
+            if (negate) {
+                for (int b = 0; b < 256; b++) {
+                    set[b] = !set[b];
+                }
+            }
+            return setNode(set);
+        }
+
+        // adds the bytes denoted by the escape sequence after a backslash
+        boolean escape(boolean[] set) {
+            if (i == p.length()) {
+                return false;
+            }
+            char c = p.charAt(i);
+            boolean negate = java.lang.Character.isUpperCase(c);
+            boolean[] s;
+            switch (c) {
+                case 'd':
+                case 'D':
+                    s = range('0', '9', null);
+                    break;
+                case 'w':
+                case 'W':
+                    s = range('a', 'z', range('A', 'Z', range('0', '9', range('_', '_', null))));
+                    break;
+                case 's':
+                case 'S':
+                    s = range(' ', ' ', range('\t', '\r', null));
+                    break;
+                default:
+                    int ch = escapedChar();
+                    if (ch == -1) {
+                        return false;
+                    }
+                    addChar(set, (char) ch);
+                    return true;
+            }
+            i++;
+            if (negate && ignoreCase) {
+                return false;
+            }
+            for (int b = 0; b < 256; b++) {
+                if (s[b] != negate) {
+                    set[b] = true;
+                }
+            }
+            return true;
+        }
+
+        static boolean[] range(char lo, char hi, boolean[] set) {
+            boolean[] s = set != null ? set : new boolean[256];
+            for (int b = lo; b <= hi; b++) {
+                s[b] = true;
+            }
+            return s;
+        }
+
+        // the character of an escape sequence that denotes a single character, or -1
+        int escapedChar() {
+            char c = p.charAt(i++);
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return '\u0007';
+                case 'e':
+                    return '\u001B';
+                case 'x':
+                    if (i + 2 <= p.length()) {
+                        try {
+                            int v = java.lang.Integer.parseInt(p.substring(i, i + 2), 16);
+                            if (v < 128 && java.lang.Character.digit(p.charAt(i), 16) != -1) {
+                                i += 2;
+                                return v;
+                            }
+                        } catch (NumberFormatException e) {
+                        }
+                    }
+                    return -1;
+                default:
+                    if (java.lang.Character.isLetterOrDigit(c)) {
+                        return -1; // back-references, anchors, \p, \Q, ...
+                    }
+                    return c;
+            }
+        }
+
+        void addChar(boolean[] set, char c) {
+            set[c] = true;
+            if (ignoreCase) {
+                if (c >= 'a' && c <= 'z') {
+                    set[c - 'a' + 'A'] = true;
+                } else if (c >= 'A' && c <= 'Z') {
+                    set[c - 'A' + 'a'] = true;
+                }
+            }
+        }
+
+        static Node setNode(boolean[] set) {
+            Node n = new Node(Node.SET);
+            n.set = set;
+            return n;
+        }
+    }
+
+    static final class Compiler {
+        int[] op = new int[16];
+        int[] x = new int[16];
+        int[] y = new int[16];
+        boolean[][] sets = new boolean[16][];
+        int size;
+
+        boolean add(int o, int xv, int yv, boolean[] set) {
+            if (size == MAX_PROGRAM) {
+                return false;
+            }
+            if (size == op.length) {
+                int n = size * 2;
+                op = Arrays.copyOf(op, n);
+                x = Arrays.copyOf(x, n);
+                y = Arrays.copyOf(y, n);
+                sets = Arrays.copyOf(sets, n);
+            }
+            op[size] = o;
+            x[size] = xv;
+            y[size] = yv;
+            sets[size] = set;
+            size++;
+            return true;
+        }
+
+        boolean emit(Node n) {
+            switch (n.kind) {
+                case Node.SET:
+                    return add(SET, 0, 0, n.set);
+                case Node.CAT:
+                    for (Node c : n.children) {
+                        if (!emit(c)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                case Node.ALT: {
+                    int[] jumps = new int[n.children.length - 1];
+                    for (int k = 0; k < n.children.length - 1; k++) {
+                        int split = size;
+                        if (!add(SPLIT, split + 1, 0, null) || !emit(n.children[k])) {
+                            return false;
+                        }
+                        jumps[k] = size;
+                        if (!add(JMP, 0, 0, null)) {
+                            return false;
+                        }
+                        y[split] = size;
+                    }
+                    if (!emit(n.children[n.children.length - 1])) {
+                        return false;
+                    }
+                    for (int j : jumps) {
+                        x[j] = size;
+                    }
+                    return true;
+                }
+                default: {
+                    Node body = n.children[0];
+                    for (int k = 0; k < n.min; k++) {
+                        if (!emit(body)) {
+                            return false;
+                        }
+                    }
+                    if (n.max == -1) {
+                        int loop = size;
+                        if (!add(SPLIT, loop + 1, 0, null) || !emit(body) || !add(JMP, loop, 0, null)) {
+                            return false;
+                        }
+                        y[loop] = size;
+                        return true;
+                    }
+                    int optional = n.max - n.min;
+                    int[] splits = new int[optional];
+                    for (int k = 0; k < optional; k++) {
+                        splits[k] = size;
+                        if (!add(SPLIT, size + 1, 0, null) || !emit(body)) {
+                            return false;
+                        }
+                    }
+                    for (int s : splits) {
+                        y[s] = size;
+                    }
+                    return true;
+                }
+            }
+        }
+    }
+}
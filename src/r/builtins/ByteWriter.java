@@ -0,0 +1,165 @@
+package r.builtins;
+
+import java.io.*;
+import java.nio.charset.*;
+
+import r.*;
+import r.data.*;
+import r.data.internal.*;
+
+// formats values into a reusable byte buffer, which is written to the output stream when full
+//   integers, and doubles that have a short decimal representation in the range printed without an exponent, are converted
+//   to ASCII digits directly, without creating strings; other doubles are formatted as by cat
+//   strings are encoded by the default charset, ASCII strings and the ASCII elements of byte-backed vectors are copied
+final class ByteWriter {
+
+    static final int BUFFER_SIZE = 1 << 16;
+    static final long MAX_EXACT_LONG = 1L << 53;
+    static final double[] POWERS_OF_TEN = new double[18];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    final OutputStream out;
+    final byte[] buf = new byte[BUFFER_SIZE];
+    int pos;
+    final byte[] digits = new byte[20];
+
+    ByteWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    private void ensure(int n) throws IOException {
+        if (pos + n > buf.length) {
+            out.write(buf, 0, pos);
+            pos = 0;
+        }
+    }
+
+    void write(byte[] b) throws IOException {
+        write(b, 0, b.length);
+    }
+
+    void write(byte[] b, int start, int end) throws IOException {
+        int len = end - start;
+        if (len > buf.length) {
+            out.write(buf, 0, pos);
+            pos = 0;
+            out.write(b, start, len);
+            return;
+        }
+        ensure(len);
+        System.arraycopy(b, start, buf, pos, len);
+        pos += len;
+    }
+
+    void write(byte b) throws IOException {
+        ensure(1);
+        buf[pos++] = b;
+    }
+
+    void write(String s) throws IOException {
+        int len = s.length();
+        if (len <= buf.length) {
+            ensure(len);
+            int p = pos;
+            int i = 0;
+            while (i < len) {
+                char c = s.charAt(i);
+                if (c >= 0x80) {
+                    break;
+                }
+                buf[p + i] = (byte) c;
+                i++;
+            }
+            if (i == len) {
+                pos += len;
+                return;
+            }
+        }
+        write(s.getBytes(Charset.defaultCharset()));
+    }
+
+    // element i of a byte-backed vector (which is not NA)
+    void write(ByteStringImpl s, int i) throws IOException {
+        byte[] b = s.bytes();
+        int start = s.start(i);
+        int end = s.end(i);
+        for (int j = start; j < end; j++) {
+            if (b[j] < 0) { // not ASCII, the bytes are Latin-1
+                write(s.getString(i));
+                return;
+            }
+        }
+        write(b, start, end);
+    }
+
+    void write(int v) throws IOException {
+        ensure(11);
+        if (v < 0) {
+            buf[pos++] = '-';
+            v = -v; // NA (Integer.MIN_VALUE) is not written by this method
+        }
+        writeDigits(v, 0);
+    }
+
+    // the digits of v, with a decimal point before the last scale digits
+    private void writeDigits(long v, int scale) {
+        int n = 0;
+        do {
+            digits[n++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v != 0 || n <= scale);
+        for (int i = n - 1; i >= 0; i--) {
+            buf[pos++] = digits[i];
+            if (i == scale && scale > 0) {
+                buf[pos++] = '.';
+            }
+        }
+    }
+
+    void write(double d) throws IOException {
+        if (RDouble.RDoubleUtils.fitsRInt(d) && Math.ceil(d) == d) {
+            write((int) d);
+            return;
+        }
+        if (java.lang.Double.isNaN(d)) {
+            write("NaN"); // NA is not written by this method
+            return;
+        }
+        if (java.lang.Double.isInfinite(d)) {
+            write(d > 0 ? "Inf" : "-Inf");
+            return;
+        }
+        double abs = Math.abs(d);
+        if (abs >= 1e-3 && abs < 1e7) { // printed without an exponent
+            // the fewest decimal places that represent the value exactly when parsed back
+            for (int scale = 1; scale < POWERS_OF_TEN.length; scale++) {
+                double scaled = abs * POWERS_OF_TEN[scale];
+                if (scaled >= MAX_EXACT_LONG) {
+                    break;
+                }
+                long m = Math.round(scaled);
+                if (m / POWERS_OF_TEN[scale] == abs) {
+                    ensure(digits.length + 2);
+                    if (d < 0) {
+                        buf[pos++] = '-';
+                    }
+                    writeDigits(m, scale);
+                    return;
+                }
+            }
+        }
+        write(Convert.double2string(d));
+    }
+
+    void flush() throws IOException {
+        out.write(buf, 0, pos);
+        pos = 0;
+        out.flush();
+    }
+}
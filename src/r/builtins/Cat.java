@@ -89,6 +89,9 @@ final class Cat extends CallFactory {
             }
             lastWasNull = false;
             if (v instanceof RList) { throw RError.getGenericError(ast, String.format(RError.CAT_ARGUMENT_LIST, i + 1)); }
+            if (v instanceof RBigInt) {
+                v = v.asString();
+            }
             if (v instanceof RArray) {
                 RArray va = (RArray) v;
                 int vsize = va.size();
@@ -198,8 +201,9 @@ final class Cat extends CallFactory {
             }
         }; }
         ArgumentInfo ia = check(call, names, exprs);
+        if (ia.provided("file")) { return createToFile(call, names, exprs, ia); }
         final int sepPosition = ia.provided("sep") ? ia.position("sep") : -1;
-        final PrintWriter stdOut = new PrintWriter(System.out, true); // stdout buffering, important for fasta
+        final PrintWriter stdOut = new PrintWriter(RContext.stdout(), true); // stdout buffering, important for fasta
         return new Builtin(call, names, exprs) {
             @Override public RAny doBuiltIn(Frame frame, RAny[] params) {
                 // assume we are only printing strings and separator is an empty (single-element) string
@@ -222,4 +226,38 @@ final class Cat extends CallFactory {
             }
         };
     }
+
+    // cat(..., file=), to a connection, or to a file (a pipe for "|cmd") opened for the call
+    RNode createToFile(ASTNode call, RSymbol[] names, RNode[] exprs, ArgumentInfo ia) {
+        final int posFile = ia.position("file");
+        final int posAppend = ia.position("append");
+        final int[] objects = new int[exprs.length - (posAppend != -1 ? 2 : 1)];
+        int sep = -1;
+        for (int i = 0, j = 0; i < exprs.length; i++) {
+            if (i == posFile || i == posAppend) {
+                continue;
+            }
+            if (ia.provided("sep") && i == ia.position("sep")) {
+                sep = j;
+            }
+            objects[j++] = i;
+        }
+        final int sepPosition = sep;
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                boolean append = posAppend != -1 && ReadLines.parseLogicalScalar(args[posAppend], ast, "append");
+                RAny[] objectArgs = new RAny[objects.length];
+                for (int i = 0; i < objects.length; i++) {
+                    objectArgs[i] = args[objects[i]];
+                }
+                File.Output output = File.Output.get(args[posFile], append, ast);
+                try {
+                    genericCat(new PrintWriter(new OutputStreamWriter(output.stream(ast))), objectArgs, sepPosition, ast);
+                } finally {
+                    output.close(ast);
+                }
+                return RNull.getNull();
+            }
+        };
+    }
 }
@@ -14,9 +14,10 @@ final class Ceiling extends MathBase {
       return Math.ceil(value);
   }
 
-  @Override void op(ASTNode ast, double[] x, double[] res) {
-      for (int i = 0; i < x.length; i++) {
+  @Override boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+      for (int i = from; i < to; i++) {
           res[i] = Math.ceil(x[i]);
       }
+      return false;
   }
 }
@@ -15,8 +15,32 @@ abstract class CharBase extends CallFactory {
 
     abstract String op(ASTNode ast, String input);
 
+    // the conversion of an ASCII character, which always results in an ASCII character
+    abstract byte opASCII(byte input);
+
+    // returns null if there is a non-ASCII character, for which the conversion may not be one-to-one
+    public RString convertASCII(ByteStringImpl value) {
+        byte[] bytes = value.bytes();
+        int len = bytes.length;
+        byte[] res = new byte[len];
+        for (int i = 0; i < len; i++) {
+            byte b = bytes[i];
+            if (b < 0) {
+                return null;
+            }
+            res[i] = opASCII(b);
+        }
+        return value.withBytes(res);
+    }
+
     public RString convert(final ASTNode ast, final RString value) {
         final int size = value.size();
+        if (value instanceof ByteStringImpl) {
+            RString res = convertASCII((ByteStringImpl) value);
+            if (res != null) {
+                return res;
+            }
+        }
         if (value instanceof ScalarStringImpl) {
             return RString.RStringFactory.getScalar(op(ast, value.getString(0)), value.dimensions());
         } else {
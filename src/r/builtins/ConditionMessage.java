@@ -0,0 +1,35 @@
+package r.builtins;
+
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "conditionMessage" returns the message of a condition.
+ *
+ * <pre>
+ * c -- a condition object.
+ * </pre>
+ */
+final class ConditionMessage extends CallFactory {
+
+    static final CallFactory _ = new ConditionMessage("conditionMessage", new String[]{"c"}, null);
+
+    private ConditionMessage(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        check(call, names, exprs);
+        return new Builtin.Builtin1(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny c) {
+                if (!RCondition.isCondition(c)) {
+                    throw RError.getInvalidArgument(ast, "c");
+                }
+                return RString.RStringFactory.getScalar(RCondition.message((RList) c));
+            }
+        };
+    }
+}
@@ -53,8 +53,8 @@ final class Crossprod extends CallFactory {
 
         // LICENSE: transcribed code from GNU R, which is licensed under GPL
         MatrixOperation.checkNumeric(l, r, ast); // TODO: support also complex matrices
-        RDouble ld = l.asDouble().materialize();
-        RDouble rd = r.asDouble().materialize();
+        RDouble ld = MatrixOperation.materializeUnlessTransposed(l.asDouble());
+        RDouble rd = MatrixOperation.materializeUnlessTransposed(r.asDouble());
         int[] ldims = ld.dimensions();
         int nldims = ldims == null ? 0 : ldims.length;
         int[] rdims = rd.dimensions();
@@ -97,7 +97,7 @@ final class Crossprod extends CallFactory {
     public static RAny crossprod(RAny x, ASTNode ast) {
 
         MatrixOperation.checkNumeric(x, ast); // TODO: support also complex matrices
-        RDouble xd = x.asDouble().materialize();
+        RDouble xd = MatrixOperation.materializeUnlessTransposed(x.asDouble());
         int[] dims = xd.dimensions();
         int ndims = dims == null ? 0 : dims.length;
 
@@ -112,9 +112,13 @@ final class Crossprod extends CallFactory {
 
     public static double[] matrixTimesMatrixNative(RDouble a, RDouble b, int m, int n, int p) {
         // a is n x m, b is n x p, result is m x p
+        //   when a is a transposed view, t(a) is its original matrix (m x n)
         double[] res = new double[m * p];
         if (m > 0 && n > 0 && p > 0) {
-            BLAS.getInstance().dgemm("T", "N", m, p, n, 1.0, a.getContent(), n, b.getContent(), n, 0.0, res, m);
+            boolean ta = MatrixOperation.isTransposed(a);
+            boolean tb = MatrixOperation.isTransposed(b);
+            BLAS.getInstance().dgemm(ta ? "N" : "T", MatrixOperation.blasTrans(b), m, p, n, 1.0, MatrixOperation.blasOperand(a).getContent(), ta ? m : n,
+                            MatrixOperation.blasOperand(b).getContent(), tb ? p : n, 0.0, res, m);
         } else {
             // leave zeros
         }
@@ -126,9 +130,11 @@ final class Crossprod extends CallFactory {
         // LICENSE: transcribed code from GNU R, which is licensed under GPL
 
         // x is row x col, result is col x col
+        //   when x is a transposed view, the result is y %*% t(y) for its original matrix y (col x row)
         double[] res = new double[col * col];
         if (row > 0 && col > 0) {
-            BLAS.getInstance().dsyrk("U", "T", col, row, 1.0, x.getContent(), row, 0.0, res, col);
+            boolean tx = MatrixOperation.isTransposed(x);
+            BLAS.getInstance().dsyrk("U", tx ? "N" : "T", col, row, 1.0, MatrixOperation.blasOperand(x).getContent(), tx ? col : row, 0.0, res, col);
             for (int i = 0; i < col; i++) {
                 for (int j = 0; j < i; j++) {
                     res[col * j + i] = res[col * i + j];
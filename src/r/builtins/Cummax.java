@@ -0,0 +1,16 @@
+package r.builtins;
+
+/**
+ * "cummax"
+ *
+ * <pre>
+ * x -- a numeric object, or an object that can be coerced to one.
+ * </pre>
+ */
+final class Cummax extends Cumsum {
+    @SuppressWarnings("hiding") static final CallFactory _ = new Cummax("cummax");
+
+    private Cummax(String name) {
+        super(name, Cumsum.MAX);
+    }
+}
@@ -0,0 +1,16 @@
+package r.builtins;
+
+/**
+ * "cummin"
+ *
+ * <pre>
+ * x -- a numeric object, or an object that can be coerced to one.
+ * </pre>
+ */
+final class Cummin extends Cumsum {
+    @SuppressWarnings("hiding") static final CallFactory _ = new Cummin("cummin");
+
+    private Cummin(String name) {
+        super(name, Cumsum.MIN);
+    }
+}
@@ -0,0 +1,16 @@
+package r.builtins;
+
+/**
+ * "cumprod"
+ *
+ * <pre>
+ * x -- a numeric or complex object, or an object that can be coerced to one of these.
+ * </pre>
+ */
+final class Cumprod extends Cumsum {
+    @SuppressWarnings("hiding") static final CallFactory _ = new Cumprod("cumprod");
+
+    private Cumprod(String name) {
+        super(name, Cumsum.PROD);
+    }
+}
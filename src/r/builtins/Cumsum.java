@@ -1,11 +1,11 @@
 package r.builtins;
 
 import java.util.*;
+import java.util.concurrent.*;
 
 import r.*;
 import r.data.*;
 import r.data.RComplex.RComplexUtils;
-import r.data.RDouble.RDoubleUtils;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -18,53 +18,377 @@ import r.runtime.*;
  * x -- a numeric or complex (not cummin or cummax) object, or an object that can be coerced to one of these.
  * </pre>
  */
-// FIXME: could be made much faster with direct access to the arrays (after materialization that is done anyway)
-final class Cumsum extends CallFactory {
+// the kernels scan the contents of the materialized vector, the result is NA from the first NA (or NaN) on, and for integers
+// from the first overflow on (with a warning)
+//
+// a large int or double vector is scanned in blocks on the pool of threads (see Parallel), in two passes: the first pass
+// reduces each block up to its first NA, the second scans each block again, starting from the combined reductions of the
+// blocks before it
+//   the integer results are identical to those of the sequential scan: the sums of the first pass are exact (in a long), so
+//   the second pass finds the first overflow at the same element; max and min are exact for doubles, too
+//   a double sum or product is only reassociated at the block boundaries: element i is the sum (product) of the same terms
+//   as in the sequential scan, grouped by blocks; both groupings have a rounding error of at most about i * eps times the
+//   sum of the absolute values of the terms (for a product, times the absolute value of the product), so the results
+//   differ by at most twice that
+class Cumsum extends CallFactory {
 
-    static final CallFactory _ = new Cumsum("cumsum", new String[]{"x"}, null);
+    static final CallFactory _ = new Cumsum("cumsum", Cumsum.SUM);
 
-    private Cumsum(String name, String[] params, String[] required) {
-        super(name, params, required);
+    static final int SUM = 0;
+    static final int PROD = 1;
+    static final int MAX = 2;
+    static final int MIN = 3;
+
+    static final int PARALLEL_MIN_SIZE = 1 << 18;
+    static final int MIN_BLOCK_SIZE = 1 << 16;
+
+    final int op;
+
+    Cumsum(String name, int op) {
+        super(name, new String[]{"x"}, null);
+        this.op = op;
     }
 
-    public static RComplex cumsum(RComplex x) {
-        RComplex input = x.materialize();
-        int size = x.size();
-        double[] content = new double[2 * size];
+    static long identity(int op) {
+        switch (op) {
+            case MAX: return Long.MIN_VALUE;
+            case MIN: return Long.MAX_VALUE;
+            default: return 0;
+        }
+    }
 
-        if (size > 0) {
-            double raccum = 0;
-            double iaccum = 0;
-            for (int i = 0; i < size; i++) {
-                double real = input.getReal(i);
-                double imag = input.getImag(i);
-                if (RComplexUtils.eitherIsNA(real, imag)) { return finishComplexWithNAs(content, i); }
-                raccum += real;
-                iaccum += imag;
-                content[2 * i] = raccum;
-                content[2 * i + 1] = iaccum;
+    static double identityDouble(int op) {
+        switch (op) {
+            case PROD: return 1;
+            case MAX: return java.lang.Double.NEGATIVE_INFINITY;
+            case MIN: return java.lang.Double.POSITIVE_INFINITY;
+            default: return 0;
+        }
+    }
+
+    static long combine(int op, long a, long b) {
+        switch (op) {
+            case MAX: return b > a ? b : a;
+            case MIN: return b < a ? b : a;
+            default: return a + b;
+        }
+    }
+
+    static double combine(int op, double a, double b) {
+        switch (op) {
+            case PROD: return a * b;
+            case MAX: return b > a ? b : a;
+            case MIN: return b < a ? b : a;
+            default: return a + b;
+        }
+    }
+
+    static int blocks(int size) {
+        if (size < PARALLEL_MIN_SIZE || Parallel.NTHREADS == 1) {
+            return 1;
+        }
+        return Math.max(1, Math.min(4 * Parallel.NTHREADS, size / MIN_BLOCK_SIZE));
+    }
+
+    // a block [from, to) of an int vector, the accumulator is a long so that sums are exact
+    static final class IntBlock implements Callable<IntBlock> {
+        final int op;
+        final int[] x;
+        final int[] res;
+        final int from;
+        final int to;
+        boolean reducing = true;
+        long reduction; // of the elements before stop, in the first pass
+        long start; // the accumulator at the start of the block, in the second pass
+        int stop; // the first NA, or after the second pass the first NA or overflow, or to
+        boolean overflow;
+
+        IntBlock(int op, int[] x, int[] res, int from, int to) {
+            this.op = op;
+            this.x = x;
+            this.res = res;
+            this.from = from;
+            this.to = to;
+            this.stop = to;
+        }
+
+        @Override public IntBlock call() {
+            if (reducing) {
+                reduce();
+            } else {
+                scan();
+            }
+            return this;
+        }
+
+        void reduce() {
+            long acc = identity(op);
+            for (int i = from; i < to; i++) {
+                int v = x[i];
+                if (v == RInt.NA) {
+                    stop = i;
+                    break;
+                }
+                acc = combine(op, acc, v);
+            }
+            reduction = acc;
+        }
+
+        void scan() {
+            long acc = start;
+            int end = stop;
+            switch (op) {
+                case SUM:
+                    for (int i = from; i < end; i++) {
+                        int v = x[i];
+                        if (v == RInt.NA) {
+                            stop = i;
+                            return;
+                        }
+                        acc += v;
+                        if (acc > java.lang.Integer.MAX_VALUE || acc <= java.lang.Integer.MIN_VALUE) {
+                            stop = i;
+                            overflow = true;
+                            return;
+                        }
+                        res[i] = (int) acc;
+                    }
+                    break;
+                case MAX:
+                    for (int i = from; i < end; i++) {
+                        int v = x[i];
+                        if (v == RInt.NA) {
+                            stop = i;
+                            return;
+                        }
+                        if (v > acc) {
+                            acc = v;
+                        }
+                        res[i] = (int) acc;
+                    }
+                    break;
+                case MIN:
+                    for (int i = from; i < end; i++) {
+                        int v = x[i];
+                        if (v == RInt.NA) {
+                            stop = i;
+                            return;
+                        }
+                        if (v < acc) {
+                            acc = v;
+                        }
+                        res[i] = (int) acc;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException();
             }
         }
-        return RComplex.RComplexFactory.getFor(content); // drop dimensions
     }
 
-    public static RDouble cumsum(RDouble x) {
-        RDouble input = x.materialize();
+    // a block [from, to) of a double vector
+    static final class DoubleBlock implements Callable<DoubleBlock> {
+        final int op;
+        final double[] x;
+        final double[] res;
+        final int from;
+        final int to;
+        boolean reducing = true;
+        double reduction;
+        double start;
+        int stop; // the first NA or NaN, or to
+
+        DoubleBlock(int op, double[] x, double[] res, int from, int to) {
+            this.op = op;
+            this.x = x;
+            this.res = res;
+            this.from = from;
+            this.to = to;
+            this.stop = to;
+        }
+
+        @Override public DoubleBlock call() {
+            if (reducing) {
+                reduce();
+            } else {
+                scan();
+            }
+            return this;
+        }
+
+        void reduce() {
+            double acc = identityDouble(op);
+            for (int i = from; i < to; i++) {
+                double v = x[i];
+                if (v != v) {
+                    stop = i;
+                    break;
+                }
+                acc = combine(op, acc, v);
+            }
+            reduction = acc;
+        }
+
+        void scan() {
+            double acc = start;
+            int end = stop;
+            switch (op) {
+                case SUM:
+                    for (int i = from; i < end; i++) {
+                        double v = x[i];
+                        if (v != v) {
+                            stop = i;
+                            return;
+                        }
+                        acc += v;
+                        res[i] = acc;
+                    }
+                    break;
+                case PROD:
+                    for (int i = from; i < end; i++) {
+                        double v = x[i];
+                        if (v != v) {
+                            stop = i;
+                            return;
+                        }
+                        acc *= v;
+                        res[i] = acc;
+                    }
+                    break;
+                case MAX:
+                    for (int i = from; i < end; i++) {
+                        double v = x[i];
+                        if (v != v) {
+                            stop = i;
+                            return;
+                        }
+                        if (v > acc) {
+                            acc = v;
+                        }
+                        res[i] = acc;
+                    }
+                    break;
+                case MIN:
+                    for (int i = from; i < end; i++) {
+                        double v = x[i];
+                        if (v != v) {
+                            stop = i;
+                            return;
+                        }
+                        if (v < acc) {
+                            acc = v;
+                        }
+                        res[i] = acc;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException();
+            }
+        }
+    }
+
+    public static RInt scan(int op, RInt x, ASTNode ast) {
         int size = x.size();
-        double[] content = new double[size];
+        int[] input = x.materialize().getContent();
+        int[] content = new int[size];
+        int nblocks = blocks(size);
+        ArrayList<IntBlock> blocks = new ArrayList<>(nblocks);
+        for (int b = 0; b < nblocks; b++) {
+            blocks.add(new IntBlock(op, input, content, (int) ((long) size * b / nblocks), (int) ((long) size * (b + 1) / nblocks)));
+        }
+        long acc = identity(op);
+        if (nblocks > 1) {
+            Parallel.run(blocks);
+            ArrayList<IntBlock> scans = new ArrayList<>(nblocks);
+            for (IntBlock b : blocks) {
+                b.reducing = false;
+                b.start = acc;
+                scans.add(b);
+                if (b.stop != b.to) {
+                    break; // the rest is NA
+                }
+                acc = combine(op, acc, b.reduction);
+            }
+            Parallel.run(scans);
+        } else {
+            IntBlock b = blocks.get(0);
+            b.reducing = false;
+            b.start = acc;
+            b.call();
+        }
+        for (IntBlock b : blocks) {
+            if (b.stop != b.to) {
+                if (b.overflow) {
+                    RContext.warning(ast, RError.INTEGER_OVERFLOW);
+                }
+                return finishWithNAs(content, b.stop);
+            }
+        }
+        return RInt.RIntFactory.getFor(content); // drop dimensions
+    }
 
-        if (size > 0) {
-            double accum = 0;
-            for (int i = 0; i < size; i++) {
-                double value = input.getDouble(i);
-                if (RDoubleUtils.isNAorNaN(value)) { return finishDoubleWithNAs(content, i); }
-                accum += value;
-                content[i] = accum;
+    public static RDouble scan(int op, RDouble x) {
+        int size = x.size();
+        double[] input = x.materialize().getContent();
+        double[] content = new double[size];
+        int nblocks = blocks(size);
+        ArrayList<DoubleBlock> blocks = new ArrayList<>(nblocks);
+        for (int b = 0; b < nblocks; b++) {
+            blocks.add(new DoubleBlock(op, input, content, (int) ((long) size * b / nblocks), (int) ((long) size * (b + 1) / nblocks)));
+        }
+        double acc = identityDouble(op);
+        if (nblocks > 1) {
+            Parallel.run(blocks);
+            ArrayList<DoubleBlock> scans = new ArrayList<>(nblocks);
+            for (DoubleBlock b : blocks) {
+                b.reducing = false;
+                b.start = acc;
+                scans.add(b);
+                if (b.stop != b.to) {
+                    break; // the rest is NA
+                }
+                acc = combine(op, acc, b.reduction);
+            }
+            Parallel.run(scans);
+        } else {
+            DoubleBlock b = blocks.get(0);
+            b.reducing = false;
+            b.start = acc;
+            b.call();
+        }
+        for (DoubleBlock b : blocks) {
+            if (b.stop != b.to) {
+                return finishDoubleWithNAs(content, b.stop);
             }
         }
         return RDouble.RDoubleFactory.getFor(content); // drop dimensions
     }
 
+    public static RComplex scan(int op, RComplex x) {
+        RComplex input = x.materialize();
+        int size = x.size();
+        double[] content = new double[2 * size];
+
+        double raccum = op == PROD ? 1 : 0;
+        double iaccum = 0;
+        for (int i = 0; i < size; i++) {
+            double real = input.getReal(i);
+            double imag = input.getImag(i);
+            if (RComplexUtils.eitherIsNA(real, imag)) { return finishComplexWithNAs(content, i); }
+            if (op == PROD) {
+                double r = raccum * real - iaccum * imag;
+                iaccum = raccum * imag + iaccum * real;
+                raccum = r;
+            } else {
+                raccum += real;
+                iaccum += imag;
+            }
+            content[2 * i] = raccum;
+            content[2 * i + 1] = iaccum;
+        }
+        return RComplex.RComplexFactory.getFor(content); // drop dimensions
+    }
+
     private static RComplex finishComplexWithNAs(double[] content, int fromIndex) {
         Arrays.fill(content, 2 * fromIndex, content.length, RDouble.NA);
         return RComplex.RComplexFactory.getFor(content);
@@ -75,31 +399,8 @@ final class Cumsum extends CallFactory {
         return RDouble.RDoubleFactory.getFor(content);
     }
 
-    public static RInt cumsum(RInt x, ASTNode ast) {
-        RInt input = x.materialize();
-        int size = x.size();
-        int[] content = new int[size];
-
-        if (size > 0) {
-            int accum = 0;
-            for (int i = 0; i < size; i++) {
-                int value = input.getInt(i);
-                if (value == RInt.NA) { return finishWithNAs(content, i); }
-                accum = Arithmetic.ADD.op(ast, accum, value);
-                if (accum == RInt.NA) {
-                    RContext.warning(ast, RError.INTEGER_OVERFLOW);
-                    return finishWithNAs(content, i);
-                }
-                content[i] = accum;
-            }
-        }
-        return RInt.RIntFactory.getFor(content); // drop dimensions
-    }
-
     private static RInt finishWithNAs(int[] content, int fromIndex) {
-        for (int i = fromIndex; i < content.length; i++) {
-            content[i] = RInt.NA;
-        }
+        Arrays.fill(content, fromIndex, content.length, RInt.NA);
         return RInt.RIntFactory.getFor(content);
     }
 
@@ -110,24 +411,25 @@ final class Cumsum extends CallFactory {
             @Override public RAny doBuiltIn(Frame frame, RAny x) {
                 if (x instanceof RDouble) {
                     RDouble dx = (RDouble) x;
-                    return cumsum(dx).setNames(dx.names());
-                } else if (x instanceof RInt) {
-                    RInt ix = (RInt) x;
-                    return cumsum(ix, ast).setNames(ix.names());
-                } else if (x instanceof RLogical) {
-                    RLogical lx = (RLogical) x;
-                    return cumsum(lx.asInt(), ast).setNames(lx.names());
+                    return scan(op, dx).setNames(dx.names());
+                } else if (x instanceof RInt || x instanceof RLogical) {
+                    RArray ax = (RArray) x;
+                    if (op == PROD) { // the product of integers is double
+                        return scan(op, ax.asDouble()).setNames(ax.names());
+                    }
+                    return scan(op, ax.asInt(), ast).setNames(ax.names());
                 } else if (x instanceof RComplex) {
                     RComplex cx = (RComplex) x;
-                    return cumsum(cx).setNames(cx.names());
+                    if (op == MAX || op == MIN) { throw RError.getGenericError(ast, String.format(RError.NOT_DEFINED_FOR_COMPLEX, name)); }
+                    return scan(op, cx).setNames(cx.names());
                 } else if (x instanceof RRaw) {
                     RRaw rx = (RRaw) x;
-                    return cumsum(rx.asDouble()).setNames(rx.names());
+                    return scan(op, rx.asDouble()).setNames(rx.names());
                 } else if (x instanceof RNull) {
                     return RDouble.EMPTY;
                 } else if (x instanceof RString) {
                     RString sx = (RString) x;
-                    RDouble res = cumsum(Convert.coerceToDoubleWarning(sx, ast));
+                    RDouble res = scan(op, Convert.coerceToDoubleWarning(sx, ast));
                     return res.setNames(sx.names());
                 }
                 throw Utils.nyi("unsupported type");
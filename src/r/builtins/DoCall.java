@@ -0,0 +1,88 @@
+package r.builtins;
+
+import r.builtins.LApply.CachedCall;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+// FIXME: only a subset of R functionality, "quote" is ignored (the arguments are values already)
+/**
+ * "do.call" constructs and executes a function call from a name or a function and a list of arguments to be passed to
+ * it.
+ *
+ * <pre>
+ * what -- either a function or a non-empty character string naming the function to be called
+ * args -- a list of arguments to the function call. The names attribute of args gives the argument names
+ * quote -- a logical value indicating whether to quote the arguments
+ * envir -- an environment within which to evaluate the call
+ * </pre>
+ */
+final class DoCall extends CallFactory {
+
+    static final CallFactory _ = new DoCall("do.call", new String[]{"what", "args", "quote", "envir"}, new String[]{"what"});
+
+    private DoCall(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posWhat = ia.position("what");
+        final int posArgs = ia.position("args");
+        final int posEnvir = ia.position("envir");
+        final CachedCall callNode = new CachedCall(call, exprs[posWhat]);
+
+        return new Builtin(call, names, exprs) {
+
+            // the call node is kept while the calls from this site pass the same argument names
+            @Child CachedCall doCall = adoptChild(callNode);
+
+            @Override
+            protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+                assert oldNode != null;
+                if (doCall == oldNode) {
+                    doCall = (CachedCall) newNode;
+                    return adoptInternal(newNode);
+                }
+                return super.replaceChild(oldNode, newNode);
+            }
+
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                Frame targetFrame = frame;
+                if (posEnvir != -1) {
+                    RAny envir = args[posEnvir];
+                    if (!(envir instanceof REnvironment)) { throw RError.getInvalidArgument(ast, "envir"); }
+                    targetFrame = ((REnvironment) envir).frame();
+                }
+                RCallable fun = doCall.matchCallable(targetFrame, args[posWhat]);
+
+                RSymbol[] callNames = null;
+                RAny[] callValues;
+                RAny argsArg = posArgs == -1 ? RNull.getNull() : args[posArgs];
+                if (argsArg instanceof RList) {
+                    RList l = (RList) argsArg;
+                    int size = l.size();
+                    callValues = new RAny[size];
+                    for (int i = 0; i < size; i++) {
+                        callValues[i] = l.getRAny(i);
+                    }
+                    RArray.Names lnames = l.names();
+                    if (lnames != null) {
+                        RSymbol[] symbols = lnames.sequence();
+                        callNames = new RSymbol[size];
+                        for (int i = 0; i < size; i++) {
+                            callNames[i] = symbols[i] == RSymbol.EMPTY_SYMBOL ? null : symbols[i];
+                        }
+                    }
+                } else if (argsArg instanceof RNull) {
+                    callValues = new RAny[0];
+                } else {
+                    throw RError.getSecondArgumentList(ast);
+                }
+                return (RAny) doCall.call(targetFrame, fun, callNames, callValues);
+            }
+        };
+    }
+}
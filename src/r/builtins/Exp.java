@@ -33,12 +33,18 @@ final class Exp extends MathBase {
       if (RContext.hasSystemLibs()) {
           SystemLibs.exp(x, res, x.length);
       } else {
-          for (int i = 0; i < x.length; i++) {
-              res[i] = Math.exp(x[i]);
-          }
+          super.op(ast, x, res);
       }
   }
 
+  @Override
+  boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+      for (int i = from; i < to; i++) {
+          res[i] = Math.exp(x[i]);
+      }
+      return false;
+  }
+
 }
 
 //                } else if (arg instanceof RComplex) {
@@ -0,0 +1,82 @@
+package r.builtins;
+
+import r.*;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+// FIXME: only a subset of R functionality, no "exclude"
+/**
+ * "factor" is used to encode a vector as a factor (the terms 'category' and 'enumerated type' are also used for
+ * factors).
+ *
+ * <pre>
+ * x -- a vector of data, usually taking a small number of distinct values.
+ * levels -- an optional vector of the values that x might have taken. The default is the unique set of values taken by
+ *    as.character(x), sorted into increasing order of x.
+ * labels -- either an optional character vector of labels for the levels (in the same order as levels after removing
+ *    those in exclude), or a character string of length 1.
+ * ordered -- logical flag to determine if the levels should be regarded as ordered (in the order given).
+ * </pre>
+ */
+final class Factor extends CallFactory {
+
+    static final CallFactory _ = new Factor("factor", new String[]{"x", "levels", "labels", "ordered"}, new String[]{});
+
+    private Factor(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posX = ia.position("x");
+        final int posLevels = ia.position("levels");
+        final int posLabels = ia.position("labels");
+        final int posOrdered = ia.position("ordered");
+
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RAny xarg = posX == -1 ? RString.EMPTY : args[posX];
+                if (!(xarg instanceof RArray) || xarg instanceof RList) { throw Utils.nyi("unsupported type"); }
+                RArray x = (RArray) xarg;
+                boolean ordered = posOrdered != -1 ? parseUncheckedLogical(args[posOrdered], ast) : RInt.RFactorUtils.isOrdered(x);
+                if (RInt.RFactorUtils.isFactor(x)) {
+                    x = RInt.RFactorUtils.labels((RInt) x);
+                }
+                RString levels;
+                if (posLevels == -1) {
+                    levels = RInt.RFactorUtils.sortedLevels(x);
+                } else {
+                    RAny l = args[posLevels];
+                    if (!(l instanceof RArray) || l instanceof RList) { throw RError.getInvalidArgument(ast, "levels"); }
+                    levels = (RString) ((RArray) l).asString().stripAttributes();
+                }
+                int[] codes = RInt.RFactorUtils.encode(x.asString(), levels);
+                if (posLabels != -1) {
+                    levels = makeLabels(args[posLabels], levels.size(), ast);
+                }
+                return RInt.RFactorUtils.create(codes, levels, x.names(), ordered);
+            }
+        };
+    }
+
+    static RString makeLabels(RAny arg, int nlevels, ASTNode ast) {
+        if (!(arg instanceof RArray) || arg instanceof RList) { throw RError.getInvalidArgument(ast, "labels"); }
+        RString labels = ((RArray) arg).asString();
+        int size = labels.size();
+        if (size == nlevels) {
+            return (RString) labels.stripAttributes();
+        }
+        if (size == 1) {
+            String prefix = labels.getString(0);
+            String[] content = new String[nlevels];
+            for (int i = 0; i < nlevels; i++) {
+                content[i] = prefix + (i + 1);
+            }
+            return RString.RStringFactory.getFor(content);
+        }
+        throw RError.getInvalidLabels(ast, size, nlevels);
+    }
+}
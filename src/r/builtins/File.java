@@ -1,9 +1,12 @@
 package r.builtins;
 
+import java.io.*;
+
 import r.*;
 import r.data.*;
 import r.data.internal.*;
 import r.data.internal.Connection.FileConnection;
+import r.data.internal.Connection.PipeConnection;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -83,4 +86,49 @@ final class File extends CallFactory {
         }
 
     };
+
+    // where cat, writeLines and write.table write to: the standard output (for ""), a connection (opened for the call if it is
+    // not open), or a file (a pipe for "|cmd") opened for the call
+    static final class Output {
+        final Connection con; // null for the standard output
+        final boolean close;
+
+        Output(Connection con, boolean close) {
+            this.con = con;
+            this.close = close;
+        }
+
+        static Output get(RAny fileArg, boolean append, ASTNode ast) {
+            if (fileArg instanceof RString) {
+                String description = getScalarString(fileArg, ast, "file");
+                if (description.length() == 0) { return new Output(null, false); }
+                ConnectionMode mode = ConnectionMode.get(append ? "a" : "w");
+                if (description.startsWith("|")) { return new Output(PipeConnection.createOpened(description.substring(1), mode, ast), true); }
+                return new Output(FileConnection.createOpened(description, mode, ast), true);
+            }
+            if (fileArg instanceof RInt && ((RInt) fileArg).size() == 1) {
+                // FIXME: check if it is a connection once attributes are implemented
+                Connection con = RContext.getConnection(((RInt) fileArg).getInt(0));
+                if (con == null) { throw RError.getInvalidConnection(ast); }
+                if (con.isOpen()) {
+                    ConnectionMode mode = con.currentMode();
+                    if (!mode.write() && !mode.append()) { throw RError.getCannotWriteConnection(ast); }
+                    return new Output(con, false);
+                }
+                con.open(ConnectionMode.get("wt"), ast);
+                return new Output(con, true);
+            }
+            throw RError.getInvalidConnection(ast);
+        }
+
+        OutputStream stream(ASTNode ast) {
+            return con == null ? RContext.stdout() : con.output(ast);
+        }
+
+        void close(ASTNode ast) {
+            if (close) {
+                con.close(ast);
+            }
+        }
+    }
 }
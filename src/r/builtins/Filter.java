@@ -0,0 +1,81 @@
+package r.builtins;
+
+import r.*;
+import r.builtins.LApply.CachedCall;
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "Filter" extracts the elements of a vector for which a predicate (logical) function gives true.
+ *
+ * <pre>
+ * f -- a unary predicate function
+ * x -- a vector (atomic or list)
+ * </pre>
+ */
+final class Filter extends CallFactory {
+
+    static final CallFactory _ = new Filter("Filter", new String[]{"f", "x"}, null);
+
+    private Filter(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posF = ia.position("f");
+        final int posX = ia.position("x");
+        final CachedCall callNode = new CachedCall(call, exprs[posF]);
+
+        return new Builtin(call, names, exprs) {
+
+            @Child CachedCall filterCall = adoptChild(callNode);
+
+            @Override
+            protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+                assert oldNode != null;
+                if (filterCall == oldNode) {
+                    filterCall = (CachedCall) newNode;
+                    return adoptInternal(newNode);
+                }
+                return super.replaceChild(oldNode, newNode);
+            }
+
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RCallable fun = filterCall.matchCallable(frame, args[posF]);
+                RAny argx = args[posX];
+                if (!(argx instanceof RArray)) { throw Utils.nyi("unsupported type"); }
+                RArray x = (RArray) argx;
+                int xsize = x.size();
+                int[] selected = new int[xsize];
+                int nselected = 0;
+                for (int i = 0; i < xsize; i++) {
+                    RLogical keep = ((RAny) filterCall.call(frame, fun, Reduce.element(x, i))).asLogical();
+                    if (keep.size() > 0 && keep.getLogical(0) == RLogical.TRUE) {
+                        selected[nselected++] = i;
+                    }
+                }
+                if (nselected == xsize && x.dimensions() == null && x.attributes() == null) {
+                    return x;
+                }
+                RArray.Names xnames = x.names();
+                RArray.Names names = null;
+                if (xnames != null) {
+                    RSymbol[] xsymbols = xnames.sequence();
+                    RSymbol[] symbols = new RSymbol[nselected];
+                    for (int i = 0; i < nselected; i++) {
+                        symbols[i] = xsymbols[selected[i]];
+                    }
+                    names = RArray.Names.create(symbols);
+                }
+                RArray res = Utils.createArray(x, nselected, null, names, null);
+                for (int i = 0; i < nselected; i++) {
+                    res.set(i, x.get(selected[i]));
+                }
+                return res;
+            }
+        };
+    }
+}
@@ -14,10 +14,11 @@ final class Floor extends MathBase {
         return Math.floor(value);
     }
 
-    @Override void op(ASTNode ast, double[] x, double[] res) {
-        for (int i = 0; i < x.length; i++) {
+    @Override boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+        for (int i = from; i < to; i++) {
             res[i] = Math.floor(x[i]);
         }
+        return false;
     }
 
 }
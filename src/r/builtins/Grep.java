@@ -0,0 +1,177 @@
+package r.builtins;
+
+import java.util.*;
+import java.util.regex.*;
+
+import r.*;
+import r.data.*;
+import r.data.RArray.Names;
+import r.data.internal.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "grep"
+ *
+ * <pre>
+ * pattern -- character string containing a regular expression (or character string for fixed = TRUE) to be matched in
+ *          the given character vector. Coerced by as.character to a character string if possible. If a character vector
+ *          of length 2 or more is supplied, the first element is used with a warning.
+ * x -- a character vector where matches are sought, or an object which can be coerced by as.character to a character vector.
+ * ignore.case -- if FALSE, the pattern matching is case sensitive and if TRUE, case is ignored during matching.
+ * perl -- logical. Should perl-compatible regexps be used?
+ * value -- if FALSE, a vector containing the (integer) indices of the matches determined by grep is returned, and if TRUE,
+ *          a vector containing the matching elements themselves is returned.
+ * fixed -- logical. If TRUE, pattern is a string to be matched as is. Overrides all conflicting arguments.
+ * useBytes -- logical. If TRUE the matching is done byte-by-byte rather than character-by-character.
+ * invert -- logical. If TRUE return indices or values for elements that do not match.
+ * </pre>
+ */
+// a fixed pattern, or a regular expression that is an alternation of plain strings ("error|fatal|panic"), is searched for by
+// LiteralSearch, in a single pass over each element
+// FIXME: like Sub, regexps are not quite like in R
+class Grep extends CallFactory {
+    static final CallFactory _ = new Grep("grep", new String[]{"pattern", "x", "ignore.case", "perl", "value", "fixed", "useBytes", "invert"}, new String[]{"pattern", "x"}, false);
+
+    final boolean logical;
+
+    Grep(String name, String[] params, String[] required, boolean logical) {
+        super(name, params, required);
+        this.logical = logical;
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posPattern = ia.position("pattern");
+        final int posX = ia.position("x");
+        final int posIgnoreCase = ia.position("ignore.case");
+        final int posPerl = ia.position("perl");
+        final int posValue = logical ? -1 : ia.position("value");
+        final int posFixed = ia.position("fixed");
+        final int posUseBytes = ia.position("useBytes");
+        final int posInvert = logical ? -1 : ia.position("invert");
+        return new Builtin(call, names, exprs) {
+            final ByteRegex.Cache byteRegex = new ByteRegex.Cache();
+
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                String pattern = Sub.parseScalarString(ast, args[posPattern], "pattern");
+                RString x = Convert.coerceToStringError(args[posX], ast);
+                boolean ignoreCase = posIgnoreCase != -1 ? Convert.checkFirstLogical(args[posIgnoreCase], RLogical.TRUE) : false;
+                boolean perl = posPerl != -1 ? Convert.checkFirstLogical(args[posPerl], RLogical.TRUE) : false;
+                boolean value = posValue != -1 ? Convert.checkFirstLogical(args[posValue], RLogical.TRUE) : false;
+                boolean fixed = posFixed != -1 ? Convert.checkFirstLogical(args[posFixed], RLogical.TRUE) : false;
+                boolean useBytes = posUseBytes != -1 ? Convert.checkFirstLogical(args[posUseBytes], RLogical.TRUE) : false;
+                boolean invert = posInvert != -1 ? Convert.checkFirstLogical(args[posInvert], RLogical.TRUE) : false;
+                int size = x.size();
+                if (pattern == RString.NA) {
+                    if (logical) {
+                        return RLogical.RLogicalFactory.getNAArray(size);
+                    }
+                    return value ? RString.RStringFactory.getNAArray(size) : RInt.RIntFactory.getNAArray(size);
+                }
+                if (!fixed && !perl) {
+                    RContext.warning(ast, "Using a Perl-like regular expression syntax (non-Perl not implemented yet).");
+                }
+                boolean[] matches = matches(pattern, x, ignoreCase, fixed, useBytes, byteRegex);
+                if (logical) {
+                    int[] content = new int[size];
+                    for (int i = 0; i < size; i++) {
+                        content[i] = matches[i] ? RLogical.TRUE : RLogical.FALSE;
+                    }
+                    return RLogical.RLogicalFactory.getFor(content);
+                }
+                return select(x, matches, value, invert);
+            }
+        };
+    }
+
+    // NA elements never match
+    public static boolean[] matches(String pattern, RString x, boolean ignoreCase, boolean fixed, boolean useBytes, ByteRegex.Cache byteRegex) {
+        int size = x.size();
+        boolean[] res = new boolean[size];
+        ByteStringImpl bx = x instanceof ByteStringImpl ? (ByteStringImpl) x : null;
+        if (fixed && pattern.length() == 0) {
+            for (int i = 0; i < size; i++) {
+                res[i] = x.getString(i) != RString.NA;
+            }
+            return res;
+        }
+        LiteralSearch literal = null;
+        if (fixed) {
+            literal = LiteralSearch.create(new String[]{pattern}, ignoreCase);
+        } else {
+            String[] alternatives = LiteralSearch.literalAlternatives(pattern);
+            if (alternatives != null) {
+                literal = LiteralSearch.create(alternatives, ignoreCase);
+            }
+        }
+        if (literal != null) {
+            for (int i = 0; i < size; i++) {
+                if (bx != null) {
+                    res[i] = !bx.isNA(i) && literal.contains(bx.bytes(), bx.start(i), bx.end(i));
+                } else {
+                    String s = x.getString(i);
+                    res[i] = s != RString.NA && literal.contains(s);
+                }
+            }
+            return res;
+        }
+        if (useBytes && !fixed && bx != null) {
+            ByteRegex re = byteRegex.get(pattern, ignoreCase);
+            if (re != null) {
+                for (int i = 0; i < size; i++) {
+                    res[i] = !bx.isNA(i) && re.find(bx.bytes(), bx.start(i), bx.end(i)) != -1;
+                }
+                return res;
+            }
+        }
+        Pattern p = Pattern.compile(pattern, (ignoreCase ? Pattern.CASE_INSENSITIVE : 0) | (fixed ? Pattern.LITERAL : 0));
+        Matcher m = null;
+        for (int i = 0; i < size; i++) {
+            String s = x.getString(i);
+            if (s != RString.NA) {
+                m = m == null ? p.matcher(s) : m.reset(s);
+                res[i] = m.find();
+            }
+        }
+        return res;
+    }
+
+    public static RAny select(RString x, boolean[] matches, boolean value, boolean invert) {
+        int size = x.size();
+        int n = 0;
+        for (int i = 0; i < size; i++) {
+            if (matches[i] != invert) {
+                n++;
+            }
+        }
+        int[] indexes = new int[n];
+        int j = 0;
+        for (int i = 0; i < size; i++) {
+            if (matches[i] != invert) {
+                indexes[j++] = i;
+            }
+        }
+        if (!value) {
+            for (int k = 0; k < n; k++) {
+                indexes[k]++;
+            }
+            return RInt.RIntFactory.getFor(indexes);
+        }
+        String[] content = new String[n];
+        for (int k = 0; k < n; k++) {
+            content[k] = x.getString(indexes[k]);
+        }
+        Names names = x.names();
+        if (names == null) {
+            return RString.RStringFactory.getFor(content);
+        }
+        RSymbol[] symbols = names.sequence();
+        RSymbol[] rsymbols = new RSymbol[n];
+        for (int k = 0; k < n; k++) {
+            rsymbols[k] = symbols[indexes[k]];
+        }
+        return RString.RStringFactory.getFor(content, null, Names.create(rsymbols));
+    }
+}
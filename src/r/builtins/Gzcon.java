@@ -0,0 +1,53 @@
+package r.builtins;
+
+import r.*;
+import r.data.*;
+import r.data.internal.*;
+import r.data.internal.Connection.GzconConnection;
+import r.data.internal.Connection.GzipConnection;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "gzcon"
+ * 
+ * <pre>
+ * con -- a connection. It is replaced by the new connection, which decompresses what is read from it and compresses what is
+ *     written to it.
+ * level -- integer in 0-9. The level of compression used when writing.
+ * allowNonCompressed -- logical. If the input is not compressed, should it be read as it is?
+ * text -- logical. Should the connection be text-mode?
+ * </pre>
+ */
+final class Gzcon extends CallFactory {
+
+    static final CallFactory _ = new Gzcon("gzcon", new String[]{"con", "level", "allowNonCompressed", "text"}, new String[]{"con"});
+
+    private Gzcon(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        if (ia.provided("allowNonCompressed") || ia.provided("text")) { throw Utils.nyi(); }
+        final int posCon = ia.position("con");
+        final int posLevel = ia.position("level");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RAny conArg = args[posCon];
+                // FIXME: check if it is a connection once attributes are implemented
+                if (!(conArg instanceof RInt) || ((RInt) conArg).size() != 1) { throw RError.getNotConnection(ast, "con"); }
+                int handle = ((RInt) conArg).getInt(0);
+                Connection con = RContext.getConnection(handle);
+                if (con == null) { throw RError.getInvalidConnection(ast); }
+                int level = posLevel != -1 ? Gzfile.parseLevel(args[posLevel], ast, "level") : GzipConnection.DEFAULT_LEVEL;
+                if (!(con instanceof GzconConnection)) {
+                    RContext.replaceConnection(handle, new GzconConnection(con, level));
+                }
+                return conArg;
+            }
+        };
+    }
+}
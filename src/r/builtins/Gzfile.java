@@ -0,0 +1,71 @@
+package r.builtins;
+
+import r.*;
+import r.data.*;
+import r.data.internal.*;
+import r.data.internal.Connection.GzipConnection;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "gzfile"
+ * 
+ * <pre>
+ * description -- character string. The path to the file, compressed by gzip (or bgzip); a file that is not compressed is read
+ *     as it is.
+ * open -- character. A description of how to open the connection (if it should be opened initially).
+ * encoding -- The name of the encoding to be used.
+ * compression -- integer in 0-9. The level of compression used when writing.
+ * </pre>
+ */
+final class Gzfile extends CallFactory {
+
+    static final CallFactory _ = new Gzfile("gzfile", new String[]{"description", "open", "encoding", "compression"}, new String[]{"description"});
+
+    private Gzfile(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        if (ia.provided("encoding")) { throw Utils.nyi(); }
+        final int posDescription = ia.position("description");
+        final int posOpen = ia.position("open");
+        final int posCompression = ia.position("compression");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                String description = File.getScalarString(args[posDescription], ast, "description");
+                String open = posOpen != -1 ? File.getScalarString(args[posOpen], ast, "open") : "";
+                int level = posCompression != -1 ? parseLevel(args[posCompression], ast, "compression") : GzipConnection.DEFAULT_LEVEL;
+                return new OpenGzfile(level).open(description, open, ast);
+            }
+        };
+    }
+
+    public static int parseLevel(RAny arg, ASTNode ast, String argName) {
+        RInt iarg = Convert.coerceToIntWarning(arg, ast);
+        if (iarg.size() >= 1) {
+            int level = iarg.getInt(0);
+            if (level != RInt.NA && level >= 0 && level <= 9) { return level; }
+        }
+        throw RError.getInvalidArgument(ast, argName);
+    }
+
+    static final class OpenGzfile extends File.OpenConnection {
+        final int level;
+
+        OpenGzfile(int level) {
+            this.level = level;
+        }
+
+        @Override public Connection createUnopened(String description, ConnectionMode defaultMode) {
+            return GzipConnection.createUnopened(description, defaultMode, level);
+        }
+
+        @Override public Connection createOpened(String description, ConnectionMode mode, ASTNode ast) {
+            return GzipConnection.createOpened(description, mode, level, ast);
+        }
+    }
+}
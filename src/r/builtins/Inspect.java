@@ -1,5 +1,6 @@
 package r.builtins;
 
+import r.*;
 import r.data.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -19,7 +20,7 @@ final class Inspect extends CallFactory {
         check(call, names, exprs);
         return new Builtin.Builtin1(call, names, exprs) {
             @Override public RAny doBuiltIn(Frame frame, RAny arg) {
-                System.out.println("INSPECT: " + arg + " type=" + arg.typeOf() + " isShared=" + arg.isShared() + " isTemporary=" + arg.isTemporary());
+                RContext.stdout().println("INSPECT: " + arg + " type=" + arg.typeOf() + " isShared=" + arg.isShared() + " isTemporary=" + arg.isTemporary());
                 return RNull.getNull();
             }
         };
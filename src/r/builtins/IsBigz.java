@@ -0,0 +1,16 @@
+package r.builtins;
+
+import r.data.*;
+
+final class IsBigz extends IsBase {
+
+    static final CallFactory _ = new IsBigz("is.bigz");
+
+    IsBigz(String name) {
+        super(name);
+    }
+
+    @Override boolean is(RAny arg) {
+        return arg instanceof RBigInt;
+    }
+}
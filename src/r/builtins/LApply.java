@@ -23,7 +23,7 @@ import r.runtime.*;
  *  ... -- optional arguments to FUN.
  * </pre>
  */
-final class LApply extends CallFactory {
+public final class LApply extends CallFactory {
 
     static final CallFactory _ = new LApply("lapply", new String[]{"X", "FUN", "..."}, new String[]{"X", "FUN"});
 
@@ -95,25 +95,126 @@ final class LApply extends CallFactory {
         }
 
         public void matchAndSet(Frame frame, RAny arg) {
+            value = match(frame, arg);
+        }
+
+        public RCallable match(Frame frame, RAny arg) {
             if (arg instanceof RCallable) {
-                value = (RCallable) arg;
-                return;
+                return (RCallable) arg;
             }
             if (arg instanceof RString) { // FIXME: could save some performance through node-rewriting and/or caching, argument will often be a constant
                 RString svalue = (RString) arg;
                 if (svalue.size() != 1) { throw RError.getNotFunction(ast, arg); } // FIXME: GNU-R will give ast for the function argument
                 RSymbol symbol = RSymbol.getSymbol(svalue.getString(0));
-                value = MatchCallable.matchGeneric(ast, frame, symbol);
-                return;
+                return MatchCallable.matchGeneric(ast, frame, symbol);
             }
             if (callsiteSymbol != null) {
-                value = MatchCallable.matchGeneric(ast, frame, callsiteSymbol);
-                return;
+                return MatchCallable.matchGeneric(ast, frame, callsiteSymbol);
             }
             throw RError.getNotFunction(ast, arg); // FIXME: GNU-R will give ast for the function argument
         }
     }
 
+    // calls a function with argument values supplied by a builtin (Reduce, Filter, mapply, do.call)
+    //   the call node is created once and kept as long as the number and names of the arguments stay the same, so that
+    //   repeated calls of the same closure from one call site get the cached argument positions of the call node
+    //
+    //   the node is re-entered when the called function uses the same builtin (e.g. a recursive function calling itself via
+    //   do.call), so the callable is kept by the builtin and passed to each call, and the argument values are bound when the
+    //   call is made (see AbstractCall.promiseForArgument), the providers only hold them until then
+    public static class CachedCall extends BaseR {
+        final CallableProvider callableProvider; // !!! not a child, just a shortcut into callNode
+        ValueProvider[] argProviders; // !!! not children, just a shortcut into arguments of callNode
+        RSymbol[] argNames;
+        @Child RNode callNode;
+
+        public CachedCall(ASTNode ast, RNode funExpr) {
+            super(ast);
+            this.callableProvider = new CallableProvider(funExpr.getAST(), funExpr);
+        }
+
+        public RCallable matchCallable(Frame frame, RAny fun) {
+            return callableProvider.match(frame, fun);
+        }
+
+        private boolean matches(RSymbol[] names, int nargs) {
+            if (argProviders == null || argProviders.length != nargs) {
+                return false;
+            }
+            for (int i = 0; i < nargs; i++) {
+                RSymbol n = names == null ? null : names[i];
+                if (n != argNames[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void createCallNode(RSymbol[] names, int nargs) {
+            argNames = new RSymbol[nargs];
+            argProviders = new ValueProvider[nargs];
+            RNode[] argExprs = new RNode[nargs];
+            for (int i = 0; i < nargs; i++) {
+                argNames[i] = names == null ? null : names[i];
+                argProviders[i] = new ValueProvider(ast);
+                argExprs[i] = argProviders[i];
+            }
+            RNode n = FunctionCall.getFunctionCall(ast, callableProvider, argNames, argExprs);
+            if (callNode == null) {
+                callNode = adoptChild(n);
+            } else {
+                callNode.replace(n, "install new call node in CachedCall");
+            }
+        }
+
+        // names can be null, an element of names is null for an argument passed by position
+        public Object call(Frame frame, RCallable fun, RSymbol[] names, RAny[] values) {
+            int nargs = values.length;
+            if (!matches(names, nargs)) {
+                createCallNode(names, nargs);
+            }
+            for (int i = 0; i < nargs; i++) {
+                argProviders[i].setValue(values[i]);
+            }
+            callableProvider.value = fun;
+            return callNode.execute(frame);
+        }
+
+        public Object call(Frame frame, RCallable fun, RAny arg) {
+            if (argProviders == null) {
+                createCallNode(null, 1);
+            }
+            argProviders[0].setValue(arg);
+            callableProvider.value = fun;
+            return callNode.execute(frame);
+        }
+
+        public Object call(Frame frame, RCallable fun, RAny arg0, RAny arg1) {
+            if (argProviders == null) {
+                createCallNode(null, 2);
+            }
+            argProviders[0].setValue(arg0);
+            argProviders[1].setValue(arg1);
+            callableProvider.value = fun;
+            return callNode.execute(frame);
+        }
+
+        @Override public final Object execute(Frame frame) {
+            Utils.check(false, "unreachable");
+            return null;
+        }
+
+        @Override
+        protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+            assert oldNode != null;
+            if (callNode == oldNode) {
+                callNode = newNode;
+                return adoptInternal(newNode);
+            }
+            return super.replaceChild(oldNode, newNode);
+        }
+    }
+
     public static class Lapply extends Builtin {
 
         ValueProvider firstArgProvider;         // !!! not a child, just a shortcut into arguments
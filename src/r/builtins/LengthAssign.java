@@ -55,6 +55,15 @@ final class LengthAssign extends CallFactory {
     private static RArray changeSize(RArray x, int nsize) {
         int xsize = x.size();
         if (xsize == nsize) { return x; } // does not drop dimensions
+        if (x.attributes() == null) {
+            RArray resized = RArray.RArrayUtils.resizeInPlace(x, nsize);
+            if (resized != null) {
+                for (int i = xsize; i < nsize; i++) {
+                    Utils.setNA(resized, i);
+                }
+                return resized;
+            }
+        }
         RArray res = Utils.createArray(x, nsize);
         if (nsize > xsize) {
             for (int i = 0; i < xsize; i++) {
@@ -0,0 +1,32 @@
+package r.builtins;
+
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "levels" provides access to the levels attribute of a variable.
+ *
+ * <pre>
+ * x -- an object, for example a factor.
+ * </pre>
+ */
+final class Levels extends CallFactory {
+
+    static final CallFactory _ = new Levels("levels", new String[]{"x"}, new String[]{"x"});
+
+    private Levels(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        check(call, names, exprs);
+        return new Builtin.Builtin1(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny arg) {
+                RString levels = RInt.RFactorUtils.levels(arg);
+                return levels == null ? RNull.getNull() : levels;
+            }
+        };
+    }
+}
@@ -4,6 +4,7 @@ import java.io.File;
 import java.util.*;
 import java.util.regex.*;
 
+import r.*;
 import r.data.*;
 import r.errors.*;
 import r.nodes.ast.*;
@@ -84,7 +85,7 @@ final class ListFiles extends CallFactory {
     // FIXME: could use Java NIO's Files.walkFileTree instead
     static void list(String path, ArrayList<String> res, Pattern pattern, int depth, boolean allFiles, String prefix, boolean recursive, boolean ignoreCase, boolean includeDirs) {
 
-        java.io.File dir = new java.io.File(path);
+        java.io.File dir = new java.io.File(RContext.resolvePath(path));
         java.io.File[] files = dir.listFiles();
         if (files == null) {
             return;
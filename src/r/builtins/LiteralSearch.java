@@ -0,0 +1,263 @@
+package r.builtins;
+
+import java.util.*;
+
+import r.data.internal.*;
+
+// search for literal strings (fixed=TRUE, or a regular expression that is an alternation of plain strings), over the Latin-1 bytes
+// of a ByteStringImpl or over the characters of a String
+//   a single pattern is searched for by Boyer-Moore-Horspool, several patterns at once by an Aho-Corasick automaton, so that
+//   screening a vector against many keywords is a single pass over each element
+//   ignoreCase folds ASCII letters only, as java.util.regex does without UNICODE_CASE
+abstract class LiteralSearch {
+
+    static final int MAX_AUTOMATON = 1 << 24; // entries of the transition table
+
+    static final byte[] IDENTITY = new byte[256];
+    static final byte[] FOLD = new byte[256];
+
+    static {
+        for (int b = 0; b < 256; b++) {
+            IDENTITY[b] = (byte) b;
+            FOLD[b] = (byte) (b >= 'A' && b <= 'Z' ? b - 'A' + 'a' : b);
+        }
+    }
+
+    public abstract boolean contains(byte[] s, int from, int end);
+
+    public abstract boolean contains(String s);
+
+    // returns null if a pattern is empty or does not fit into Latin-1
+    public static LiteralSearch create(String[] patterns, boolean ignoreCase) {
+        byte[][] bpatterns = new byte[patterns.length][];
+        for (int i = 0; i < patterns.length; i++) {
+            bpatterns[i] = ByteStringImpl.encode(patterns[i]);
+            if (bpatterns[i] == null || bpatterns[i].length == 0) {
+                return null;
+            }
+        }
+        if (bpatterns.length == 1) {
+            return new Horspool(patterns[0], bpatterns[0], ignoreCase);
+        }
+        return AhoCorasick.create(bpatterns, ignoreCase);
+    }
+
+    // the alternatives of a regular expression that is an alternation of plain strings, or null
+    public static String[] literalAlternatives(String pattern) {
+        int len = pattern.length();
+        if (len == 0) {
+            return null;
+        }
+        for (int i = 0; i < len; i++) {
+            if ("\\^$.?*+()[]{}".indexOf(pattern.charAt(i)) != -1) {
+                return null;
+            }
+        }
+        String[] alts = pattern.split("\\|", -1);
+        for (String a : alts) {
+            if (a.length() == 0) {
+                return null;
+            }
+        }
+        return alts;
+    }
+
+    static final class Horspool extends LiteralSearch {
+        final String string;
+        final byte[] pattern; // folded
+        final byte[] fold;
+        final int[] shift = new int[256]; // indexed by unfolded bytes
+
+        Horspool(String string, byte[] pattern, boolean ignoreCase) {
+            this.string = string;
+            this.fold = ignoreCase ? FOLD : IDENTITY;
+            int m = pattern.length;
+            this.pattern = new byte[m];
+            for (int i = 0; i < m; i++) {
+                this.pattern[i] = fold[pattern[i] & 0xff];
+            }
+            for (int b = 0; b < 256; b++) {
+                int s = m;
+                for (int j = 0; j < m - 1; j++) {
+                    if (this.pattern[j] == fold[b]) {
+                        s = m - 1 - j;
+                    }
+                }
+                shift[b] = s;
+            }
+        }
+
+        public int length() {
+            return pattern.length;
+        }
+
+        // the start of the first occurrence at or after from, or -1
+        public int indexOf(byte[] s, int from, int end) {
+            byte[] p = pattern;
+            byte[] f = fold;
+            int last = p.length - 1;
+            for (int i = from; i + last < end;) {
+                int b = s[i + last] & 0xff;
+                if (f[b] == p[last]) {
+                    int j = last - 1;
+                    while (j >= 0 && f[s[i + j] & 0xff] == p[j]) {
+                        j--;
+                    }
+                    if (j < 0) {
+                        return i;
+                    }
+                }
+                i += shift[b];
+            }
+            return -1;
+        }
+
+        public int indexOf(String s, int from) {
+            if (fold == IDENTITY) {
+                return s.indexOf(string, from);
+            }
+            byte[] p = pattern;
+            int last = p.length - 1;
+            int end = s.length();
+            for (int i = from; i + last < end;) {
+                char c = s.charAt(i + last);
+                if (c <= 0xff && FOLD[c] == p[last]) {
+                    int j = last - 1;
+                    while (j >= 0) {
+                        char d = s.charAt(i + j);
+                        if (d > 0xff || FOLD[d] != p[j]) {
+                            break;
+                        }
+                        j--;
+                    }
+                    if (j < 0) {
+                        return i;
+                    }
+                }
+                i += c <= 0xff ? shift[c] : p.length;
+            }
+            return -1;
+        }
+
+        @Override public boolean contains(byte[] s, int from, int end) {
+            return indexOf(s, from, end) != -1;
+        }
+
+        @Override public boolean contains(String s) {
+            return indexOf(s, 0) != -1;
+        }
+    }
+
+    // a deterministic automaton, the bytes that do not occur in any pattern share one class (which leads to the initial state)
+    static final class AhoCorasick extends LiteralSearch {
+        final int[] classes = new int[256];
+        final int nclasses;
+        final int[] delta; // the transitions of a state start at the state number times nclasses, the targets are stored that way too
+        final boolean[] accept; // indexed like delta, at the start of the transitions of each state
+
+        AhoCorasick(int[] classes, int nclasses, int[] delta, boolean[] accept) {
+            System.arraycopy(classes, 0, this.classes, 0, 256);
+            this.nclasses = nclasses;
+            this.delta = delta;
+            this.accept = accept;
+        }
+
+        static AhoCorasick create(byte[][] patterns, boolean ignoreCase) {
+            byte[] fold = ignoreCase ? FOLD : IDENTITY;
+            int[] classes = new int[256];
+            int nclasses = 1;
+            int total = 1;
+            for (byte[] p : patterns) {
+                for (byte b : p) {
+                    int f = fold[b & 0xff] & 0xff;
+                    if (classes[f] == 0) {
+                        classes[f] = nclasses++;
+                    }
+                }
+                total += p.length;
+            }
+            for (int b = 0; b < 256; b++) {
+                classes[b] = classes[fold[b] & 0xff];
+            }
+            if ((long) total * nclasses > MAX_AUTOMATON) {
+                return null;
+            }
+            int[] delta = new int[total * nclasses];
+            Arrays.fill(delta, -1);
+            boolean[] accept = new boolean[total];
+            int nstates = 1;
+            for (byte[] p : patterns) { // the trie
+                int s = 0;
+                for (byte b : p) {
+                    int t = s * nclasses + classes[b & 0xff];
+                    if (delta[t] == -1) {
+                        delta[t] = nstates++ * nclasses;
+                    }
+                    s = delta[t] / nclasses;
+                }
+                accept[s] = true;
+            }
+            int[] fail = new int[nstates];
+            int[] queue = new int[nstates];
+            int head = 0;
+            int tail = 0;
+            for (int c = 0; c < nclasses; c++) {
+                if (delta[c] == -1) {
+                    delta[c] = 0;
+                } else {
+                    queue[tail++] = delta[c] / nclasses;
+                }
+            }
+            while (head < tail) { // breadth-first, turning the trie into the automaton
+                int s = queue[head++];
+                int f = fail[s];
+                accept[s] |= accept[f];
+                for (int c = 0; c < nclasses; c++) {
+                    int t = delta[s * nclasses + c];
+                    int ft = delta[f * nclasses + c];
+                    if (t == -1) {
+                        delta[s * nclasses + c] = ft;
+                    } else {
+                        fail[t / nclasses] = ft / nclasses;
+                        queue[tail++] = t / nclasses;
+                    }
+                }
+            }
+            boolean[] acceptAt = new boolean[nstates * nclasses];
+            for (int s = 0; s < nstates; s++) {
+                acceptAt[s * nclasses] = accept[s];
+            }
+            return new AhoCorasick(classes, nclasses, Arrays.copyOf(delta, nstates * nclasses), acceptAt);
+        }
+
+        @Override public boolean contains(byte[] s, int from, int end) {
+            int[] d = delta;
+            int[] cls = classes;
+            boolean[] acc = accept;
+            int state = 0;
+            for (int i = from; i < end; i++) {
+                state = d[state + cls[s[i] & 0xff]];
+                if (acc[state]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override public boolean contains(String s) {
+            int[] d = delta;
+            int[] cls = classes;
+            boolean[] acc = accept;
+            int state = 0;
+            int len = s.length();
+            for (int i = 0; i < len; i++) {
+                char c = s.charAt(i);
+                state = d[state + (c <= 0xff ? cls[c] : 0)];
+                if (acc[state]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
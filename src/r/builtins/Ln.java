@@ -23,9 +23,10 @@ final class Ln extends MathBase {
         return Math.log(value);
     }
 
-    @Override void op(ASTNode ast, double[] x, double[] res) {
-        for (int i = 0; i < x.length; i++) {
+    @Override boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+        for (int i = from; i < to; i++) {
             res[i] = Math.log(x[i]);
         }
+        return false;
     }
 }
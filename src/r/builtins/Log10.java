@@ -22,10 +22,11 @@ final class Log10 extends MathBase {
         return Math.log10(value);
     }
 
-    @Override void op(ASTNode ast, double[] x, double[] res) {
-        for (int i = 0; i < x.length; i++) {
+    @Override boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+        for (int i = from; i < to; i++) {
             res[i] = Math.log10(x[i]);
         }
+        return false;
     }
 
 }
@@ -24,9 +24,10 @@ final class Log2 extends MathBase {
         return Math.log(value) * rLOG2;
     }
 
-    @Override void op(ASTNode ast, double[] x, double[] res) {
-        for (int i = 0; i < x.length; i++) {
+    @Override boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+        for (int i = from; i < to; i++) {
             res[i] = Math.log(x[i]) * rLOG2;
         }
+        return false;
     }
 }
@@ -0,0 +1,198 @@
+package r.builtins;
+
+import r.*;
+import r.builtins.LApply.ArgIterator;
+import r.builtins.LApply.CachedCall;
+import r.builtins.LApply.ValueProvider;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+// FIXME: only a subset of R functionality
+/**
+ * "mapply" is a multivariate version of sapply. mapply applies FUN to the first elements of each ... argument, the
+ * second elements, the third elements, and so on. Arguments are recycled if necessary.
+ *
+ * <pre>
+ * FUN -- function to apply
+ * ... -- arguments to vectorize over (vectors or lists of strictly positive length, or all of zero length)
+ * MoreArgs -- a list of other arguments to FUN
+ * SIMPLIFY -- logical; attempt to reduce the result to a vector or matrix (as in sapply)
+ * USE.NAMES -- logical; use the names of the first ... argument, or if it is a character vector, use that character
+ *    vector as the names
+ * </pre>
+ */
+final class MApply extends CallFactory {
+
+    static final CallFactory _ = new MApply("mapply", new String[]{"FUN", "...", "MoreArgs", "SIMPLIFY", "USE.NAMES"}, new String[]{"FUN"});
+
+    private MApply(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        return create(call, names, exprs, ia.position("FUN"), ia.position("MoreArgs"), ia.position("SIMPLIFY"), ia.position("USE.NAMES"), true);
+    }
+
+    // the arguments not at one of the given positions are the vectorized (...) arguments
+    static RNode create(ASTNode call, RSymbol[] names, RNode[] exprs, int posFun, int posMoreArgs, int posSimplify, int posUseNames, boolean simplifyDefault) {
+        int ndots = 0;
+        for (int i = 0; i < exprs.length; i++) {
+            if (i != posFun && i != posMoreArgs && i != posSimplify && i != posUseNames) {
+                ndots++;
+            }
+        }
+        int[] dotsPositions = new int[ndots];
+        RSymbol[] dotsNames = new RSymbol[ndots];
+        int j = 0;
+        for (int i = 0; i < exprs.length; i++) {
+            if (i != posFun && i != posMoreArgs && i != posSimplify && i != posUseNames) {
+                dotsPositions[j] = i;
+                dotsNames[j] = names == null ? null : names[i];
+                j++;
+            }
+        }
+        CachedCall callNode = new CachedCall(call, exprs[posFun]);
+        return new Mapply(call, names, exprs, callNode, posFun, dotsPositions, dotsNames, posMoreArgs, posSimplify, posUseNames, simplifyDefault);
+    }
+
+    public static class Mapply extends Builtin {
+        @Child CachedCall callNode;
+        final int posFun;
+        final int[] dotsPositions;
+        final RSymbol[] dotsNames;
+        final int posMoreArgs;
+        final int posSimplify;
+        final int posUseNames;
+        final boolean simplifyDefault;
+
+        public Mapply(ASTNode call, RSymbol[] names, RNode[] exprs, CachedCall callNode, int posFun, int[] dotsPositions, RSymbol[] dotsNames, int posMoreArgs, int posSimplify, int posUseNames,
+                        boolean simplifyDefault) {
+            super(call, names, exprs);
+            this.callNode = adoptChild(callNode);
+            this.posFun = posFun;
+            this.dotsPositions = dotsPositions;
+            this.dotsNames = dotsNames;
+            this.posMoreArgs = posMoreArgs;
+            this.posSimplify = posSimplify;
+            this.posUseNames = posUseNames;
+            this.simplifyDefault = simplifyDefault;
+        }
+
+        @Override
+        protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+            assert oldNode != null;
+            if (callNode == oldNode) {
+                callNode = (CachedCall) newNode;
+                return adoptInternal(newNode);
+            }
+            return super.replaceChild(oldNode, newNode);
+        }
+
+        @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+            RCallable fun = callNode.matchCallable(frame, args[posFun]);
+            boolean simplify = posSimplify == -1 ? simplifyDefault : parseUncheckedLogical(args[posSimplify], ast);
+            boolean useNames = posUseNames == -1 ? true : parseUncheckedLogical(args[posUseNames], ast);
+
+            int ndots = dotsPositions.length;
+            RList moreArgs = null;
+            if (posMoreArgs != -1 && !(args[posMoreArgs] instanceof RNull)) {
+                RAny m = args[posMoreArgs];
+                if (!(m instanceof RList)) { throw RError.getInvalidArgument(ast, "MoreArgs"); }
+                moreArgs = (RList) m;
+            }
+            int nmore = moreArgs == null ? 0 : moreArgs.size();
+
+            RArray[] vectors = new RArray[ndots];
+            int n = 0;
+            boolean hasEmpty = false;
+            for (int i = 0; i < ndots; i++) {
+                RAny v = args[dotsPositions[i]];
+                if (!(v instanceof RArray)) { throw Utils.nyi("unsupported type"); }
+                RArray a = (RArray) v;
+                vectors[i] = a;
+                int size = a.size();
+                if (size == 0) {
+                    hasEmpty = true;
+                } else if (size > n) {
+                    n = size;
+                }
+            }
+            if (hasEmpty) {
+                if (n > 0) { throw RError.getZeroLengthInputs(ast); }
+                return RList.EMPTY;
+            }
+
+            RSymbol[] callNames = new RSymbol[ndots + nmore];
+            RAny[] callValues = new RAny[ndots + nmore];
+            System.arraycopy(dotsNames, 0, callNames, 0, ndots);
+            if (moreArgs != null) {
+                RArray.Names mnames = moreArgs.names();
+                for (int i = 0; i < nmore; i++) {
+                    callValues[ndots + i] = moreArgs.getRAny(i);
+                    if (mnames != null) {
+                        RSymbol s = mnames.sequence()[i];
+                        callNames[ndots + i] = s == RSymbol.EMPTY_SYMBOL ? null : s;
+                    }
+                }
+            }
+
+            RAny[] content = new RAny[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < ndots; j++) {
+                    RArray a = vectors[j];
+                    callValues[j] = Reduce.element(a, i % a.size());
+                }
+                content[i] = (RAny) callNode.call(frame, fun, callNames, callValues);
+            }
+
+            RArray.Names names = null;
+            if (useNames && ndots > 0) {
+                RArray first = vectors[0];
+                if (first.size() == n) {
+                    names = first.names();
+                    if (names == null && first instanceof RString) {
+                        names = RArray.Names.create(RSymbol.getSymbols((RString) first));
+                    }
+                }
+            }
+            if (simplify) {
+                return SApply.Sapply.generic(frame, new ResultNames(names, n), null, content);
+            }
+            return RList.RListFactory.getFor(content, null, names);
+        }
+    }
+
+    // provides the names of the results to sapply's simplification, the results have been computed already
+    static final class ResultNames extends ArgIterator {
+        final RArray.Names names;
+
+        ResultNames(RArray.Names names, int size) {
+            this.names = names;
+            this.size = size;
+        }
+
+        @Override public void reset(ValueProvider provider, RAny source) {
+            Utils.check(false, "unreachable");
+        }
+
+        @Override public void setNext() {
+            Utils.check(false, "unreachable");
+        }
+
+        @Override public RArray.Names names() {
+            return names;
+        }
+
+        @Override public RString stringNames() {
+            return RString.RStringFactory.getFor(Convert.symbols2strings(names.sequence()));
+        }
+
+        @Override public boolean hasNames() {
+            return names != null;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package r.builtins;
+
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+
+/**
+ * "Map" applies a function to the corresponding elements of given vectors, it is a wrapper to mapply which does not
+ * attempt to simplify the result.
+ *
+ * <pre>
+ * f -- function to apply
+ * ... -- vectors
+ * </pre>
+ */
+// the class is not called Map so that it does not hide java.util.Map in this package
+final class MapFunction extends CallFactory {
+
+    static final CallFactory _ = new MapFunction("Map", new String[]{"f", "..."}, new String[]{"f"});
+
+    private MapFunction(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        return MApply.create(call, names, exprs, ia.position("f"), -1, -1, -1, false);
+    }
+}
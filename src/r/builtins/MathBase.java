@@ -1,5 +1,6 @@
 package r.builtins;
 
+import r.*;
 import r.data.*;
 import r.data.internal.*;
 import r.data.internal.ProfilingView.ViewProfile;
@@ -17,53 +18,110 @@ abstract class MathBase extends CallFactory {
     }
 
     abstract double op(ASTNode ast, double value);
-    abstract void op(ASTNode ast, double[] x, double[] res);
 
-    final RDouble calcEager(final ASTNode ast, final RDouble value) {
+    // res[from..to) is op of x[from..to), returns true when a NaN is produced (only checked by sqrt)
+    abstract boolean op(ASTNode ast, double[] x, double[] res, int from, int to);
+
+    void op(ASTNode ast, double[] x, double[] res) {
+        if (op(ast, x, res, 0, x.length)) {
+            RContext.warning(ast, RError.NAN_PRODUCED);
+        }
+    }
+
+    final FusedDoubleView.Stage stage(final ASTNode ast) {
+        return new FusedDoubleView.Stage() {
+            @Override public double op(double x) {
+                return MathBase.this.op(ast, x);
+            }
+
+            @Override public boolean op(double[] x, double[] res, int from, int to) {
+                return MathBase.this.op(ast, x, res, from, to);
+            }
+
+            @Override public void warning() {
+                RContext.warning(ast, RError.NAN_PRODUCED);
+            }
+        };
+    }
+
+    // buffers are the results kept by the node, or null
+    final RDouble calcEager(final ASTNode ast, final RDouble value, ResultBuffers buffers) {
+        if (FusedDoubleView.isFusable(value)) {
+            // the argument is a lazy element-wise operation, both are done by one loop
+            return FusedDoubleView.fuse(value, stage(ast), value.dimensions(), value.names(), value.attributes()).materialize();
+        }
         double[] content = value.getContent();
         if (value.isTemporary()) {
             op(ast, content, content);
             return value;
         }
         int size = value.size();
+        if (buffers != null) {
+            double[] res = buffers.allocateDouble(size);
+            op(ast, content, res);
+            return buffers.keep(RDouble.RDoubleFactory.getFor(res, value.dimensions(), value.names(), value.attributes()));
+        }
         double[] res = new double[size];
         op(ast, content, res);
         return RDouble.RDoubleFactory.getFor(res, value.dimensions(), value.names(), value.attributes());
     }
 
     private RDouble createView(final ASTNode ast, final RDouble value, final int size) {
-        return TracingView.ViewTrace.trace(new View.RDoubleProxy<RDouble>(value) {
-            @Override public int size() {
-                return size;
-            }
+        if (FusedDoubleView.isFusable(value)) {
+            return FusedDoubleView.fuse(value, stage(ast), value.dimensions(), value.names(), value.attributes());
+        }
+        return TracingView.ViewTrace.trace(new MathView(ast, value, size));
+    }
 
-            @Override public double getDouble(int i) {
-                return op(ast, value.getDouble(i));
-            }
-            @Override
-            public void materializeInto(double[] resContent) {
-                if (orig instanceof DoubleImpl) {
-                    op(ast, orig.getContent(), resContent);
-                } else if (orig instanceof RDoubleView) {
-                    ((RDoubleView) orig).materializeInto(resContent);
-                    op(ast, resContent, resContent);
-                } else  {
-                    super.materializeInto(resContent);
-                }
-            }
-            @Override
-            public void materializeIntoOnTheFly(double[] resContent) {
-                if (orig instanceof DoubleImpl) {
-                    op(ast, orig.getContent(), resContent);
-                } else  {
-                    super.materializeIntoOnTheFly(resContent);
-                }
+    final class MathView extends View.RDoubleProxy<RDouble> implements FusedDoubleView.Fusable {
+        final ASTNode ast;
+        final int size;
+
+        MathView(ASTNode ast, RDouble value, int size) {
+            super(value);
+            this.ast = ast;
+            this.size = size;
+        }
+
+        @Override public int size() {
+            return size;
+        }
+
+        @Override public double getDouble(int i) {
+            return op(ast, orig.getDouble(i));
+        }
+
+        @Override
+        public void materializeInto(double[] resContent) {
+            if (orig instanceof DoubleImpl) {
+                op(ast, orig.getContent(), resContent);
+            } else if (orig instanceof RDoubleView) {
+                ((RDoubleView) orig).materializeInto(resContent);
+                op(ast, resContent, resContent);
+            } else  {
+                super.materializeInto(resContent);
             }
-            @Override
-            public void accept(ValueVisitor v) {
-                v.visit(this);
+        }
+        @Override
+        public void materializeIntoOnTheFly(double[] resContent) {
+            if (orig instanceof DoubleImpl) {
+                op(ast, orig.getContent(), resContent);
+            } else  {
+                super.materializeIntoOnTheFly(resContent);
             }
-        });
+        }
+        @Override
+        public void accept(ValueVisitor v) {
+            v.visit(this);
+        }
+
+        @Override public RDouble fusableArgument() {
+            return orig;
+        }
+
+        @Override public FusedDoubleView.Stage fusableStage() {
+            return stage(ast);
+        }
     }
 
     @Override
@@ -86,6 +144,18 @@ abstract class MathBase extends CallFactory {
             throw RError.getNonNumericMath(ast);
         }
 
+        // a scalar double argument is taken unboxed, so e.g. sqrt(x*x + y*y) does not allocate
+        @Override
+        public double executeScalarDouble(Frame frame) throws SpecializationException {
+            double d;
+            try {
+                d = argExprs[0].executeScalarDouble(frame);
+            } catch (SpecializationException e) {
+                throw new SpecializationException(doBuiltIn(frame, (RAny) e.getResult()));
+            }
+            return op(ast, d);
+        }
+
         private ViewProfile profile;
 
         RDouble calcInitial(final RDouble value) {
@@ -124,16 +194,19 @@ abstract class MathBase extends CallFactory {
 
         RDouble replaceAndExecuteEager(final RDouble currentValue) {
             RNode newNode = new Builtin.Builtin1(ast, argNames, argExprs) {
+                final ResultBuffers buffers = new ResultBuffers();
+
                 @Override
                 public RAny doBuiltIn(Frame frame, RAny value) {
                     if (value instanceof RDouble || value instanceof RInt || value instanceof RLogical) {
-                        return calcEager(ast, value.asDouble());
+                        buffers.enter(frame);
+                        return calcEager(ast, value.asDouble(), buffers);
                     }
                     throw RError.getNonNumericMath(ast);
                 }
             };
             replace(newNode);
-            return calcEager(ast, currentValue);
+            return calcEager(ast, currentValue, null);
         }
 
     }
@@ -2,6 +2,7 @@ package r.builtins;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
 import r.runtime.*;
@@ -26,6 +27,9 @@ final class Nchar extends CallFactory {
     }
 
     public static RInt nchar(RString s) {
+        if (s instanceof ByteStringImpl) {
+            return nchar((ByteStringImpl) s);
+        }
         int size = s.size();
         int[] content = new int[size];
         for (int i = 0; i < size; i++) {
@@ -34,6 +38,16 @@ final class Nchar extends CallFactory {
         return RInt.RIntFactory.getFor(content, s.dimensions(), s.names());
     }
 
+    // one byte per character, the lengths are given by the offsets, no strings are decoded
+    public static RInt nchar(ByteStringImpl s) {
+        int size = s.size();
+        int[] content = new int[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = s.isNA(i) ? 2 : s.length(i); // GNU-R counts NA as 2 characters
+        }
+        return RInt.RIntFactory.getFor(content, s.dimensions(), s.names());
+    }
+
     @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
         ArgumentInfo ia = check(call, names, exprs);
         if (ia.provided("type") || ia.provided("allowNA")) { throw Utils.nyi(); }
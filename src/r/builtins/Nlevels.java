@@ -0,0 +1,32 @@
+package r.builtins;
+
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "nlevels" returns the number of levels which its argument has.
+ *
+ * <pre>
+ * x -- an object, usually a factor.
+ * </pre>
+ */
+final class Nlevels extends CallFactory {
+
+    static final CallFactory _ = new Nlevels("nlevels", new String[]{"x"}, new String[]{"x"});
+
+    private Nlevels(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        check(call, names, exprs);
+        return new Builtin.Builtin1(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny arg) {
+                RString levels = RInt.RFactorUtils.levels(arg);
+                return RInt.RIntFactory.getScalar(levels == null ? 0 : levels.size());
+            }
+        };
+    }
+}
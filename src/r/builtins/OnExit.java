@@ -0,0 +1,46 @@
+package r.builtins;
+
+import r.*;
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "on.exit" records an expression to be evaluated when the current function exits (normally or by an error).
+ *
+ * <pre>
+ * expr -- an expression to be executed, when missing, the recorded expressions are removed.
+ * add -- if TRUE, add expr to be executed after any previously set expressions; otherwise (the default) expr will
+ *        overwrite any previously set expressions.
+ * </pre>
+ */
+final class OnExit extends CallFactory {
+
+    static final CallFactory _ = new OnExit("on.exit", new String[]{"expr", "add"}, new String[]{});
+
+    private OnExit(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posExpr = ia.position("expr");
+        final int posAdd = ia.position("add");
+
+        return new Builtin(call, names, exprs) {
+            @Override public Object execute(Frame frame) {
+                boolean add = posAdd != -1 && ((RAny) argExprs[posAdd].execute(frame)).asLogical().getLogical(0) == RLogical.TRUE;
+                if (frame != null) { // ignored at top-level
+                    frame.onExit(posExpr == -1 ? null : argExprs[posExpr], add);
+                }
+                return RNull.getNull();
+            }
+
+            @Override public RAny doBuiltIn(Frame frame, RAny[] params) {
+                Utils.check(false, "unreachable");
+                return null;
+            }
+        };
+    }
+}
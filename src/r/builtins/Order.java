@@ -195,12 +195,38 @@ final class Order extends CallFactory {
         if (arg instanceof RDouble) { return new DoubleComparator((RDouble) arg); }
         if (arg instanceof RInt) { return new IntComparator((RInt) arg); }
         if (arg instanceof RLogical) { return new LogicalComparator((RLogical) arg); }
-        if (arg instanceof RString) { return new StringComparator((RString) arg); }
+        if (arg instanceof RString) {
+            RString s = (RString) arg;
+            if (s.size() >= ENCODE_MIN_SIZE) {
+                ElementsComparator c = createEncodedComparator(s);
+                if (c != null) { return c; }
+            }
+            return new StringComparator(s);
+        }
         if (arg instanceof RRaw) { throw RError.getRawSort(ast); }
         Utils.nyi("unsupported type");
         return null;
     }
 
+    static final int ENCODE_MIN_SIZE = 64;
+
+    // strings with many repeated values are compared by their codes into the sorted distinct values, like factors are,
+    // which avoids the string comparisons while sorting; returns null when more than half of the values are distinct
+    public static ElementsComparator createEncodedComparator(RString s) {
+        int size = s.size();
+        int maxLevels = size / 2;
+        HashSet<String> distinct = new HashSet<>();
+        for (int i = 0; i < size; i++) {
+            String v = s.getString(i);
+            if (v != RString.NA && distinct.add(v) && distinct.size() > maxLevels) {
+                return null;
+            }
+        }
+        String[] levels = distinct.toArray(new String[distinct.size()]);
+        Arrays.sort(levels);
+        return new IntComparator(RInt.RIntFactory.getFor(RInt.RFactorUtils.encode(s, RString.RStringFactory.getFor(levels))));
+    }
+
     public static int resultWhenFirstNA(int naLast) {
         if (naLast != RLogical.FALSE) { // both TRUE and NA
             return 1;
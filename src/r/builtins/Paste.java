@@ -1,6 +1,7 @@
 package r.builtins;
 
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -106,6 +107,13 @@ final class Paste extends CallFactory {
             }
         }
 
+        if (isByteBacked(stringArgs)) {
+            RString res = pasteBytes(stringArgs, maxLength, separator, collapse);
+            if (res != null) {
+                return res;
+            }
+        }
+
         if (collapse == null) {
             String[] content = new String[maxLength];
             for (int i = 0; i < maxLength; i++) {
@@ -115,7 +123,7 @@ final class Paste extends CallFactory {
                         str.append(separator);
                     }
                     RString s = stringArgs[j];
-                    str.append(s.getString(i % s.size()));
+                    str.append(asPasteString(s.getString(i % s.size())));
                 }
                 content[i] = str.toString();
             }
@@ -131,7 +139,7 @@ final class Paste extends CallFactory {
                         str.append(separator);
                     }
                     RString s = stringArgs[j];
-                    str.append(s.getString(i % s.size()));
+                    str.append(asPasteString(s.getString(i % s.size())));
                 }
             }
             return RString.RStringFactory.getScalar(str.toString());
@@ -161,10 +169,16 @@ final class Paste extends CallFactory {
 
         if (collapse == null) {
             return (RString) stringArg.stripAttributes();
-        } else if (collapse.length() == 0) {
+        } else if (stringArg instanceof ByteStringImpl) {
+            RString res = pasteBytes(new RString[] {stringArg}, size, "", collapse);
+            if (res != null) {
+                return res;
+            }
+        }
+        if (collapse.length() == 0) {
             StringBuilder str = new StringBuilder();
             for (int i = 0; i < size; i++) {
-                str.append(stringArg.getString(i));
+                str.append(asPasteString(stringArg.getString(i)));
             }
             return RString.RStringFactory.getScalar(str.toString());
         } else {
@@ -173,10 +187,84 @@ final class Paste extends CallFactory {
                 if (i > 0) {
                     str.append(collapse);
                 }
-                str.append(stringArg.getString(i));
+                str.append(asPasteString(stringArg.getString(i)));
             }
             return RString.RStringFactory.getScalar(str.toString());
         }
     }
 
+    private static final byte[] NA_BYTES = ByteStringImpl.encode("NA");
+
+    static String asPasteString(String s) {
+        return s == RString.NA ? "NA" : s;
+    }
+
+    // the byte path pays off when at least one argument is byte-backed and the others are scalars (e.g. constant separators)
+    static boolean isByteBacked(RString[] args) {
+        boolean hasBytes = false;
+        for (RString s : args) {
+            if (s instanceof ByteStringImpl && s.size() > 0) {
+                hasBytes = true;
+            } else if (s.size() != 1) {
+                return false;
+            }
+        }
+        return hasBytes;
+    }
+
+    // concatenates directly on bytes, returns null if some of the strings involved do not fit into Latin-1
+    static RString pasteBytes(RString[] args, int maxLength, String separator, String collapse) {
+        int nargs = args.length;
+        ByteStringImpl[] bargs = new ByteStringImpl[nargs];
+        byte[][] scalars = new byte[nargs][];
+        int estimate = 0;
+        for (int j = 0; j < nargs; j++) {
+            RString s = args[j];
+            if (s instanceof ByteStringImpl) {
+                bargs[j] = (ByteStringImpl) s;
+                estimate += bargs[j].bytes().length;
+            } else {
+                String str = s.getString(0);
+                scalars[j] = str == RString.NA ? NA_BYTES : ByteStringImpl.encode(str);
+                if (scalars[j] == null) {
+                    return null;
+                }
+                estimate += maxLength * scalars[j].length;
+            }
+        }
+        byte[] sep = ByteStringImpl.encode(separator);
+        byte[] col = collapse == null ? null : ByteStringImpl.encode(collapse);
+        if (sep == null || (collapse != null && col == null)) {
+            return null;
+        }
+        ByteStringImpl.Builder res = new ByteStringImpl.Builder(collapse == null ? maxLength : 1, estimate + maxLength * nargs * sep.length);
+        for (int i = 0; i < maxLength; i++) {
+            if (col != null && i > 0) {
+                res.append(col, 0, col.length);
+            }
+            for (int j = 0; j < nargs; j++) {
+                if (j > 0) {
+                    res.append(sep, 0, sep.length);
+                }
+                ByteStringImpl b = bargs[j];
+                if (b == null) {
+                    res.append(scalars[j], 0, scalars[j].length);
+                } else {
+                    int k = i % b.size();
+                    if (b.isNA(k)) {
+                        res.append(NA_BYTES, 0, NA_BYTES.length);
+                    } else {
+                        res.append(b.bytes(), b.start(k), b.end(k));
+                    }
+                }
+            }
+            if (col == null) {
+                res.finishElement();
+            }
+        }
+        if (col != null) {
+            res.finishElement();
+        }
+        return res.build();
+    }
 }
@@ -57,6 +57,7 @@ public class Primitives {
         add(Aperm._);
         add(Array._);
         add(Assign._);
+        add(AsBigz._);
         add(AsCharacter._);
         add(AsComplex._);
         add(AsDouble._);
@@ -81,8 +82,12 @@ public class Primitives {
         add(Close._);
         add(ColMeans._);
         add(ColSums._);
+        add(ConditionMessage._);
         add(Cor._);
         add(Crossprod._);
+        add(Cummax._);
+        add(Cummin._);
+        add(Cumprod._);
         add(Cumsum._);
         add(DelayedAssign._);
         add(Deparse._);
@@ -90,18 +95,25 @@ public class Primitives {
         add(DiagAssign._);
         add(Dim._);
         add(DimAssign._);
+        add(DoCall._);
         add(Double._);
         add(Get._);
+        add(Grep._);
+        add(Grepl._);
         add(Gregexpr._);
         add(Gsub._);
+        add(Gzcon._);
+        add(Gzfile._);
         add(Eigen._);
         add(Emptyenv._);
         add(Eval._);
         add(Exists._);
         add(Exp._);
+        add(Factor._);
         add(Fft._);
         add(File._);
         add(FilePath._);
+        add(Filter._);
         add(Floor._);
         add(Flush._);
         add(Getwd._);
@@ -109,6 +121,7 @@ public class Primitives {
         add(Identical._);
         add(Integer._);
         add(Im._);
+        add(IsBigz._);
         add(IsCharacter._);
         add(IsComplex._);
         add(IsDouble._);
@@ -123,6 +136,7 @@ public class Primitives {
         add(LApply._);
         add(Length._);
         add(LengthAssign._);
+        add(Levels._);
         add(List._);
         add(ListFiles._);
         add(Log._);
@@ -131,6 +145,8 @@ public class Primitives {
         add(Logical._);
         add(LowerTri._);
         add(Ls._);
+        add(MApply._);
+        add(MapFunction._);
         add(Matrix._);
         add(Max._);
         add(Min._);
@@ -140,7 +156,9 @@ public class Primitives {
         add(Nchar._);
         add(Ncol._);
         add(Newenv._);
+        add(Nlevels._);
         add(Nrow._);
+        add(OnExit._);
         add("numeric", Double._);
         add(Options._);
         add(Order._);
@@ -157,9 +175,12 @@ public class Primitives {
         add(Rbinom._);
         add(Rcauchy._);
         add(Re._);
+        add(ReadCsv._);
         add(ReadLines._);
+        add(ReadTable._);
         add("real", Double._);
         add(Recall._);
+        add(Reduce._);
         add(Regexpr._);
         add(Rep._);
         add("rep.int", RepInt._);
@@ -178,6 +199,10 @@ public class Primitives {
         add(Seq._); // in fact seq.default (and only part of it)
         add("seq.default", Seq._);
         add(Setwd._);
+        add(SignalCondition._);
+        add(SimpleCondition._);
+        add(SimpleCondition.ERROR);
+        add(SimpleCondition.WARNING);
         add(Sort._);
         add("sort.int", Sort._);
         add(Source._);
@@ -192,13 +217,20 @@ public class Primitives {
         add(Sum._);
         add(T._);
         add("t.default", T._);
+        add(Tabulate._);
         add(Tolower._);
         add(Toupper._);
+        add(Try._);
+        add(TryCatch._);
         add(Typeof._);
         add(Unlist._);
         add(UpperTri._);
+        add(Warning._);
         add(Which._);
         add(WriteBin._);
+        add(WriteCsv._);
+        add(WriteLines._);
+        add(WriteTable._);
         add(CommandArgs._);
         // fastr specific
         add("__inspect", Inspect._);
@@ -0,0 +1,28 @@
+package r.builtins;
+
+/**
+ * "read.csv"
+ *
+ * <pre>
+ * file -- the name of the file (which may be compressed by gzip) or a connection to read the data from.
+ * header -- logical. Does the first line contain the names of the variables?
+ * sep -- the field separator character.
+ * quote -- the set of quoting characters.
+ * dec -- the character used for decimal points. Only "." is supported.
+ * col.names -- a vector of names for the variables.
+ * na.strings -- a character vector of strings which are to be interpreted as NA values.
+ * colClasses -- character. The types of the columns, NA means that the type is inferred from the data.
+ * nrows -- integer. The maximum number of rows to read. Negative values are ignored.
+ * skip -- integer. The number of lines of the file to skip before beginning to read data.
+ * fill -- logical. If TRUE, rows with fewer fields than columns are completed by blank fields.
+ * comment.char -- character: a character vector of length one containing a single character or an empty string.
+ * stringsAsFactors -- logical. Should character columns be converted to factors? Columns with colClasses "character" are not.
+ * </pre>
+ */
+final class ReadCsv extends ReadTable {
+    @SuppressWarnings("hiding") static final CallFactory _ = new ReadCsv("read.csv");
+
+    private ReadCsv(String name) {
+        super(name, true, ",", "\"", true, "");
+    }
+}
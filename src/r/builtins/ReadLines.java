@@ -64,7 +64,7 @@ final class ReadLines extends CallFactory {
                     if (con.isOpen()) {
                         ConnectionMode mode = con.currentMode();
                         if (!mode.read()) { throw RError.getCannotReadConnection(ast); }
-                        Utils.check(mode.text()); // TODO: GNU-R seems to be happily reading from binary connections, too
+                        // GNU-R reads lines from binary connections, too (e.g. from gzcon, which is binary)
                         wasOpen = true;
                     } else {
                         con.open(defaultMode, ast);
@@ -73,12 +73,20 @@ final class ReadLines extends CallFactory {
 
                 try {
                     BufferedReader reader = con.reader(ast);
-                    ArrayList<String> buf = new ArrayList<>();
+                    // the lines are kept in the compact byte representation as long as they fit into Latin-1
+                    ByteStringImpl.Builder bytes = new ByteStringImpl.Builder(n > 0 && n < 1024 ? n : 1024, 4096);
+                    ArrayList<String> buf = null;
                     String line = "";
                     int nlines = 0;
                     try {
                         while ((line = reader.readLine()) != null) {
-                            buf.add(line);
+                            if (buf == null && !bytes.add(line)) {
+                                buf = bytes.toList();
+                                bytes = null;
+                            }
+                            if (buf != null) {
+                                buf.add(line);
+                            }
                             nlines++;
                             if (nlines == n) {
                                 break;
@@ -88,13 +96,14 @@ final class ReadLines extends CallFactory {
                         throw RError.getGenericError(ast, e.toString());
                     }
                     if (!ok && nlines < n) { throw RError.getTooFewLinesReadLines(ast); }
+                    // TODO detect when the file does not end with a newline, this cannot be done using readLine
+                    // context.warning(ast, String.format(RError.INCOMPLETE_FINAL_LINE, con.description()));
+                    // TODO: push-back of incomplete line with non-blocking connections
+                    if (buf == null) {
+                        return bytes.build();
+                    }
                     String[] content = new String[buf.size()];
                     buf.toArray(content);
-                    if (nlines > 0 && content[nlines - 1].length() != 0) {
-                        // TODO detect when the file does not end with a newline, this cannot be done using readLine
-                        // context.warning(ast, String.format(RError.INCOMPLETE_FINAL_LINE, con.description()));
-                        // TODO: push-back of incomplete line with non-blocking connections
-                    }
                     return RString.RStringFactory.getFor(content);
                 } finally {
                     if (!wasOpen) {
@@ -0,0 +1,935 @@
+package r.builtins;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import r.*;
+import r.data.*;
+import r.data.internal.*;
+import r.data.internal.Connection.FileConnection;
+import r.data.internal.Connection.GzipConnection;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "read.table"
+ *
+ * <pre>
+ * file -- the name of the file (which may be compressed by gzip) or a connection to read the data from.
+ * header -- logical. Does the first line contain the names of the variables?
+ * sep -- the field separator character. "" means that fields are separated by white space.
+ * quote -- the set of quoting characters. Quotes are only recognized at the start of a field, a quoted field cannot span lines.
+ * dec -- the character used for decimal points. Only "." is supported.
+ * col.names -- a vector of names for the variables.
+ * na.strings -- a character vector of strings which are to be interpreted as NA values. Blank fields are NA in logical,
+ *     integer and numeric columns.
+ * colClasses -- character. The types of the columns ("logical", "integer", "numeric", "character"), recycled; NA means
+ *     that the type is inferred from the data.
+ * nrows -- integer. The maximum number of rows to read. Negative values are ignored.
+ * skip -- integer. The number of lines of the file to skip before beginning to read data.
+ * fill -- logical. If TRUE, rows with fewer fields than columns are completed by blank fields.
+ * comment.char -- character: a character vector of length one containing a single character or an empty string.
+ * stringsAsFactors -- logical. Should character columns be converted to factors? Columns with colClasses "character" are not.
+ * </pre>
+ *
+ * The result is a list of the columns (there are no data frames) and the names of the columns are not checked.
+ */
+// the data is parsed from bytes (ASCII-compatible encodings) into int and double arrays, character fields are kept as bytes
+//   unless they are not ASCII
+//   the types of the columns are inferred from the first lines; when a later field does not fit the type of its column,
+//   the type is widened and the data parsed again
+//   a large input is split into line-aligned chunks, which are parsed on the worker threads
+class ReadTable extends CallFactory {
+
+    static final CallFactory _ = new ReadTable("read.table", false, "", "\"'", false, "#");
+
+    static final int LOGICAL = 0;
+    static final int INTEGER = 1;
+    static final int DOUBLE = 2;
+    static final int CHARACTER = 3;
+    static final String[] TYPE_NAMES = {"a logical", "an integer", "a real", "a string"};
+
+    static final int SAMPLE_LINES = 1000;
+    static final int NCOLUMNS_LINES = 5; // as in GNU-R, the number of columns is determined from the first lines
+    static final int MIN_CHUNK_SIZE = 1 << 20;
+    static final int READ_BUFFER_SIZE = 1 << 16;
+
+    static final double[] POWERS_OF_TEN = new double[23]; // exactly representable in a double
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    final boolean defaultHeader;
+    final String defaultSep;
+    final String defaultQuote;
+    final boolean defaultFill;
+    final String defaultCommentChar;
+
+    ReadTable(String name, boolean header, String sep, String quote, boolean fill, String commentChar) {
+        super(name, new String[]{"file", "header", "sep", "quote", "dec", "col.names", "na.strings", "colClasses", "nrows", "skip", "fill", "comment.char",
+                        "stringsAsFactors"}, new String[]{"file"});
+        this.defaultHeader = header;
+        this.defaultSep = sep;
+        this.defaultQuote = quote;
+        this.defaultFill = fill;
+        this.defaultCommentChar = commentChar;
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posFile = ia.position("file");
+        final int posHeader = ia.position("header");
+        final int posSep = ia.position("sep");
+        final int posQuote = ia.position("quote");
+        final int posDec = ia.position("dec");
+        final int posColNames = ia.position("col.names");
+        final int posNaStrings = ia.position("na.strings");
+        final int posColClasses = ia.position("colClasses");
+        final int posNrows = ia.position("nrows");
+        final int posSkip = ia.position("skip");
+        final int posFill = ia.position("fill");
+        final int posCommentChar = ia.position("comment.char");
+        final int posStringsAsFactors = ia.position("stringsAsFactors");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                if (posDec != -1 && !File.getScalarString(args[posDec], ast, "dec").equals(".")) { throw Utils.nyi("decimal separator"); }
+                Format f = new Format();
+                f.header = posHeader != -1 ? ReadLines.parseLogicalScalar(args[posHeader], ast, "header") : defaultHeader;
+                f.fill = posFill != -1 ? ReadLines.parseLogicalScalar(args[posFill], ast, "fill") : defaultFill;
+                String sep = posSep != -1 ? File.getScalarString(args[posSep], ast, "sep") : defaultSep;
+                f.sep = singleByte(sep, ast, RError.SEP_ONE_BYTE);
+                String commentChar = posCommentChar != -1 ? File.getScalarString(args[posCommentChar], ast, "comment.char") : defaultCommentChar;
+                f.commentChar = singleByte(commentChar, ast, String.format(RError.INVALID_ARGUMENT, "comment.char"));
+                f.quotes = encode(posQuote != -1 ? File.getScalarString(args[posQuote], ast, "quote") : defaultQuote);
+                f.naStrings = naStrings(posNaStrings != -1 ? args[posNaStrings] : RString.RStringFactory.getScalar("NA"), ast);
+                int nrows = posNrows != -1 ? ReadLines.parseN(args[posNrows], ast) : -1;
+                int skip = posSkip != -1 ? Math.max(0, ReadLines.parseN(args[posSkip], ast)) : 0;
+                String[] colNames = posColNames != -1 ? strings(args[posColNames], ast, "col.names") : null;
+                int[] colClasses = posColClasses != -1 ? colClasses(args[posColClasses], ast) : null;
+                boolean stringsAsFactors = posStringsAsFactors != -1 && ReadLines.parseLogicalScalar(args[posStringsAsFactors], ast, "stringsAsFactors");
+
+                Input in = read(args[posFile], ast);
+                return parse(in, f, skip, nrows, colNames, colClasses, stringsAsFactors, ast);
+            }
+        };
+    }
+
+    static int singleByte(String s, ASTNode ast, String message) {
+        if (s.length() == 0) { return -1; }
+        if (s.length() == 1 && s.charAt(0) < 0x80) { return s.charAt(0); }
+        throw RError.getGenericError(ast, message);
+    }
+
+    static byte[] encode(String s) {
+        return s.getBytes(Charset.defaultCharset());
+    }
+
+    static String[] strings(RAny arg, ASTNode ast, String argName) {
+        if (!(arg instanceof RString)) { throw RError.getInvalidArgument(ast, argName); }
+        RString s = (RString) arg;
+        String[] res = new String[s.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = s.getString(i);
+        }
+        return res;
+    }
+
+    static byte[][] naStrings(RAny arg, ASTNode ast) {
+        String[] s = strings(arg, ast, "na.strings");
+        byte[][] res = new byte[s.length][];
+        for (int i = 0; i < s.length; i++) {
+            res[i] = s[i] == RString.NA ? encode("NA") : encode(s[i]);
+        }
+        return res;
+    }
+
+    // the types of the columns, -1 for those to be inferred
+    static int[] colClasses(RAny arg, ASTNode ast) {
+        String[] s = strings(arg, ast, "colClasses");
+        int[] res = new int[s.length];
+        for (int i = 0; i < s.length; i++) {
+            String c = s[i];
+            if (c == RString.NA) {
+                res[i] = -1;
+            } else if (c.equals("logical")) {
+                res[i] = LOGICAL;
+            } else if (c.equals("integer")) {
+                res[i] = INTEGER;
+            } else if (c.equals("numeric") || c.equals("double")) {
+                res[i] = DOUBLE;
+            } else if (c.equals("character")) {
+                res[i] = CHARACTER;
+            } else {
+                throw Utils.nyi("column class " + c);
+            }
+        }
+        return res;
+    }
+
+    static final class Format {
+        boolean header;
+        boolean fill;
+        int sep; // -1 for white space
+        int commentChar; // -1 for none
+        byte[] quotes;
+        byte[][] naStrings;
+
+        boolean isQuote(byte b) {
+            for (byte q : quotes) {
+                if (q == b) { return true; }
+            }
+            return false;
+        }
+    }
+
+    static final class Input {
+        byte[] data;
+        int length;
+    }
+
+    // reads all of the input, a file is read through a file connection, decompressing it if needed
+    static Input read(RAny fileArg, ASTNode ast) {
+        Connection con;
+        boolean wasOpen = false;
+        if (fileArg instanceof RString) {
+            String description = File.getScalarString(fileArg, ast, "file");
+            con = FileConnection.createOpened(description, ConnectionMode.get("rb"), ast);
+        } else if (fileArg instanceof RInt && ((RInt) fileArg).size() == 1) {
+            // FIXME: check if it is a connection once attributes are implemented
+            con = RContext.getConnection(((RInt) fileArg).getInt(0));
+            if (con == null) { throw RError.getInvalidConnection(ast); }
+            if (con.isOpen()) {
+                if (!con.currentMode().read()) { throw RError.getCannotReadConnection(ast); }
+                wasOpen = true;
+            } else {
+                con.open(ConnectionMode.get("rt"), ast);
+            }
+        } else {
+            throw RError.getInvalidArgument(ast, "file");
+        }
+        try {
+            if (wasOpen) {
+                // the reader may already have buffered data (e.g. after readLines), and the connection stays usable
+                return readText(con.reader(ast));
+            }
+            InputStream input = con.input(ast);
+            if (con instanceof FileConnection) {
+                input = GzipConnection.decode(input);
+            }
+            Input res = new Input();
+            byte[] data = new byte[READ_BUFFER_SIZE];
+            int n = 0;
+            int k;
+            while ((k = input.read(data, n, data.length - n)) != -1) {
+                n += k;
+                if (n == data.length) {
+                    data = Arrays.copyOf(data, data.length * 2);
+                }
+            }
+            if (input != con.input(ast)) {
+                input.close(); // releases the inflater
+            }
+            res.data = data;
+            res.length = n;
+            return res;
+        } catch (IOException e) {
+            throw RError.getGenericError(ast, e.toString());
+        } finally {
+            if (!wasOpen) {
+                con.close(ast);
+            }
+        }
+    }
+
+    // reads the rest of the text of a connection that is already open, encoded back to bytes
+    static Input readText(BufferedReader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buf = new char[READ_BUFFER_SIZE];
+        int n;
+        while ((n = reader.read(buf)) != -1) {
+            text.append(buf, 0, n);
+        }
+        Input res = new Input();
+        res.data = encode(text.toString());
+        res.length = res.data.length;
+        return res;
+    }
+
+        // the end of the line starting at pos (the position of the newline, or of the end of the input)
+    static int lineEnd(byte[] data, int pos, int length) {
+        while (pos < length && data[pos] != '\n') {
+            pos++;
+        }
+        return pos;
+    }
+
+    static RAny parse(Input in, Format f, int skip, int nrows, String[] colNames, int[] colClasses, boolean stringsAsFactors, ASTNode ast) {
+        byte[] data = in.data;
+        int length = in.length;
+        int pos = 0;
+        for (int i = 0; i < skip && pos < length; i++) {
+            pos = lineEnd(data, pos, length) + 1;
+        }
+        Fields fields = new Fields(f);
+        String[] header = null;
+        if (f.header) {
+            while (pos < length && header == null) {
+                int end = lineEnd(data, pos, length);
+                int n = fields.split(data, pos, end);
+                if (n > 0) {
+                    header = new String[n];
+                    for (int i = 0; i < n; i++) {
+                        header[i] = fields.string(i, data);
+                    }
+                }
+                pos = end + 1;
+            }
+        }
+        int dataStart = Math.min(pos, length);
+
+        // the number of columns and the types of columns from the first lines
+        int ncols = 0;
+        int nlines = 0;
+        int[] types = new int[16];
+        Arrays.fill(types, -1);
+        while (pos < length && nlines < SAMPLE_LINES) {
+            int end = lineEnd(data, pos, length);
+            int n = fields.split(data, pos, end);
+            if (n > 0) {
+                if (nlines < NCOLUMNS_LINES) {
+                    ncols = Math.max(ncols, n);
+                    if (ncols > types.length) {
+                        int old = types.length;
+                        types = Arrays.copyOf(types, Math.max(ncols, 2 * old));
+                        Arrays.fill(types, old, types.length, -1);
+                    }
+                }
+                for (int i = 0; i < Math.min(n, ncols); i++) {
+                    types[i] = Math.max(types[i], fields.type(i, data, Math.max(types[i], LOGICAL)));
+                }
+                nlines++;
+            }
+            pos = end + 1;
+        }
+        if (header == null && nlines == 0) { throw RError.getGenericError(ast, RError.NO_LINES_AVAILABLE); }
+        String[] names = colNames != null ? colNames : header;
+        if (names != null) {
+            if (names.length < ncols) { throw RError.getGenericError(ast, RError.MORE_COLUMNS_THAN_NAMES); }
+            ncols = names.length;
+        } else {
+            names = new String[ncols];
+            for (int i = 0; i < ncols; i++) {
+                names[i] = "V" + (i + 1);
+            }
+        }
+        types = Arrays.copyOf(types, ncols);
+        boolean[] fixed = new boolean[ncols];
+        for (int i = 0; i < ncols; i++) {
+            if (colClasses != null && colClasses.length > 0 && colClasses[i % colClasses.length] != -1) {
+                types[i] = colClasses[i % colClasses.length];
+                fixed[i] = true;
+            } else if (types[i] == -1) {
+                types[i] = LOGICAL; // only NAs
+            }
+        }
+
+        // the chunks, each ending after a newline (or at the end of the input)
+        int size = length - dataStart;
+        int nchunks = 1;
+        if (nrows < 0 && Parallel.NTHREADS > 1 && size >= 2 * MIN_CHUNK_SIZE) {
+            nchunks = Math.min(4 * Parallel.NTHREADS, size / MIN_CHUNK_SIZE);
+        }
+        int[] bounds = new int[nchunks + 1];
+        bounds[0] = dataStart;
+        for (int i = 1; i < nchunks; i++) {
+            bounds[i] = Math.min(length, Math.max(bounds[i - 1], lineEnd(data, dataStart + (int) ((long) size * i / nchunks), length) + 1));
+        }
+        bounds[nchunks] = length;
+
+        while (true) {
+            ArrayList<Chunk> chunks = new ArrayList<>(nchunks);
+            for (int i = 0; i < nchunks; i++) {
+                chunks.add(new Chunk(f, data, bounds[i], bounds[i + 1], ncols, types, nrows));
+            }
+            java.util.List<Chunk> parsed = Parallel.run(chunks);
+            boolean widened = false;
+            for (Chunk c : parsed) {
+                if (c.errorPos != -1) {
+                    int line = 1;
+                    for (int i = 0; i < c.errorPos; i++) {
+                        if (data[i] == '\n') {
+                            line++;
+                        }
+                    }
+                    if (c.errorFields < ncols) {
+                        throw RError.getGenericError(ast, String.format(RError.LINE_TOO_FEW_ELEMENTS, line, ncols));
+                    }
+                    throw RError.getGenericError(ast, String.format(RError.LINE_TOO_MANY_ELEMENTS, line, ncols));
+                }
+                if (c.failedColumn != -1) {
+                    int col = c.failedColumn;
+                    if (fixed[col]) { throw RError.getScanUnexpected(ast, TYPE_NAMES[types[col]], c.failedValue); }
+                    if (c.failedType > types[col]) {
+                        types[col] = c.failedType;
+                        widened = true;
+                    }
+                }
+            }
+            if (!widened) {
+                RAny[] columns = new RAny[ncols];
+                RSymbol[] symbols = new RSymbol[ncols];
+                for (int i = 0; i < ncols; i++) {
+                    columns[i] = column(parsed, i, types[i]);
+                    if (stringsAsFactors && types[i] == CHARACTER && !fixed[i]) {
+                        columns[i] = factor((RString) columns[i]);
+                    }
+                    symbols[i] = RSymbol.getSymbol(names[i]);
+                }
+                return RList.RListFactory.getFor(columns, null, RArray.Names.create(symbols));
+            }
+        }
+    }
+
+    static RAny column(java.util.List<Chunk> chunks, int col, int type) {
+        int nrows = 0;
+        for (Chunk c : chunks) {
+            nrows += c.nrows;
+        }
+        switch (type) {
+            case LOGICAL:
+            case INTEGER: {
+                int[] res = new int[nrows];
+                int pos = 0;
+                for (Chunk c : chunks) {
+                    System.arraycopy(c.ints[col], 0, res, pos, c.nrows);
+                    pos += c.nrows;
+                }
+                return type == LOGICAL ? RLogical.RLogicalFactory.getFor(res) : RInt.RIntFactory.getFor(res);
+            }
+            case DOUBLE: {
+                double[] res = new double[nrows];
+                int pos = 0;
+                for (Chunk c : chunks) {
+                    System.arraycopy(c.doubles[col], 0, res, pos, c.nrows);
+                    pos += c.nrows;
+                }
+                return RDouble.RDoubleFactory.getFor(res);
+            }
+            default: {
+                boolean allBytes = true;
+                for (Chunk c : chunks) {
+                    allBytes &= c.strings.get(col) == null;
+                }
+                if (allBytes) {
+                    if (chunks.size() == 1) {
+                        return chunks.get(0).bytes[col].build();
+                    }
+                    ByteStringImpl.Builder b = new ByteStringImpl.Builder(nrows, 16 * nrows);
+                    for (Chunk c : chunks) {
+                        ByteStringImpl s = c.bytes[col].buildNonScalar(null, null, null);
+                        byte[] sbytes = s.bytes();
+                        for (int i = 0; i < c.nrows; i++) {
+                            if (s.isNA(i)) {
+                                b.addNA();
+                            } else {
+                                b.add(sbytes, s.start(i), s.end(i));
+                            }
+                        }
+                    }
+                    return b.build();
+                }
+                String[] res = new String[nrows];
+                int pos = 0;
+                for (Chunk c : chunks) {
+                    java.util.List<String> l = c.strings.get(col) != null ? c.strings.get(col) : c.bytes[col].toList();
+                    for (String s : l) {
+                        res[pos++] = s;
+                    }
+                }
+                return RString.RStringFactory.getFor(res);
+            }
+        }
+    }
+
+    // a factor with the sorted distinct values as levels, as factor() creates it
+    static RInt factor(RString s) {
+        RString levels = RInt.RFactorUtils.sortedLevels(s);
+        return RInt.RFactorUtils.create(RInt.RFactorUtils.encode(s, levels), levels, null, false);
+    }
+
+    // splits lines into fields, the content of a quoted field is copied (without the quotes) to a scratch buffer
+    static final class Fields {
+        final Format f;
+        int n;
+        int[] start = new int[16];
+        int[] end = new int[16];
+        boolean[] inScratch = new boolean[16];
+        byte[] scratch = new byte[256];
+        int scratchPos;
+
+        Fields(Format f) {
+            this.f = f;
+        }
+
+        byte[] buffer(int i, byte[] data) {
+            return inScratch[i] ? scratch : data;
+        }
+
+        private void add(int s, int e, boolean scr) {
+            if (n == start.length) {
+                start = Arrays.copyOf(start, 2 * n);
+                end = Arrays.copyOf(end, 2 * n);
+                inScratch = Arrays.copyOf(inScratch, 2 * n);
+            }
+            start[n] = s;
+            end[n] = e;
+            inScratch[n] = scr;
+            n++;
+        }
+
+        // copies the quoted field starting at pos (at the quote) to the scratch buffer, a doubled quote stands for the quote,
+        // returns the position after the closing quote
+        private int quoted(byte[] data, int pos, int lineEnd) {
+            byte q = data[pos++];
+            int s = scratchPos;
+            while (pos < lineEnd) {
+                byte b = data[pos++];
+                if (b == q) {
+                    if (pos < lineEnd && data[pos] == q && f.sep != -1) {
+                        pos++;
+                    } else {
+                        break;
+                    }
+                }
+                if (scratchPos == scratch.length) {
+                    scratch = Arrays.copyOf(scratch, 2 * scratch.length);
+                }
+                scratch[scratchPos++] = b;
+            }
+            add(s, scratchPos, true);
+            return pos;
+        }
+
+        // splits the line [from, to) into fields, returns the number of fields (0 for a blank line or a comment)
+        int split(byte[] data, int from, int to) {
+            n = 0;
+            scratchPos = 0;
+            if (to > from && data[to - 1] == '\r') {
+                to--;
+            }
+            int cc = f.commentChar;
+            int pos = from;
+            if (f.sep == -1) {
+                while (true) {
+                    while (pos < to && (data[pos] == ' ' || data[pos] == '\t')) {
+                        pos++;
+                    }
+                    if (pos == to || data[pos] == cc) {
+                        return n;
+                    }
+                    if (f.isQuote(data[pos])) {
+                        pos = quoted(data, pos, to);
+                        while (pos < to && data[pos] != ' ' && data[pos] != '\t' && data[pos] != cc) {
+                            pos++;
+                        }
+                    } else {
+                        int s = pos;
+                        while (pos < to && data[pos] != ' ' && data[pos] != '\t' && data[pos] != cc) {
+                            pos++;
+                        }
+                        add(s, pos, false);
+                    }
+                }
+            }
+            byte sep = (byte) f.sep;
+            boolean blank = true;
+            for (int i = from; i < to && data[i] != cc; i++) {
+                if (data[i] != ' ' && data[i] != '\t') {
+                    blank = false;
+                    break;
+                }
+            }
+            if (blank) {
+                return 0;
+            }
+            while (true) {
+                if (pos < to && f.isQuote(data[pos])) {
+                    pos = quoted(data, pos, to);
+                    while (pos < to && data[pos] != sep && data[pos] != cc) {
+                        pos++;
+                    }
+                } else {
+                    int s = pos;
+                    while (pos < to && data[pos] != sep && data[pos] != cc) {
+                        pos++;
+                    }
+                    add(s, pos, false);
+                }
+                if (pos == to || data[pos] != sep) {
+                    return n;
+                }
+                pos++;
+            }
+        }
+
+        String string(int i, byte[] data) {
+            return new String(buffer(i, data), start[i], end[i] - start[i], Charset.defaultCharset());
+        }
+
+        // the narrowest type, at least min, of field i
+        int type(int i, byte[] data, int min) {
+            byte[] b = buffer(i, data);
+            int s = start[i];
+            int e = end[i];
+            if (isNA(b, s, e, f.naStrings)) {
+                return min;
+            }
+            while (s < e && (b[s] == ' ' || b[s] == '\t')) {
+                s++;
+            }
+            while (e > s && (b[e - 1] == ' ' || b[e - 1] == '\t')) {
+                e--;
+            }
+            if (s == e) {
+                return min;
+            }
+            if (min <= LOGICAL && parseLogical(b, s, e) != -1) { return LOGICAL; }
+            if (min <= INTEGER && parseInt(b, s, e) != Long.MIN_VALUE) { return INTEGER; }
+            if (min <= DOUBLE && !java.lang.Double.isNaN(parseDouble(b, s, e)) || isNaN(b, s, e)) { return Math.max(min, DOUBLE); }
+            return CHARACTER;
+        }
+    }
+
+    static boolean isNA(byte[] b, int s, int e, byte[][] naStrings) {
+        for (byte[] na : naStrings) {
+            if (na.length == e - s) {
+                int i = 0;
+                while (i < na.length && na[i] == b[s + i]) {
+                    i++;
+                }
+                if (i == na.length) { return true; }
+            }
+        }
+        return false;
+    }
+
+    static boolean matches(byte[] b, int s, int e, String word) {
+        if (e - s != word.length()) { return false; }
+        for (int i = 0; i < word.length(); i++) {
+            if (b[s + i] != word.charAt(i)) { return false; }
+        }
+        return true;
+    }
+
+    // RLogical.TRUE, RLogical.FALSE, or -1
+    static int parseLogical(byte[] b, int s, int e) {
+        switch (e - s) {
+            case 1:
+                return b[s] == 'T' ? RLogical.TRUE : b[s] == 'F' ? RLogical.FALSE : -1;
+            case 4:
+                return matches(b, s, e, "TRUE") || matches(b, s, e, "true") || matches(b, s, e, "True") ? RLogical.TRUE : -1;
+            case 5:
+                return matches(b, s, e, "FALSE") || matches(b, s, e, "false") || matches(b, s, e, "False") ? RLogical.FALSE : -1;
+            default:
+                return -1;
+        }
+    }
+
+    // the value, or Long.MIN_VALUE when it is not an integer that fits into an R integer
+    static long parseInt(byte[] b, int s, int e) {
+        boolean negative = false;
+        if (b[s] == '-' || b[s] == '+') {
+            negative = b[s] == '-';
+            s++;
+        }
+        if (s == e || e - s > 10) { return Long.MIN_VALUE; }
+        long v = 0;
+        for (int i = s; i < e; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) { return Long.MIN_VALUE; }
+            v = v * 10 + d;
+        }
+        if (v > java.lang.Integer.MAX_VALUE) { return Long.MIN_VALUE; }
+        return negative ? -v : v;
+    }
+
+    static boolean isNaN(byte[] b, int s, int e) {
+        return matches(b, s, e, "NaN");
+    }
+
+    // the value, or NaN when it is not a number (NaN itself is recognized by isNaN)
+    //   a decimal number with at most 15 significant digits and a small exponent is computed exactly by one multiplication or
+    //   division, other numbers are parsed by java.lang.Double.parseDouble
+    static double parseDouble(byte[] b, int s, int e) {
+        int pos = s;
+        boolean negative = false;
+        if (b[pos] == '-' || b[pos] == '+') {
+            negative = b[pos] == '-';
+            pos++;
+        }
+        if (matches(b, pos, e, "Inf")) { return negative ? java.lang.Double.NEGATIVE_INFINITY : java.lang.Double.POSITIVE_INFINITY; }
+        long mantissa = 0;
+        int ndigits = 0; // significant
+        int exponent = 0;
+        boolean anyDigits = false;
+        while (pos < e && b[pos] >= '0' && b[pos] <= '9') {
+            mantissa = mantissa * 10 + (b[pos++] - '0');
+            if (mantissa != 0) {
+                ndigits++;
+            }
+            anyDigits = true;
+            if (ndigits > 15) {
+                return parseDoubleSlow(b, s, e);
+            }
+        }
+        if (pos < e && b[pos] == '.') {
+            pos++;
+            while (pos < e && b[pos] >= '0' && b[pos] <= '9') {
+                mantissa = mantissa * 10 + (b[pos++] - '0');
+                if (mantissa != 0) {
+                    ndigits++;
+                }
+                exponent--;
+                anyDigits = true;
+                if (ndigits > 15) {
+                    return parseDoubleSlow(b, s, e);
+                }
+            }
+        }
+        if (!anyDigits) { return java.lang.Double.NaN; }
+        if (pos < e && (b[pos] == 'e' || b[pos] == 'E')) {
+            pos++;
+            boolean negativeExponent = false;
+            if (pos < e && (b[pos] == '-' || b[pos] == '+')) {
+                negativeExponent = b[pos] == '-';
+                pos++;
+            }
+            if (pos == e) { return java.lang.Double.NaN; }
+            int exp = 0;
+            while (pos < e && b[pos] >= '0' && b[pos] <= '9') {
+                if (exp < 10000) {
+                    exp = exp * 10 + (b[pos] - '0');
+                }
+                pos++;
+            }
+            exponent += negativeExponent ? -exp : exp;
+        }
+        if (pos != e) { return java.lang.Double.NaN; }
+        double v;
+        if (exponent >= 0 && exponent < POWERS_OF_TEN.length) {
+            v = mantissa * POWERS_OF_TEN[exponent];
+        } else if (exponent < 0 && -exponent < POWERS_OF_TEN.length) {
+            v = mantissa / POWERS_OF_TEN[-exponent];
+        } else {
+            return parseDoubleSlow(b, s, e);
+        }
+        return negative ? -v : v;
+    }
+
+    static double parseDoubleSlow(byte[] b, int s, int e) {
+        char last = (char) b[e - 1];
+        if (last != '.' && (last < '0' || last > '9')) { return java.lang.Double.NaN; } // Java accepts suffixes, "1d" or "1f"
+        try {
+            return java.lang.Double.parseDouble(new String(b, s, e - s, ByteStringImpl.LATIN1));
+        } catch (NumberFormatException ex) {
+            return java.lang.Double.NaN;
+        }
+    }
+
+    // parses a line-aligned part of the input into columns of the given types
+    //   stops at the first field that does not fit the type of its column (failedColumn), or at the first line with a wrong
+    //   number of fields (errorPos)
+    static final class Chunk implements Callable<Chunk> {
+        final Format f;
+        final byte[] data;
+        final int from;
+        final int to;
+        final int ncols;
+        final int[] types;
+        final int maxRows;
+
+        int nrows;
+        int[][] ints;
+        double[][] doubles;
+        ByteStringImpl.Builder[] bytes;
+        ArrayList<ArrayList<String>> strings; // per column, null while the column is kept as bytes
+
+        int failedColumn = -1;
+        int failedType;
+        String failedValue;
+        int errorPos = -1;
+        int errorFields;
+
+        Chunk(Format f, byte[] data, int from, int to, int ncols, int[] types, int maxRows) {
+            this.f = f;
+            this.data = data;
+            this.from = from;
+            this.to = to;
+            this.ncols = ncols;
+            this.types = types.clone();
+            this.maxRows = maxRows;
+        }
+
+        @Override public Chunk call() {
+            int capacity = Math.max(16, (to - from) / (4 * ncols + 1));
+            if (maxRows >= 0) {
+                capacity = Math.min(capacity, Math.max(maxRows, 1));
+            }
+            ints = new int[ncols][];
+            doubles = new double[ncols][];
+            bytes = new ByteStringImpl.Builder[ncols];
+            strings = new ArrayList<>(Collections.<ArrayList<String>>nCopies(ncols, null));
+            for (int c = 0; c < ncols; c++) {
+                switch (types[c]) {
+                    case LOGICAL:
+                    case INTEGER:
+                        ints[c] = new int[capacity];
+                        break;
+                    case DOUBLE:
+                        doubles[c] = new double[capacity];
+                        break;
+                    default:
+                        bytes[c] = new ByteStringImpl.Builder(capacity, 8 * capacity);
+                }
+            }
+            Fields fields = new Fields(f);
+            int pos = from;
+            while (pos < to && nrows != maxRows) {
+                int end = lineEnd(data, pos, to);
+                int n = fields.split(data, pos, end);
+                if (n > 0) {
+                    if (n > ncols || n < ncols && !f.fill) {
+                        errorPos = pos;
+                        errorFields = n;
+                        return this;
+                    }
+                    if (nrows == capacity) {
+                        capacity = 2 * capacity;
+                        grow(capacity);
+                    }
+                    for (int c = 0; c < ncols; c++) {
+                        boolean ok = c < n ? add(c, fields.buffer(c, data), fields.start[c], fields.end[c]) : addBlank(c);
+                        if (!ok) {
+                            failedColumn = c;
+                            failedType = fields.type(c, data, types[c] + 1);
+                            failedValue = fields.string(c, data);
+                            return this;
+                        }
+                    }
+                    nrows++;
+                }
+                pos = end + 1;
+            }
+            return this;
+        }
+
+        void grow(int capacity) {
+            for (int c = 0; c < ncols; c++) {
+                if (ints[c] != null) {
+                    ints[c] = Arrays.copyOf(ints[c], capacity);
+                } else if (doubles[c] != null) {
+                    doubles[c] = Arrays.copyOf(doubles[c], capacity);
+                }
+            }
+        }
+
+        boolean addBlank(int c) {
+            switch (types[c]) {
+                case LOGICAL:
+                case INTEGER:
+                    ints[c][nrows] = RInt.NA;
+                    return true;
+                case DOUBLE:
+                    doubles[c][nrows] = RDouble.NA;
+                    return true;
+                default:
+                    if (strings.get(c) != null) {
+                        strings.get(c).add("");
+                    } else {
+                        bytes[c].finishElement();
+                    }
+                    return true;
+            }
+        }
+
+        boolean add(int c, byte[] b, int s, int e) {
+            int type = types[c];
+            if (isNA(b, s, e, f.naStrings)) {
+                switch (type) {
+                    case LOGICAL:
+                    case INTEGER:
+                        ints[c][nrows] = RInt.NA;
+                        return true;
+                    case DOUBLE:
+                        doubles[c][nrows] = RDouble.NA;
+                        return true;
+                    default:
+                        if (strings.get(c) != null) {
+                            strings.get(c).add(RString.NA);
+                        } else {
+                            bytes[c].addNA();
+                        }
+                        return true;
+                }
+            }
+            if (type == CHARACTER) {
+                if (strings.get(c) == null) {
+                    boolean ascii = true;
+                    for (int i = s; i < e; i++) {
+                        if (b[i] < 0) {
+                            ascii = false;
+                            break;
+                        }
+                    }
+                    if (ascii) {
+                        bytes[c].add(b, s, e);
+                        return true;
+                    }
+                    strings.set(c, bytes[c].toList());
+                    bytes[c] = null;
+                }
+                strings.get(c).add(new String(b, s, e - s, Charset.defaultCharset()));
+                return true;
+            }
+            while (s < e && (b[s] == ' ' || b[s] == '\t')) {
+                s++;
+            }
+            while (e > s && (b[e - 1] == ' ' || b[e - 1] == '\t')) {
+                e--;
+            }
+            if (s == e) {
+                return addBlank(c);
+            }
+            switch (type) {
+                case LOGICAL: {
+                    int v = parseLogical(b, s, e);
+                    if (v == -1) { return false; }
+                    ints[c][nrows] = v;
+                    return true;
+                }
+                case INTEGER: {
+                    long v = parseInt(b, s, e);
+                    if (v == Long.MIN_VALUE) { return false; }
+                    ints[c][nrows] = (int) v;
+                    return true;
+                }
+                default: {
+                    double v = parseDouble(b, s, e);
+                    if (java.lang.Double.isNaN(v)) {
+                        if (!isNaN(b, s, e)) { return false; }
+                    }
+                    doubles[c][nrows] = v;
+                    return true;
+                }
+            }
+        }
+    }
+}
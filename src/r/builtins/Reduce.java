@@ -0,0 +1,128 @@
+package r.builtins;
+
+import r.*;
+import r.builtins.LApply.CachedCall;
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+// FIXME: only a subset of R functionality
+/**
+ * "Reduce" uses a binary function to successively combine the elements of a given vector and a possibly given initial
+ * value.
+ *
+ * <pre>
+ * f -- a function of two arguments
+ * x -- a vector (atomic or list)
+ * init -- an R object of the same kind as the elements of x
+ * right -- a logical indicating whether to proceed from left to right (default) or from right to left
+ * accumulate -- a logical indicating whether the successive reduce combinations should be accumulated
+ * simplify -- a logical indicating whether accumulated results should be simplified (unlisted) if all of length one
+ * </pre>
+ */
+final class Reduce extends CallFactory {
+
+    static final CallFactory _ = new Reduce("Reduce", new String[]{"f", "x", "init", "right", "accumulate", "simplify"}, new String[]{"f", "x"});
+
+    private Reduce(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posF = ia.position("f");
+        final int posX = ia.position("x");
+        final int posInit = ia.position("init");
+        final int posRight = ia.position("right");
+        final int posAccumulate = ia.position("accumulate");
+        final int posSimplify = ia.position("simplify");
+        final CachedCall callNode = new CachedCall(call, exprs[posF]);
+
+        return new Builtin(call, names, exprs) {
+
+            @Child CachedCall reduceCall = adoptChild(callNode);
+
+            @Override
+            protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+                assert oldNode != null;
+                if (reduceCall == oldNode) {
+                    reduceCall = (CachedCall) newNode;
+                    return adoptInternal(newNode);
+                }
+                return super.replaceChild(oldNode, newNode);
+            }
+
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RCallable fun = reduceCall.matchCallable(frame, args[posF]);
+                RAny argx = args[posX];
+                if (!(argx instanceof RArray)) { throw Utils.nyi("unsupported type"); }
+                RArray x = (RArray) argx;
+                boolean right = posRight == -1 ? false : parseUncheckedLogical(args[posRight], ast);
+                boolean accumulate = posAccumulate == -1 ? false : parseUncheckedLogical(args[posAccumulate], ast);
+                boolean simplify = posSimplify == -1 ? true : parseUncheckedLogical(args[posSimplify], ast);
+                RAny init = posInit == -1 ? null : args[posInit];
+
+                int xsize = x.size();
+                if (xsize == 0) {
+                    return init == null ? RNull.getNull() : init;
+                }
+                int nresults = init == null ? xsize : xsize + 1;
+                RAny[] results = accumulate ? new RAny[nresults] : null;
+                RAny acc;
+                if (!right) {
+                    int i = 0;
+                    acc = init == null ? element(x, i++) : init;
+                    int j = 0;
+                    if (accumulate) {
+                        acc.ref(); // f may update acc in place, which must not change the stored result
+                        results[j++] = acc;
+                    }
+                    for (; i < xsize; i++) {
+                        acc = (RAny) reduceCall.call(frame, fun, acc, element(x, i));
+                        if (accumulate) {
+                            acc.ref();
+                            results[j++] = acc;
+                        }
+                    }
+                } else {
+                    int i = xsize - 1;
+                    acc = init == null ? element(x, i--) : init;
+                    int j = nresults - 1;
+                    if (accumulate) {
+                        acc.ref();
+                        results[j--] = acc;
+                    }
+                    for (; i >= 0; i--) {
+                        acc = (RAny) reduceCall.call(frame, fun, element(x, i), acc);
+                        if (accumulate) {
+                            acc.ref();
+                            results[j--] = acc;
+                        }
+                    }
+                }
+                if (!accumulate) {
+                    return acc;
+                }
+                RList res = RList.RListFactory.getFor(results);
+                if (simplify && allOfSizeOne(results)) {
+                    return Unlist.genericUnlist(res, false, true, ast);
+                }
+                return res;
+            }
+        };
+    }
+
+    public static RAny element(RArray x, int i) {
+        return x instanceof RList ? ((RList) x).getRAny(i) : x.boxedGet(i);
+    }
+
+    private static boolean allOfSizeOne(RAny[] values) {
+        for (RAny v : values) {
+            if (!(v instanceof RArray) || ((RArray) v).size() != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,9 +1,11 @@
 package r.builtins;
 
+import java.util.*;
 import java.util.regex.*;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -26,7 +28,7 @@ import r.runtime.*;
  * </pre>
  */
 // FIXME: does not fill in attributes yet (TODO this when custom attributes are supported)
-// FIXME: like SubStr and Sub, ignores "perl" and "useBytes", regexps are not quite like in R
+// FIXME: like SubStr and Sub, ignores "perl", regexps are not quite like in R
 // TODO: does not accept all regular expressions of GNU-R, e.g. does not accept patterns like *.java
 class Regexpr extends CallFactory {
     static final CallFactory _ = new Regexpr("regexpr", new String[]{"pattern", "text", "ignore.case", "perl", "fixed", "useBytes"}, new String[]{"pattern", "text"}, false);
@@ -47,25 +49,148 @@ class Regexpr extends CallFactory {
         final int posFixed = ia.position("fixed");
         final int posIgnoreCase = ia.position("ignore.case");
         return new Builtin(call, names, exprs) {
+            final ByteRegex.Cache byteRegex = new ByteRegex.Cache();
+
             @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
-                if (posUseBytes != -1) {
-                    RContext.warning(ast, "Ignoring useBytes.");
-                }
                 String pattern = Sub.parseScalarString(ast, args[posPattern], "pattern");
                 RString text = Convert.coerceToStringError(args[posText], ast);
                 boolean ignoreCase = posIgnoreCase != -1 ? Convert.checkFirstLogical(args[posIgnoreCase], RLogical.TRUE) : false;
                 boolean perl = posPerl != -1 ? Convert.checkFirstLogical(args[posPerl], RLogical.TRUE) : false;
                 boolean fixed = posFixed != -1 ? Convert.checkFirstLogical(args[posFixed], RLogical.TRUE) : false;
+                boolean useBytes = posUseBytes != -1 ? Convert.checkFirstLogical(args[posUseBytes], RLogical.TRUE) : false;
                 if (pattern == RString.NA) { throw RError.getInvalidArgument(ast, "pattern"); }
+                if (useBytes) {
+                    ByteRegex re = !fixed ? byteRegex.get(pattern, ignoreCase) : null;
+                    if (re != null) {
+                        if (!perl) {
+                            RContext.warning(ast, "Using a Perl-like regular expression syntax (non-Perl not implemented yet).");
+                        }
+                        RAny res = regexprBytes(re, text, global);
+                        if (res != null) {
+                            return res;
+                        }
+                    }
+                    RContext.warning(ast, "Ignoring useBytes.");
+                }
                 if (!perl) {
                     RContext.warning(ast, "Using a Perl-like regular expression syntax (non-Perl not implemented yet).");
                 }
+                if (fixed) {
+                    LiteralSearch literal = LiteralSearch.create(new String[]{pattern}, ignoreCase);
+                    if (literal != null) {
+                        return regexprFixed((LiteralSearch.Horspool) literal, text, global);
+                    }
+                }
                 Pattern p = Pattern.compile(pattern, (ignoreCase ? Pattern.CASE_INSENSITIVE : 0) | (fixed ? Pattern.LITERAL : 0));
                 return global ? gregexpr(p, text) : regexpr(p, text);
             }
         };
     }
 
+    // useBytes=TRUE, the positions are in bytes; returns null when an element does not fit into Latin-1
+    public static RAny regexprBytes(ByteRegex re, RString text, boolean global) {
+        int size = text.size();
+        ByteStringImpl btext = text instanceof ByteStringImpl ? (ByteStringImpl) text : null;
+        int[] content = global ? null : new int[size];
+        RAny[] lcontent = global ? new RAny[size] : null;
+        int[] buf = new int[16];
+        for (int i = 0; i < size; i++) {
+            byte[] s;
+            int start;
+            int end;
+            if (btext != null) {
+                s = btext.isNA(i) ? null : btext.bytes();
+                start = s != null ? btext.start(i) : 0;
+                end = s != null ? btext.end(i) : 0;
+            } else {
+                String str = text.getString(i);
+                if (str == RString.NA) {
+                    s = null;
+                } else {
+                    s = ByteStringImpl.encode(str);
+                    if (s == null) {
+                        return null;
+                    }
+                }
+                start = 0;
+                end = s != null ? s.length : 0;
+            }
+            if (s == null) {
+                if (global) {
+                    lcontent[i] = RInt.BOXED_NA;
+                } else {
+                    content[i] = RInt.NA;
+                }
+                continue;
+            }
+            if (!global) {
+                int m = re.find(s, start, end);
+                content[i] = m != -1 ? m - start + 1 : -1;
+                continue;
+            }
+            int bufUsed = 0;
+            int pos = start;
+            while (pos <= end) {
+                int m = re.find(s, pos, end);
+                if (m == -1) {
+                    break;
+                }
+                if (bufUsed == buf.length) {
+                    buf = Arrays.copyOf(buf, bufUsed * 2);
+                }
+                buf[bufUsed++] = m - start + 1;
+                pos = re.matchEnd == m ? m + 1 : re.matchEnd;
+            }
+            lcontent[i] = bufUsed > 0 ? RInt.RIntFactory.getFor(Arrays.copyOf(buf, bufUsed)) : RInt.RIntFactory.getScalar(-1);
+        }
+        return global ? RList.RListFactory.getFor(lcontent) : RInt.RIntFactory.getFor(content); // drops dimensions
+    }
+
+    // fixed=TRUE, the occurrences do not overlap
+    public static RAny regexprFixed(LiteralSearch.Horspool literal, RString text, boolean global) {
+        int size = text.size();
+        ByteStringImpl btext = text instanceof ByteStringImpl ? (ByteStringImpl) text : null;
+        int len = literal.length();
+        int[] content = global ? null : new int[size];
+        RAny[] lcontent = global ? new RAny[size] : null;
+        int[] buf = new int[16];
+        for (int i = 0; i < size; i++) {
+            String s = btext == null ? text.getString(i) : null;
+            if (btext != null ? btext.isNA(i) : s == RString.NA) {
+                if (global) {
+                    lcontent[i] = RInt.BOXED_NA;
+                } else {
+                    content[i] = RInt.NA;
+                }
+                continue;
+            }
+            int start = btext != null ? btext.start(i) : 0;
+            int end = btext != null ? btext.end(i) : 0;
+            int bufUsed = 0;
+            int pos = start;
+            for (;;) {
+                int m = btext != null ? literal.indexOf(btext.bytes(), pos, end) : literal.indexOf(s, pos);
+                if (m == -1) {
+                    break;
+                }
+                if (bufUsed == buf.length) {
+                    buf = Arrays.copyOf(buf, bufUsed * 2);
+                }
+                buf[bufUsed++] = m - start + 1;
+                if (!global) {
+                    break;
+                }
+                pos = m + len;
+            }
+            if (global) {
+                lcontent[i] = bufUsed > 0 ? RInt.RIntFactory.getFor(Arrays.copyOf(buf, bufUsed)) : RInt.RIntFactory.getScalar(-1);
+            } else {
+                content[i] = bufUsed > 0 ? buf[0] : -1;
+            }
+        }
+        return global ? RList.RListFactory.getFor(lcontent) : RInt.RIntFactory.getFor(content); // drops dimensions
+    }
+
     public static RInt regexpr(Pattern p, RString text) {
         int size = text.size();
         int[] content = new int[size];
@@ -104,12 +104,34 @@ class Rev extends CallFactory {
         });
     }
 
+    // a factor keeps its levels and class
+    public static RInt revFactor(RInt f, RArray.Names names) {
+        int size = f.size();
+        int[] codes = new int[size];
+        for (int i = 0; i < size; i++) {
+            codes[i] = f.getInt(size - 1 - i);
+        }
+        RArray.Names rnames = null;
+        if (names != null) {
+            RSymbol[] symbols = names.sequence();
+            RSymbol[] rsymbols = new RSymbol[size];
+            for (int i = 0; i < size; i++) {
+                rsymbols[i] = symbols[size - i - 1];
+            }
+            rnames = RArray.Names.create(rsymbols);
+        }
+        return RInt.RFactorUtils.withCodes(f, codes, rnames);
+    }
+
     // FIXME: should do type-specialization
     public static RAny rev(RAny arg) {
         // default implementation
         if (!(arg instanceof RArray)) { throw Utils.nyi("unsupported type"); }
         RArray a = (RArray) arg;
         RArray.Names names = a.names();
+        if (a.attributes() != null && RInt.RFactorUtils.isFactor(a)) {
+            return revFactor((RInt) a, names);
+        }
         int size;
         if (names == null) {
             if (arg instanceof RDouble) { return rev((RDouble) arg); }
@@ -0,0 +1,41 @@
+package r.builtins;
+
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "signalCondition" signals a condition, which is handled by the innermost tryCatch with a handler for one of the
+ * classes of the condition. When there is no such handler, returns NULL.
+ *
+ * <pre>
+ * cond -- a condition object.
+ * message -- ignored.
+ * call -- ignored.
+ * </pre>
+ */
+final class SignalCondition extends CallFactory {
+
+    static final CallFactory _ = new SignalCondition("signalCondition", new String[]{"cond", "message", "call"}, new String[]{"cond"});
+
+    private SignalCondition(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posCond = ia.position("cond");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RAny cond = args[posCond];
+                if (!RCondition.isCondition(cond)) {
+                    throw RError.getInvalidArgument(ast, "cond");
+                }
+                RCondition.signal((RList) cond, RCondition.classes(cond));
+                return RNull.getNull();
+            }
+        };
+    }
+}
@@ -0,0 +1,39 @@
+package r.builtins;
+
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "simpleCondition", "simpleError" and "simpleWarning" create condition objects.
+ *
+ * <pre>
+ * message -- a character string.
+ * call -- ignored.
+ * </pre>
+ */
+final class SimpleCondition extends CallFactory {
+
+    static final CallFactory _ = new SimpleCondition("simpleCondition", RCondition.CONDITION_CLASSES);
+    static final CallFactory ERROR = new SimpleCondition("simpleError", RCondition.ERROR_CLASSES);
+    static final CallFactory WARNING = new SimpleCondition("simpleWarning", RCondition.WARNING_CLASSES);
+
+    final String[] classes;
+
+    private SimpleCondition(String name, String[] classes) {
+        super(name, new String[]{"message", "call"}, new String[]{"message"});
+        this.classes = classes;
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posMessage = ia.position("message");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                return RCondition.create(Stop.makeMessage(new RAny[]{args[posMessage]}, ast), classes);
+            }
+        };
+    }
+}
@@ -47,7 +47,7 @@ public class Source extends CallFactory {
                     }
                     String fileName = narg.getString(0);
                     try {
-                        input = new ANTLRFileStream(fileName);
+                        input = new ANTLRFileStream(RContext.resolvePath(fileName));
                     } catch (IOException e) {
                         throw RError.getCannotOpenFile(ast, fileName, e.toString());
                     }
@@ -6,6 +6,7 @@ import r.data.RDouble.*;
 import r.errors.*;
 import r.ext.*;
 import r.nodes.ast.*;
+import r.nodes.exec.*;
 
 /**
  * "sqrt"
@@ -35,6 +36,11 @@ final class Sqrt extends MathBase {
         sqrt(x, res, ast);
     }
 
+    @Override
+    boolean op(ASTNode ast, double[] x, double[] res, int from, int to) {
+        return VectorKernels.sqrt(x, res, from, to);
+    }
+
     public static double sqrt(double d, ASTNode ast) {
         if (RDouble.RDoubleUtils.isNAorNaN(d)) {
             return RDouble.NA;
@@ -54,8 +60,8 @@ final class Sqrt extends MathBase {
             MKL.vdSqrt(size, x, res);
             return;
         }
-        for (int i = 0; i < x.length; i++) {
-            res[i] = sqrt(x[i], ast);
+        if (VectorKernels.sqrt(x, res, 0, size)) {
+            RContext.warning(ast, RError.NAN_PRODUCED);
         }
     }
 }
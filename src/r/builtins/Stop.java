@@ -23,6 +23,9 @@ public class Stop extends CallFactory {
 
             @Override
             public RAny doBuiltIn(Frame frame, RAny[] args) {
+                if (args.length == 1 && RCondition.isCondition(args[0])) {
+                    throw RCondition.getConditionError(ast, (RList) args[0]);
+                }
                 throw RError.getGenericError(ast, makeMessage(args, ast));
             }
 
@@ -4,6 +4,7 @@ import java.util.regex.*;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -45,16 +46,32 @@ class Sub extends CallFactory {
         final int posFixed = ia.position("fixed");
         final int posUseBytes = ia.position("useBytes");
         return new Builtin(call, names, exprs) {
+            final ByteRegex.Cache byteRegex = new ByteRegex.Cache();
+
             @Override public final RAny doBuiltIn(Frame frame, RAny[] args) {
-                if (posUseBytes != -1) {
-                    RContext.warning(ast, "Ignoring useBytes.");
-                }
                 String pattern = parseScalarString(ast, args[posPattern], "pattern");
                 String replacement = parseScalarString(ast, args[posReplacement], "replacement");
                 RString x = Convert.coerceToStringError(args[posX], ast);
                 boolean ignoreCase = posIgnoreCase != -1 ? Convert.checkFirstLogical(args[posIgnoreCase], RLogical.TRUE) : false;
                 boolean perl = posPerl != -1 ? Convert.checkFirstLogical(args[posPerl], RLogical.TRUE) : false;
                 boolean fixed = posFixed != -1 ? Convert.checkFirstLogical(args[posFixed], RLogical.TRUE) : false;
+                boolean useBytes = posUseBytes != -1 ? Convert.checkFirstLogical(args[posUseBytes], RLogical.TRUE) : false;
+                if (useBytes) {
+                    if (!fixed && pattern != RString.NA && replacement != RString.NA) {
+                        ByteRegex re = byteRegex.get(pattern, ignoreCase);
+                        byte[] rbytes = literalReplacement(replacement);
+                        if (re != null && rbytes != null) {
+                            if (!perl) {
+                                RContext.warning(ast, "Using a Perl-like regular expression syntax (non-Perl not implemented yet).");
+                            }
+                            RString res = subBytes(re, rbytes, x, global);
+                            if (res != null) {
+                                return res;
+                            }
+                        }
+                    }
+                    RContext.warning(ast, "Ignoring useBytes.");
+                }
                 return sub(ast, pattern, replacement, x, ignoreCase, perl, fixed, global);
             }
         };
@@ -66,6 +83,7 @@ class Sub extends CallFactory {
         if (size == 1) { return rstring.getString(0); }
         if (size > 1) {
             RContext.warning(ast, String.format(RError.ARGUMENT_ONLY_FIRST, argName));
+            return rstring.getString(0);
         }
         throw RError.getInvalidArgument(ast, argName);
     }
@@ -86,6 +104,89 @@ class Sub extends CallFactory {
         return replacementArg.replaceAll("\\\\([1-9])", "\\$$1");
     }
 
+    // the bytes of a replacement that does not refer to groups (with escapes resolved as by Matcher.appendReplacement), or null
+    public static byte[] literalReplacement(String replacementArg) {
+        String replacement = convertReplacement(replacementArg);
+        StringBuilder b = new StringBuilder();
+        int len = replacement.length();
+        for (int i = 0; i < len; i++) {
+            char c = replacement.charAt(i);
+            if (c == '$') {
+                return null;
+            }
+            if (c == '\\') {
+                if (++i == len) {
+                    return null;
+                }
+                c = replacement.charAt(i);
+            }
+            b.append(c);
+        }
+        return ByteStringImpl.encode(b.toString());
+    }
+
+    // useBytes=TRUE, returns null when an element does not fit into Latin-1
+    public static RString subBytes(ByteRegex re, byte[] replacement, RString x, boolean global) {
+        int size = x.size();
+        ByteStringImpl bx = x instanceof ByteStringImpl ? (ByteStringImpl) x : null;
+        ByteStringImpl.Builder res = new ByteStringImpl.Builder(size, bx != null ? bx.bytes().length : 16);
+        for (int i = 0; i < size; i++) {
+            byte[] s;
+            int start;
+            int end;
+            if (bx != null) {
+                if (bx.isNA(i)) {
+                    res.addNA();
+                    continue;
+                }
+                s = bx.bytes();
+                start = bx.start(i);
+                end = bx.end(i);
+            } else {
+                String str = x.getString(i);
+                if (str == RString.NA) {
+                    res.addNA();
+                    continue;
+                }
+                s = ByteStringImpl.encode(str);
+                if (s == null) {
+                    return null;
+                }
+                start = 0;
+                end = s.length;
+            }
+            int pos = start;
+            while (pos <= end) {
+                int mstart = re.find(s, pos, end);
+                if (mstart == -1) {
+                    break;
+                }
+                int mend = re.matchEnd;
+                res.append(s, pos, mstart);
+                res.append(replacement, 0, replacement.length);
+                if (mend == mstart) { // an empty match, the search continues after the next byte
+                    if (mend < end) {
+                        res.append(s[mend]);
+                    }
+                    pos = mend + 1;
+                } else {
+                    pos = mend;
+                }
+                if (!global) {
+                    break;
+                }
+            }
+            if (pos < end) {
+                res.append(s, pos, end);
+            }
+            res.finishElement();
+        }
+        if (size == 1 && x.names() == null && x.dimensions() == null) {
+            return res.build();
+        }
+        return res.buildNonScalar(x.dimensions(), x.names(), null);
+    }
+
     public static RString subRE(String pattern, String replacementArg, RString x, boolean ignoreCase, boolean global) {
         Pattern p = Pattern.compile(pattern, ignoreCase ? Pattern.CASE_INSENSITIVE : 0); // FIXME: can add UNICODE_CASE
         int size = x.size();
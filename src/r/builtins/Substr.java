@@ -3,6 +3,7 @@ package r.builtins;
 import r.Convert.ConversionStatus;
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -57,6 +58,7 @@ class Substr extends CallFactory {
         if (xsize == 0) { return RString.EMPTY; }
         if (startSize == 0) { throw RError.getInvalidArgument(ast, "start"); }// not exactly R-warning       
         if (stopSize == 0) { throw RError.getInvalidArgument(ast, "stop"); }// not exactly R-warning       
+        if (x instanceof ByteStringImpl) { return substr((ByteStringImpl) x, start, stop); }
         String[] content = new String[xsize];
         for (int i = 0; i < xsize; i++) {
             double nstart = start.getDouble(startIndex++);
@@ -74,11 +76,46 @@ class Substr extends CallFactory {
                 if (stp > len) {
                     stp = len;
                 }
-                content[i] = str.substring(((int) nstart) - 1, stp);
+                int strt = Math.max((int) nstart, 1);
+                content[i] = strt > stp ? "" : str.substring(strt - 1, stp);
             } else {
                 content[i] = RString.NA;
             }
         }
         return RString.RStringFactory.getFor(content);
     }
+
+    // copies the selected bytes into a new compact vector, no intermediate strings are created
+    public static RString substr(ByteStringImpl x, RDouble start, RDouble stop) {
+        int xsize = x.size();
+        int startSize = start.size();
+        int stopSize = stop.size();
+        int startIndex = 0;
+        int stopIndex = 0;
+        byte[] bytes = x.bytes();
+        ByteStringImpl.Builder res = new ByteStringImpl.Builder(xsize, bytes.length);
+        for (int i = 0; i < xsize; i++) {
+            double nstart = start.getDouble(startIndex++);
+            if (startIndex == startSize) {
+                startIndex = 0;
+            }
+            double nstop = stop.getDouble(stopIndex++);
+            if (stopIndex == stopSize) {
+                stopIndex = 0;
+            }
+            if (!RDouble.RDoubleUtils.isNAorNaN(nstart) && !RDouble.RDoubleUtils.isNAorNaN(nstop) && !x.isNA(i)) {
+                int stp = Math.min((int) nstop, x.length(i));
+                int strt = Math.max((int) nstart, 1);
+                int base = x.start(i);
+                if (strt > stp) {
+                    res.finishElement();
+                } else {
+                    res.add(bytes, base + strt - 1, base + stp);
+                }
+            } else {
+                res.addNA();
+            }
+        }
+        return res.build();
+    }
 }
@@ -2,6 +2,7 @@ package r.builtins;
 
 import r.data.*;
 import r.data.RComplex.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -48,6 +49,13 @@ final class Sum extends CallFactory {
         return res;
     }
 
+    public static double sum(PackedLogicalImpl v, boolean narm) {
+        if (!narm && v.hasNA()) {
+            return RInt.NA;
+        }
+        return v.countTrue();
+    }
+
 
     // TODO: this optimization should be done more thoroughly, it could help much more with lazy comparison
 
@@ -202,7 +210,7 @@ final class Sum extends CallFactory {
                         if (v instanceof RNull) {
                             continue;
                         }
-                        res += sum(v.asInt(), naRM);
+                        res += v instanceof PackedLogicalImpl ? sum((PackedLogicalImpl) v, naRM) : sum(v.asInt(), naRM);
                     }
                     if (!(res < Integer.MIN_VALUE || res > Integer.MAX_VALUE)) {
                         // FIXME: this may not rigorously reflect R semantics, check if the
@@ -215,6 +223,10 @@ final class Sum extends CallFactory {
                     // sum(logical) cmpop const
                     int argi = narmPosition == 0 ? 1 : 0;
                     RLogical v = (RLogical) args[argi];
+                    if (v instanceof PackedLogicalImpl) {
+                        PackedLogicalImpl p = (PackedLogicalImpl) v;
+                        return !naRM && p.hasNA() ? RInt.BOXED_NA : RInt.RIntFactory.getScalar(p.countTrue());
+                    }
                     int size = v.size();
                     int res = 0;
                     int i = 0;
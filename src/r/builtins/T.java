@@ -2,6 +2,7 @@ package r.builtins;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -14,7 +15,6 @@ import r.runtime.*;
  * x -- a matrix or data frame, typically.
  * </pre>
  */
-// FIXME: also could do a lazy version using views
 // TODO: there is a more efficient, cache-oblivious algorithm, which operates on parts of the original matrix
 // TODO: the m*n matrix (m != n) can also be transposed nearly-in-place
 final class T extends CallFactory {
@@ -26,6 +26,7 @@ final class T extends CallFactory {
     }
 
     private static final boolean IN_PLACE = true;
+    private static final boolean LAZY = true; // double matrices are transposed by a view, which %*% and crossprod pass to BLAS as is
 
     @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
         check(call, names, exprs);
@@ -51,6 +52,9 @@ final class T extends CallFactory {
                             inPlaceSquare(a, m);
                             return a.setNames(null).setDimensions(ndim);
                         }
+                        if (LAZY && a instanceof DoubleImpl) {
+                            return TracingView.ViewTrace.trace(new RDouble.RDoubleTransposed((RDouble) a, m, n, null, a.attributesRef()));
+                        }
                         boolean blocked = n > 1000 && m == n; // FIXME: a tuning parameter
 
                         if (blocked) {
@@ -0,0 +1,83 @@
+package r.builtins;
+
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "tabulate" takes the integer-valued vector bin and counts the number of times each integer occurs in it. For a
+ * factor, the codes are counted directly, one bin per level.
+ *
+ * <pre>
+ * bin -- a numeric vector (of positive integers), or a factor. Long vectors are supported.
+ * nbins -- the number of bins to be used.
+ * </pre>
+ */
+final class Tabulate extends CallFactory {
+
+    static final CallFactory _ = new Tabulate("tabulate", new String[]{"bin", "nbins"}, new String[]{"bin"});
+
+    private Tabulate(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posBin = ia.position("bin");
+        final int posNbins = ia.position("nbins");
+
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RAny b = args[posBin];
+                RInt bin;
+                int nbins;
+                if (RInt.RFactorUtils.isFactor(b)) {
+                    bin = (RInt) b;
+                    RString levels = RInt.RFactorUtils.levels(bin);
+                    nbins = levels == null ? 0 : levels.size();
+                } else if (b instanceof RInt || b instanceof RDouble || b instanceof RLogical) {
+                    bin = ((RArray) b).asInt();
+                    nbins = -1;
+                } else {
+                    throw RError.getInvalidArgument(ast, "bin");
+                }
+                if (posNbins != -1) {
+                    RAny n = args[posNbins];
+                    if (!(n instanceof RInt || n instanceof RDouble || n instanceof RLogical) || ((RArray) n).size() < 1) { throw RError.getInvalidArgument(ast, "nbins"); }
+                    nbins = ((RArray) n).asInt().getInt(0);
+                    if (nbins == RInt.NA || nbins < 0) { throw RError.getInvalidArgument(ast, "nbins"); }
+                } else if (nbins == -1) {
+                    nbins = maxBin(bin);
+                }
+                return RInt.RIntFactory.getFor(count(bin, nbins));
+            }
+        };
+    }
+
+    // the default number of bins, max(1, bin, na.rm = TRUE)
+    static int maxBin(RInt bin) {
+        int max = 1;
+        int size = bin.size();
+        for (int i = 0; i < size; i++) {
+            int v = bin.getInt(i);
+            if (v != RInt.NA && v > max) {
+                max = v;
+            }
+        }
+        return max;
+    }
+
+    public static int[] count(RInt bin, int nbins) {
+        int[] counts = new int[nbins];
+        int size = bin.size();
+        for (int i = 0; i < size; i++) {
+            int v = bin.getInt(i);
+            if (v >= 1 && v <= nbins) { // NA is negative
+                counts[v - 1]++;
+            }
+        }
+        return counts;
+    }
+}
@@ -21,4 +21,8 @@ final class Tolower extends CharBase {
     @Override String op(ASTNode ast, String string) {
         return string != RString.NA ? string.toLowerCase() : RString.NA;
     }
+
+    @Override byte opASCII(byte b) {
+        return b >= 'A' && b <= 'Z' ? (byte) (b - ('A' - 'a')) : b;
+    }
 }
@@ -21,4 +21,8 @@ final class Toupper extends CharBase {
     @Override public String op(ASTNode ast, String string) {
         return string != RString.NA ? string.toUpperCase() : RString.NA;
     }
+
+    @Override byte opASCII(byte b) {
+        return b >= 'a' && b <= 'z' ? (byte) (b - ('a' - 'A')) : b;
+    }
 }
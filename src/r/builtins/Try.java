@@ -0,0 +1,58 @@
+package r.builtins;
+
+import r.*;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "try" evaluates an expression, allowing the user's code to handle error-recovery.
+ *
+ * <pre>
+ * expr -- an R expression to try.
+ * silent -- logical: should the report of error messages be suppressed?
+ * </pre>
+ */
+final class Try extends CallFactory {
+
+    static final CallFactory _ = new Try("try", new String[]{"expr", "silent"}, new String[]{"expr"});
+
+    private Try(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    static final RString TRY_ERROR_CLASS = (RString) RArray.RArrayUtils.markShared(RString.RStringFactory.getScalar("try-error"));
+    static final RSymbol CONDITION_SYMBOL = RSymbol.getSymbol("condition");
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posExpr = ia.position("expr");
+        final int posSilent = ia.position("silent");
+
+        return new Builtin(call, names, exprs) {
+            @Override public Object execute(Frame frame) {
+                try {
+                    return argExprs[posExpr].execute(frame);
+                } catch (RError e) {
+                    // the silent argument is only needed (evaluated) when there is an error
+                    boolean silent = posSilent != -1 && ((RAny) argExprs[posSilent].execute(frame)).asLogical().getLogical(0) == RLogical.TRUE;
+                    String msg = ManageError.errorMessage(e);
+                    if (!silent) {
+                        RContext.stderr().println(msg);
+                    }
+                    RAny.Attributes a = new RAny.Attributes();
+                    a.put(RSymbol.CLASS_SYMBOL, TRY_ERROR_CLASS);
+                    a.put(CONDITION_SYMBOL, RCondition.condition(e));
+                    return RString.RStringFactory.getFor(new String[]{msg + "\n"}, null, null, a);
+                }
+            }
+
+            @Override public RAny doBuiltIn(Frame frame, RAny[] params) {
+                Utils.check(false, "unreachable");
+                return null;
+            }
+        };
+    }
+}
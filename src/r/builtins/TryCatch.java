@@ -0,0 +1,129 @@
+package r.builtins;
+
+import java.util.*;
+
+import r.*;
+import r.builtins.LApply.CachedCall;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "tryCatch" evaluates an expression with condition handlers established.
+ *
+ * <pre>
+ * expr -- the expression to be evaluated.
+ * ... -- condition handlers, functions of one argument (the condition) named by the condition class they handle.
+ * finally -- an expression evaluated before tryCatch returns or exits.
+ * </pre>
+ */
+final class TryCatch extends CallFactory {
+
+    static final CallFactory _ = new TryCatch("tryCatch", new String[]{"expr", "...", "finally"}, new String[]{});
+
+    private TryCatch(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        int posExpr = ia.position("expr");
+        int posFinally = ia.position("finally");
+        int nhandlers = 0;
+        int[] posHandlers = new int[exprs.length];
+        for (int i = 0; i < exprs.length; i++) {
+            if (i != posExpr && i != posFinally && names != null && names[i] != null) {
+                posHandlers[nhandlers++] = i;
+            }
+        }
+        posHandlers = Arrays.copyOf(posHandlers, nhandlers);
+        String[] classes = new String[nhandlers];
+        for (int i = 0; i < nhandlers; i++) {
+            classes[i] = names[posHandlers[i]].name();
+        }
+        return new TryCatchImpl(call, names, exprs, posExpr, posFinally, posHandlers, classes);
+    }
+
+    // the handlers are only looked up when there is an error (as it is caught) or a signalled condition
+    static final class TryCatchImpl extends Builtin {
+        final int posExpr;
+        final int posFinally;
+        final int[] posHandlers;
+        final String[] classes;
+        @Children final CachedCall[] handlerCalls;
+
+        TryCatchImpl(ASTNode call, RSymbol[] names, RNode[] exprs, int posExpr, int posFinally, int[] posHandlers, String[] classes) {
+            super(call, names, exprs);
+            this.posExpr = posExpr;
+            this.posFinally = posFinally;
+            this.posHandlers = posHandlers;
+            this.classes = classes;
+            CachedCall[] calls = new CachedCall[posHandlers.length];
+            for (int i = 0; i < calls.length; i++) {
+                calls[i] = new CachedCall(call, exprs[posHandlers[i]]);
+            }
+            this.handlerCalls = adoptChildren(calls);
+        }
+
+        @Override public Object execute(Frame frame) {
+            try {
+                if (posExpr == -1) {
+                    return RNull.getNull();
+                }
+                if (classes.length == 0) {
+                    return argExprs[posExpr].execute(frame);
+                }
+                RAny[] handlers = new RAny[classes.length];
+                for (int i = 0; i < handlers.length; i++) {
+                    handlers[i] = (RAny) argExprs[posHandlers[i]].execute(frame);
+                }
+                int depth = RCondition.push(classes);
+                try {
+                    return argExprs[posExpr].execute(frame);
+                } catch (RCondition.ConditionException e) {
+                    if (e.depth() != depth) {
+                        throw e;
+                    }
+                    RCondition.pop(depth);
+                    return handle(frame, handlers, e.handler(), e.condition());
+                } catch (RError e) {
+                    int h = RCondition.handlerIndex(classes, RCondition.classes(e));
+                    if (h == -1) {
+                        throw e;
+                    }
+                    RCondition.pop(depth);
+                    return handle(frame, handlers, h, RCondition.condition(e));
+                } finally {
+                    RCondition.pop(depth);
+                }
+            } finally {
+                if (posFinally != -1) {
+                    argExprs[posFinally].execute(frame);
+                }
+            }
+        }
+
+        Object handle(Frame frame, RAny[] handlers, int h, RList condition) {
+            CachedCall c = handlerCalls[h];
+            return c.call(frame, c.matchCallable(frame, handlers[h]), condition);
+        }
+
+        @Override public RAny doBuiltIn(Frame frame, RAny[] params) {
+            Utils.check(false, "unreachable");
+            return null;
+        }
+
+        @Override protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+            assert oldNode != null;
+            for (int i = 0; i < handlerCalls.length; i++) {
+                if (handlerCalls[i] == oldNode) {
+                    handlerCalls[i] = (CachedCall) newNode;
+                    return adoptInternal(newNode);
+                }
+            }
+            return super.replaceChild(oldNode, newNode);
+        }
+    }
+}
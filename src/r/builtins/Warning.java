@@ -0,0 +1,45 @@
+package r.builtins;
+
+import r.*;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "warning" generates a warning message (or signals a warning condition), which is handled by an enclosing tryCatch
+ * or reported.
+ *
+ * <pre>
+ * ... -- zero or more objects which can be coerced to character (and which are pasted together with no separator) or
+ *        a single condition object.
+ * </pre>
+ */
+final class Warning extends CallFactory {
+
+    static final CallFactory _ = new Warning("warning", new String[]{"..."}, new String[]{});
+
+    private Warning(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        check(call, names, exprs);
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                String msg;
+                if (args.length == 1 && RCondition.isCondition(args[0])) {
+                    RList condition = (RList) args[0];
+                    RCondition.signal(condition, RCondition.classes(condition));
+                    msg = RCondition.message(condition);
+                    RContext.warning(ast, msg);
+                } else {
+                    msg = Stop.makeMessage(args, ast);
+                    RContext.warning(ast, msg);
+                }
+                return RString.RStringFactory.getScalar(msg);
+            }
+        };
+    }
+}
@@ -2,6 +2,7 @@ package r.builtins;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -29,6 +30,9 @@ final class Which extends CallFactory {
     // indeed could be also done with two passes but no extra allocation
     // FIXME: could get additional performance by providing multiple nodes and rewriting based on feedback on arguments
     public static RInt which(RLogical l) {
+        if (l instanceof PackedLogicalImpl) {
+            return which((PackedLogicalImpl) l);
+        }
         RLogical input = l.materialize();
         int size = input.size();
         int[] tmp = new int[size];
@@ -59,6 +63,24 @@ final class Which extends CallFactory {
         return RInt.RIntFactory.getFor(content, null, names); // drops dimensions, preserves names
     }
 
+    // the indexes are found from the set bits of the TRUE values, 64 elements at a time
+    public static RInt which(PackedLogicalImpl l) {
+        int[] content = l.which();
+        RArray.Names inames = l.names();
+        RArray.Names names;
+        if (inames != null) {
+            RSymbol[] symbols = new RSymbol[content.length];
+            RSymbol[] isymbols = inames.sequence();
+            for (int j = 0; j < content.length; j++) {
+                symbols[j] = isymbols[content[j] - 1];
+            }
+            names = RArray.Names.create(symbols);
+        } else {
+            names = null;
+        }
+        return RInt.RIntFactory.getFor(content, null, names);
+    }
+
     @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
         ArgumentInfo ia = check(call, names, exprs);
         if (ia.provided("arr.ind") || ia.provided("useNames")) { throw Utils.nyi("arguments not yet implemented"); }
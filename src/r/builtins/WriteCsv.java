@@ -0,0 +1,28 @@
+package r.builtins;
+
+/**
+ * "write.csv"
+ *
+ * <pre>
+ * x -- the object to be written: a list of columns of the same length (e.g. from read.csv), a matrix or a vector.
+ * file -- either a character string naming a file or a connection open for writing. "" indicates output to the console.
+ * append -- logical. Only relevant if file is a character string. If TRUE, the output is appended to the file.
+ * quote -- logical. If TRUE, character columns, row names and column names are surrounded by double quotes.
+ * sep -- the field separator string.
+ * eol -- the character(s) to print at the end of each line (row).
+ * na -- the string to use for missing values in the data.
+ * dec -- the string to use for decimal points. Only "." is supported.
+ * row.names -- either a logical value indicating whether the row names (the row numbers) are to be written, or a character
+ *     vector of row names to be written.
+ * col.names -- either a logical value indicating whether the column names are to be written, or a character vector of column
+ *     names to be written. NA (the default) means that a blank column name is added before them when row names are written.
+ * qmethod -- a character string specifying how to deal with embedded double quote characters when quoting strings.
+ * </pre>
+ */
+final class WriteCsv extends WriteTable {
+    @SuppressWarnings("hiding") static final CallFactory _ = new WriteCsv("write.csv");
+
+    private WriteCsv(String name) {
+        super(name, ",", null, "double");
+    }
+}
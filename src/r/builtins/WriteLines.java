@@ -0,0 +1,72 @@
+package r.builtins;
+
+import java.io.*;
+
+import r.*;
+import r.data.*;
+import r.data.internal.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "writeLines"
+ *
+ * <pre>
+ * text -- A character vector.
+ * con -- A connection object or a character string naming a file. The default writes to the standard output.
+ * sep -- character. A string to be written to the connection after each line of text.
+ * useBytes -- logical. See writeLines in GNU-R.
+ * </pre>
+ */
+final class WriteLines extends CallFactory {
+    static final CallFactory _ = new WriteLines("writeLines", new String[]{"text", "con", "sep", "useBytes"}, new String[]{"text"});
+
+    private WriteLines(String name, String[] params, String[] required) {
+        super(name, params, required);
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posText = ia.position("text");
+        final int posCon = ia.position("con");
+        final int posSep = ia.position("sep");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                RAny textArg = args[posText];
+                if (!(textArg instanceof RString)) { throw RError.getGenericError(ast, RError.ONLY_CHARACTER_OBJECTS); }
+                RString text = (RString) textArg;
+                byte[] sep = ReadTable.encode(posSep != -1 ? File.getScalarString(args[posSep], ast, "sep") : "\n");
+                File.Output output = posCon != -1 ? File.Output.get(args[posCon], false, ast) : new File.Output(null, false);
+                try {
+                    ByteWriter w = new ByteWriter(output.stream(ast));
+                    int size = text.size();
+                    if (text instanceof ByteStringImpl) {
+                        ByteStringImpl bs = (ByteStringImpl) text;
+                        for (int i = 0; i < size; i++) {
+                            if (bs.isNA(i)) {
+                                w.write("NA");
+                            } else {
+                                w.write(bs, i);
+                            }
+                            w.write(sep);
+                        }
+                    } else {
+                        for (int i = 0; i < size; i++) {
+                            String s = text.getString(i);
+                            w.write(s != RString.NA ? s : "NA");
+                            w.write(sep);
+                        }
+                    }
+                    w.flush();
+                } catch (IOException e) {
+                    throw RError.getGenericError(ast, e.toString());
+                } finally {
+                    output.close(ast);
+                }
+                return RNull.getNull();
+            }
+        };
+    }
+}
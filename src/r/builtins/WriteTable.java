@@ -0,0 +1,321 @@
+package r.builtins;
+
+import java.io.*;
+
+import r.*;
+import r.data.*;
+import r.data.internal.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+import r.runtime.*;
+
+/**
+ * "write.table"
+ *
+ * <pre>
+ * x -- the object to be written: a list of columns of the same length (e.g. from read.table), a matrix or a vector.
+ * file -- either a character string naming a file or a connection open for writing. "" indicates output to the console.
+ * append -- logical. Only relevant if file is a character string. If TRUE, the output is appended to the file.
+ * quote -- logical. If TRUE, character columns, row names and column names are surrounded by double quotes.
+ * sep -- the field separator string.
+ * eol -- the character(s) to print at the end of each line (row).
+ * na -- the string to use for missing values in the data.
+ * dec -- the string to use for decimal points. Only "." is supported.
+ * row.names -- either a logical value indicating whether the row names (the row numbers) are to be written, or a character
+ *     vector of row names to be written.
+ * col.names -- either a logical value indicating whether the column names are to be written, or a character vector of column
+ *     names to be written. NA means that a blank column name is added before them when row names are written (CSV convention).
+ * qmethod -- a character string specifying how to deal with embedded double quote characters when quoting strings: "escape"
+ *     (by a backslash) or "double" (by doubling it).
+ * </pre>
+ */
+// the rows are formatted into a reusable byte buffer (ByteWriter) and written to the output stream of the connection
+class WriteTable extends CallFactory {
+
+    static final CallFactory _ = new WriteTable("write.table", " ", Boolean.TRUE, "escape");
+
+    static final int DOUBLE = 0;
+    static final int INTEGER = 1;
+    static final int LOGICAL = 2;
+    static final int BYTES = 3;
+    static final int STRING = 4;
+    static final int OTHER = 5;
+
+    static final byte[] TRUE = {'T', 'R', 'U', 'E'};
+    static final byte[] FALSE = {'F', 'A', 'L', 'S', 'E'};
+
+    final String defaultSep;
+    final Boolean defaultColNames; // null for NA
+    final String defaultQmethod;
+
+    WriteTable(String name, String sep, Boolean colNames, String qmethod) {
+        super(name, new String[]{"x", "file", "append", "quote", "sep", "eol", "na", "dec", "row.names", "col.names", "qmethod"}, new String[]{"x"});
+        this.defaultSep = sep;
+        this.defaultColNames = colNames;
+        this.defaultQmethod = qmethod;
+    }
+
+    @Override public RNode create(ASTNode call, RSymbol[] names, RNode[] exprs) {
+        ArgumentInfo ia = check(call, names, exprs);
+        final int posX = ia.position("x");
+        final int posFile = ia.position("file");
+        final int posAppend = ia.position("append");
+        final int posQuote = ia.position("quote");
+        final int posSep = ia.position("sep");
+        final int posEol = ia.position("eol");
+        final int posNa = ia.position("na");
+        final int posDec = ia.position("dec");
+        final int posRowNames = ia.position("row.names");
+        final int posColNames = ia.position("col.names");
+        final int posQmethod = ia.position("qmethod");
+        return new Builtin(call, names, exprs) {
+            @Override public RAny doBuiltIn(Frame frame, RAny[] args) {
+                if (posDec != -1 && !File.getScalarString(args[posDec], ast, "dec").equals(".")) { throw Utils.nyi("decimal separator"); }
+                Table t = new Table(args[posX], ast);
+                boolean append = posAppend != -1 && ReadLines.parseLogicalScalar(args[posAppend], ast, "append");
+                boolean quote = posQuote != -1 ? ReadLines.parseLogicalScalar(args[posQuote], ast, "quote") : true;
+                byte[] sep = ReadTable.encode(posSep != -1 ? File.getScalarString(args[posSep], ast, "sep") : defaultSep);
+                byte[] eol = ReadTable.encode(posEol != -1 ? File.getScalarString(args[posEol], ast, "eol") : "\n");
+                byte[] na = ReadTable.encode(posNa != -1 ? File.getScalarString(args[posNa], ast, "na") : "NA");
+                String qmethod = posQmethod != -1 ? File.getScalarString(args[posQmethod], ast, "qmethod") : defaultQmethod;
+                if (!qmethod.equals("escape") && !qmethod.equals("double")) { throw RError.getInvalidArgument(ast, "qmethod"); }
+                byte escape = qmethod.equals("double") ? (byte) '"' : (byte) '\\';
+
+                String[] rowNames = null;
+                boolean rowNumbers = false;
+                RAny rowNamesArg = posRowNames != -1 ? args[posRowNames] : RLogical.BOXED_TRUE;
+                if (rowNamesArg instanceof RString) {
+                    rowNames = ReadTable.strings(rowNamesArg, ast, "row.names");
+                    if (rowNames.length != t.nrows) { throw RError.getGenericError(ast, RError.INVALID_ROW_NAMES); }
+                } else {
+                    rowNumbers = ReadLines.parseLogicalScalar(rowNamesArg, ast, "row.names");
+                }
+                String[] colNames = null;
+                boolean blankColName = false;
+                if (posColNames != -1 && args[posColNames] instanceof RString) {
+                    colNames = ReadTable.strings(args[posColNames], ast, "col.names");
+                    if (colNames.length != t.ncols) { throw RError.getGenericError(ast, RError.INVALID_COLUMN_NAMES); }
+                } else {
+                    Boolean writeColNames = defaultColNames;
+                    if (posColNames != -1) {
+                        int l = args[posColNames].asLogical().getLogical(0);
+                        writeColNames = l == RLogical.NA ? null : l == RLogical.TRUE;
+                    }
+                    if (writeColNames == null || writeColNames) {
+                        colNames = t.names;
+                        blankColName = writeColNames == null && (rowNames != null || rowNumbers);
+                    }
+                }
+
+                File.Output output = posFile != -1 ? File.Output.get(args[posFile], append, ast) : new File.Output(null, false);
+                try {
+                    ByteWriter w = new ByteWriter(output.stream(ast));
+                    if (colNames != null) {
+                        if (blankColName) {
+                            writeString(w, "", quote, escape);
+                            w.write(sep);
+                        }
+                        for (int j = 0; j < colNames.length; j++) {
+                            if (j > 0) {
+                                w.write(sep);
+                            }
+                            writeString(w, colNames[j], quote, escape);
+                        }
+                        w.write(eol);
+                    }
+                    for (int i = 0; i < t.nrows; i++) {
+                        if (rowNames != null) {
+                            writeString(w, rowNames[i], quote, escape);
+                            w.write(sep);
+                        } else if (rowNumbers) {
+                            if (quote) {
+                                w.write((byte) '"');
+                                w.write(i + 1);
+                                w.write((byte) '"');
+                            } else {
+                                w.write(i + 1);
+                            }
+                            w.write(sep);
+                        }
+                        for (int j = 0; j < t.ncols; j++) {
+                            if (j > 0) {
+                                w.write(sep);
+                            }
+                            t.write(w, j, i, na, quote, escape);
+                        }
+                        w.write(eol);
+                    }
+                    w.flush();
+                } catch (IOException e) {
+                    throw RError.getGenericError(ast, e.toString());
+                } finally {
+                    output.close(ast);
+                }
+                return RNull.getNull();
+            }
+        };
+    }
+
+    static void writeString(ByteWriter w, String s, boolean quote, byte escape) throws IOException {
+        if (!quote) {
+            w.write(s);
+            return;
+        }
+        w.write((byte) '"');
+        if (s.indexOf('"') == -1) {
+            w.write(s);
+        } else {
+            int len = s.length();
+            int start = 0;
+            for (int i = 0; i < len; i++) {
+                if (s.charAt(i) == '"') {
+                    w.write(s.substring(start, i));
+                    w.write(escape);
+                    start = i;
+                }
+            }
+            w.write(s.substring(start));
+        }
+        w.write((byte) '"');
+    }
+
+    // the columns of x, column j is the elements of arrays[j] from offsets[j]
+    static final class Table {
+        final RArray[] arrays;
+        final int[] offsets;
+        final int[] kinds;
+        final String[] names;
+        final int ncols;
+        final int nrows;
+
+        Table(RAny x, ASTNode ast) {
+            if (x instanceof RList) {
+                RList l = (RList) x;
+                ncols = l.size();
+                arrays = new RArray[ncols];
+                offsets = new int[ncols];
+                int n = -1;
+                for (int j = 0; j < ncols; j++) {
+                    RAny v = l.getRAny(j);
+                    if (!(v instanceof RArray) || v instanceof RList) { throw Utils.nyi("unsupported column type"); }
+                    arrays[j] = (RArray) v;
+                    int size = arrays[j].size();
+                    if (n != -1 && size != n) { throw RError.getGenericError(ast, String.format(RError.DIFFERING_ROWS, n, size)); }
+                    n = size;
+                }
+                nrows = Math.max(n, 0);
+                RArray.Names lnames = l.names();
+                names = lnames != null ? lnames.asStringArray() : defaultNames(ncols);
+            } else if (x instanceof RArray) {
+                RArray a = (RArray) x;
+                int[] dims = a.dimensions();
+                if (dims != null && dims.length == 2) {
+                    nrows = dims[0];
+                    ncols = dims[1];
+                    names = defaultNames(ncols);
+                } else {
+                    nrows = a.size();
+                    ncols = 1;
+                    names = new String[]{"x"};
+                }
+                arrays = new RArray[ncols];
+                offsets = new int[ncols];
+                for (int j = 0; j < ncols; j++) {
+                    arrays[j] = a;
+                    offsets[j] = j * nrows;
+                }
+            } else {
+                throw RError.getInvalidArgument(ast, "x");
+            }
+            kinds = new int[ncols];
+            for (int j = 0; j < ncols; j++) {
+                RArray a = arrays[j];
+                if (RInt.RFactorUtils.isFactor(a)) { // written as the levels, like strings
+                    a = RInt.RFactorUtils.labels((RInt) a);
+                    arrays[j] = a;
+                }
+                kinds[j] = a instanceof RDouble ? DOUBLE : a instanceof RInt ? INTEGER : a instanceof RLogical ? LOGICAL : a instanceof ByteStringImpl ? BYTES :
+                                a instanceof RString ? STRING : OTHER;
+            }
+        }
+
+        static String[] defaultNames(int n) {
+            String[] res = new String[n];
+            for (int i = 0; i < n; i++) {
+                res[i] = "V" + (i + 1);
+            }
+            return res;
+        }
+
+        void write(ByteWriter w, int j, int row, byte[] na, boolean quote, byte escape) throws IOException {
+            RArray a = arrays[j];
+            int i = offsets[j] + row;
+            switch (kinds[j]) {
+                case DOUBLE: {
+                    double d = ((RDouble) a).getDouble(i);
+                    if (RDouble.RDoubleUtils.isNA(d)) {
+                        w.write(na);
+                    } else {
+                        w.write(d);
+                    }
+                    return;
+                }
+                case INTEGER: {
+                    int v = ((RInt) a).getInt(i);
+                    if (v == RInt.NA) {
+                        w.write(na);
+                    } else {
+                        w.write(v);
+                    }
+                    return;
+                }
+                case LOGICAL: {
+                    int v = ((RLogical) a).getLogical(i);
+                    w.write(v == RLogical.NA ? na : v == RLogical.TRUE ? TRUE : FALSE);
+                    return;
+                }
+                case BYTES: {
+                    ByteStringImpl s = (ByteStringImpl) a;
+                    if (s.isNA(i)) {
+                        w.write(na);
+                    } else if (!quote) {
+                        w.write(s, i);
+                    } else {
+                        byte[] b = s.bytes();
+                        int start = s.start(i);
+                        int end = s.end(i);
+                        boolean plain = true;
+                        for (int k = start; k < end; k++) {
+                            if (b[k] == '"' || b[k] < 0) {
+                                plain = false;
+                                break;
+                            }
+                        }
+                        if (plain) {
+                            w.write((byte) '"');
+                            w.write(b, start, end);
+                            w.write((byte) '"');
+                        } else {
+                            writeString(w, s.getString(i), true, escape);
+                        }
+                    }
+                    return;
+                }
+                case STRING: {
+                    String s = ((RString) a).getString(i);
+                    if (s == RString.NA) {
+                        w.write(na);
+                    } else {
+                        writeString(w, s, quote, escape);
+                    }
+                    return;
+                }
+                default: {
+                    String s = Cat.catElement(a, i);
+                    w.write(s != RString.NA ? s : "NA");
+                }
+            }
+        }
+    }
+}
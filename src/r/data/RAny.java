@@ -110,6 +110,7 @@ public interface RAny {
         }
 
         public void put(RSymbol key, RAny value) {
+            value.ref(); // attribute values are never released, so an array stored as an attribute stays counted
             if (pmap == null) {
                 map.put(key, value);
             } else {
@@ -73,6 +73,27 @@ public interface RArray extends RAny {
             a.ref();
             return a;
         }
+
+        // changes the size of a non-shared vector without dimensions and names, in place when it has spare capacity
+        //   returns null when the vector can't be resized this way, the added elements are not initialized
+        public static RArray resizeInPlace(RArray a, int newSize) {
+            if (a.isShared() || a.dimensions() != null || a.names() != null) {
+                return null;
+            }
+            if (a instanceof DoubleImpl) {
+                return ((DoubleImpl) a).resize(newSize);
+            }
+            if (a instanceof IntImpl) {
+                return ((IntImpl) a).resize(newSize);
+            }
+            if (a instanceof StringImpl) {
+                return ((StringImpl) a).resize(newSize);
+            }
+            if (a instanceof ListImpl) {
+                return ((ListImpl) a).resize(newSize);
+            }
+            return null;
+        }
     }
 
     /**
@@ -0,0 +1,81 @@
+package r.data;
+
+import java.math.*;
+
+import r.data.internal.*;
+import r.errors.*;
+import r.nodes.ast.*;
+
+// an arbitrary-precision integer; unlike the numeric types, it is a single value and not a vector, so it has no
+// attributes and cannot be indexed
+public interface RBigInt extends RAny {
+
+    String TYPE_STRING = "bigz";
+
+    BigInteger getBigInteger();
+
+    public class RBigIntFactory {
+        public static RBigInt getScalar(BigInteger value) {
+            return new BigIntImpl(value);
+        }
+        public static RBigInt getScalar(long value) {
+            return new BigIntImpl(BigInteger.valueOf(value));
+        }
+    }
+
+    public class RBigIntUtils {
+        private static final double MAX_EXACT_DOUBLE = 9007199254740992.0; // 2^53
+
+        public static boolean isBigInt(Object lexpr, Object rexpr) {
+            return lexpr instanceof RBigInt || rexpr instanceof RBigInt;
+        }
+
+        // the value of an operand of an operation with a big integer, or null when it is NA
+        //   numbers are truncated towards zero, as by as.bigz
+        public static BigInteger operand(RAny value, ASTNode ast) {
+            if (value instanceof RBigInt) {
+                return ((RBigInt) value).getBigInteger();
+            }
+            if (!(value instanceof RDouble || value instanceof RInt || value instanceof RLogical)) {
+                throw RError.getNonNumericBinary(ast);
+            }
+            if (((RArray) value).size() != 1) {
+                throw RError.getGenericError(ast, RError.BIGZ_NOT_SCALAR);
+            }
+            if (value instanceof RDouble) {
+                double d = ((RDouble) value).getDouble(0);
+                if (RDouble.RDoubleUtils.isNAorNaN(d)) {
+                    return null;
+                }
+                return fromDouble(d, ast);
+            }
+            int i = value.asInt().getInt(0);
+            if (i == RInt.NA) {
+                return null;
+            }
+            return BigInteger.valueOf(i);
+        }
+
+        public static BigInteger fromDouble(double d, ASTNode ast) {
+            if (Double.isInfinite(d) || Double.isNaN(d)) {
+                throw RError.getGenericError(ast, RError.BIGZ_INVALID);
+            }
+            if (d > -MAX_EXACT_DOUBLE && d < MAX_EXACT_DOUBLE) {
+                return BigInteger.valueOf((long) d);
+            }
+            return new BigDecimal(d).toBigInteger();
+        }
+
+        // decimal digits with an optional sign, or null
+        public static BigInteger fromString(String s) {
+            if (s == RString.NA) {
+                return null;
+            }
+            try {
+                return new BigInteger(s.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+    }
+}
@@ -564,4 +564,113 @@ public interface RDouble extends RNumber {
             v.visit(this);
         }
     }
+
+    // a lazy transpose of an m x n matrix, the BLAS-based matrix operations use the original matrix directly
+    //   element-wise access materializes the transpose (once, by blocks) and then reads from it
+    public static class RDoubleTransposed extends View.RDoubleView implements RDouble {
+
+        static final int BLOCK = 32; // FIXME: a tuning parameter
+
+        final RDouble orig;
+        final int m;
+        final int n;
+        final int[] dimensions;
+        final Names names;
+        final Attributes attributes;
+        double[] transposed;
+
+        public RDoubleTransposed(RDouble orig, int m, int n, Names names, Attributes attributes) {
+            this.orig = orig;
+            this.m = m;
+            this.n = n;
+            this.dimensions = new int[]{n, m};
+            this.names = names;
+            this.attributes = attributes;
+        }
+
+        // the matrix being transposed (m x n), in column-major order
+        public RDouble original() {
+            return orig;
+        }
+
+        @Override
+        public int size() {
+            return m * n;
+        }
+
+        @Override
+        public int[] dimensions() {
+            return dimensions;
+        }
+
+        @Override
+        public Names names() {
+            return names;
+        }
+
+        @Override
+        public Attributes attributes() {
+            return attributes;
+        }
+
+        @Override
+        public double getDouble(int i) {
+            if (transposed == null) {
+                double[] content = new double[m * n];
+                transposeBlocked(orig.getContent(), m, n, content);
+                transposed = content;
+            }
+            return transposed[i];
+        }
+
+        @Override
+        public void materializeInto(double[] res) {
+            if (transposed != null) {
+                System.arraycopy(transposed, 0, res, 0, transposed.length);
+            } else {
+                transposeBlocked(orig.getContent(), m, n, res);
+            }
+        }
+
+        // a is m x n, res (n x m) is filled by blocks so that the rows of a being read stay in the cache
+        public static void transposeBlocked(double[] a, int m, int n, double[] res) {
+            for (int ib = 0; ib < m; ib += BLOCK) {
+                int iend = Math.min(ib + BLOCK, m);
+                for (int jb = 0; jb < n; jb += BLOCK) {
+                    int jend = Math.min(jb + BLOCK, n);
+                    for (int i = ib; i < iend; i++) {
+                        int roff = i * n;
+                        for (int j = jb; j < jend; j++) {
+                            res[roff + j] = a[j * m + i];
+                        }
+                    }
+                }
+            }
+        }
+
+        @Override
+        public boolean isSharedReal() {
+            return orig.isShared();
+        }
+
+        @Override
+        public void ref() {
+            orig.ref();
+        }
+
+        @Override
+        public boolean dependsOn(RAny v) {
+            return orig.dependsOn(v);
+        }
+
+        @Override
+        public void visit_all(ValueVisitor v) {
+            orig.accept(v);
+        }
+
+        @Override
+        public void accept(ValueVisitor v) {
+            v.visit(this);
+        }
+    }
 }
@@ -171,6 +171,175 @@ public interface RInt extends RNumber {
         }
     }
 
+    // a factor is an integer vector of codes (1-based indexes into the levels) with attributes "levels" (a string vector) and
+    // "class" ("factor", or "ordered", "factor" when the levels are ordered), factors created from one another share the levels
+    // vector
+    //   so comparisons, ordering and counting can work on the codes
+    public class RFactorUtils {
+        static final RString FACTOR_CLASS = (RString) RArrayUtils.markShared(RString.RStringFactory.getScalar("factor"));
+        static final RString ORDERED_CLASS = (RString) RArrayUtils.markShared(RString.RStringFactory.getFor(new String[]{"ordered", "factor"}));
+
+        public static boolean isFactor(RAny x) {
+            return x instanceof RInt && hasClass(x, "factor");
+        }
+
+        public static boolean isOrdered(RAny x) {
+            return isFactor(x) && hasClass(x, "ordered");
+        }
+
+        private static boolean hasClass(RAny x, String name) {
+            Attributes a = x.attributes();
+            if (a == null) {
+                return false;
+            }
+            RAny c = a.map().get(RSymbol.CLASS_SYMBOL);
+            if (!(c instanceof RString)) {
+                return false;
+            }
+            RString s = (RString) c;
+            int size = s.size();
+            for (int i = 0; i < size; i++) {
+                if (name.equals(s.getString(i))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // the levels of a factor (of any value with a string "levels" attribute), or null
+        public static RString levels(RAny x) {
+            Attributes a = x.attributes();
+            if (a == null) {
+                return null;
+            }
+            RAny l = a.map().get(RSymbol.LEVELS_SYMBOL);
+            return l instanceof RString ? (RString) l : null;
+        }
+
+        public static RInt create(int[] codes, RString levels, Names names, boolean ordered) {
+            Attributes a = new Attributes();
+            a.put(RSymbol.LEVELS_SYMBOL, levels);
+            a.put(RSymbol.CLASS_SYMBOL, ordered ? ORDERED_CLASS : FACTOR_CLASS);
+            return new IntImpl(codes, null, names, a, false);
+        }
+
+        // a factor with the given codes and the levels and class of f
+        public static RInt withCodes(RInt f, int[] codes, Names names) {
+            return new IntImpl(codes, null, names, f.attributesRef(), false);
+        }
+
+        // the codes of the values in the levels, NA for values that are NA or not in the levels
+        public static int[] encode(RString values, RString levels) {
+            int nlevels = levels.size();
+            HashMap<String, Integer> map = new HashMap<>(nlevels * 2);
+            for (int i = nlevels - 1; i >= 0; i--) { // the first of duplicate levels wins
+                map.put(levels.getString(i), i + 1);
+            }
+            int size = values.size();
+            int[] codes = new int[size];
+            for (int i = 0; i < size; i++) {
+                String s = values.getString(i);
+                Integer c = s == RString.NA ? null : map.get(s);
+                codes[i] = c == null ? NA : c;
+            }
+            return codes;
+        }
+
+        // the distinct non-NA values as strings, sorted as strings or (for numbers and logicals) numerically
+        public static RString sortedLevels(RArray x) {
+            if (x instanceof RString) {
+                RString s = (RString) x;
+                int size = s.size();
+                HashSet<String> distinct = new HashSet<>();
+                for (int i = 0; i < size; i++) {
+                    String v = s.getString(i);
+                    if (v != RString.NA) {
+                        distinct.add(v);
+                    }
+                }
+                String[] levels = distinct.toArray(new String[distinct.size()]);
+                Arrays.sort(levels);
+                return RString.RStringFactory.getFor(levels);
+            }
+            if (!(x instanceof RDouble || x instanceof RInt || x instanceof RLogical)) {
+                throw Utils.nyi("unsupported type");
+            }
+            RDouble d = x.asDouble();
+            int size = d.size();
+            HashMap<Double, Integer> firstIndex = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                double v = d.getDouble(i);
+                if (!RDouble.RDoubleUtils.isNAorNaN(v) && !firstIndex.containsKey(v)) {
+                    firstIndex.put(v, i);
+                }
+            }
+            int nlevels = firstIndex.size();
+            double[] values = new double[nlevels];
+            int j = 0;
+            for (Double v : firstIndex.keySet()) {
+                values[j++] = v;
+            }
+            Arrays.sort(values);
+            RString s = x.asString();
+            String[] levels = new String[nlevels];
+            for (int i = 0; i < nlevels; i++) {
+                levels[i] = s.getString(firstIndex.get(values[i]));
+            }
+            return RString.RStringFactory.getFor(levels);
+        }
+
+        // the levels of the elements of a factor
+        public static RString labels(RInt f) {
+            RString levels = levels(f);
+            int nlevels = levels == null ? 0 : levels.size();
+            int size = f.size();
+            String[] content = new String[size];
+            for (int i = 0; i < size; i++) {
+                int c = f.getInt(i);
+                content[i] = (c == NA || c < 1 || c > nlevels) ? RString.NA : levels.getString(c - 1);
+            }
+            return RString.RStringFactory.getFor(content, null, f.names());
+        }
+
+        // the codes without attributes; the content is shared with the factor, so both are marked shared and an update of
+        // either one copies it
+        public static RInt codes(RInt f) {
+            if (!(f instanceof IntImpl)) {
+                return RIntFactory.copy(f);
+            }
+            RArrayUtils.markShared(f);
+            return (RInt) RArrayUtils.markShared(RIntFactory.getFor(((IntImpl) f).getContent()));
+        }
+
+        public static String pretty(RInt f) {
+            StringBuilder str = new StringBuilder();
+            int size = f.size();
+            if (size == 0) {
+                str.append("factor(0)");
+            } else {
+                RString l = labels(f);
+                for (int i = 0; i < size; i++) {
+                    if (i > 0) {
+                        str.append(", ");
+                    }
+                    String s = l.getString(i);
+                    str.append(s == RString.NA ? "<NA>" : s);
+                }
+            }
+            str.append("\nLevels:");
+            RString levels = levels(f);
+            if (levels != null) {
+                String sep = isOrdered(f) ? " < " : " ";
+                int nlevels = levels.size();
+                for (int i = 0; i < nlevels; i++) {
+                    str.append(i == 0 ? " " : sep);
+                    str.append(levels.getString(i));
+                }
+            }
+            return str.toString();
+        }
+    }
+
     public static class RStringView extends View.RStringProxy<RInt> implements RString {
 
         public RStringView(RInt orig) {
@@ -18,6 +18,13 @@ public final class RPromise {
     private static final int MISSING_MASK = 1 << 2 | 1 << 3;
     private static final int MISSING_SHIFT = 2;
 
+    private static final int SHARED_MASK = 1 << 4; // the promise never releases its value (see RefCount)
+
+    // an eager promise holds the value its expression, a local variable read, had when the promise was created; when first forced,
+    // the promise checks that the variable still holds that value and re-evaluates the expression otherwise
+    private static final int EAGER_MASK = 1 << 5;
+    private static final int EAGER_SLOT_SHIFT = 6;
+
     private static final int MISSING_BITS_DEFAULT = 2 << MISSING_SHIFT;
     private static final int MISSING_BITS_MISSING = 1 << MISSING_SHIFT; // NOTE: we use different encoding of missing states from GNU-R
 
@@ -31,6 +38,21 @@ public final class RPromise {
         return new RPromise(expression, frame, 0);
     }
 
+    public static RPromise createEager(RNode expression, Frame frame, int slot, RAny value) {
+        RPromise p = new RPromise(expression, frame, EAGER_MASK | (slot << EAGER_SLOT_SHIFT));
+        p.value = value;
+        value.ref();
+        return p;
+    }
+
+    // a promise for a value that is already known when the call is made (an argument supplied by a builtin, e.g. lapply)
+    public static RPromise createForced(RNode expression, Frame frame, RAny value) {
+        RPromise p = new RPromise(expression, frame, 0);
+        p.value = value;
+        value.ref();
+        return p;
+    }
+
     public static RPromise createDefault(RNode expression, Frame frame) {
         return new RPromise(expression, frame, MISSING_BITS_DEFAULT);
     }
@@ -66,10 +88,24 @@ public final class RPromise {
                 markForceClean();
             }
             value.ref();
+        } else if ((bits & EAGER_MASK) != 0) {
+            checkEager();
         }
         return value;
     }
 
+    private void checkEager() {
+        bits &= ~EAGER_MASK;
+        if (frame.getSlot(bits >>> EAGER_SLOT_SHIFT) != value) {
+            // the variable has been modified since the call
+            if ((bits & SHARED_MASK) == 0) {
+                RefCount.unref(value);
+            }
+            value = null;
+            forceOrGet();
+        }
+    }
+
     public static Object force(Object o) {
         if (FunctionCall.PROMISES && o instanceof RPromise) {
             return ((RPromise) o).forceOrGet();
@@ -98,6 +134,30 @@ public final class RPromise {
         bits &= ~MISSING_DIRTY_MASK;
     }
 
+    // drops the reference held by the value, called when the frame holding the promise is left or when the variable is overwritten
+    public void release() {
+        if ((bits & SHARED_MASK) == 0) {
+            bits |= SHARED_MASK;
+            if (value != null) {
+                RefCount.unref(value);
+                RefCount.onPromiseRelease();
+            }
+        }
+    }
+
+    // the promise is held by more than one frame (passed via "...")
+    public void markShared() {
+        bits |= SHARED_MASK;
+    }
+
+    // the promise can be reached after its frame has been left
+    public void markEscaped() {
+        bits |= SHARED_MASK;
+        if ((value == null || (bits & EAGER_MASK) != 0) && frame != null) {
+            frame.markEscaped();
+        }
+    }
+
     public boolean isDefault() {
         return (bits & MISSING_MASK) == MISSING_BITS_DEFAULT;
     }
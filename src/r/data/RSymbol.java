@@ -28,6 +28,8 @@ public final class RSymbol extends BaseObject implements RAny {
     // from Attributes
     public static final RSymbol NAMES_SYMBOL = RSymbol.getSymbol("names");
     public static final RSymbol DIM_SYMBOL = RSymbol.getSymbol("dim");
+    public static final RSymbol LEVELS_SYMBOL = RSymbol.getSymbol("levels");
+    public static final RSymbol CLASS_SYMBOL = RSymbol.getSymbol("class");
 
     // from Rep
     public static final RSymbol TIMES_SYMBOL = RSymbol.getSymbol("times");
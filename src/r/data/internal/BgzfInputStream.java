@@ -0,0 +1,171 @@
+package r.data.internal;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+import r.*;
+
+// decompresses BGZF data (a series of gzip members of at most 64KiB, each recording its compressed size in an extra field,
+// as written by bgzip) inflating several blocks ahead of the reader on a pool of threads
+//   the compressed blocks are read by the reader's thread, the decompressed blocks are handed out in order and at most
+//   READ_AHEAD of them are pending, so the memory used does not depend on the size of the file
+final class BgzfInputStream extends InputStream {
+
+    static final int HEADER_SIZE = 18; // the header of a block, with the BC subfield as the only extra field
+    static final int TRAILER_SIZE = 8; // CRC32 and the size of the decompressed data
+
+    static final int READ_AHEAD = 4 * Parallel.NTHREADS;
+
+    final InputStream in;
+    final ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+    boolean eof; // no more blocks in the underlying stream
+    byte[] block = new byte[0];
+    int pos;
+
+    BgzfInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    // whether the first n bytes of header are the header of a BGZF block
+    static boolean isBgzf(byte[] header, int n) {
+        return n >= HEADER_SIZE && header[0] == (byte) 0x1f && header[1] == (byte) 0x8b && header[2] == 8 && (header[3] & 4) != 0 &&
+                        readShort(header, 10) == 6 && header[12] == 'B' && header[13] == 'C' && readShort(header, 14) == 2;
+    }
+
+    static int readShort(byte[] b, int off) {
+        return (b[off] & 0xff) | ((b[off + 1] & 0xff) << 8);
+    }
+
+    static int readInt(byte[] b, int off) {
+        return readShort(b, off) | (readShort(b, off + 2) << 16);
+    }
+
+    // the next compressed block, or null at the end of the stream
+    byte[] readBlock() throws IOException {
+        byte[] header = new byte[HEADER_SIZE];
+        int n = readFully(header, 0, HEADER_SIZE);
+        if (n == 0) {
+            return null;
+        }
+        if (!isBgzf(header, n)) {
+            throw new ZipException("not a BGZF block");
+        }
+        int size = readShort(header, 16) + 1;
+        if (size < HEADER_SIZE + TRAILER_SIZE) {
+            throw new ZipException("invalid BGZF block size");
+        }
+        byte[] b = new byte[size];
+        System.arraycopy(header, 0, b, 0, HEADER_SIZE);
+        if (readFully(b, HEADER_SIZE, size - HEADER_SIZE) != size - HEADER_SIZE) {
+            throw new EOFException("truncated BGZF block");
+        }
+        return b;
+    }
+
+    int readFully(byte[] b, int off, int len) throws IOException {
+        int n = 0;
+        while (n < len) {
+            int k = in.read(b, off + n, len - n);
+            if (k == -1) {
+                break;
+            }
+            n += k;
+        }
+        return n;
+    }
+
+    static byte[] inflate(byte[] b) throws IOException {
+        int size = readInt(b, b.length - 4);
+        byte[] out = new byte[size];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(b, HEADER_SIZE, b.length - HEADER_SIZE - TRAILER_SIZE);
+            int n = 0;
+            while (n < size) {
+                int k = inflater.inflate(out, n, size - n);
+                if (k == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("corrupt BGZF block");
+                }
+                n += k;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+        CRC32 crc = new CRC32();
+        crc.update(out, 0, size);
+        if ((int) crc.getValue() != readInt(b, b.length - TRAILER_SIZE)) {
+            throw new ZipException("corrupt BGZF block (CRC mismatch)");
+        }
+        return out;
+    }
+
+    boolean nextBlock() throws IOException {
+        while (!eof && pending.size() < READ_AHEAD) {
+            final byte[] b = readBlock();
+            if (b == null) {
+                eof = true;
+                break;
+            }
+            pending.add(Parallel.pool().submit(new Callable<byte[]>() {
+                @Override public byte[] call() throws IOException {
+                    return inflate(b);
+                }
+            }));
+        }
+        Future<byte[]> next = pending.poll();
+        if (next == null) {
+            return false;
+        }
+        try {
+            block = next.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+        pos = 0;
+        return true;
+    }
+
+    @Override public int read() throws IOException {
+        while (pos == block.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        return block[pos++] & 0xff;
+    }
+
+    @Override public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        while (pos == block.length) {
+            if (!nextBlock()) {
+                return -1;
+            }
+        }
+        int n = Math.min(len, block.length - pos);
+        System.arraycopy(block, pos, b, off, n);
+        pos += n;
+        return n;
+    }
+
+    @Override public int available() {
+        return block.length - pos;
+    }
+
+    @Override public void close() throws IOException {
+        for (Future<byte[]> f : pending) {
+            f.cancel(false);
+        }
+        pending.clear();
+        eof = true;
+        in.close();
+    }
+}
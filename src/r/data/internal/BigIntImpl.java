@@ -0,0 +1,154 @@
+package r.data.internal;
+
+import java.math.*;
+
+import r.*;
+import r.Convert.ConversionStatus;
+import r.data.*;
+
+public class BigIntImpl extends BaseObject implements RBigInt {
+
+    private static final BigInteger MIN_INT = BigInteger.valueOf(Integer.MIN_VALUE + 1); // Integer.MIN_VALUE is NA
+    private static final BigInteger MAX_INT = BigInteger.valueOf(Integer.MAX_VALUE);
+
+    final BigInteger value;
+
+    public BigIntImpl(BigInteger value) {
+        this.value = value;
+    }
+
+    @Override
+    public BigInteger getBigInteger() {
+        return value;
+    }
+
+    @Override
+    public String pretty() {
+        return value.toString();
+    }
+
+    @Override
+    public String typeOf() {
+        return RBigInt.TYPE_STRING;
+    }
+
+    @Override
+    public RAny stripAttributes() {
+        return this;
+    }
+
+    @Override
+    public RRaw asRaw() {
+        return asInt().asRaw();
+    }
+
+    @Override
+    public RLogical asLogical() {
+        return RLogical.RLogicalFactory.getScalar(value.signum() != 0 ? RLogical.TRUE : RLogical.FALSE);
+    }
+
+    @Override
+    public RInt asInt() {
+        return asInt(null);
+    }
+
+    @Override
+    public RDouble asDouble() {
+        return RDouble.RDoubleFactory.getScalar(value.doubleValue());
+    }
+
+    @Override
+    public RComplex asComplex() {
+        return RComplex.RComplexFactory.getScalar(value.doubleValue(), 0);
+    }
+
+    @Override
+    public RString asString() {
+        return RString.RStringFactory.getScalar(value.toString());
+    }
+
+    @Override
+    public RList asList() {
+        return RList.RListFactory.getScalar(this);
+    }
+
+    @Override
+    public RRaw asRaw(ConversionStatus warn) {
+        return asInt(warn).asRaw(warn);
+    }
+
+    @Override
+    public RLogical asLogical(ConversionStatus warn) {
+        return asLogical();
+    }
+
+    @Override
+    public RInt asInt(ConversionStatus warn) {
+        if (value.compareTo(MIN_INT) < 0 || value.compareTo(MAX_INT) > 0) {
+            if (warn != null) {
+                warn.naIntroduced = true;
+            }
+            return RInt.BOXED_NA;
+        }
+        return RInt.RIntFactory.getScalar(value.intValue());
+    }
+
+    @Override
+    public RDouble asDouble(ConversionStatus warn) {
+        return asDouble();
+    }
+
+    @Override
+    public RComplex asComplex(ConversionStatus warn) {
+        return asComplex();
+    }
+
+    @Override
+    public RString asString(ConversionStatus warn) {
+        return asString();
+    }
+
+    @Override
+    public Attributes attributes() {
+        return null;
+    }
+
+    @Override
+    public Attributes attributesRef() {
+        return null;
+    }
+
+    @Override
+    public RAny setAttributes(Attributes attributes) {
+        Utils.nyi("attributes of big integers");
+        return null;
+    }
+
+    @Override
+    public void ref() {
+    }
+
+    @Override
+    public boolean isShared() {
+        return false; // immutable
+    }
+
+    @Override
+    public boolean isTemporary() {
+        return false;
+    }
+
+    @Override
+    public boolean dependsOn(RAny v) {
+        return false;
+    }
+
+    @Override
+    public void visit_all(ValueVisitor v) {
+    }
+
+    @Override
+    public void accept(ValueVisitor v) {
+        v.visit(this);
+    }
+}
@@ -0,0 +1,421 @@
+package r.data.internal;
+
+import java.nio.charset.*;
+import java.util.*;
+
+import r.*;
+import r.Convert.ConversionStatus;
+import r.data.*;
+
+// a compact representation of a character vector whose elements all fit into Latin-1
+//   all elements are stored in a single byte array, one byte per character, the elements are delimited by offsets
+//   (the end offset of element i is stored at offsets[i + 1], it is stored negated (~end) when the element is NA)
+//
+// the representation is immutable (it is always treated as shared), an update copies the vector into a StringImpl, and so does
+// materialize (so that code that gets the content of a materialized string vector keeps working)
+//
+// builtins that can work directly on the bytes (nchar, substr, paste, toupper, tolower, comparisons) check for this class
+public final class ByteStringImpl extends ArrayImpl implements RString {
+
+    public static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    final byte[] bytes;
+    final int[] offsets;
+    final int size;
+
+    int[] dimensions;
+    Names names;
+    Attributes attributes;
+
+    ByteStringImpl(byte[] bytes, int[] offsets, int size, int[] dimensions, Names names, Attributes attributes) {
+        this.bytes = bytes;
+        this.offsets = offsets;
+        this.size = size;
+        this.dimensions = dimensions;
+        this.names = names;
+        this.attributes = attributes;
+    }
+
+    // returns a ByteStringImpl for the values, or null when some of the values do not fit into Latin-1
+    public static ByteStringImpl create(String[] values, int[] dimensions, Names names, Attributes attributes) {
+        Builder b = new Builder(values.length, 16 * values.length);
+        for (String s : values) {
+            if (!b.add(s)) {
+                return null;
+            }
+        }
+        return b.buildNonScalar(dimensions, names, attributes);
+    }
+
+    public static String decode(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, LATIN1);
+    }
+
+    // returns null if the string does not fit into Latin-1
+    public static byte[] encode(String s) {
+        int len = s.length();
+        byte[] res = new byte[len];
+        for (int i = 0; i < len; i++) {
+            char c = s.charAt(i);
+            if (c > 0xff) {
+                return null;
+            }
+            res[i] = (byte) c;
+        }
+        return res;
+    }
+
+    public byte[] bytes() {
+        return bytes;
+    }
+
+    // a vector with the same layout (element lengths, NAs) and attributes, but with different content
+    public ByteStringImpl withBytes(byte[] newBytes) {
+        assert Utils.check(newBytes.length == bytes.length);
+        return new ByteStringImpl(newBytes, offsets, size, dimensions, names, attributes);
+    }
+
+    public int start(int i) {
+        int o = offsets[i];
+        return o < 0 ? ~o : o;
+    }
+
+    public int end(int i) {
+        int o = offsets[i + 1];
+        return o < 0 ? ~o : o;
+    }
+
+    public int length(int i) {
+        return end(i) - start(i);
+    }
+
+    public boolean isNA(int i) {
+        return offsets[i + 1] < 0;
+    }
+
+    // compares a non-NA element with the given Latin-1 encoded string, the result is consistent with String.compareTo
+    public int compare(int i, byte[] b, int bstart, int bend) {
+        int s = start(i);
+        int e = end(i);
+        int alen = e - s;
+        int blen = bend - bstart;
+        int n = alen < blen ? alen : blen;
+        for (int k = 0; k < n; k++) {
+            int d = (bytes[s + k] & 0xff) - (b[bstart + k] & 0xff);
+            if (d != 0) {
+                return d;
+            }
+        }
+        return alen - blen;
+    }
+
+    public int compare(int i, byte[] b) {
+        return compare(i, b, 0, b.length);
+    }
+
+    public int compare(int i, ByteStringImpl other, int j) {
+        return compare(i, other.bytes, other.start(j), other.end(j));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String getString(int i) {
+        int o = offsets[i + 1];
+        if (o < 0) {
+            return RString.NA;
+        }
+        int s = start(i);
+        if (o - s <= StringPool.MAX_POOLED_LENGTH) {
+            return StringPool.get(bytes, s, o);
+        }
+        return decode(bytes, s, o);
+    }
+
+    @Override
+    public Object get(int i) {
+        return getString(i);
+    }
+
+    @Override
+    public RAny boxedGet(int i) {
+        return RString.RStringFactory.getScalar(getString(i));
+    }
+
+    @Override
+    public boolean isNAorNaN(int i) {
+        return isNA(i);
+    }
+
+    @Override
+    public RString set(int i, String val) {
+        return materialize().set(i, val);
+    }
+
+    @Override
+    public RArray set(int i, Object val) {
+        return materialize().set(i, val);
+    }
+
+    @Override
+    public StringImpl materialize() {
+        String[] content = new String[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = getString(i);
+        }
+        return new StringImpl(content, dimensions, names, attributes, false);
+    }
+
+    @Override
+    public int[] dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public Names names() {
+        return names;
+    }
+
+    @Override
+    public Attributes attributes() {
+        return attributes;
+    }
+
+    @Override
+    public Attributes attributesRef() {
+        return Attributes.markShared(attributes);
+    }
+
+    @Override
+    public RArray setDimensions(int[] newDimensions) {
+        if (newDimensions == dimensions) {
+            return this;
+        }
+        return new ByteStringImpl(bytes, offsets, size, newDimensions, names, attributes);
+    }
+
+    @Override
+    public RArray setNames(Names newNames) {
+        if (newNames == names) {
+            return this;
+        }
+        return new ByteStringImpl(bytes, offsets, size, dimensions, newNames, attributes);
+    }
+
+    @Override
+    public RArray setAttributes(Attributes newAttributes) {
+        if (newAttributes == attributes) {
+            return this;
+        }
+        return new ByteStringImpl(bytes, offsets, size, dimensions, names, newAttributes);
+    }
+
+    @Override
+    protected RArray doStrip() {
+        return new ByteStringImpl(bytes, offsets, size, null, null, null);
+    }
+
+    @Override
+    protected RArray doStripKeepNames() {
+        return new ByteStringImpl(bytes, offsets, size, null, names, null);
+    }
+
+    @Override
+    public String pretty() {
+        return materialize().pretty();
+    }
+
+    @Override
+    public RArray subset(RInt index) {
+        return RString.RStringFactory.subset(this, index);
+    }
+
+    @Override
+    public RRaw asRaw() {
+        Utils.check(false, "unreachable");
+        return null;
+    }
+
+    @Override
+    public RRaw asRaw(ConversionStatus warn) {
+        return RString.RStringUtils.stringToRaw(this, warn);
+    }
+
+    @Override
+    public RLogical asLogical() {
+        return asLogical(null);
+    }
+
+    @Override
+    public RLogical asLogical(ConversionStatus warn) {
+        return RString.RStringUtils.stringToLogical(this, warn);
+    }
+
+    @Override
+    public RInt asInt() {
+        return asInt(null);
+    }
+
+    @Override
+    public RInt asInt(ConversionStatus warn) {
+        return RString.RStringUtils.stringToInt(this, warn);
+    }
+
+    @Override
+    public RDouble asDouble() {
+        return asDouble(null);
+    }
+
+    @Override
+    public RDouble asDouble(ConversionStatus warn) {
+        return RString.RStringUtils.stringToDouble(this, warn);
+    }
+
+    @Override
+    public RComplex asComplex() {
+        return asComplex(null);
+    }
+
+    @Override
+    public RComplex asComplex(ConversionStatus warn) {
+        return RString.RStringUtils.stringToComplex(this, warn);
+    }
+
+    @Override
+    public RString asString() {
+        return this;
+    }
+
+    @Override
+    public RString asString(ConversionStatus warn) {
+        return this;
+    }
+
+    @Override
+    public String typeOf() {
+        return RString.TYPE_STRING;
+    }
+
+    @Override
+    public void accept(ValueVisitor v) {
+        v.visit(this);
+    }
+
+    @Override
+    public void visit_all(ValueVisitor v) {
+    }
+
+    // incrementally builds a byte-backed string vector, an element can be added at once or composed of multiple parts
+    public static final class Builder {
+        byte[] bytes;
+        int[] offsets;
+        int size;
+        int pos;
+
+        public Builder(int expectedSize, int expectedBytes) {
+            bytes = new byte[Math.max(expectedBytes, 16)];
+            offsets = new int[Math.max(expectedSize, 1) + 1];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        private void ensureBytes(int extra) {
+            int needed = pos + extra;
+            if (needed > bytes.length) {
+                int ncap = Math.max(needed, bytes.length + (bytes.length >> 1) + 16);
+                bytes = Arrays.copyOf(bytes, ncap);
+            }
+        }
+
+        private void endElement(int offset) {
+            if (size + 2 > offsets.length) {
+                offsets = Arrays.copyOf(offsets, offsets.length + (offsets.length >> 1) + 2);
+            }
+            offsets[++size] = offset;
+        }
+
+        // appends a part of the current element, returns false (and appends nothing) if the string does not fit into Latin-1
+        public boolean append(String s) {
+            int len = s.length();
+            ensureBytes(len);
+            for (int i = 0; i < len; i++) {
+                char c = s.charAt(i);
+                if (c > 0xff) {
+                    return false;
+                }
+                bytes[pos + i] = (byte) c;
+            }
+            pos += len;
+            return true;
+        }
+
+        public void append(byte[] src, int start, int end) {
+            int len = end - start;
+            ensureBytes(len);
+            System.arraycopy(src, start, bytes, pos, len);
+            pos += len;
+        }
+
+        public void append(byte b) {
+            ensureBytes(1);
+            bytes[pos++] = b;
+        }
+
+        public void finishElement() {
+            endElement(pos);
+        }
+
+        public void addNA() {
+            endElement(~pos);
+        }
+
+        public void add(byte[] src, int start, int end) {
+            append(src, start, end);
+            endElement(pos);
+        }
+
+        // returns false (and adds nothing) if the string does not fit into Latin-1
+        public boolean add(String s) {
+            if (s == RString.NA) {
+                addNA();
+                return true;
+            }
+            int mark = pos;
+            if (!append(s)) {
+                pos = mark;
+                return false;
+            }
+            endElement(pos);
+            return true;
+        }
+
+        // the elements added so far, used when falling back to a String[] representation
+        public ArrayList<String> toList() {
+            ArrayList<String> res = new ArrayList<>(size);
+            ByteStringImpl tmp = buildNonScalar(null, null, null);
+            for (int i = 0; i < size; i++) {
+                res.add(tmp.getString(i));
+            }
+            return res;
+        }
+
+        public ByteStringImpl buildNonScalar(int[] dimensions, Names names, Attributes attributes) {
+            byte[] b = pos == bytes.length ? bytes : Arrays.copyOf(bytes, pos);
+            int[] o = size + 1 == offsets.length ? offsets : Arrays.copyOf(offsets, size + 1);
+            return new ByteStringImpl(b, o, size, dimensions, names, attributes);
+        }
+
+        // keeps the representation of scalars consistent with RStringFactory
+        public RString build() {
+            if (size == 1) {
+                return RString.RStringFactory.getScalar(offsets[1] < 0 ? RString.NA : decode(bytes, 0, pos));
+            }
+            return buildNonScalar(null, null, null);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package r.data.internal;
 import java.io.*;
 import java.lang.ProcessBuilder.Redirect;
 import java.util.*;
+import java.util.zip.*;
 
 import r.*;
 import r.errors.*;
@@ -39,6 +40,7 @@ public abstract class Connection {
     public abstract void close(ASTNode ast);
 
     public abstract BufferedReader reader(ASTNode ast);
+    public abstract InputStream input(ASTNode ast);
     public abstract OutputStream output(ASTNode ast);
 
     @Override
@@ -81,7 +83,12 @@ public abstract class Connection {
         @Override
         public void open(ConnectionMode openMode) throws IOException {
             boolean needsWrite = openMode.write() || openMode.append();
-            file = new RandomAccessFile(description, !needsWrite ? "r" : "rw");
+            file = new RandomAccessFile(RContext.resolvePath(description), !needsWrite ? "r" : "rw");
+            if (openMode.append()) {
+                file.seek(file.length());
+            } else if (openMode.write() && (!openMode.read() || openMode.truncate())) {
+                file.setLength(0);
+            }
             mode = openMode;
         }
 
@@ -99,17 +106,23 @@ public abstract class Connection {
             if (reader != null) {
                 return reader;
             }
+            int bufSize = READ_BUFFER_SIZE;
+            if (mode.write() || mode.append()) {
+                bufSize = 1;
+            }
+            reader = new BufferedReader(new InputStreamReader(input(ast)), bufSize);
+            return reader;
+        }
+
+        @Override
+        public InputStream input(ASTNode ast) {
+            if (input != null) {
+                return input;
+            }
             Utils.check(file != null);
             try {
-                if (input == null) {
-                    input = new FileInputStream(file.getFD());
-                }
-                int bufSize = READ_BUFFER_SIZE;
-                if (mode.write() || mode.append()) {
-                    bufSize = 1;
-                }
-                reader = new BufferedReader(new InputStreamReader(input), bufSize);
-                return reader;
+                input = new FileInputStream(file.getFD());
+                return input;
             } catch (IOException e) {
                 throw RError.getGenericError(ast, e.toString());
             }
@@ -179,6 +192,7 @@ public abstract class Connection {
                 commandArray[i] = st.nextToken();
             }
             processBuilder = new ProcessBuilder(commandArray);
+            processBuilder.directory(new File(System.getProperty("user.dir"))); // the working directory, see RContext.resolvePath
         }
 
         public static PipeConnection createUnopened(String command, ConnectionMode defaultMode) {
@@ -209,7 +223,7 @@ public abstract class Connection {
             if (openMode.write() || openMode.append()) {
                 processBuilder.redirectInput(Redirect.PIPE);
             } else {
-                processBuilder.redirectOutput(Redirect.INHERIT);
+                processBuilder.redirectInput(Redirect.INHERIT);
             }
             // NOTE: GNU-R uses popen, which can either read, or write, but not both
             process = processBuilder.start();
@@ -230,14 +244,20 @@ public abstract class Connection {
             if (reader != null) {
                 return reader;
             }
-            Utils.check(process != null);
-            if (input == null) {
-                input = process.getInputStream();
-            }
-            reader = new BufferedReader(new InputStreamReader(input), Connection.READ_BUFFER_SIZE);
+            reader = new BufferedReader(new InputStreamReader(input(ast)), Connection.READ_BUFFER_SIZE);
             return reader;
         }
 
+        @Override
+        public InputStream input(ASTNode ast) {
+            if (input != null) {
+                return input;
+            }
+            Utils.check(process != null);
+            input = process.getInputStream();
+            return input;
+        }
+
         @Override
         public OutputStream output(ASTNode ast) {
             if (output != null) {
@@ -285,4 +305,248 @@ public abstract class Connection {
             return process != null;
         }
     }
+
+    // a gzip-compressed file, decompressed while reading and compressed while writing, as by gzfile
+    //   like in GNU-R, a file that is not compressed is read as it is, and appending to a file adds a new gzip member
+    //   a file written by bgzip (a series of small gzip members) is decompressed on several threads
+    public static class GzipConnection extends Connection {
+
+        public static final int BUFFER_SIZE = 1 << 16; // of the compressed data, and of the inflater and deflater
+        public static final int DEFAULT_LEVEL = 6;
+
+        final int level;
+        InputStream input;
+        OutputStream output;
+        BufferedReader reader;
+
+        GzipConnection(String name, ConnectionMode mode, ConnectionMode defaultMode, int level) {
+            super(name, mode, defaultMode);
+            this.level = level;
+        }
+
+        public static GzipConnection createUnopened(String name, ConnectionMode defaultMode, int level) {
+            return new GzipConnection(name, null, defaultMode, level);
+        }
+
+        public static GzipConnection createOpened(String name, ConnectionMode mode, int level) throws IOException {
+            GzipConnection con = new GzipConnection(name, null, null, level);
+            con.open(mode);
+            return con;
+        }
+
+        public static GzipConnection createOpened(String name, ConnectionMode mode, int level, ASTNode ast) {
+            try {
+                return GzipConnection.createOpened(name, mode, level);
+            } catch (IOException e) {
+                throw RError.getCannotOpenFile(ast, name, e.toString());
+            }
+        }
+
+        // the decompressed content of the stream, or the stream itself (buffered) when it does not start with a gzip header
+        public static InputStream decode(InputStream in) throws IOException {
+            BufferedInputStream bin = new BufferedInputStream(in, BUFFER_SIZE);
+            byte[] header = new byte[BgzfInputStream.HEADER_SIZE];
+            bin.mark(header.length);
+            int n = 0;
+            while (n < header.length) {
+                int k = bin.read(header, n, header.length - n);
+                if (k == -1) {
+                    break;
+                }
+                n += k;
+            }
+            bin.reset();
+            if (n < 2 || header[0] != (byte) 0x1f || header[1] != (byte) 0x8b) {
+                return bin;
+            }
+            if (BgzfInputStream.isBgzf(header, n) && Parallel.NTHREADS > 1) {
+                return new BgzfInputStream(bin);
+            }
+            return new GZIPInputStream(bin, BUFFER_SIZE);
+        }
+
+        public static GZIPOutputStream encode(OutputStream out, final int level) throws IOException {
+            return new GZIPOutputStream(out, BUFFER_SIZE) {
+                {
+                    def.setLevel(level);
+                }
+            };
+        }
+
+        @Override
+        public void open(ConnectionMode openMode) throws IOException {
+            boolean needsWrite = openMode.write() || openMode.append();
+            if (needsWrite && openMode.read()) {
+                throw new IOException("cannot both read and write a compressed file");
+            }
+            if (needsWrite) {
+                output = encode(new FileOutputStream(RContext.resolvePath(description), openMode.append()), level);
+            } else {
+                input = decode(new FileInputStream(RContext.resolvePath(description)));
+            }
+            mode = openMode;
+        }
+
+        @Override
+        public void open(ConnectionMode openMode, ASTNode ast) {
+            try {
+                open(openMode);
+            } catch (IOException e) {
+                throw RError.getCannotOpenFile(ast, description, e.toString());
+            }
+        }
+
+        @Override
+        public BufferedReader reader(ASTNode ast) {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(input(ast)), READ_BUFFER_SIZE);
+            }
+            return reader;
+        }
+
+        @Override
+        public InputStream input(ASTNode ast) {
+            Utils.check(input != null);
+            return input;
+        }
+
+        @Override
+        public OutputStream output(ASTNode ast) {
+            Utils.check(output != null);
+            return output;
+        }
+
+        @Override
+        public void flush(ASTNode ast) {
+            try {
+                if (output != null) {
+                    output.flush();
+                }
+            } catch (IOException e) {
+                throw RError.getGenericError(ast, e.toString());
+            }
+        }
+
+        @Override
+        public void close(ASTNode ast) {
+            try {
+                if (output != null) {
+                    output.close(); // writes the trailer
+                }
+                if (input != null) {
+                    input.close();
+                }
+            } catch (IOException e) {
+                throw RError.getGenericError(ast, e.toString());
+            } finally {
+                output = null;
+                input = null;
+                reader = null;
+                mode = null;
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return input != null || output != null;
+        }
+    }
+
+    // decompresses the data read from another connection and compresses the data written to it, as by gzcon
+    //   the other connection is replaced by this one, opening and closing this one opens and closes it
+    public static class GzconConnection extends Connection {
+
+        final Connection inner;
+        final int level;
+        InputStream input;
+        GZIPOutputStream output;
+        BufferedReader reader;
+
+        public GzconConnection(Connection inner, int level) {
+            super("gzcon(" + inner.description() + ")", null, ConnectionMode.get("rb"));
+            this.inner = inner;
+            this.level = level;
+        }
+
+        @Override
+        public ConnectionMode currentMode() {
+            return inner.currentMode();
+        }
+
+        @Override
+        public void open(ConnectionMode openMode) throws IOException {
+            inner.open(openMode);
+        }
+
+        @Override
+        public void open(ConnectionMode openMode, ASTNode ast) {
+            inner.open(openMode, ast);
+        }
+
+        @Override
+        public BufferedReader reader(ASTNode ast) {
+            if (reader == null) {
+                reader = new BufferedReader(new InputStreamReader(input(ast)), READ_BUFFER_SIZE);
+            }
+            return reader;
+        }
+
+        @Override
+        public InputStream input(ASTNode ast) {
+            if (input == null) {
+                try {
+                    input = GzipConnection.decode(inner.input(ast));
+                } catch (IOException e) {
+                    throw RError.getGenericError(ast, e.toString());
+                }
+            }
+            return input;
+        }
+
+        @Override
+        public OutputStream output(ASTNode ast) {
+            if (output == null) {
+                try {
+                    output = GzipConnection.encode(inner.output(ast), level);
+                } catch (IOException e) {
+                    throw RError.getGenericError(ast, e.toString());
+                }
+            }
+            return output;
+        }
+
+        @Override
+        public void flush(ASTNode ast) {
+            try {
+                if (output != null) {
+                    output.flush();
+                }
+            } catch (IOException e) {
+                throw RError.getGenericError(ast, e.toString());
+            }
+            inner.flush(ast);
+        }
+
+        @Override
+        public void close(ASTNode ast) {
+            try {
+                if (output != null) {
+                    output.finish(); // the other connection closes the underlying stream
+                    output.flush();
+                }
+            } catch (IOException e) {
+                throw RError.getGenericError(ast, e.toString());
+            } finally {
+                output = null;
+                input = null;
+                reader = null;
+                inner.close(ast);
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return inner.isOpen();
+        }
+    }
 }
@@ -1,12 +1,14 @@
 package r.data.internal;
 
+import java.util.*;
+
 import r.*;
 import r.Convert.ConversionStatus;
 import r.data.*;
 
 public class DoubleImpl extends NonScalarArrayImpl implements RDouble {
 
-    final double[] content;
+    double[] content; // can be longer than size() in a Growable
 
     @Override
     public double[] getContent() {
@@ -108,13 +110,13 @@ public class DoubleImpl extends NonScalarArrayImpl implements RDouble {
         StringBuilder str = new StringBuilder();
         if (dimensions != null) {
             str.append(arrayPretty());
-        } else if (content.length == 0) {
+        } else if (size() == 0) {
             str.append((names() == null) ? EMPTY_STRING : NAMED_EMPTY_STRING);
         } else if (names() != null) {
             str.append(namedPretty());
         } else {
             str.append(Convert.prettyNA(Convert.double2string(content[0])));
-            for (int i = 1; i < content.length; i++) {
+            for (int i = 1; i < size(); i++) {
                 str.append(", ");
                 str.append(Convert.prettyNA(Convert.double2string(content[i])));
             }
@@ -195,18 +197,18 @@ public class DoubleImpl extends NonScalarArrayImpl implements RDouble {
 
     @Override
     public DoubleImpl doStrip() {
-        return new DoubleImpl(content, null, null, null, false);
+        return new DoubleImpl(getContent(), null, null, null, false);
     }
 
     @Override
     public DoubleImpl doStripKeepNames() {
-        return new DoubleImpl(content, null, names, null, false);
+        return new DoubleImpl(getContent(), null, names, null, false);
     }
 
     @Override
     public double sum(boolean narm) {
         double res = 0;
-        int size = content.length;
+        int size = size();
         for (int i = 0; i < size; i++) {
             double d = content[i];
             if (narm) {
@@ -223,4 +225,48 @@ public class DoubleImpl extends NonScalarArrayImpl implements RDouble {
     public void accept(ValueVisitor v) {
         v.visit(this);
     }
+
+    // returns a vector of the given size with the content of this (non-shared) vector, the added elements are not initialized
+    //   dimensions and names are dropped, so the caller has to check that there are none
+    public DoubleImpl resize(int newSize) {
+        double[] newContent = new double[Growable.capacity(newSize)];
+        System.arraycopy(content, 0, newContent, 0, Math.min(size(), newSize));
+        return new Growable(newContent, newSize, attributesRef());
+    }
+
+    // see IntImpl.Growable
+    public static final class Growable extends DoubleImpl {
+        int size;
+
+        Growable(double[] content, int size, Attributes attributes) {
+            super(content, null, null, attributes, false);
+            this.size = size;
+        }
+
+        static int capacity(int size) {
+            return size + (size >> 1) + 8;
+        }
+
+        @Override
+        public double[] getContent() {
+            if (content.length != size) {
+                content = Arrays.copyOf(content, size);
+            }
+            return content;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public DoubleImpl resize(int newSize) {
+            if (newSize > content.length) {
+                content = Arrays.copyOf(content, capacity(newSize));
+            }
+            size = newSize;
+            return this;
+        }
+    }
 }
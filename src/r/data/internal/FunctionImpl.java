@@ -107,7 +107,10 @@ public class FunctionImpl extends BaseR implements RFunction {
             res = body.execute(frame);
         } catch (ReturnException re) {
             res = frame.returnValue();
+        } finally {
+            frame.runOnExit();
         }
+        frame.release();
         return res;
     }
 
@@ -118,7 +121,10 @@ public class FunctionImpl extends BaseR implements RFunction {
             res = body.execute(frame);
         } catch (ReturnException re) {
             res = frame.returnValue();
+        } finally {
+            frame.runOnExit();
         }
+        frame.release();
         return res;
     }
 
@@ -231,6 +237,9 @@ public class FunctionImpl extends BaseR implements RFunction {
     }
 
     @Override public RClosure createClosure(Frame enclosingEnvironment) {
+        if (enclosingEnvironment != null) {
+            enclosingEnvironment.markEscaped();
+        }
         return new ClosureImpl(this, enclosingEnvironment);
     }
 
@@ -1,5 +1,7 @@
 package r.data.internal;
 
+import java.util.*;
+
 import r.*;
 import r.Convert.ConversionStatus;
 import r.data.*;
@@ -9,7 +11,7 @@ import r.nodes.exec.*;
 
 public class IntImpl extends NonScalarArrayImpl implements RInt {
 
-    final int[] content;
+    int[] content; // can be longer than size() in a Growable
 
     @Override
     public int[] getContent() {
@@ -108,16 +110,19 @@ public class IntImpl extends NonScalarArrayImpl implements RInt {
 
     @Override
     public String pretty() {
+        if (attributes != null && RInt.RFactorUtils.isFactor(this)) {
+            return RInt.RFactorUtils.pretty(this);
+        }
         StringBuilder str = new StringBuilder();
         if (dimensions != null) {
             str.append(arrayPretty());
-        } else if (content.length == 0) {
+        } else if (size() == 0) {
             str.append((names() == null) ? EMPTY_STRING : NAMED_EMPTY_STRING);
         } else if (names() != null) {
             str.append(namedPretty());
         } else {
             str.append(Convert.prettyNA(Convert.int2string(content[0])));
-            for (int i = 1; i < content.length; i++) {
+            for (int i = 1; i < size(); i++) {
                 str.append(", ");
                 str.append(Convert.prettyNA(Convert.int2string(content[i])));
             }
@@ -402,16 +407,62 @@ public class IntImpl extends NonScalarArrayImpl implements RInt {
 
     @Override
     public IntImpl doStrip() {
-        return new IntImpl(content, null, null, null, false);
+        return new IntImpl(getContent(), null, null, null, false);
     }
 
     @Override
     public IntImpl doStripKeepNames() {
-        return new IntImpl(content, null, names, null, false);
+        return new IntImpl(getContent(), null, names, null, false);
     }
 
     @Override
     public void accept(ValueVisitor v) {
         v.visit(this);
     }
+
+    // returns a vector of the given size with the content of this (non-shared) vector, the added elements are not initialized
+    //   dimensions and names are dropped, so the caller has to check that there are none
+    public IntImpl resize(int newSize) {
+        int[] newContent = new int[Growable.capacity(newSize)];
+        System.arraycopy(content, 0, newContent, 0, Math.min(size(), newSize));
+        return new Growable(newContent, newSize, attributesRef());
+    }
+
+    // a vector with spare capacity after its last element, so that appending in a loop (x[length(x) + 1] <- v) takes amortized
+    // constant time; getContent() trims the content to the size, as all users of the content expect that, and so the spare
+    // capacity is lost when the content is needed
+    public static final class Growable extends IntImpl {
+        int size;
+
+        Growable(int[] content, int size, Attributes attributes) {
+            super(content, null, null, attributes, false);
+            this.size = size;
+        }
+
+        static int capacity(int size) {
+            return size + (size >> 1) + 8;
+        }
+
+        @Override
+        public int[] getContent() {
+            if (content.length != size) {
+                content = Arrays.copyOf(content, size);
+            }
+            return content;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public IntImpl resize(int newSize) {
+            if (newSize > content.length) {
+                content = Arrays.copyOf(content, capacity(newSize));
+            }
+            size = newSize;
+            return this;
+        }
+    }
 }
@@ -1,11 +1,13 @@
 package r.data.internal;
 
+import java.util.*;
+
 import r.*;
 import r.data.*;
 
 public class ListImpl extends NonScalarArrayImpl implements RList {
 
-    final RAny[] content;
+    RAny[] content; // can be longer than size() in a Growable
 
     @Override
     public RAny[] getContent() {
@@ -173,14 +175,14 @@ public class ListImpl extends NonScalarArrayImpl implements RList {
         StringBuilder str = new StringBuilder();
         if (dimensions != null) {
             str.append(arrayPretty());
-        } else if (content.length == 0) {
+        } else if (size() == 0) {
             str.append((names() == null) ? EMPTY_STRING : NAMED_EMPTY_STRING);
         } else {
             RSymbol[] snames = null;
             if (names() != null) {
                 snames = names().sequence();
             }
-            for (int i = 0; i < content.length; i++) {
+            for (int i = 0; i < size(); i++) {
                 if (i >= 1) {
                     str.append("\n\n");
                 }
@@ -263,12 +265,12 @@ public class ListImpl extends NonScalarArrayImpl implements RList {
 
     @Override
     public ListImpl doStrip() {
-        return new ListImpl(content, null, null, null, false);
+        return new ListImpl(getContent(), null, null, null, false);
     }
 
     @Override
     public ListImpl doStripKeepNames() {
-        return new ListImpl(content, null, names, null, false);
+        return new ListImpl(getContent(), null, names, null, false);
     }
 
     @Override
@@ -280,4 +282,50 @@ public class ListImpl extends NonScalarArrayImpl implements RList {
     public void accept(ValueVisitor v) {
         v.visit(this);
     }
+
+    // returns a vector of the given size with the content of this (non-shared) vector, the added elements are not initialized
+    //   dimensions and names are dropped, so the caller has to check that there are none
+    public ListImpl resize(int newSize) {
+        RAny[] newContent = new RAny[Growable.capacity(newSize)];
+        System.arraycopy(content, 0, newContent, 0, Math.min(size(), newSize));
+        return new Growable(newContent, newSize, attributesRef());
+    }
+
+    // see IntImpl.Growable
+    public static final class Growable extends ListImpl {
+        int size;
+
+        Growable(RAny[] content, int size, Attributes attributes) {
+            super(content, null, null, attributes, false);
+            this.size = size;
+        }
+
+        static int capacity(int size) {
+            return size + (size >> 1) + 8;
+        }
+
+        @Override
+        public RAny[] getContent() {
+            if (content.length != size) {
+                content = Arrays.copyOf(content, size);
+            }
+            return content;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public ListImpl resize(int newSize) {
+            if (newSize > content.length) {
+                content = Arrays.copyOf(content, capacity(newSize));
+            } else if (newSize < size) {
+                Arrays.fill(content, newSize, size, null); // do not keep the dropped elements alive
+            }
+            size = newSize;
+            return this;
+        }
+    }
 }
@@ -14,12 +14,13 @@ public abstract class NonScalarArrayImpl extends ArrayImpl implements RArray {
 
     protected int[] dimensions; // the content shall never be modified once set
     protected Names names;
-    protected int refcount;
+    protected int refcount; // see RefCount, sticks at Integer.MAX_VALUE
     protected Attributes attributes;
+    boolean wasUnshared; // for statistics only
 
     @Override
     public final boolean isShared() {
-        return refcount > 1;  // ==2
+        return refcount > 1;
     }
 
     @Override
@@ -29,10 +30,21 @@ public abstract class NonScalarArrayImpl extends ArrayImpl implements RArray {
 
     @Override
     public final void ref() {
-        if (refcount == 0) {
-            refcount = 1;
-        } else if (refcount == 1) {
-            refcount = 2;
+        if (refcount != Integer.MAX_VALUE) {
+            refcount++;
+        }
+    }
+
+    public final void unref() {
+        if (refcount > 0 && refcount != Integer.MAX_VALUE) {
+            refcount--;
+            if (RefCount.STATISTICS) {
+                boolean unshared = refcount == 1;
+                if (unshared) {
+                    wasUnshared = true;
+                }
+                RefCount.onUnref(unshared);
+            }
         }
     }
 
@@ -0,0 +1,381 @@
+package r.data.internal;
+
+import r.*;
+import r.Convert.ConversionStatus;
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+
+// a compact representation of a logical vector, two bits per element in two bitsets: bit i of values is set when element i
+// is TRUE, bit i of nas is set when element i is NA (and then the bit in values is clear); the bits past the size are clear
+//
+// the representation is immutable (it is always treated as shared), an update copies the vector into a LogicalImpl, and so
+// does materialize (so that code that gets the content of a materialized logical vector keeps working)
+//
+// large results of vector-scalar comparisons are created in this form; &, |, !, sum, any, all, which and logical indexing
+// check for this class and work on 64 elements at a time
+public final class PackedLogicalImpl extends ArrayImpl implements RLogical {
+
+    public static final int MIN_SIZE = 256; // shorter vectors are kept as int[], where an element is read by a single load
+
+    final long[] values;
+    final long[] nas;
+    final int size;
+
+    int[] dimensions;
+    Names names;
+    Attributes attributes;
+
+    PackedLogicalImpl(long[] values, long[] nas, int size, int[] dimensions, Names names, Attributes attributes) {
+        this.values = values;
+        this.nas = nas;
+        this.size = size;
+        this.dimensions = dimensions;
+        this.names = names;
+        this.attributes = attributes;
+    }
+
+    public static PackedLogicalImpl create(long[] values, long[] nas, int size, int[] dimensions, Names names) { // re-uses values and nas!
+        assert Utils.check(values.length == words(size) && nas.length == values.length);
+        return new PackedLogicalImpl(values, nas, size, dimensions, names, null);
+    }
+
+    public static int words(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    // the bits of the last word that hold elements
+    static long lastWordMask(int size) {
+        int rem = size & 63;
+        return rem == 0 ? -1L : (1L << rem) - 1;
+    }
+
+    public static PackedLogicalImpl pack(RLogical l) {
+        int n = l.size();
+        int nwords = words(n);
+        long[] values = new long[nwords];
+        long[] nas = new long[nwords];
+        for (int w = 0; w < nwords; w++) {
+            int from = w << 6;
+            int to = Math.min(from + 64, n);
+            long v = 0;
+            long na = 0;
+            for (int i = from; i < to; i++) {
+                int ll = l.getLogical(i);
+                if (ll == RLogical.TRUE) {
+                    v |= 1L << i;
+                } else if (ll == RLogical.NA) {
+                    na |= 1L << i;
+                }
+            }
+            values[w] = v;
+            nas[w] = na;
+        }
+        return new PackedLogicalImpl(values, nas, n, l.dimensions(), l.names(), l.attributes());
+    }
+
+    public long[] values() {
+        return values;
+    }
+
+    public long[] nas() {
+        return nas;
+    }
+
+    public int countTrue() {
+        int res = 0;
+        for (long w : values) {
+            res += Long.bitCount(w);
+        }
+        return res;
+    }
+
+    public int countNonFalse() {
+        int res = 0;
+        for (int w = 0; w < values.length; w++) {
+            res += Long.bitCount(values[w] | nas[w]);
+        }
+        return res;
+    }
+
+    public boolean anyTrue() {
+        for (long w : values) {
+            if (w != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean anyFalse() {
+        int last = values.length - 1;
+        for (int w = 0; w < last; w++) {
+            if ((values[w] | nas[w]) != -1L) {
+                return true;
+            }
+        }
+        return last >= 0 && ((values[last] | nas[last]) & lastWordMask(size)) != lastWordMask(size);
+    }
+
+    public boolean hasNA() {
+        for (long w : nas) {
+            if (w != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // the (1-based) indexes of the TRUE elements
+    public int[] which() {
+        int[] res = new int[countTrue()];
+        int j = 0;
+        for (int w = 0; w < values.length; w++) {
+            long word = values[w];
+            while (word != 0) {
+                res[j++] = (w << 6) + Long.numberOfTrailingZeros(word) + 1;
+                word &= word - 1;
+            }
+        }
+        return res;
+    }
+
+    // keeps dimensions and names, drops other attributes (like Not)
+    public PackedLogicalImpl not() {
+        int nwords = values.length;
+        long[] res = new long[nwords];
+        for (int w = 0; w < nwords; w++) {
+            res[w] = ~(values[w] | nas[w]);
+        }
+        if (nwords > 0) {
+            res[nwords - 1] &= lastWordMask(size);
+        }
+        return new PackedLogicalImpl(res, nas, size, dimensions, names, null);
+    }
+
+    // TRUE when both are TRUE, FALSE when either is FALSE, otherwise NA; the operands have the same size
+    public static PackedLogicalImpl and(PackedLogicalImpl a, PackedLogicalImpl b, int[] dimensions, Names names) {
+        int nwords = a.values.length;
+        long[] values = new long[nwords];
+        long[] nas = new long[nwords];
+        for (int w = 0; w < nwords; w++) {
+            long v = a.values[w] & b.values[w];
+            long f = ~(a.values[w] | a.nas[w]) | ~(b.values[w] | b.nas[w]);
+            values[w] = v;
+            nas[w] = ~(v | f);
+        }
+        if (nwords > 0) {
+            nas[nwords - 1] &= lastWordMask(a.size);
+        }
+        return new PackedLogicalImpl(values, nas, a.size, dimensions, names, null);
+    }
+
+    // TRUE when either is TRUE, FALSE when both are FALSE, otherwise NA; the operands have the same size
+    public static PackedLogicalImpl or(PackedLogicalImpl a, PackedLogicalImpl b, int[] dimensions, Names names) {
+        int nwords = a.values.length;
+        long[] values = new long[nwords];
+        long[] nas = new long[nwords];
+        for (int w = 0; w < nwords; w++) {
+            long v = a.values[w] | b.values[w];
+            long f = ~(a.values[w] | a.nas[w]) & ~(b.values[w] | b.nas[w]);
+            values[w] = v;
+            nas[w] = ~(v | f);
+        }
+        if (nwords > 0) {
+            nas[nwords - 1] &= lastWordMask(a.size);
+        }
+        return new PackedLogicalImpl(values, nas, a.size, dimensions, names, null);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int getLogical(int i) {
+        int w = i >>> 6;
+        long bit = 1L << i;
+        if ((nas[w] & bit) != 0) {
+            return RLogical.NA;
+        }
+        return (values[w] & bit) != 0 ? RLogical.TRUE : RLogical.FALSE;
+    }
+
+    @Override
+    public Object get(int i) {
+        return getLogical(i);
+    }
+
+    @Override
+    public RAny boxedGet(int i) {
+        return RLogicalFactory.getScalar(getLogical(i));
+    }
+
+    @Override
+    public boolean isNAorNaN(int i) {
+        return (nas[i >>> 6] & (1L << i)) != 0;
+    }
+
+    @Override
+    public RLogical set(int i, int val) {
+        return materialize().set(i, val);
+    }
+
+    @Override
+    public RArray set(int i, Object val) {
+        return materialize().set(i, val);
+    }
+
+    @Override
+    public LogicalImpl materialize() {
+        int[] content = new int[size];
+        for (int i = 0; i < size; i++) {
+            content[i] = getLogical(i);
+        }
+        return new LogicalImpl(content, dimensions, names, attributes, false);
+    }
+
+    @Override
+    public int[] dimensions() {
+        return dimensions;
+    }
+
+    @Override
+    public Names names() {
+        return names;
+    }
+
+    @Override
+    public Attributes attributes() {
+        return attributes;
+    }
+
+    @Override
+    public Attributes attributesRef() {
+        return Attributes.markShared(attributes);
+    }
+
+    @Override
+    public RArray setDimensions(int[] newDimensions) {
+        if (newDimensions == dimensions) {
+            return this;
+        }
+        return new PackedLogicalImpl(values, nas, size, newDimensions, names, attributes);
+    }
+
+    @Override
+    public RArray setNames(Names newNames) {
+        if (newNames == names) {
+            return this;
+        }
+        return new PackedLogicalImpl(values, nas, size, dimensions, newNames, attributes);
+    }
+
+    @Override
+    public RArray setAttributes(Attributes newAttributes) {
+        if (newAttributes == attributes) {
+            return this;
+        }
+        return new PackedLogicalImpl(values, nas, size, dimensions, names, newAttributes);
+    }
+
+    @Override
+    protected RArray doStrip() {
+        return new PackedLogicalImpl(values, nas, size, null, null, null);
+    }
+
+    @Override
+    protected RArray doStripKeepNames() {
+        return new PackedLogicalImpl(values, nas, size, null, names, null);
+    }
+
+    @Override
+    public String pretty() {
+        return materialize().pretty();
+    }
+
+    @Override
+    public <T extends RNode> T callNodeFactory(OperationFactory<T> factory) {
+        return factory.fromLogical();
+    }
+
+    @Override
+    public RArray subset(RInt index) {
+        return RLogical.RLogicalFactory.subset(this, index);
+    }
+
+    @Override
+    public RRaw asRaw() {
+        return TracingView.ViewTrace.trace(new RLogical.RRawView(this));
+    }
+
+    @Override
+    public RRaw asRaw(ConversionStatus warn) {
+        return RLogical.RLogicalUtils.logicalToRaw(this, warn);
+    }
+
+    @Override
+    public RLogical asLogical() {
+        return this;
+    }
+
+    @Override
+    public RLogical asLogical(ConversionStatus warn) {
+        return this;
+    }
+
+    @Override
+    public RInt asInt() {
+        return TracingView.ViewTrace.trace(new RLogical.RIntView(this));
+    }
+
+    @Override
+    public RInt asInt(ConversionStatus warn) {
+        return asInt();
+    }
+
+    @Override
+    public RDouble asDouble() {
+        return TracingView.ViewTrace.trace(new RLogical.RDoubleView(this));
+    }
+
+    @Override
+    public RDouble asDouble(ConversionStatus warn) {
+        return asDouble();
+    }
+
+    @Override
+    public RComplex asComplex() {
+        return TracingView.ViewTrace.trace(new RLogical.RComplexView(this));
+    }
+
+    @Override
+    public RComplex asComplex(ConversionStatus warn) {
+        return asComplex();
+    }
+
+    @Override
+    public RString asString() {
+        return TracingView.ViewTrace.trace(new RLogical.RStringView(this));
+    }
+
+    @Override
+    public RString asString(ConversionStatus warn) {
+        return asString();
+    }
+
+    @Override
+    public String typeOf() {
+        return RLogical.TYPE_STRING;
+    }
+
+    @Override
+    public void accept(ValueVisitor v) {
+        v.visit(this);
+    }
+
+    @Override
+    public void visit_all(ValueVisitor v) {
+    }
+}
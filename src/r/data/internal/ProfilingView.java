@@ -581,12 +581,17 @@ public interface ProfilingView {
             try {
                 if (orig instanceof RLogicalView) {
                     ((RLogicalView) orig).materializeInto(res);
-                } else {
+                } else if (orig instanceof LogicalImpl) {
                     // FIXME: this case is needed because materializeInto could have been called because
                     //   "this" is a view (profiling view), if it were known to be a doubleimpl (inserting
                     //   proxy views is visible via instanceof)
                     int[] content = ((LogicalImpl) orig).getContent();
                     System.arraycopy(content, 0, res, 0, content.length);
+                } else {
+                    int n = orig.size();
+                    for (int i = 0; i < n; i++) {
+                        res[i] = orig.getLogical(i);
+                    }
                 }
             } finally {
                 profile.leave(internal);
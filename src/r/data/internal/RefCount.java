@@ -0,0 +1,84 @@
+package r.data.internal;
+
+import java.io.*;
+
+import r.*;
+import r.data.*;
+
+// reference counting of arrays
+//   an array is counted once for each frame slot, top-level variable, forced promise, list element and attribute that holds it,
+//   the count is decremented when a variable is overwritten and when a function returns (its locals and the promises for its
+//   arguments), so that an array can return to the non-shared state and be updated in place again
+//
+// a frame that can be reached after its function returns (via a closure, an environment or an unforced promise) has "escaped" and
+// never releases anything, promises passed on via "..." are never released either (they are held by more than one frame); so the
+// count may be higher than the real number of holders, but it is never lower
+public final class RefCount {
+
+    public static final boolean STATISTICS = Utils.getProperty("RConsole.refcount.stats", false);
+
+    static long unrefs;
+    static long unshares;
+    static long releasedPromises;
+    static long inPlaceUpdates;
+    static long avoidedCopies;
+    static long reusedResults;
+
+    private RefCount() {
+    }
+
+    public static void unref(Object value) {
+        if (value instanceof NonScalarArrayImpl) {
+            ((NonScalarArrayImpl) value).unref();
+        }
+    }
+
+    // releases an old value of a variable, the old value is either a ref'd array or a promise
+    public static void release(Object value) {
+        if (value instanceof NonScalarArrayImpl) {
+            ((NonScalarArrayImpl) value).unref();
+        } else if (value instanceof RPromise) {
+            ((RPromise) value).release();
+        }
+    }
+
+    // called by vector updates when they have modified the base in place
+    public static void onInPlaceUpdate(RAny base) {
+        if (STATISTICS) {
+            inPlaceUpdates++;
+            if (base instanceof NonScalarArrayImpl && ((NonScalarArrayImpl) base).wasUnshared) {
+                avoidedCopies++; // with saturating reference counts, this array would still be shared
+            }
+        }
+    }
+
+    static void onUnref(boolean unshared) {
+        unrefs++;
+        if (unshared) {
+            unshares++;
+        }
+    }
+
+    public static void onPromiseRelease() {
+        if (STATISTICS) {
+            releasedPromises++;
+        }
+    }
+
+    // called when a node computes into the array of its earlier result, see ResultBuffers
+    public static void onResultReuse() {
+        if (STATISTICS) {
+            reusedResults++;
+        }
+    }
+
+    public static void printStatistics(PrintStream ps) {
+        ps.println("Reference counting statistics ------------------- ");
+        ps.println("    unrefs: " + unrefs);
+        ps.println("    arrays returned to non-shared state: " + unshares);
+        ps.println("    released promises: " + releasedPromises);
+        ps.println("    in-place updates: " + inPlaceUpdates);
+        ps.println("    avoided copies: " + avoidedCopies);
+        ps.println("    reused results: " + reusedResults);
+    }
+}
@@ -1,5 +1,7 @@
 package r.data.internal;
 
+import java.util.*;
+
 import r.*;
 import r.Convert.ConversionStatus;
 import r.data.*;
@@ -9,7 +11,7 @@ import r.nodes.exec.*;
 
 public class StringImpl extends NonScalarArrayImpl implements RString {
 
-    final String[] content;
+    String[] content; // can be longer than size() in a Growable
 
     public String[] getContent() {
         return content;
@@ -111,7 +113,7 @@ public class StringImpl extends NonScalarArrayImpl implements RString {
         StringBuilder str = new StringBuilder();
         if (dimensions != null) {
             str.append(arrayPretty());
-        } else if (content.length == 0) {
+        } else if (size() == 0) {
             str.append((names() == null) ? EMPTY_STRING : NAMED_EMPTY_STRING);
         } else if (names() != null) {
             str.append(namedPretty());
@@ -123,7 +125,7 @@ public class StringImpl extends NonScalarArrayImpl implements RString {
             } else {
                 str.append("NA");
             }
-            for (int i = 1; i < content.length; i++) {
+            for (int i = 1; i < size(); i++) {
                 str.append(", ");
                 if (content[i] != RString.NA) {
                     str.append("\"");
@@ -218,16 +220,62 @@ public class StringImpl extends NonScalarArrayImpl implements RString {
 
     @Override
     public StringImpl doStrip() {
-        return new StringImpl(content, null, null, null, false);
+        return new StringImpl(getContent(), null, null, null, false);
     }
 
     @Override
     public StringImpl doStripKeepNames() {
-        return new StringImpl(content, null, names, null, false);
+        return new StringImpl(getContent(), null, names, null, false);
     }
 
     @Override
     public void accept(ValueVisitor v) {
         v.visit(this);
     }
+
+    // returns a vector of the given size with the content of this (non-shared) vector, the added elements are not initialized
+    //   dimensions and names are dropped, so the caller has to check that there are none
+    public StringImpl resize(int newSize) {
+        String[] newContent = new String[Growable.capacity(newSize)];
+        System.arraycopy(content, 0, newContent, 0, Math.min(size(), newSize));
+        return new Growable(newContent, newSize, attributesRef());
+    }
+
+    // see IntImpl.Growable
+    public static final class Growable extends StringImpl {
+        int size;
+
+        Growable(String[] content, int size, Attributes attributes) {
+            super(content, null, null, attributes, false);
+            this.size = size;
+        }
+
+        static int capacity(int size) {
+            return size + (size >> 1) + 8;
+        }
+
+        @Override
+        public String[] getContent() {
+            if (content.length != size) {
+                content = Arrays.copyOf(content, size);
+            }
+            return content;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public StringImpl resize(int newSize) {
+            if (newSize > content.length) {
+                content = Arrays.copyOf(content, capacity(newSize));
+            } else if (newSize < size) {
+                Arrays.fill(content, newSize, size, null); // do not keep the dropped elements alive
+            }
+            size = newSize;
+            return this;
+        }
+    }
 }
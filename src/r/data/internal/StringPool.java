@@ -0,0 +1,72 @@
+package r.data.internal;
+
+// a global cache of short strings, similar in purpose to the CHARSXP cache of GNU-R
+//   repeated values (e.g. factor-like columns) then mostly share a single String instance, and decoding them from bytes does
+//   not allocate once the value is in the cache
+//
+// the cache is a fixed-size table indexed by the hash of the content, a slot holds the last string stored into it (so the cache
+// is lossy, an older value can be replaced by a colliding one and then decoded again)
+//
+// the cache is lock-free: slots are read and written by plain array accesses, a racing reader sees either the old or the new
+// string (String is immutable and safely published by its final fields), and in either case checks the content before using it;
+// so sharing of instances is best-effort, nothing may rely on identity of equal strings
+public final class StringPool {
+
+    public static final int MAX_POOLED_LENGTH = 64; // longer strings are unlikely to repeat, they are not worth hashing
+
+    private static final int CAPACITY = 1 << 14; // a power of two
+
+    private static final String[] table = new String[CAPACITY];
+
+    private StringPool() {
+    }
+
+    // the hash is the same as String.hashCode, so that cached strings can be found both from bytes and from strings
+    public static int hash(byte[] bytes, int start, int end) {
+        int h = 0;
+        for (int i = start; i < end; i++) {
+            h = 31 * h + (bytes[i] & 0xff);
+        }
+        return h;
+    }
+
+    private static int index(int h) {
+        return (h ^ (h >>> 16)) & (CAPACITY - 1);
+    }
+
+    // returns a string with the given (Latin-1) content, a cached instance when there is one
+    public static String get(byte[] bytes, int start, int end) {
+        int index = index(hash(bytes, start, end));
+        String s = table[index];
+        if (s != null && s.length() == end - start && equalsBytes(s, bytes, start)) {
+            return s;
+        }
+        s = ByteStringImpl.decode(bytes, start, end);
+        table[index] = s;
+        return s;
+    }
+
+    // returns a cached instance equal to s, or s (which is then cached)
+    public static String intern(String s) {
+        if (s == null || s.length() > MAX_POOLED_LENGTH) {
+            return s;
+        }
+        int index = index(s.hashCode());
+        String ps = table[index];
+        if (s.equals(ps)) {
+            return ps;
+        }
+        table[index] = s;
+        return s;
+    }
+
+    private static boolean equalsBytes(String s, byte[] bytes, int start) {
+        int len = s.length();
+        for (int i = 0; i < len; i++) {
+            if (s.charAt(i) != (bytes[start + i] & 0xff)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -2,6 +2,7 @@ package r.errors;
 
 import java.io.*;
 
+import r.*;
 import r.nodes.ast.*;
 import r.nodes.tools.*;
 
@@ -41,7 +42,16 @@ public class ManageError {
         throw err;
     }
 
+    // the report of an error, as displayed when it reaches top-level
+    public static String errorMessage(RError err) {
+        return message(ManageError.ERROR, (err instanceof RError.RErrorInExpr) ? ((RError.RErrorInExpr) err).getErrorNode() : null, err.getMessage());
+    }
+
     private static void displayMessage(String prefix, ASTNode cause, String msg) {
+        RContext.stderr().println(message(prefix, cause, msg));
+    }
+
+    private static String message(String prefix, ASTNode cause, String msg) {
         StringBuilder str = new StringBuilder(prefix);
         if (cause != null) {
             str.append(" in ").append(PrettyPrinter.prettyPrint(cause));
@@ -49,6 +59,6 @@ public class ManageError {
         // FIXME: in order to mimic GNU-R more closely, we would have to traverse up to a function in the AST tree
         str.append(": ");
         str.append(msg);
-        System.err.println(str);
+        return str.toString();
     }
 }
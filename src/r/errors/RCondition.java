@@ -0,0 +1,173 @@
+package r.errors;
+
+import r.data.*;
+import r.data.RAny.Attributes;
+import r.data.RArray.Names;
+import r.nodes.ast.*;
+
+// R conditions, a condition is a list of "message" and "call" with a "class" attribute
+//   tryCatch registers the condition classes it handles on a stack, which is only searched when a warning or another
+//   condition is signalled; errors are RError exceptions and are handled by the tryCatch that catches them
+public final class RCondition {
+
+    public static final String[] ERROR_CLASSES = {"simpleError", "error", "condition"};
+    public static final String[] WARNING_CLASSES = {"simpleWarning", "warning", "condition"};
+    public static final String[] CONDITION_CLASSES = {"simpleCondition", "condition"};
+
+    private static final Names CONDITION_NAMES = Names.create(RSymbol.getSymbols(new String[]{"message", "call"}));
+
+    private static String[][] handlerStack = new String[16][];
+    private static int handlerDepth;
+
+    // registers the classes handled by a tryCatch, returns the depth to be passed to pop
+    public static int push(String[] classes) {
+        int depth = handlerDepth;
+        if (depth == handlerStack.length) {
+            String[][] newStack = new String[depth * 2][];
+            System.arraycopy(handlerStack, 0, newStack, 0, depth);
+            handlerStack = newStack;
+        }
+        handlerStack[depth] = classes;
+        handlerDepth = depth + 1;
+        return depth;
+    }
+
+    public static void pop(int depth) {
+        handlerStack[depth] = null;
+        handlerDepth = depth;
+    }
+
+    // unwinds to the innermost tryCatch that has a handler for one of the classes, if there is one
+    public static void signal(RList condition, String[] classes) {
+        for (int d = handlerDepth - 1; d >= 0; d--) {
+            int h = handlerIndex(handlerStack[d], classes);
+            if (h != -1) {
+                throw new ConditionException(d, h, condition);
+            }
+        }
+    }
+
+    public static void signalWarning(String msg) {
+        if (handlerDepth > 0) {
+            signal(create(msg, WARNING_CLASSES), WARNING_CLASSES);
+        }
+    }
+
+    // the first handler (in the order of tryCatch arguments) that handles one of the classes, or -1
+    public static int handlerIndex(String[] handlers, String[] classes) {
+        for (int i = 0; i < handlers.length; i++) {
+            for (String c : classes) {
+                if (handlers[i].equals(c)) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    public static RList create(String msg, String[] classes) {
+        Attributes a = new Attributes();
+        a.put(RSymbol.CLASS_SYMBOL, RString.RStringFactory.getFor(classes.clone()));
+        // FIXME: the call is not given, RLanguage would detach the AST of the call from the tree
+        return RList.RListFactory.getFor(new RAny[]{RString.RStringFactory.getScalar(msg), RNull.getNull()}, null, CONDITION_NAMES, a);
+    }
+
+    public static boolean isCondition(RAny value) {
+        return value instanceof RList && classes(value) != null;
+    }
+
+    // the classes of a condition, or null
+    public static String[] classes(RAny value) {
+        Attributes a = value.attributes();
+        if (a == null) {
+            return null;
+        }
+        RAny c = a.map().get(RSymbol.CLASS_SYMBOL);
+        if (!(c instanceof RString)) {
+            return null;
+        }
+        RString s = (RString) c;
+        String[] res = new String[s.size()];
+        for (int i = 0; i < res.length; i++) {
+            res[i] = s.getString(i);
+        }
+        return res;
+    }
+
+    public static String message(RList condition) {
+        Names names = condition.names();
+        if (names != null) {
+            int i = names.map(RSymbol.getSymbol("message"));
+            if (i != -1) {
+                RAny m = condition.getRAny(i);
+                if (m instanceof RString && ((RString) m).size() > 0) {
+                    return ((RString) m).getString(0);
+                }
+            }
+        }
+        return "";
+    }
+
+    public static RList condition(RError err) {
+        if (err instanceof ConditionError) {
+            return ((ConditionError) err).condition;
+        }
+        return create(err.getMessage(), ERROR_CLASSES);
+    }
+
+    public static String[] classes(RError err) {
+        if (err instanceof ConditionError) {
+            return classes(((ConditionError) err).condition);
+        }
+        return ERROR_CLASSES;
+    }
+
+    public static RError getConditionError(ASTNode ast, RList condition) {
+        return new ConditionError(ast, condition);
+    }
+
+    // an error raised by stop() with a condition object
+    static final class ConditionError extends RError.RErrorInExpr {
+        private static final long serialVersionUID = 1L;
+        final RList condition;
+
+        ConditionError(ASTNode ast, RList condition) {
+            super(ast);
+            this.condition = condition;
+        }
+
+        @Override public String getMessage() {
+            return message(condition);
+        }
+    }
+
+    // unwinds to the tryCatch at the given depth, which calls its given handler
+    public static final class ConditionException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        final int depth;
+        final int handler;
+        final RList condition;
+
+        ConditionException(int depth, int handler, RList condition) {
+            this.depth = depth;
+            this.handler = handler;
+            this.condition = condition;
+        }
+
+        public int depth() {
+            return depth;
+        }
+
+        public int handler() {
+            return handler;
+        }
+
+        public RList condition() {
+            return condition;
+        }
+
+        @Override public synchronized Throwable fillInStackTrace() {
+            return this;
+        }
+    }
+}
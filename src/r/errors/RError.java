@@ -1,5 +1,6 @@
 package r.errors;
 
+import r.*;
 import r.data.*;
 import r.nodes.ast.*;
 import r.nodes.exec.*;
@@ -10,6 +11,10 @@ public abstract class RError extends RuntimeException {
 
     private static final long serialVersionUID = 1L;
 
+    // errors carry the AST node where they happened, the Java stack trace is only recorded when debugging as it would
+    //   dominate the cost of errors that are caught (tryCatch, try)
+    private static final boolean STACK_TRACES = Utils.getProperty("RConsole.debug.gui", false);
+
     public static final String LENGTH_GT_1 = "the condition has length > 1 and only the first element will be used";
     public static final String LENGTH_ZERO = "argument is of length zero";
     public static final String NA_UNEXP = "missing value where TRUE/FALSE needed";
@@ -77,6 +82,18 @@ public abstract class RError extends RuntimeException {
     public static final String UNIMPLEMENTED_COMPLEX = "unimplemented complex operation";
     public static final String COMPARISON_COMPLEX = "invalid comparison with complex values";
     public static final String NON_NUMERIC_BINARY = "non-numeric argument to binary operator";
+    public static final String BIGZ_NOT_SCALAR = "big integer operations need operands of length one";
+    public static final String BIGZ_INVALID = "cannot convert to a big integer";
+    public static final String NO_LINES_AVAILABLE = "no lines available in input";
+    public static final String MORE_COLUMNS_THAN_NAMES = "more columns than column names";
+    public static final String LINE_TOO_FEW_ELEMENTS = "line %d did not have %d elements";
+    public static final String LINE_TOO_MANY_ELEMENTS = "line %d has more than %d elements";
+    public static final String SEP_ONE_BYTE = "invalid 'sep' value: must be one byte";
+    public static final String ONLY_CHARACTER_OBJECTS = "can only write character objects";
+    public static final String DIFFERING_ROWS = "arguments imply differing number of rows: %d, %d";
+    public static final String INVALID_COLUMN_NAMES = "invalid 'col.names' specification";
+    public static final String INVALID_ROW_NAMES = "invalid 'row.names' specification";
+    public static final String NOT_DEFINED_FOR_COMPLEX = "'%s' not defined for complex numbers";
     public static final String RAW_SORT = "raw vectors cannot be sorted";
     public static final String INVALID_UNNAMED_ARGUMENT = "invalid argument";
     public static final String INVALID_UNNAMED_VALUE = "invalid value";
@@ -205,6 +222,16 @@ public abstract class RError extends RuntimeException {
     public static final String SUBASSIGN_TYPE_FIX = "incompatible types (from %s to %s) in subassignment type fix";
     public static final String RECURSIVE_INDEXING_FAILED = "recursive indexing failed at level %d";
     public static final String NOT_FUNCTION = "'%s' is not a function, character or symbol";
+    public static final String ZERO_LENGTH_INPUTS = "zero-length inputs cannot be mixed with those of non-zero length";
+    public static final String SECOND_ARGUMENT_LIST = "second argument must be a list";
+    public static final String INVALID_LABELS = "invalid 'labels'; length %d should be 1 or %d";
+    public static final String NOT_MEANINGFUL_FOR_FACTORS = "'%s' not meaningful for factors";
+    public static final String INVALID_FACTOR_LEVEL = "invalid factor level, NA generated";
+    public static final String LEVEL_SETS_DIFFER = "level sets of factors are different";
+
+    @Override public synchronized Throwable fillInStackTrace() {
+        return STACK_TRACES ? super.fillInStackTrace() : this;
+    }
 
     public abstract static class RNYIError extends RError {
         private static final long serialVersionUID = -7296314309177604737L;
@@ -1732,4 +1759,16 @@ public abstract class RError extends RuntimeException {
         return getGenericError(ast, String.format(RError.NOT_FUNCTION, arg.pretty()));
     }
 
+    public static RError getZeroLengthInputs(ASTNode ast) {
+        return getGenericError(ast, RError.ZERO_LENGTH_INPUTS);
+    }
+
+    public static RError getSecondArgumentList(ASTNode ast) {
+        return getGenericError(ast, RError.SECOND_ARGUMENT_LIST);
+    }
+
+    public static RError getInvalidLabels(ASTNode ast, int length, int nlevels) {
+        return getGenericError(ast, String.format(RError.INVALID_LABELS, length, nlevels));
+    }
+
 }
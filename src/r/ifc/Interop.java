@@ -4,6 +4,7 @@ import r.builtins.*;
 import r.builtins.CallFactory.ArgumentInfo;
 import r.data.*;
 import r.data.RArray.Names;
+import r.data.RArray.RArrayUtils;
 import r.data.internal.*;
 import r.ifc.Interop.Invokable;
 import r.nodes.ast.*;
@@ -114,6 +115,62 @@ public class Interop {
         else return null;
     }
 
+    /**
+     * Takes a Java value and returns the R value representing it. Arrays of doubles, ints and strings become R vectors
+     * over a copy of the array, so that later writes to the caller's array do not change the R value. Boxed numbers,
+     * booleans and strings become scalars, null becomes NULL.
+     */
+    public static RAny toR(Object value) {
+        if (value == null) return RNull.getNull();
+        if (value instanceof RAny) return (RAny) value;
+        if (value instanceof double[]) return new DoubleImpl(((double[]) value).clone(), null, null, null, false);
+        if (value instanceof int[]) return new IntImpl(((int[]) value).clone(), null, null, null, false);
+        if (value instanceof String[]) return new StringImpl(((String[]) value).clone(), null, null, null, false);
+        if (value instanceof boolean[]) {
+            boolean[] b = (boolean[]) value;
+            int[] content = new int[b.length];
+            for (int i = 0; i < b.length; i++) {
+                content[i] = b[i] ? RLogical.TRUE : RLogical.FALSE;
+            }
+            return new LogicalImpl(content, null, null, null, false);
+        }
+        if (value instanceof Double || value instanceof Float) return new ScalarDoubleImpl(((Number) value).doubleValue());
+        if (value instanceof Integer || value instanceof Short || value instanceof Byte) return new ScalarIntImpl(((Number) value).intValue());
+        if (value instanceof Boolean) return RLogical.RLogicalFactory.getScalar(((Boolean) value) ? RLogical.TRUE : RLogical.FALSE);
+        if (value instanceof String) return new ScalarStringImpl((String) value);
+        throw new IllegalArgumentException("cannot convert " + value.getClass().getName() + " to an R value");
+    }
+
+    /**
+     * Takes an R value and returns it as a Java array: double[] for doubles, int[] for integers and logicals (with NA
+     * being Integer.MIN_VALUE), String[] for strings (with NA being null). The content of a temporary vector (one no R
+     * variable refers to) is returned as it is, otherwise it is copied, so that writes to the array do not change R
+     * values. NULL gives null, other values (lists, functions) are returned as they are.
+     */
+    public static Object toJava(RAny r) {
+        if (r instanceof RNull) return null;
+        if (r instanceof RDouble) {
+            RDouble d = (RDouble) ((RDouble) r).materialize();
+            return d != r || r.isTemporary() ? d.getContent() : d.getContent().clone();
+        }
+        if (r instanceof RInt) {
+            RInt i = (RInt) ((RInt) r).materialize();
+            return i != r || r.isTemporary() ? i.getContent() : i.getContent().clone();
+        }
+        if (r instanceof RLogical) return ((RInt) r.asInt().materialize()).getContent(); // a new vector
+        if (r instanceof RString) {
+            RString s = (RString) r;
+            if (s instanceof StringImpl) return s.isTemporary() ? ((StringImpl) s).getContent() : ((StringImpl) s).getContent().clone();
+            int size = s.size();
+            String[] res = new String[size];
+            for (int i = 0; i < size; i++) {
+                res[i] = s.getString(i);
+            }
+            return res;
+        }
+        return r;
+    }
+
     public static RAny makeDoubleVector(double[] res, int[] dim, String[] names) {
         RSymbol[] namesSym = new RSymbol[names.length];
         for (int i = 0; i < names.length; i++)
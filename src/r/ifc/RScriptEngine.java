@@ -0,0 +1,144 @@
+package r.ifc;
+
+import java.io.*;
+import java.util.*;
+
+import javax.script.*;
+
+import org.antlr.runtime.*;
+
+import r.*;
+import r.data.*;
+import r.errors.*;
+import r.nodes.ast.*;
+import r.nodes.exec.*;
+
+/**
+ * A javax.script engine for R. A script is parsed and turned into an executable tree when it is compiled, and each
+ * evaluation of the compiled script executes that same tree, so the node rewrites (specializations) done by earlier
+ * evaluations are kept and later evaluations run the specialized code without parsing or warming up again. Scripts
+ * evaluated from source are compiled once too, the engine keeps the most recently used ones.
+ *
+ * The values in the bindings are converted by Interop.toR (arrays without copying) and assigned to the R global
+ * environment before each evaluation; the result is converted by Interop.toJava (vectors to primitive arrays). There
+ * is only one R global environment in the JVM, shared by all engines, so evaluations are serialized.
+ **/
+public class RScriptEngine extends AbstractScriptEngine implements Compilable {
+
+    private static final Object LOCK = new Object();
+    private static final int SOURCE_CACHE_SIZE = 64;
+
+    final RScriptEngineFactory factory;
+    private final Map<String, Script> compiledSources = new LinkedHashMap<String, Script>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override protected boolean removeEldestEntry(Map.Entry<String, Script> eldest) {
+            return size() > SOURCE_CACHE_SIZE;
+        }
+    };
+
+    public RScriptEngine(RScriptEngineFactory factory) {
+        this.factory = factory;
+    }
+
+    public RScriptEngine() {
+        this(new RScriptEngineFactory());
+    }
+
+    @Override public Object eval(String script, ScriptContext ctx) throws ScriptException {
+        Script s;
+        synchronized (compiledSources) {
+            s = compiledSources.get(script);
+        }
+        if (s == null) {
+            s = compile(script);
+            synchronized (compiledSources) {
+                compiledSources.put(script, s);
+            }
+        }
+        return s.eval(ctx);
+    }
+
+    @Override public Object eval(Reader reader, ScriptContext ctx) throws ScriptException {
+        return eval(read(reader), ctx);
+    }
+
+    @Override public Bindings createBindings() {
+        return new SimpleBindings();
+    }
+
+    @Override public ScriptEngineFactory getFactory() {
+        return factory;
+    }
+
+    @Override public Script compile(String script) throws ScriptException {
+        ASTNode tree;
+        synchronized (LOCK) {
+            tree = RContext.parseFile(new ANTLRStringStream(script));
+        }
+        if (tree == null) {
+            throw new ScriptException("parse error");
+        }
+        return new Script(tree);
+    }
+
+    @Override public Script compile(Reader reader) throws ScriptException {
+        return compile(read(reader));
+    }
+
+    private static String read(Reader reader) throws ScriptException {
+        StringBuilder sb = new StringBuilder();
+        char[] buf = new char[8192];
+        try {
+            int n;
+            while ((n = reader.read(buf)) != -1) {
+                sb.append(buf, 0, n);
+            }
+        } catch (IOException e) {
+            throw new ScriptException(e);
+        }
+        return sb.toString();
+    }
+
+    /** A parsed script, with its executable tree built on the first evaluation and kept for the following ones. */
+    public final class Script extends CompiledScript {
+        final ASTNode tree;
+        RNode root;
+
+        Script(ASTNode tree) {
+            this.tree = tree;
+        }
+
+        @Override public Object eval(ScriptContext ctx) throws ScriptException {
+            synchronized (LOCK) {
+                bind(ctx.getBindings(ScriptContext.GLOBAL_SCOPE));
+                bind(ctx.getBindings(ScriptContext.ENGINE_SCOPE));
+                if (root == null) {
+                    root = RContext.createRootNode(tree, null);
+                }
+                try {
+                    return Interop.toJava((RAny) root.execute(null)); // null means top-level
+                } catch (RError e) {
+                    throw new ScriptException(ManageError.errorMessage(e));
+                }
+            }
+        }
+
+        @Override public ScriptEngine getEngine() {
+            return RScriptEngine.this;
+        }
+    }
+
+    static void bind(Bindings bindings) {
+        if (bindings == null) {
+            return;
+        }
+        for (Map.Entry<String, Object> e : bindings.entrySet()) {
+            String name = e.getKey();
+            if (name.startsWith("javax.script.")) {
+                continue; // ScriptEngine.FILENAME, etc
+            }
+            REnvironment.GLOBAL.assign(RSymbol.getSymbol(name), Interop.toR(e.getValue()), false, null);
+        }
+    }
+}
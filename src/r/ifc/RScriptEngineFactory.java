@@ -0,0 +1,85 @@
+package r.ifc;
+
+import java.util.*;
+
+import javax.script.*;
+
+/** The javax.script factory of R engines, registered through META-INF/services. **/
+public class RScriptEngineFactory implements ScriptEngineFactory {
+
+    private static final List<String> NAMES = Collections.unmodifiableList(Arrays.asList("R", "r", "fastr"));
+    private static final List<String> EXTENSIONS = Collections.unmodifiableList(Arrays.asList("R", "r"));
+    private static final List<String> MIME_TYPES = Collections.unmodifiableList(Arrays.asList("text/x-r", "application/x-r"));
+
+    @Override public String getEngineName() {
+        return "FastR";
+    }
+
+    @Override public String getEngineVersion() {
+        return "1.0";
+    }
+
+    @Override public List<String> getExtensions() {
+        return EXTENSIONS;
+    }
+
+    @Override public List<String> getMimeTypes() {
+        return MIME_TYPES;
+    }
+
+    @Override public List<String> getNames() {
+        return NAMES;
+    }
+
+    @Override public String getLanguageName() {
+        return "R";
+    }
+
+    @Override public String getLanguageVersion() {
+        return "2.15";
+    }
+
+    @Override public Object getParameter(String key) {
+        switch (key) {
+            case ScriptEngine.ENGINE:
+                return getEngineName();
+            case ScriptEngine.ENGINE_VERSION:
+                return getEngineVersion();
+            case ScriptEngine.NAME:
+                return NAMES.get(0);
+            case ScriptEngine.LANGUAGE:
+                return getLanguageName();
+            case ScriptEngine.LANGUAGE_VERSION:
+                return getLanguageVersion();
+            case "THREADING":
+                return null; // evaluations are serialized, the engine has a single global environment
+            default:
+                return null;
+        }
+    }
+
+    @Override public String getMethodCallSyntax(String obj, String m, String... args) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(m).append("(").append(obj);
+        for (String a : args) {
+            sb.append(", ").append(a);
+        }
+        return sb.append(")").toString();
+    }
+
+    @Override public String getOutputStatement(String toDisplay) {
+        return "cat(\"" + toDisplay.replace("\\", "\\\\").replace("\"", "\\\"") + "\")";
+    }
+
+    @Override public String getProgram(String... statements) {
+        StringBuilder sb = new StringBuilder();
+        for (String s : statements) {
+            sb.append(s).append('\n');
+        }
+        return sb.toString();
+    }
+
+    @Override public ScriptEngine getScriptEngine() {
+        return new RScriptEngine(this);
+    }
+}
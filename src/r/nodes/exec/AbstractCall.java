@@ -1,6 +1,7 @@
 package r.nodes.exec;
 
 import r.*;
+import r.builtins.*;
 import r.data.*;
 import r.data.internal.*;
 import r.errors.*;
@@ -12,10 +13,14 @@ import r.runtime.*;
 public abstract class AbstractCall extends BaseR {
 
     public static final boolean MATERIALIZE_FUNCTION_ARGUMENTS = false;
+    public static final boolean ELIDE_PROMISES = true; // pass constants and values of local variables without a lazy promise
 
     protected final RSymbol[] argNames;
     @Children protected final RNode[] argExprs;
 
+    RFunction localSlotsFunction; // the calling function for which localSlots were computed
+    int[] localSlots; // for each argument, the slot of the local variable it reads, or -1
+
     public AbstractCall(ASTNode orig, RSymbol[] argNames, RNode[] argsExprs, boolean adoptArgsExprs) {
         super(orig);
         this.argNames = argNames;
@@ -274,6 +279,20 @@ public abstract class AbstractCall extends BaseR {
         RNode argExpr = argExprs[argIndex];
         if (argExpr != null) {
             if (FunctionCall.PROMISES) {
+                if (argExpr instanceof LApply.ValueProvider) {
+                    // the provider is shared by all invocations of the call node, including re-entrant ones (a function calling
+                    // itself via do.call or Reduce), so its value has to be bound now rather than read when the callee forces it
+                    Object value = argExpr.execute(callerFrame);
+                    if (value != null) {
+                        return RPromise.createForced(argExpr, callerFrame, (RAny) value);
+                    }
+                }
+                if (ELIDE_PROMISES) {
+                    Object value = evaluatedArgument(callerFrame, argIndex, argExpr);
+                    if (value != null) {
+                        return value;
+                    }
+                }
                 return RPromise.createNormal(argExpr, callerFrame);
             } else {
                 Object argV = argExpr.execute(callerFrame);
@@ -291,4 +310,44 @@ public abstract class AbstractCall extends BaseR {
         }
     }
 
-}
\ No newline at end of file
+    // a scalar constant is passed as it is, a read of a local variable that already has a value is passed as an eager promise,
+    // which still has the expression for substitute and missing; returns null when the argument needs a normal promise
+    private Object evaluatedArgument(Frame callerFrame, int argIndex, RNode argExpr) {
+        if (argExpr instanceof Constant) {
+            RAny value = ((Constant) argExpr).value();
+            return value instanceof NonScalarArrayImpl ? null : value; // a non-scalar could be modified in place by the callee
+        }
+        if (callerFrame == null) {
+            return null;
+        }
+        RFunction function = callerFrame.function();
+        if (function != localSlotsFunction) {
+            localSlots = computeLocalSlots(function);
+            localSlotsFunction = function;
+        }
+        int slot = localSlots[argIndex];
+        if (slot == -1) {
+            return null;
+        }
+        Object value = callerFrame.getSlot(slot);
+        if (value instanceof RAny) { // not a promise, not an unboxed value and not unset
+            return RPromise.createEager(argExpr, callerFrame, slot, (RAny) value);
+        }
+        return null;
+    }
+
+    private int[] computeLocalSlots(RFunction function) {
+        int[] slots = new int[argExprs.length];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = -1;
+            RNode argExpr = argExprs[i];
+            if (argExpr != null && argExpr.getAST() instanceof SimpleAccessVariable) {
+                RSymbol symbol = ((SimpleAccessVariable) argExpr.getAST()).getSymbol();
+                if (symbol != RSymbol.THREE_DOTS_SYMBOL && symbol.dotDotValue() == -1) {
+                    slots[i] = function.localSlot(symbol);
+                }
+            }
+        }
+        return slots;
+    }
+}
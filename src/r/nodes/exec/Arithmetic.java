@@ -1,6 +1,7 @@
 package r.nodes.exec;
 
 
+import java.math.*;
 import java.util.*;
 
 import r.*;
@@ -70,6 +71,9 @@ public class Arithmetic extends BaseR {
         if (getNewNode() != null) {
             return ((Arithmetic) getNewNode()).execute(lexpr, rexpr);
         }
+        if (vectorArit != null) {
+            vectorArit.enter(frame);
+        }
         return execute(lexpr, rexpr);
     }
 
@@ -78,6 +82,9 @@ public class Arithmetic extends BaseR {
         if (getNewNode() != null) {
             return ((Arithmetic) getNewNode()).execute(lexpr, rexpr);
         }
+        if (vectorArit != null) {
+            vectorArit.enter(frame);
+        }
         return execute(lexpr, rexpr);
     }
 
@@ -85,19 +92,42 @@ public class Arithmetic extends BaseR {
         try {
             throw new SpecializationException(null);
         } catch (SpecializationException e) {
+            boolean lint = lexpr instanceof ScalarIntImpl;
+            boolean rint = rexpr instanceof ScalarIntImpl;
+            if ((lint || lexpr instanceof ScalarDoubleImpl) && (rint || rexpr instanceof ScalarDoubleImpl)) {
+                if (!(lint && rint) || arit.returnsDouble()) {
+                    ScalarDouble sd = new ScalarDouble(ast, left, right, arit, lint, rint);
+                    replace(sd, "install ScalarDouble from Uninitialized");
+                    if (DEBUG_AR) Utils.debug("Installed ScalarDouble");
+                    return sd.execute(lexpr, rexpr);
+                }
+                ScalarInt si = new ScalarInt(ast, left, right, arit);
+                replace(si, "install ScalarInt from Uninitialized");
+                if (DEBUG_AR) Utils.debug("Installed ScalarInt");
+                return si.execute(lexpr, rexpr);
+            }
+            return specialize(lexpr, rexpr).execute(lexpr, rexpr);
+        }
+    }
 
-            if (left instanceof Constant || right instanceof Constant) {
-                SpecializedConst sc = SpecializedConst.createSpecialized((RAny) lexpr, (RAny) rexpr, ast, left, right, arit);
-                replace(sc, "install Specialized from Uninitialized");
-                if (DEBUG_AR) Utils.debug("Installed " + sc.dbg + " for expressions " + lexpr + "(" + ((RAny) lexpr).pretty() + ") and " + rexpr + "(" + ((RAny) rexpr).pretty() + ")");
-                return sc.execute(lexpr, rexpr);
-            } else {
-                assert Utils.check(vectorArit == null);
-                Specialized sn = Specialized.createSpecialized((RAny) lexpr, (RAny) rexpr, ast, left, right, arit);
-                replace(sn, "install Specialized from Uninitialized");
-                if (DEBUG_AR) Utils.debug("Installed " + sn.dbg);
-                return sn.execute(lexpr, rexpr);
-            }
+    // installs the node specialized for the types of the given operands
+    final Arithmetic specialize(Object lexpr, Object rexpr) {
+        if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+            BigInt bn = new BigInt(ast, left, right, arit);
+            replace(bn, "install BigInt from Uninitialized");
+            return bn;
+        }
+        if (left instanceof Constant || right instanceof Constant) {
+            SpecializedConst sc = SpecializedConst.createSpecialized((RAny) lexpr, (RAny) rexpr, ast, left, right, arit);
+            replace(sc, "install Specialized from Uninitialized");
+            if (DEBUG_AR) Utils.debug("Installed " + sc.dbg + " for expressions " + lexpr + "(" + ((RAny) lexpr).pretty() + ") and " + rexpr + "(" + ((RAny) rexpr).pretty() + ")");
+            return sc;
+        } else {
+            assert Utils.check(vectorArit == null);
+            Specialized sn = Specialized.createSpecialized((RAny) lexpr, (RAny) rexpr, ast, left, right, arit);
+            replace(sn, "install Specialized from Uninitialized");
+            if (DEBUG_AR) Utils.debug("Installed " + sn.dbg);
+            return sn;
         }
     }
 
@@ -115,6 +145,184 @@ public class Arithmetic extends BaseR {
         return super.replaceChild(oldNode, newNode);
     }
 
+    // both operands are scalar numbers and the result is a double (an operand is a double, or the operation returns doubles);
+    // the children are asked for unboxed values and the result is only boxed when the parent takes a boxed value, so a tree of
+    // scalar double arithmetic does not allocate intermediate results
+    static final class ScalarDouble extends Arithmetic {
+
+        final boolean leftInt; // the operand is a scalar int, which is converted to double
+        final boolean rightInt;
+
+        public ScalarDouble(ASTNode ast, RNode left, RNode right, ValueArithmetic arit, boolean leftInt, boolean rightInt) {
+            super(ast, left, right, arit);
+            this.leftInt = leftInt;
+            this.rightInt = rightInt;
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            try {
+                return RDouble.RDoubleFactory.getScalar(executeScalarDouble(frame));
+            } catch (SpecializationException e) {
+                return e.getResult();
+            }
+        }
+
+        @Override
+        public double executeScalarDouble(Frame frame) throws SpecializationException {
+            double l;
+            try {
+                l = leftInt ? intToDouble(left.executeScalarInteger(frame)) : left.executeScalarDouble(frame);
+            } catch (SpecializationException e) {
+                Object lexpr = e.getResult();
+                if (getNewNode() != null) {
+                    throw new SpecializationException(((Arithmetic) getNewNode()).executeWithLexpr(frame, lexpr));
+                }
+                throw new SpecializationException(generalize(lexpr, right.execute(frame)));
+            }
+            if (getNewNode() != null) {
+                // rewritten while evaluating the left operand (e.g. by a recursive call)
+                return RValueConversion.expectScalarDouble((RAny) ((Arithmetic) getNewNode()).executeWithLexpr(frame, box(l, leftInt)));
+            }
+            double r;
+            try {
+                r = rightInt ? intToDouble(right.executeScalarInteger(frame)) : right.executeScalarDouble(frame);
+            } catch (SpecializationException e) {
+                throw new SpecializationException(generalize(box(l, leftInt), e.getResult()));
+            }
+            return calc(l, r);
+        }
+
+        @Override
+        public Object execute(Object lexpr, Object rexpr) {
+            if ((leftInt ? lexpr instanceof ScalarIntImpl : lexpr instanceof ScalarDoubleImpl) && (rightInt ? rexpr instanceof ScalarIntImpl : rexpr instanceof ScalarDoubleImpl)) {
+                double l = leftInt ? intToDouble(((ScalarIntImpl) lexpr).getInt()) : ((ScalarDoubleImpl) lexpr).getDouble();
+                double r = rightInt ? intToDouble(((ScalarIntImpl) rexpr).getInt()) : ((ScalarDoubleImpl) rexpr).getDouble();
+                return RDouble.RDoubleFactory.getScalar(calc(l, r));
+            }
+            return generalize(lexpr, rexpr);
+        }
+
+        Object generalize(Object lexpr, Object rexpr) {
+            if (getNewNode() != null) {
+                return ((Arithmetic) getNewNode()).execute(lexpr, rexpr);
+            }
+            return specialize(lexpr, rexpr).execute(lexpr, rexpr);
+        }
+
+        static double intToDouble(int i) {
+            return i == RInt.NA ? RDouble.NA : i;
+        }
+
+        // the operand as it was before the conversion
+        static RAny box(double d, boolean isInt) {
+            return isInt ? RInt.RIntFactory.getScalar(RDouble.RDoubleUtils.isNA(d) ? RInt.NA : (int) d) : RDouble.RDoubleFactory.getScalar(d);
+        }
+
+        double calc(double l, double r) {
+            if (RDouble.RDoubleUtils.arithIsNA(l) || RDouble.RDoubleUtils.arithIsNA(r)) {
+                return RDouble.NA;
+            }
+            return arit.op(ast, l, r);
+        }
+    }
+
+    // both operands are scalar ints and the result is an int (+, -, *, %/%, %%), evaluated unboxed like ScalarDouble
+    static final class ScalarInt extends Arithmetic {
+
+        public ScalarInt(ASTNode ast, RNode left, RNode right, ValueArithmetic arit) {
+            super(ast, left, right, arit);
+        }
+
+        @Override
+        public Object execute(Frame frame) {
+            try {
+                return RInt.RIntFactory.getScalar(executeScalarInteger(frame));
+            } catch (SpecializationException e) {
+                return e.getResult();
+            }
+        }
+
+        @Override
+        public int executeScalarInteger(Frame frame) throws SpecializationException {
+            int l;
+            try {
+                l = left.executeScalarInteger(frame);
+            } catch (SpecializationException e) {
+                Object lexpr = e.getResult();
+                if (getNewNode() != null) {
+                    throw new SpecializationException(((Arithmetic) getNewNode()).executeWithLexpr(frame, lexpr));
+                }
+                throw new SpecializationException(generalize(lexpr, right.execute(frame)));
+            }
+            if (getNewNode() != null) {
+                // rewritten while evaluating the left operand (e.g. by a recursive call)
+                return RValueConversion.expectScalarInteger((RAny) ((Arithmetic) getNewNode()).executeWithLexpr(frame, RInt.RIntFactory.getScalar(l)));
+            }
+            int r;
+            try {
+                r = right.executeScalarInteger(frame);
+            } catch (SpecializationException e) {
+                throw new SpecializationException(generalize(RInt.RIntFactory.getScalar(l), e.getResult()));
+            }
+            return calc(l, r);
+        }
+
+        @Override
+        public Object execute(Object lexpr, Object rexpr) {
+            if (lexpr instanceof ScalarIntImpl && rexpr instanceof ScalarIntImpl) {
+                return RInt.RIntFactory.getScalar(calc(((ScalarIntImpl) lexpr).getInt(), ((ScalarIntImpl) rexpr).getInt()));
+            }
+            return generalize(lexpr, rexpr);
+        }
+
+        Object generalize(Object lexpr, Object rexpr) {
+            if (getNewNode() != null) {
+                return ((Arithmetic) getNewNode()).execute(lexpr, rexpr);
+            }
+            return specialize(lexpr, rexpr).execute(lexpr, rexpr);
+        }
+
+        int calc(int l, int r) {
+            if (l == RInt.NA || r == RInt.NA) {
+                return RInt.NA;
+            }
+            return arit.opWarnOverflow(ast, l, r);
+        }
+    }
+
+    // an operand is a big integer, the other (a number of length one) is converted to a big integer too
+    static final class BigInt extends Arithmetic {
+
+        public BigInt(ASTNode ast, RNode left, RNode right, ValueArithmetic arit) {
+            super(ast, left, right, arit);
+        }
+
+        @Override
+        public Object execute(Object lexpr, Object rexpr) {
+            if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+                return calc((RAny) lexpr, (RAny) rexpr, arit, ast);
+            }
+            if (getNewNode() != null) {
+                return ((Arithmetic) getNewNode()).execute(lexpr, rexpr);
+            }
+            return specialize(lexpr, rexpr).execute(lexpr, rexpr);
+        }
+
+        public static RAny calc(RAny lexpr, RAny rexpr, ValueArithmetic arit, ASTNode ast) {
+            BigInteger a = RBigInt.RBigIntUtils.operand(lexpr, ast);
+            BigInteger b = RBigInt.RBigIntUtils.operand(rexpr, ast);
+            if (a == null || b == null) {
+                return RInt.BOXED_NA;
+            }
+            BigInteger res = arit.op(ast, a, b);
+            if (res != null) {
+                return RBigInt.RBigIntFactory.getScalar(res);
+            }
+            return RDouble.RDoubleFactory.getScalar(arit.op(ast, a.doubleValue(), b.doubleValue()));
+        }
+    }
+
     public enum FailedSpecialization {
         FIXED_TYPE,
         MULTI_TYPE
@@ -405,7 +613,10 @@ public class Arithmetic extends BaseR {
             return null;
         }
 
-        public static RArray genericCalc(Object lexpr, Object rexpr, ValueArithmetic arit, boolean returnsDouble, VectorArithmetic vectorArit, ASTNode ast) {
+        public static RArray genericCalc(Object lexpr, Object rexpr, ValueArithmetic arit, boolean returnsDouble, VectorArithmetic vectorArit, ASTNode ast) throws SpecializationException {
+            if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+                throw new SpecializationException(FailedSpecialization.FIXED_TYPE);
+            }
             // TODO: re-visit this, the error semantics with non-numeric types is very likely wrong
             if (lexpr instanceof RComplex || rexpr instanceof RComplex) {
                 RComplex lcmp = ((RAny)lexpr).asComplex();
@@ -469,7 +680,7 @@ public class Arithmetic extends BaseR {
             final boolean returnsDouble = returnsDouble(arit);
             c = new Calculator() {
                 @Override
-                public Object calc(Object lexpr, Object rexpr) {
+                public Object calc(Object lexpr, Object rexpr) throws SpecializationException {
                     return genericCalc(lexpr, rexpr, arit, returnsDouble, vectorArit, ast);
                 }
             };
@@ -481,6 +692,11 @@ public class Arithmetic extends BaseR {
             try {
                 return calc.calc(lexpr, rexpr);
             } catch (SpecializationException e) {
+                if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+                    BigInt bn = new BigInt(ast, left, right, arit);
+                    replace(bn, "install BigInt from Specialized");
+                    return bn.execute(lexpr, rexpr);
+                }
                 Object r = e.getResult();
                 if (r instanceof VectorArithmetic) {
                     // result of profiling - the previous node must have been a profiling node
@@ -997,7 +1213,10 @@ public class Arithmetic extends BaseR {
                 final RInt lint = (leftLogicalOrInt) ? leftTemplate.asInt() : null;
                 c = new Calculator() {
                     @Override
-                    public Object calc(Object lexpr, Object rexpr) {
+                    public Object calc(Object lexpr, Object rexpr) throws SpecializationException {
+                        if (rexpr instanceof RBigInt) {
+                            throw new SpecializationException(FailedSpecialization.FIXED_TYPE);
+                        }
                      // TODO: re-visit this, the error semantics with non-numeric types is very likely wrong
                         if (leftComplex || rexpr instanceof RComplex) {
                             RComplex rcmp = ((RAny) rexpr).asComplex();
@@ -1042,7 +1261,10 @@ public class Arithmetic extends BaseR {
                 final RInt rint = (rightLogicalOrInt) ? rightTemplate.asInt() : null;
                 c = new Calculator() {
                     @Override
-                    public Object calc(Object lexpr, Object rexpr) {
+                    public Object calc(Object lexpr, Object rexpr) throws SpecializationException {
+                        if (lexpr instanceof RBigInt) {
+                            throw new SpecializationException(FailedSpecialization.FIXED_TYPE);
+                        }
                      // TODO: re-visit this, the error semantics with non-numeric types is very likely wrong
                         if (rightComplex || lexpr instanceof RComplex) {
                             RComplex lcmp = ((RAny) lexpr).asComplex();
@@ -1131,6 +1353,11 @@ public class Arithmetic extends BaseR {
                 FailedSpecialization f = (FailedSpecialization) e.getResult();
                 RAny leftTemplate = getExpr(left, (RAny) lexpr);
                 RAny rightTemplate = getExpr(right, (RAny) rexpr);
+                if (RBigInt.RBigIntUtils.isBigInt(leftTemplate, rightTemplate)) {
+                    BigInt bn = new BigInt(ast, left, right, arit);
+                    replace(bn, "install BigInt from SpecializedConst");
+                    return bn.execute(leftTemplate, rightTemplate);
+                }
                 if (f == FailedSpecialization.FIXED_TYPE) {
                     SpecializedConst sn = createSpecializedMultiType(leftTemplate, rightTemplate, ast, left, right, arit);
                     if (sn != null) {
@@ -1168,6 +1395,57 @@ public class Arithmetic extends BaseR {
             }
             return res;
         }
+        // big integers; null when the result is not an integer (e.g. for division), in which case the operation is done
+        // in doubles
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            return null;
+        }
+        // int vectors, an operation with NA gives NA; these return true when an operation gave an NA (e.g. overflowed),
+        // for which the caller warns; the arithmetics that have a SIMD-friendly loop override these
+        public boolean opIntEqualSize(ASTNode ast, int[] x, int[] y, int[] res, int size) {
+            boolean naProduced = false;
+            for (int i = 0; i < size; i++) {
+                int a = x[i];
+                int b = y[i];
+                if (a == RInt.NA || b == RInt.NA) {
+                    res[i] = RInt.NA;
+                } else {
+                    int r = op(ast, a, b);
+                    naProduced |= r == RInt.NA;
+                    res[i] = r;
+                }
+            }
+            return naProduced;
+        }
+        public boolean opIntScalar(ASTNode ast, int[] x, int y, int[] res, int size) {
+            boolean naProduced = false;
+            for (int i = 0; i < size; i++) {
+                int a = x[i];
+                if (a == RInt.NA || y == RInt.NA) {
+                    res[i] = RInt.NA;
+                } else {
+                    int r = op(ast, a, y);
+                    naProduced |= r == RInt.NA;
+                    res[i] = r;
+                }
+            }
+            return naProduced;
+        }
+        public boolean opScalarInt(ASTNode ast, int x, int[] y, int[] res, int size) {
+            boolean naProduced = false;
+            for (int i = 0; i < size; i++) {
+                int b = y[i];
+                if (x == RInt.NA || b == RInt.NA) {
+                    res[i] = RInt.NA;
+                } else {
+                    int r = op(ast, x, b);
+                    naProduced |= r == RInt.NA;
+                    res[i] = r;
+                }
+            }
+            return naProduced;
+        }
+
         public final double op(ASTNode ast, double a, int b) {
             return op(ast, a, (double) b);
         }
@@ -1581,6 +1859,22 @@ public class Arithmetic extends BaseR {
             return add(a, b);
         }
         @Override
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            return a.add(b);
+        }
+        @Override
+        public boolean opIntEqualSize(ASTNode ast, int[] x, int[] y, int[] res, int size) {
+            return VectorKernels.add(x, y, res, size);
+        }
+        @Override
+        public boolean opIntScalar(ASTNode ast, int[] x, int y, int[] res, int size) {
+            return VectorKernels.add(x, y, res, size);
+        }
+        @Override
+        public boolean opScalarInt(ASTNode ast, int x, int[] y, int[] res, int size) {
+            return VectorKernels.add(y, x, res, size);
+        }
+        @Override
         public void emitOverflowWarning(ASTNode ast) {
             RContext.warning(ast, RError.INTEGER_OVERFLOW);
         }
@@ -1964,8 +2258,7 @@ public class Arithmetic extends BaseR {
         public double op(ASTNode ast, double a, double b) {
             return a - b;
         }
-        @Override
-        public int op(ASTNode ast, int a, int b) {
+        public static int sub(int a, int b) {
             // LICENSE: transcribed code from GNU R, which is licensed under GPL
             int r = a - b;
             if ((a < 0 == b < 0) || (a < 0 == r < 0)) {
@@ -1975,6 +2268,26 @@ public class Arithmetic extends BaseR {
             }
         }
         @Override
+        public int op(ASTNode ast, int a, int b) {
+            return sub(a, b);
+        }
+        @Override
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            return a.subtract(b);
+        }
+        @Override
+        public boolean opIntEqualSize(ASTNode ast, int[] x, int[] y, int[] res, int size) {
+            return VectorKernels.sub(x, y, res, size);
+        }
+        @Override
+        public boolean opIntScalar(ASTNode ast, int[] x, int y, int[] res, int size) {
+            return VectorKernels.sub(x, y, res, size, false);
+        }
+        @Override
+        public boolean opScalarInt(ASTNode ast, int x, int[] y, int[] res, int size) {
+            return VectorKernels.sub(y, x, res, size, true);
+        }
+        @Override
         public void emitOverflowWarning(ASTNode ast) {
             RContext.warning(ast, RError.INTEGER_OVERFLOW);
         }
@@ -2342,8 +2655,7 @@ public class Arithmetic extends BaseR {
         public double op(ASTNode ast, double a, double b) {
             return a * b;
         }
-        @Override
-        public int op(ASTNode ast, int a, int b) {
+        public static int mult(int a, int b) {
             long l = (long) a * (long) b;
             if (!(l < Integer.MIN_VALUE || l > Integer.MAX_VALUE)) {
                 return (int) l;
@@ -2352,6 +2664,26 @@ public class Arithmetic extends BaseR {
             }
         }
         @Override
+        public int op(ASTNode ast, int a, int b) {
+            return mult(a, b);
+        }
+        @Override
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            return a.multiply(b);
+        }
+        @Override
+        public boolean opIntEqualSize(ASTNode ast, int[] x, int[] y, int[] res, int size) {
+            return VectorKernels.mult(x, y, res, size);
+        }
+        @Override
+        public boolean opIntScalar(ASTNode ast, int[] x, int y, int[] res, int size) {
+            return VectorKernels.mult(x, y, res, size);
+        }
+        @Override
+        public boolean opScalarInt(ASTNode ast, int x, int[] y, int[] res, int size) {
+            return VectorKernels.mult(y, x, res, size);
+        }
+        @Override
         public void emitOverflowWarning(ASTNode ast) {
             RContext.warning(ast, RError.INTEGER_OVERFLOW);
         }
@@ -2950,6 +3282,13 @@ public class Arithmetic extends BaseR {
             return -1;
         }
         @Override
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            if (b.signum() < 0 || b.bitLength() > 31) {
+                return null;
+            }
+            return a.pow(b.intValue());
+        }
+        @Override
         public void emitOverflowWarning(ASTNode ast) {
             Utils.nyi("unreachable");
         }
@@ -3774,6 +4113,17 @@ public class Arithmetic extends BaseR {
             }
         }
         @Override
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            if (b.signum() == 0) {
+                return null;
+            }
+            BigInteger[] qr = a.divideAndRemainder(b);
+            if (qr[1].signum() != 0 && qr[1].signum() != b.signum()) {
+                return qr[0].subtract(BigInteger.ONE); // rounds towards minus infinity
+            }
+            return qr[0];
+        }
+        @Override
         public void emitOverflowWarning(ASTNode ast) {
             // no warning
         }
@@ -4055,6 +4405,17 @@ public class Arithmetic extends BaseR {
             }
         }
         @Override
+        public BigInteger op(ASTNode ast, BigInteger a, BigInteger b) {
+            if (b.signum() == 0) {
+                return null;
+            }
+            BigInteger r = a.mod(b.abs());
+            if (b.signum() < 0 && r.signum() != 0) {
+                return r.add(b); // has the sign of the divisor
+            }
+            return r;
+        }
+        @Override
         public void emitOverflowWarning(ASTNode ast) {
             // no warning
         }
@@ -4321,6 +4682,9 @@ public class Arithmetic extends BaseR {
 
         public abstract RInt intBinary(RInt a, RInt b, ValueArithmetic arit, ASTNode ast);
 
+        // called by the node before it computes with the operands
+        public void enter(Frame frame) {
+        }
     }
 
     public static final class LazyVectorArithmetic extends VectorArithmetic {
@@ -4382,6 +4746,10 @@ public class Arithmetic extends BaseR {
 //                    return arit.opDoubleImplEqualSize(ast, (DoubleImpl) a, (DoubleImpl) b, na, dim, names, attributes);
 //                }
                 res = new DoubleViewForDoubleDouble.EqualSizeVectorVector(a, b, dim, names, attributes, na, depth, arit, ast);
+            } else if (nb == 1 && na > 1 && FusedDoubleView.isFusable(a)) {
+                return FusedDoubleView.fuse(a, new ScalarStage(arit, ast, b.getDouble(0), false), dim, names, attributes);
+            } else if (na == 1 && nb > 1 && FusedDoubleView.isFusable(b)) {
+                return FusedDoubleView.fuse(b, new ScalarStage(arit, ast, a.getDouble(0), true), dim, names, attributes);
             } else if (nb == 1 && na > 0) {
 //                if (arit == POW && na > 1) {
 //                    return arit.opDoubleImplScalarCheckingNA(ast, (DoubleImpl) a.materialize(), b.getDouble(0), na, dim, names, attributes);
@@ -4430,6 +4798,8 @@ public class Arithmetic extends BaseR {
                 } else {
                     res = new DoubleViewForDoubleInt.EqualSizeVectorVector(a, b, dim, names, attributes, na, depth, arit, ast);
                 }
+            } else if (nb == 1 && na > 1 && FusedDoubleView.isFusable(a)) {
+                return FusedDoubleView.fuse(a, new ScalarStage(arit, ast, b.asDouble().getDouble(0), false), dim, names, attributes);
             } else if (nb == 1 && na > 0) {
                 res = new DoubleViewForDoubleDouble.VectorScalar(a, b.asDouble(), dim, names, attributes, na, depth, arit, ast);
             } else if (na == 1 && nb > 0) {
@@ -4629,6 +4999,19 @@ public class Arithmetic extends BaseR {
 
     public static final class EagerVectorArithmetic extends VectorArithmetic {
 
+        final ResultBuffers buffers; // the results of a node, or null when shared by nodes
+
+        public EagerVectorArithmetic(ResultBuffers buffers) {
+            this.buffers = buffers;
+        }
+
+        @Override
+        public void enter(Frame frame) {
+            if (buffers != null) {
+                buffers.enter(frame);
+            }
+        }
+
         @Override
         public RComplex complexBinary(RComplex a, RComplex b, ValueArithmetic arit, ASTNode ast) {
             int[] dim = resultDimensions(ast, a, b);
@@ -4674,15 +5057,42 @@ public class Arithmetic extends BaseR {
 
             if (na == nb) {
                 if (na > 1) {
-                    return arit.opDoubleImplEqualSize(ast, (DoubleImpl) a.materialize(), (DoubleImpl) b.materialize(), na, dim, names, attributes);
+                    DoubleImpl x = (DoubleImpl) a.materialize();
+                    DoubleImpl y = (DoubleImpl) b.materialize();
+                    if (buffers != null && !x.isTemporary() && !y.isTemporary()) {
+                        double[] res = buffers.allocateDouble(na);
+                        arit.opDoubleEqualSize(ast, x.getContent(), y.getContent(), res, na);
+                        return buffers.keep(RDouble.RDoubleFactory.getFor(res, dim, names, attributes));
+                    }
+                    return arit.opDoubleImplEqualSize(ast, x, y, na, dim, names, attributes);
                 } else {
                     // scalars
                     return RDouble.RDoubleFactory.getScalar(arit.opCheckingNA(ast, a.getDouble(0), b.getDouble(0)), dim, names, attributes);
                 }
             } else if (nb == 1) {
-                return arit.opDoubleImplScalarCheckingNA(ast, (DoubleImpl) a.materialize(), b.getDouble(0), na, dim, names, attributes);
+                if (FusedDoubleView.isFusable(a)) {
+                    return FusedDoubleView.fuse(a, new ScalarStage(arit, ast, b.getDouble(0), false), dim, names, attributes).materialize();
+                }
+                DoubleImpl x = (DoubleImpl) a.materialize();
+                double bdbl = b.getDouble(0);
+                if (buffers != null && na > 1 && !x.isTemporary() && !RDouble.RDoubleUtils.arithIsNA(bdbl)) {
+                    double[] res = buffers.allocateDouble(na);
+                    arit.opDoubleScalar(ast, x.getContent(), bdbl, res, na);
+                    return buffers.keep(RDouble.RDoubleFactory.getFor(res, dim, names, attributes));
+                }
+                return arit.opDoubleImplScalarCheckingNA(ast, x, bdbl, na, dim, names, attributes);
             } else if (na == 1) {
-                return arit.opScalarDoubleImplCheckingNA(ast, a.getDouble(0), (DoubleImpl) b.materialize(), nb, dim, names, attributes);
+                if (FusedDoubleView.isFusable(b)) {
+                    return FusedDoubleView.fuse(b, new ScalarStage(arit, ast, a.getDouble(0), true), dim, names, attributes).materialize();
+                }
+                double adbl = a.getDouble(0);
+                DoubleImpl y = (DoubleImpl) b.materialize();
+                if (buffers != null && nb > 1 && !y.isTemporary() && !RDouble.RDoubleUtils.arithIsNA(adbl)) {
+                    double[] res = buffers.allocateDouble(nb);
+                    arit.opScalarDouble(ast, adbl, y.getContent(), res, nb);
+                    return buffers.keep(RDouble.RDoubleFactory.getFor(res, dim, names, attributes));
+                }
+                return arit.opScalarDoubleImplCheckingNA(ast, adbl, y, nb, dim, names, attributes);
             } else {
                 int n = resultSize(ast, na, nb);
                 if (n == na) {
@@ -4759,7 +5169,7 @@ public class Arithmetic extends BaseR {
     }
 
     public static final LazyVectorArithmetic LAZY_VECTOR = new LazyVectorArithmetic();
-    public static final EagerVectorArithmetic EAGER_VECTOR = new EagerVectorArithmetic();
+    public static final EagerVectorArithmetic EAGER_VECTOR = new EagerVectorArithmetic(null);
 
     public static VectorArithmetic chooseVectorArithmetic(Object leftTemplate, Object rightTemplate, ValueArithmetic arit) {
 
@@ -4779,7 +5189,7 @@ public class Arithmetic extends BaseR {
         if (profile.shouldBeLazy()) {
             return LAZY_VECTOR;
         } else {
-            return EAGER_VECTOR;
+            return new EagerVectorArithmetic(new ResultBuffers()); // the node keeps its results for re-use
         }
     }
 
@@ -5438,6 +5848,67 @@ public class Arithmetic extends BaseR {
         //   to tight loops
     }
 
+    // arithmetic of a vector with a scalar, as an element-wise operation of a fused view
+    static final class ScalarStage extends FusedDoubleView.Stage {
+        final ValueArithmetic arit;
+        final ASTNode ast;
+        final double scalar;
+        final boolean scalarFirst;
+
+        ScalarStage(ValueArithmetic arit, ASTNode ast, double scalar, boolean scalarFirst) {
+            this.arit = arit;
+            this.ast = ast;
+            this.scalar = scalar;
+            this.scalarFirst = scalarFirst;
+        }
+
+        @Override
+        public double op(double x) {
+            return scalarFirst ? arit.opCheckingNA(ast, scalar, x) : arit.opCheckingNA(ast, x, scalar);
+        }
+
+        @Override
+        public boolean op(double[] x, double[] res, int from, int to) {
+            double c = scalar;
+            if (RDouble.RDoubleUtils.ARITH_NA_CHECKS) {
+                generic(x, res, from, to);
+            } else if (arit == ADD) {
+                for (int i = from; i < to; i++) {
+                    res[i] = x[i] + c;
+                }
+            } else if (arit == MULT) {
+                for (int i = from; i < to; i++) {
+                    res[i] = x[i] * c;
+                }
+            } else if (arit == SUB && !scalarFirst) {
+                for (int i = from; i < to; i++) {
+                    res[i] = x[i] - c;
+                }
+            } else if (arit == SUB) {
+                for (int i = from; i < to; i++) {
+                    res[i] = c - x[i];
+                }
+            } else if (arit == DIV && !scalarFirst) {
+                for (int i = from; i < to; i++) {
+                    res[i] = x[i] / c;
+                }
+            } else if (arit == DIV) {
+                for (int i = from; i < to; i++) {
+                    res[i] = c / x[i];
+                }
+            } else {
+                generic(x, res, from, to);
+            }
+            return false;
+        }
+
+        private void generic(double[] x, double[] res, int from, int to) {
+            for (int i = from; i < to; i++) {
+                res[i] = op(x[i]);
+            }
+        }
+    }
+
     // NOTE: it is tempting to template this class by the type of a and type of b, re-using for
     // int and double combinations; unfortunately, that leads to slower execution
     abstract static class DoubleViewForDoubleDouble extends DoubleView implements RDouble {
@@ -5644,7 +6115,7 @@ public class Arithmetic extends BaseR {
             }
         }
 
-        static final class VectorScalar extends DoubleViewForDoubleDouble implements RDouble {
+        static final class VectorScalar extends DoubleViewForDoubleDouble implements RDouble, FusedDoubleView.Fusable {
 
             final boolean arithIsNA;
             final double bdbl;
@@ -5686,6 +6157,16 @@ public class Arithmetic extends BaseR {
                 }
             }
 
+            @Override
+            public RDouble fusableArgument() {
+                return a;
+            }
+
+            @Override
+            public FusedDoubleView.Stage fusableStage() {
+                return new ScalarStage(arit, ast, bdbl, false);
+            }
+
             @Override
             public void accept(ValueVisitor v) {
                 v.visit(this);
@@ -5693,7 +6174,7 @@ public class Arithmetic extends BaseR {
         }
 
         // FIXME: this should be specialized much more in the call stack (building names, dimensions, attributes, calling ref, depends on, ...)
-        static final class ScalarVector extends DoubleViewForDoubleDouble implements RDouble {
+        static final class ScalarVector extends DoubleViewForDoubleDouble implements RDouble, FusedDoubleView.Fusable {
 
             final boolean arithIsNA;
             final double adbl;
@@ -5851,6 +6332,16 @@ public class Arithmetic extends BaseR {
 //                }
 //            }
 
+            @Override
+            public RDouble fusableArgument() {
+                return b;
+            }
+
+            @Override
+            public FusedDoubleView.Stage fusableStage() {
+                return new ScalarStage(arit, ast, adbl, true);
+            }
+
             @Override
             public void accept(ValueVisitor v) {
                 v.visit(this);
@@ -6751,6 +7242,14 @@ public class Arithmetic extends BaseR {
             return depth;
         }
 
+        // warns (once) when the tight loop of the arithmetic produced an NA
+        final void naProduced(boolean produced) {
+            if (produced && !overflown) {
+                overflown = true;
+                arit.emitOverflowWarning(ast);
+            }
+        }
+
         // TODO: implement more efficient versions of materializeIntoOnTheFly
         //   note that one can change to DoubleImpl, and then use .dependsOn to rule out a dependency, and hence fall back
         //   to tight loops
@@ -7293,6 +7792,26 @@ public class Arithmetic extends BaseR {
                 }
             }
 
+            @Override
+            public void materializeInto(int[] resContent) {
+                if (a instanceof IntImpl) {
+                    if (b instanceof IntImpl) {
+                        naProduced(arit.opIntEqualSize(ast, a.getContent(), b.getContent(), resContent, n));
+                        return;
+                    }
+                    if (b instanceof RIntView) {
+                        ((RIntView) b).materializeInto(resContent);
+                        naProduced(arit.opIntEqualSize(ast, a.getContent(), resContent, resContent, n));
+                        return;
+                    }
+                } else if (a instanceof RIntView && b instanceof IntImpl) {
+                    ((RIntView) a).materializeInto(resContent);
+                    naProduced(arit.opIntEqualSize(ast, resContent, b.getContent(), resContent, n));
+                    return;
+                }
+                super.materializeInto(resContent);
+            }
+
             @Override
             public void accept(ValueVisitor v) {
                 v.visit(this);
@@ -7455,6 +7974,18 @@ public class Arithmetic extends BaseR {
                 }
             }
 
+            @Override
+            public void materializeInto(int[] resContent) {
+                if (a instanceof IntImpl) {
+                    naProduced(arit.opIntScalar(ast, a.getContent(), bint, resContent, n));
+                } else if (a instanceof RIntView) {
+                    ((RIntView) a).materializeInto(resContent);
+                    naProduced(arit.opIntScalar(ast, resContent, bint, resContent, n));
+                } else {
+                    super.materializeInto(resContent);
+                }
+            }
+
             @Override
             public void accept(ValueVisitor v) {
                 v.visit(this);
@@ -7559,6 +8090,18 @@ public class Arithmetic extends BaseR {
                 }
             }
 
+            @Override
+            public void materializeInto(int[] resContent) {
+                if (b instanceof IntImpl) {
+                    naProduced(arit.opScalarInt(ast, aint, b.getContent(), resContent, n));
+                } else if (b instanceof RIntView) {
+                    ((RIntView) b).materializeInto(resContent);
+                    naProduced(arit.opScalarInt(ast, aint, resContent, resContent, n));
+                } else {
+                    super.materializeInto(resContent);
+                }
+            }
+
             @Override
             public void accept(ValueVisitor v) {
                 v.visit(this);
@@ -45,7 +45,7 @@ public abstract class ArithmeticUpdateVariable extends BaseR {
         return assignmentNode.execute(frame); // could read the variable the second time, but that does not matter
     }
 
-    // x <- x + 1L   or x <- 1L + x, only for x local, ScalarIntImpl, otherwise rewrites
+    // x <- x + 1L   or x <- 1L + x, only for x local, scalar integer, otherwise rewrites
     public static class ScalarIntLocalIncrement extends ArithmeticUpdateVariable {
 
         final int slot;
@@ -58,20 +58,40 @@ public abstract class ArithmeticUpdateVariable extends BaseR {
         @Override
         public Object execute(Frame frame) {
             try {
+                update(frame);
+                return frame.get(slot);
+            } catch (SpecializationException e) {
+                return constantAddReplaceAndExecute(frame);
+            }
+        }
+
+        @Override
+        public Object executeVoid(Frame frame) {
+            try {
+                update(frame);
+                return RNull.getNull();
+            } catch (SpecializationException e) {
+                return constantAddReplaceAndExecute(frame);
+            }
+        }
+
+        // the result is stored unboxed, so a loop counter updated this way does not allocate
+        private void update(Frame frame) throws SpecializationException {
+            int i;
+            if (frame.getSlot(slot) == Frame.UNBOXED_INT) {
+                i = frame.getUnboxedInt(slot);
+            } else {
                 Object value = frame.getObjectForcingPromises(slot);
-                if (value != null && value instanceof ScalarIntImpl) {
-                    int i = ((ScalarIntImpl) value).getInt();
-                    int newi = i + 1;
-                    if (i != RInt.NA && newi != RInt.NA) {
-                        ScalarIntImpl res = new ScalarIntImpl(newi);
-                        frame.set(slot, res);  // NOTE: cannot modify a ScalarIntImpl (once written to a frame)
-                        return res;
-                    }
+                if (!(value instanceof ScalarIntImpl)) {
+                    throw new SpecializationException(null);
                 }
+                i = ((ScalarIntImpl) value).getInt();
+            }
+            int newi = i + 1;
+            if (i == RInt.NA || newi == RInt.NA) {
                 throw new SpecializationException(null);
-            } catch (SpecializationException e) {
-                return constantAddReplaceAndExecute(frame);
             }
+            frame.writeUnboxedInt(slot, newi);
         }
     }
 
@@ -97,7 +117,7 @@ public abstract class ArithmeticUpdateVariable extends BaseR {
         return assignmentNode.execute(frame); // could read the variable the second time, but that does not matter
     }
 
-    // x <- x - 1L,  only for x local, ScalarIntImpl, otherwise rewrites
+    // x <- x - 1L,  only for x local, scalar integer, otherwise rewrites
     public static class ScalarIntLocalDecrement extends ArithmeticUpdateVariable {
 
         final int slot;
@@ -110,20 +130,40 @@ public abstract class ArithmeticUpdateVariable extends BaseR {
         @Override
         public Object execute(Frame frame) {
             try {
+                update(frame);
+                return frame.get(slot);
+            } catch (SpecializationException e) {
+                return constantSubReplaceAndExecute(frame);
+            }
+        }
+
+        @Override
+        public Object executeVoid(Frame frame) {
+            try {
+                update(frame);
+                return RNull.getNull();
+            } catch (SpecializationException e) {
+                return constantSubReplaceAndExecute(frame);
+            }
+        }
+
+        // the result is stored unboxed, so a loop counter updated this way does not allocate
+        private void update(Frame frame) throws SpecializationException {
+            int i;
+            if (frame.getSlot(slot) == Frame.UNBOXED_INT) {
+                i = frame.getUnboxedInt(slot);
+            } else {
                 Object value = frame.getObjectForcingPromises(slot);
-                if (value != null && value instanceof ScalarIntImpl) {
-                    int i = ((ScalarIntImpl) value).getInt();
-                    int newi = i - 1;
-                    if (i != RInt.NA && newi != RInt.NA) {
-                        ScalarIntImpl res = new ScalarIntImpl(newi);
-                        frame.set(slot, res);  // NOTE: cannot modify a ScalarIntImpl (once written to a frame)
-                        return res;
-                    }
+                if (!(value instanceof ScalarIntImpl)) {
+                    throw new SpecializationException(null);
                 }
+                i = ((ScalarIntImpl) value).getInt();
+            }
+            int newi = i - 1;
+            if (i == RInt.NA || newi == RInt.NA) {
                 throw new SpecializationException(null);
-            } catch (SpecializationException e) {
-                return constantSubReplaceAndExecute(frame);
             }
+            frame.writeUnboxedInt(slot, newi);
         }
     }
 }
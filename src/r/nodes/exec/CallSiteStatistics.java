@@ -0,0 +1,47 @@
+package r.nodes.exec;
+
+import java.io.*;
+import java.util.*;
+
+import r.nodes.ast.*;
+import r.nodes.tools.*;
+
+// hit statistics of the inline caches of generic call sites, collected when RConsole.callsite.stats is set
+public final class CallSiteStatistics {
+
+    static final ArrayList<CallSiteStatistics> sites = new ArrayList<>();
+
+    final ASTNode ast;
+    long hits;
+    long misses; // the argument positions had to be computed (or the builtin node created)
+    boolean megamorphic;
+
+    private CallSiteStatistics(ASTNode ast) {
+        this.ast = ast;
+    }
+
+    static CallSiteStatistics register(ASTNode ast) {
+        CallSiteStatistics s = new CallSiteStatistics(ast);
+        sites.add(s);
+        return s;
+    }
+
+    public static void printStatistics(PrintStream ps) {
+        long hits = 0;
+        long misses = 0;
+        int megamorphic = 0;
+        ps.println("Call site statistics ------------------- ");
+        for (CallSiteStatistics s : sites) {
+            ps.println("    " + PrettyPrinter.prettyPrint(s.ast) + ": hits " + s.hits + ", misses " + s.misses + (s.megamorphic ? ", megamorphic" : ""));
+            hits += s.hits;
+            misses += s.misses;
+            if (s.megamorphic) {
+                megamorphic++;
+            }
+        }
+        ps.println("    generic call sites: " + sites.size());
+        ps.println("    megamorphic call sites: " + megamorphic);
+        ps.println("    hits: " + hits);
+        ps.println("    misses: " + misses);
+    }
+}
@@ -1,5 +1,7 @@
 package r.nodes.exec;
 
+import java.math.*;
+
 import r.*;
 import r.data.*;
 import r.data.RArray.Names;
@@ -34,7 +36,7 @@ public class Comparison extends BaseR {
     }
 
     @Override
-    public final int executeScalarLogical(Frame frame) throws SpecializationException {
+    public int executeScalarLogical(Frame frame) throws SpecializationException {
         assert Utils.check(getNewNode() == null);
         RAny lexpr = (RAny) left.execute(frame);
         if (getNewNode() != null) {
@@ -55,12 +57,26 @@ public class Comparison extends BaseR {
         try {
             throw new SpecializationException(null);
         } catch (SpecializationException e) {
+            if (lexpr instanceof ScalarDoubleImpl && rexpr instanceof ScalarDoubleImpl) {
+                ScalarDoubleComparison sd = new ScalarDoubleComparison(ast, left, right, cmp);
+                replace(sd, "install ScalarDoubleComparison from Comparison");
+                return sd.executeScalarLogical(lexpr, rexpr);
+            }
             ScalarComparison sc = ScalarComparison.createSpecialized(lexpr, rexpr, ast, left, right, cmp);
             replace(sc, "install ScalarComparison.Specialized from Comparison");
             return sc.executeScalarLogical(lexpr, rexpr);
         }
     }
 
+    @Override
+    public int executeScalarNonNALogical(Frame frame) throws SpecializationException {
+        int res = executeScalarLogical(frame);
+        if (res == RLogical.NA) {
+            throw new SpecializationException(RLogical.BOXED_NA);
+        }
+        return res;
+    }
+
     @Override
     public Object execute(Frame frame) {
         try {
@@ -92,6 +108,62 @@ public class Comparison extends BaseR {
         }
     }
 
+    // both operands are scalar doubles, which the children give unboxed
+    static final class ScalarDoubleComparison extends Comparison {
+
+        public ScalarDoubleComparison(ASTNode ast, RNode left, RNode right, ValueComparison cmp) {
+            super(ast, left, right, cmp);
+        }
+
+        @Override
+        public int executeScalarLogical(Frame frame) throws SpecializationException {
+            double l;
+            try {
+                l = left.executeScalarDouble(frame);
+            } catch (SpecializationException e) {
+                if (getNewNode() != null) {
+                    return ((Comparison) getNewNode()).executeScalarLogicalWithLeft(frame, (RAny) e.getResult());
+                }
+                return specialize((RAny) e.getResult(), (RAny) right.execute(frame));
+            }
+            if (getNewNode() != null) {
+                // rewritten while evaluating the left operand (e.g. by a recursive call)
+                return ((Comparison) getNewNode()).executeScalarLogicalWithLeft(frame, RDouble.RDoubleFactory.getScalar(l));
+            }
+            double r;
+            try {
+                r = right.executeScalarDouble(frame);
+            } catch (SpecializationException e) {
+                return specialize(RDouble.RDoubleFactory.getScalar(l), (RAny) e.getResult());
+            }
+            return compare(l, r);
+        }
+
+        @Override
+        public int executeScalarLogical(RAny lexpr, RAny rexpr) throws SpecializationException {
+            if (lexpr instanceof ScalarDoubleImpl && rexpr instanceof ScalarDoubleImpl) {
+                return compare(((ScalarDoubleImpl) lexpr).getDouble(), ((ScalarDoubleImpl) rexpr).getDouble());
+            }
+            return specialize(lexpr, rexpr);
+        }
+
+        int compare(double l, double r) {
+            if (RDouble.RDoubleUtils.isNAorNaN(r) || RDouble.RDoubleUtils.isNAorNaN(l)) {
+                return RLogical.NA;
+            }
+            return cmp.cmp(l, r) ? RLogical.TRUE : RLogical.FALSE;
+        }
+
+        int specialize(RAny lexpr, RAny rexpr) throws SpecializationException {
+            if (getNewNode() != null) {
+                return ((Comparison) getNewNode()).executeScalarLogical(lexpr, rexpr);
+            }
+            ScalarComparison sc = ScalarComparison.createSpecialized(lexpr, rexpr, ast, left, right, cmp);
+            replace(sc, "install ScalarComparison.Specialized from ScalarDoubleComparison");
+            return sc.executeScalarLogical(lexpr, rexpr);
+        }
+    }
+
     static class ScalarComparison extends Comparison {
         final Comparator comp;
 
@@ -216,7 +288,7 @@ public class Comparison extends BaseR {
             return createGeneric(ast, left, right, cmp);
         }
 
-        public static int generic(RAny lexpr, RAny rexpr, ValueComparison cmp, @SuppressWarnings("unused") ASTNode ast) throws SpecializationException {
+        public static int generic(RAny lexpr, RAny rexpr, ValueComparison cmp, ASTNode ast) throws SpecializationException {
             if (DEBUG_CMP) Utils.debug("comparison - assuming scalar numbers");
 
             if (lexpr instanceof ScalarStringImpl) { // note: could make this shorter if we didn't care about Java-level boxing
@@ -262,6 +334,9 @@ public class Comparison extends BaseR {
                     return cmp.cmp(lint, rdbl) ? RLogical.TRUE : RLogical.FALSE;
                 }
             }
+            if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+                return bigIntComparison(lexpr, rexpr, cmp, ast);
+            }
             throw new SpecializationException(Transition.VECTOR_SCALAR);
         }
 
@@ -333,6 +408,12 @@ public class Comparison extends BaseR {
 
         @Override
         public Object execute(RAny lexpr, RAny rexpr) {
+            if ((lexpr.attributes() != null || rexpr.attributes() != null) && (RInt.RFactorUtils.isFactor(lexpr) || RInt.RFactorUtils.isFactor(rexpr))) {
+                return factorComparison(lexpr, rexpr, cmp, ast);
+            }
+            if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+                return RLogical.RLogicalFactory.getScalar(bigIntComparison(lexpr, rexpr, cmp, ast));
+            }
             // FIXME: some of these checks should be rewritten as we now enforce scalar representation
             try {  // FIXME: perhaps should create different nodes for the cases below
                 if (DEBUG_CMP) Utils.debug("comparison - assuming numeric (int,double) vector and scalar");
@@ -499,6 +580,14 @@ public class Comparison extends BaseR {
             b.accept(v);
         }
 
+        @Override
+        public RLogical materializeOnAssignmentRef(Object oldValue) {
+            if (n >= PackedLogicalImpl.MIN_SIZE) {
+                return PackedLogicalImpl.pack(this); // always shared, so no ref
+            }
+            return super.materializeOnAssignmentRef(oldValue);
+        }
+
     }
 
     static class LazyComparison extends NonScalarComparison {
@@ -562,6 +651,12 @@ public class Comparison extends BaseR {
         @Override
         public Object execute(RAny lexpr, RAny rexpr) {
             if (DEBUG_CMP) Utils.debug("comparison - the most generic case");
+            if (RBigInt.RBigIntUtils.isBigInt(lexpr, rexpr)) {
+                return RLogical.RLogicalFactory.getScalar(bigIntComparison(lexpr, rexpr, cmp, ast));
+            }
+            if ((lexpr.attributes() != null || rexpr.attributes() != null) && (RInt.RFactorUtils.isFactor(lexpr) || RInt.RFactorUtils.isFactor(rexpr))) {
+                return factorComparison(lexpr, rexpr, cmp, ast);
+            }
             if (lexpr instanceof RString || rexpr instanceof RString) {
                 RString lstr = lexpr.asString();
                 RString rstr = rexpr.asString();
@@ -598,6 +693,102 @@ public class Comparison extends BaseR {
 
     }
 
+    // an operand is a big integer, the other a number of length one
+    public static int bigIntComparison(RAny lexpr, RAny rexpr, ValueComparison cmp, ASTNode ast) {
+        BigInteger a = RBigInt.RBigIntUtils.operand(lexpr, ast);
+        BigInteger b = RBigInt.RBigIntUtils.operand(rexpr, ast);
+        if (a == null || b == null) {
+            return RLogical.NA;
+        }
+        return cmp.cmp(a.compareTo(b), 0) ? RLogical.TRUE : RLogical.FALSE;
+    }
+
+    // factors compare by their labels for == and !=, but against a single string or against a factor with the same levels
+    // these are done on the integer codes, without creating the labels; ordered factors compare by their codes for <, <=, >, >=
+    public static RLogical factorComparison(RAny lexpr, RAny rexpr, ValueComparison cmp, ASTNode ast) {
+        boolean lfactor = RInt.RFactorUtils.isFactor(lexpr);
+        boolean rfactor = RInt.RFactorUtils.isFactor(rexpr);
+        if (cmp.onlyEquality()) {
+            if (lfactor && rfactor) {
+                if (sameLevels(RInt.RFactorUtils.levels(lexpr), RInt.RFactorUtils.levels(rexpr))) {
+                    return cmp.cmp(RInt.RFactorUtils.codes((RInt) lexpr), RInt.RFactorUtils.codes((RInt) rexpr), ast);
+                }
+            } else {
+                RInt f = (RInt) (lfactor ? lexpr : rexpr);
+                RAny other = lfactor ? rexpr : lexpr;
+                if (other instanceof RString && ((RString) other).size() == 1 && ((RString) other).dimensions() == null) {
+                    RInt codes = RInt.RFactorUtils.codes(f);
+                    String s = ((RString) other).getString(0);
+                    if (s == RString.NA) {
+                        return RLogicalFactory.getNAArray(codes.size(), null);
+                    }
+                    RString levels = RInt.RFactorUtils.levels(f);
+                    int code = 0; // not a level, so equal to no code
+                    if (levels != null) {
+                        int nlevels = levels.size();
+                        for (int i = 0; i < nlevels; i++) {
+                            if (s.equals(levels.getString(i))) {
+                                code = i + 1;
+                                break;
+                            }
+                        }
+                    }
+                    return cmp.cmp(codes, code);
+                }
+            }
+        }
+        if (!cmp.onlyEquality()) {
+            return orderedComparison(lexpr, rexpr, lfactor, rfactor, cmp, ast);
+        }
+        RAny l = lfactor ? RInt.RFactorUtils.labels((RInt) lexpr).stripAttributes() : lexpr;
+        RAny r = rfactor ? RInt.RFactorUtils.labels((RInt) rexpr).stripAttributes() : rexpr;
+        return cmp.cmp(l.asString(), r.asString(), ast);
+    }
+
+    // <, <=, >, >= are only defined for ordered factors, they compare the codes (a string operand is converted to the code of
+    // its level, NA when it is not a level)
+    private static RLogical orderedComparison(RAny lexpr, RAny rexpr, boolean lfactor, boolean rfactor, ValueComparison cmp, ASTNode ast) {
+        if ((lfactor && !RInt.RFactorUtils.isOrdered(lexpr)) || (rfactor && !RInt.RFactorUtils.isOrdered(rexpr))) {
+            throw notMeaningfulForFactors(ast);
+        }
+        RString levels = RInt.RFactorUtils.levels(lfactor ? lexpr : rexpr);
+        if (lfactor && rfactor && !sameLevels(levels, RInt.RFactorUtils.levels(rexpr))) {
+            throw RError.getGenericError(ast, RError.LEVEL_SETS_DIFFER);
+        }
+        return cmp.cmp(orderedCodes(lexpr, lfactor, levels, ast), orderedCodes(rexpr, rfactor, levels, ast), ast);
+    }
+
+    private static RError notMeaningfulForFactors(ASTNode ast) {
+        String op = ast instanceof Operation ? ((Operation) ast).getPrettyOperator() : "comparison";
+        return RError.getGenericError(ast, String.format(RError.NOT_MEANINGFUL_FOR_FACTORS, op));
+    }
+
+    private static RInt orderedCodes(RAny x, boolean factor, RString levels, ASTNode ast) {
+        if (factor) {
+            return RInt.RFactorUtils.codes((RInt) x);
+        }
+        if (!(x instanceof RString)) {
+            throw notMeaningfulForFactors(ast);
+        }
+        return RInt.RIntFactory.getFor(RInt.RFactorUtils.encode((RString) x, levels));
+    }
+
+    private static boolean sameLevels(RString a, RString b) {
+        if (a == b) {
+            return true;
+        }
+        if (a == null || b == null || a.size() != b.size()) {
+            return false;
+        }
+        int size = a.size();
+        for (int i = 0; i < size; i++) {
+            if (!a.getString(i).equals(b.getString(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public abstract static class ValueComparison {
         public abstract boolean cmp(byte a, byte b);
         public abstract boolean cmp(int a, int b);
@@ -606,6 +797,16 @@ public class Comparison extends BaseR {
         public abstract boolean cmp(String a, String b);
         public abstract boolean resultForNaN();
 
+        // true for == and !=, which only test for equality of the operands
+        public boolean onlyEquality() {
+            return false;
+        }
+
+        // the operator for the tight loops in VectorKernels, or VectorKernels.NONE
+        public int kernelOp() {
+            return VectorKernels.NONE;
+        }
+
         public boolean cmp(int a, double b) {
             return cmp((double) a, b);
         }
@@ -618,6 +819,12 @@ public class Comparison extends BaseR {
             if (b == RString.NA) {
                 return RLogicalFactory.getNAArray(n, a.dimensions());
             }
+            if (a instanceof ByteStringImpl) {
+                byte[] bbytes = ByteStringImpl.encode(b);
+                if (bbytes != null) {
+                    return cmp((ByteStringImpl) a, bbytes, false);
+                }
+            }
             int[] content = new int[n];
             for (int i = 0; i < n; i++) {
                 String astr = a.getString(i);
@@ -634,6 +841,12 @@ public class Comparison extends BaseR {
             if (a == RString.NA) {
                 return RLogicalFactory.getNAArray(n, b.dimensions());
             }
+            if (b instanceof ByteStringImpl) {
+                byte[] abytes = ByteStringImpl.encode(a);
+                if (abytes != null) {
+                    return cmp((ByteStringImpl) b, abytes, true);
+                }
+            }
             int[] content = new int[n];
             for (int i = 0; i < n; i++) {
                 String bstr = b.getString(i);
@@ -645,13 +858,115 @@ public class Comparison extends BaseR {
             }
             return RLogical.RLogicalFactory.getFor(content, b.dimensions(), b.names());
         }
+        // compares the bytes directly, the sign of the byte comparison is the same as of String.compareTo, so comparing it
+        // to zero gives the result for any of the operators
+        public RLogical cmp(ByteStringImpl a, byte[] b, boolean swap) {
+            int n = a.size();
+            int[] content = new int[n];
+            for (int i = 0; i < n; i++) {
+                if (a.isNA(i)) {
+                    content[i] = RLogical.NA;
+                } else {
+                    int c = a.compare(i, b);
+                    content[i] = (swap ? cmp(0, c) : cmp(c, 0)) ? RLogical.TRUE : RLogical.FALSE;
+                }
+            }
+            return RLogical.RLogicalFactory.getFor(content, a.dimensions(), a.names());
+        }
+        // packed comparisons for when the operand is not a plain vector or there is no kernel for the operator, an NA (or NaN)
+        // element gives NA
+        public void cmp(RDouble a, double b, long[] values, long[] nas, int n) {
+            for (int w = 0; w < values.length; w++) {
+                int from = w << 6;
+                int to = Math.min(from + 64, n);
+                long v = 0;
+                long na = 0;
+                for (int i = from; i < to; i++) {
+                    double adbl = a.getDouble(i);
+                    if (adbl != adbl) {
+                        na |= 1L << i;
+                    } else if (cmp(adbl, b)) {
+                        v |= 1L << i;
+                    }
+                }
+                values[w] = v;
+                nas[w] = na;
+            }
+        }
+        public void cmp(double a, RDouble b, long[] values, long[] nas, int n) {
+            for (int w = 0; w < values.length; w++) {
+                int from = w << 6;
+                int to = Math.min(from + 64, n);
+                long v = 0;
+                long na = 0;
+                for (int i = from; i < to; i++) {
+                    double bdbl = b.getDouble(i);
+                    if (bdbl != bdbl) {
+                        na |= 1L << i;
+                    } else if (cmp(a, bdbl)) {
+                        v |= 1L << i;
+                    }
+                }
+                values[w] = v;
+                nas[w] = na;
+            }
+        }
+        public void cmp(RInt a, int b, long[] values, long[] nas, int n) {
+            for (int w = 0; w < values.length; w++) {
+                int from = w << 6;
+                int to = Math.min(from + 64, n);
+                long v = 0;
+                long na = 0;
+                for (int i = from; i < to; i++) {
+                    int aint = a.getInt(i);
+                    if (aint == RInt.NA) {
+                        na |= 1L << i;
+                    } else if (cmp(aint, b)) {
+                        v |= 1L << i;
+                    }
+                }
+                values[w] = v;
+                nas[w] = na;
+            }
+        }
+        public void cmp(int a, RInt b, long[] values, long[] nas, int n) {
+            for (int w = 0; w < values.length; w++) {
+                int from = w << 6;
+                int to = Math.min(from + 64, n);
+                long v = 0;
+                long na = 0;
+                for (int i = from; i < to; i++) {
+                    int bint = b.getInt(i);
+                    if (bint == RInt.NA) {
+                        na |= 1L << i;
+                    } else if (cmp(a, bint)) {
+                        v |= 1L << i;
+                    }
+                }
+                values[w] = v;
+                nas[w] = na;
+            }
+        }
         public RLogical cmp(RDouble a, double b) {
             int n = a.size();
             if (RDouble.RDoubleUtils.isNAorNaN(b)) {
                 return RLogicalFactory.getNAArray(n, a.dimensions());
             }
+            if (n >= PackedLogicalImpl.MIN_SIZE) {
+                int nwords = PackedLogicalImpl.words(n);
+                long[] values = new long[nwords];
+                long[] nas = new long[nwords];
+                if (a instanceof DoubleImpl && kernelOp() != VectorKernels.NONE) {
+                    VectorKernels.compare(kernelOp(), a.getContent(), b, values, nas, n);
+                } else {
+                    cmp(a, b, values, nas, n);
+                }
+                return PackedLogicalImpl.create(values, nas, n, a.dimensions(), a.names());
+            }
             int[] content = new int[n];
-            if (resultForNaN() == false) {
+            if (a instanceof DoubleImpl && kernelOp() != VectorKernels.NONE) {
+                VectorKernels.compare(kernelOp(), a.getContent(), b, content, n);
+            } else if (resultForNaN() == false) {
                 for (int i = 0; i < n; i++) {
                     double adbl = a.getDouble(i);
                     if (cmp(adbl, b)) {
@@ -679,8 +994,21 @@ public class Comparison extends BaseR {
             if (RDouble.RDoubleUtils.isNAorNaN(a)) {
                 return RLogicalFactory.getNAArray(n, b.dimensions());
             }
+            if (n >= PackedLogicalImpl.MIN_SIZE) {
+                int nwords = PackedLogicalImpl.words(n);
+                long[] values = new long[nwords];
+                long[] nas = new long[nwords];
+                if (b instanceof DoubleImpl && kernelOp() != VectorKernels.NONE) {
+                    VectorKernels.compare(VectorKernels.mirror(kernelOp()), b.getContent(), a, values, nas, n);
+                } else {
+                    cmp(a, b, values, nas, n);
+                }
+                return PackedLogicalImpl.create(values, nas, n, b.dimensions(), b.names());
+            }
             int[] content = new int[n];
-            if (resultForNaN() == false) {
+            if (b instanceof DoubleImpl && kernelOp() != VectorKernels.NONE) {
+                VectorKernels.compare(VectorKernels.mirror(kernelOp()), b.getContent(), a, content, n);
+            } else if (resultForNaN() == false) {
                 for (int i = 0; i < n; i++) {
                     double bdbl = b.getDouble(i);
                     if (cmp(a, bdbl)) {
@@ -707,7 +1035,22 @@ public class Comparison extends BaseR {
             if (b == RInt.NA) {
                 return RLogicalFactory.getNAArray(n, a.dimensions());
             }
+            if (n >= PackedLogicalImpl.MIN_SIZE) {
+                int nwords = PackedLogicalImpl.words(n);
+                long[] values = new long[nwords];
+                long[] nas = new long[nwords];
+                if (a instanceof IntImpl && kernelOp() != VectorKernels.NONE) {
+                    VectorKernels.compare(kernelOp(), a.getContent(), b, values, nas, n);
+                } else {
+                    cmp(a, b, values, nas, n);
+                }
+                return PackedLogicalImpl.create(values, nas, n, a.dimensions(), a.names());
+            }
             int[] content = new int[n];
+            if (a instanceof IntImpl && kernelOp() != VectorKernels.NONE) {
+                VectorKernels.compare(kernelOp(), a.getContent(), b, content, n);
+                return RLogical.RLogicalFactory.getFor(content, a.dimensions(), a.names());
+            }
             for (int i = 0; i < n; i++) {
                 int aint = a.getInt(i);
                 if (aint == RInt.NA) {
@@ -723,7 +1066,22 @@ public class Comparison extends BaseR {
             if (a == RInt.NA) {
                 return RLogicalFactory.getNAArray(n, b.dimensions());
             }
+            if (n >= PackedLogicalImpl.MIN_SIZE) {
+                int nwords = PackedLogicalImpl.words(n);
+                long[] values = new long[nwords];
+                long[] nas = new long[nwords];
+                if (b instanceof IntImpl && kernelOp() != VectorKernels.NONE) {
+                    VectorKernels.compare(VectorKernels.mirror(kernelOp()), b.getContent(), a, values, nas, n);
+                } else {
+                    cmp(a, b, values, nas, n);
+                }
+                return PackedLogicalImpl.create(values, nas, n, b.dimensions(), b.names());
+            }
             int[] content = new int[n];
+            if (b instanceof IntImpl && kernelOp() != VectorKernels.NONE) {
+                VectorKernels.compare(VectorKernels.mirror(kernelOp()), b.getContent(), a, content, n);
+                return RLogical.RLogicalFactory.getFor(content, b.dimensions(), b.names());
+            }
             for (int i = 0; i < n; i++) {
                 int bint = b.getInt(i);
                 if (bint == RInt.NA) {
@@ -749,6 +1107,30 @@ public class Comparison extends BaseR {
             int ai = 0;
             int bi = 0;
 
+            if (a instanceof ByteStringImpl && b instanceof ByteStringImpl) {
+                ByteStringImpl abytes = (ByteStringImpl) a;
+                ByteStringImpl bbytes = (ByteStringImpl) b;
+                for (int i = 0; i < n; i++) {
+                    if (abytes.isNA(ai) || bbytes.isNA(bi)) {
+                        content[i] = RLogical.NA;
+                    } else {
+                        content[i] = cmp(abytes.compare(ai, bbytes, bi), 0) ? RLogical.TRUE : RLogical.FALSE;
+                    }
+                    ai++;
+                    if (ai == na) {
+                        ai = 0;
+                    }
+                    bi++;
+                    if (bi == nb) {
+                        bi = 0;
+                    }
+                }
+                if (ai != 0 || bi != 0) {
+                    RContext.warning(ast, RError.LENGTH_NOT_MULTI);
+                }
+                return RLogical.RLogicalFactory.getFor(content, dimensions, names);
+            }
+
             for (int i = 0; i < n; i++) {
                 String astr = a.getString(ai++);
                 if (ai == na) {
@@ -998,9 +1380,17 @@ public class Comparison extends BaseR {
                 return a.compareTo(b) == 0; // FIXME: intern?
             }
             @Override
+            public int kernelOp() {
+                return VectorKernels.EQ;
+            }
+            @Override
             public boolean resultForNaN() {
                 return false;
             }
+            @Override
+            public boolean onlyEquality() {
+                return true;
+            }
         };
     }
     public static ValueComparison getNE() {
@@ -1026,9 +1416,17 @@ public class Comparison extends BaseR {
                 return a.compareTo(b) != 0; // FIXME: intern?
             }
             @Override
+            public int kernelOp() {
+                return VectorKernels.NE;
+            }
+            @Override
             public boolean resultForNaN() {
                 return true;
             }
+            @Override
+            public boolean onlyEquality() {
+                return true;
+            }
         };
     }
     public static ValueComparison getLE() {
@@ -1059,6 +1457,10 @@ public class Comparison extends BaseR {
                 return a.compareTo(b) <= 0;
             }
             @Override
+            public int kernelOp() {
+                return VectorKernels.LE;
+            }
+            @Override
             public boolean resultForNaN() {
                 return false;
             }
@@ -1092,6 +1494,10 @@ public class Comparison extends BaseR {
                 return a.compareTo(b) >= 0;
             }
             @Override
+            public int kernelOp() {
+                return VectorKernels.GE;
+            }
+            @Override
             public boolean resultForNaN() {
                 return false;
             }
@@ -1125,6 +1531,10 @@ public class Comparison extends BaseR {
                 return a.compareTo(b) < 0;
             }
             @Override
+            public int kernelOp() {
+                return VectorKernels.LT;
+            }
+            @Override
             public boolean resultForNaN() {
                 return false;
             }
@@ -1158,6 +1568,10 @@ public class Comparison extends BaseR {
                 return a.compareTo(b) > 0;
             }
             @Override
+            public int kernelOp() {
+                return VectorKernels.GT;
+            }
+            @Override
             public boolean resultForNaN() {
                 return false;
             }
@@ -1,5 +1,6 @@
 package r.nodes.exec;
 
+import r.*;
 import r.data.*;
 import r.nodes.ast.*;
 import r.runtime.*;
@@ -16,6 +17,10 @@ public class Constant extends BaseR {
         return value;
     }
 
+    @Override public final double executeScalarDouble(Frame frame) throws SpecializationException {
+        return RValueConversion.expectScalarDouble(value);
+    }
+
     public static RNode getNull() {
         return new Constant(null, RNull.getNull());
     }
@@ -149,6 +149,7 @@ public abstract class ElementwiseLogicalOperation extends BaseR {
     public abstract static class Operation {
         public abstract int op(int a, int b);
         public abstract byte op(byte a, byte b);
+        public abstract PackedLogicalImpl op(PackedLogicalImpl a, PackedLogicalImpl b, int[] dimensions, Names names);
         public RLogical op(RLogical a, RLogical b, ASTNode ast) {
             int na = a.size();
             int nb = b.size();
@@ -157,6 +158,9 @@ public abstract class ElementwiseLogicalOperation extends BaseR {
             if (na == 0 || nb == 0) {
                 return RLogical.EMPTY;
             }
+            if (na == nb && a instanceof PackedLogicalImpl && b instanceof PackedLogicalImpl) {
+                return op((PackedLogicalImpl) a, (PackedLogicalImpl) b, dimensions, names);
+            }
 
             int n = (na > nb) ? na : nb;
             int[] content = new int[n];
@@ -219,6 +223,10 @@ public abstract class ElementwiseLogicalOperation extends BaseR {
             return (byte) (a & b);
         }
         @Override
+        public PackedLogicalImpl op(PackedLogicalImpl a, PackedLogicalImpl b, int[] dimensions, Names names) {
+            return PackedLogicalImpl.and(a, b, dimensions, names);
+        }
+        @Override
         public int op(int a, int b) {
             if (a == RLogical.TRUE) {
                 return b;
@@ -241,6 +249,10 @@ public abstract class ElementwiseLogicalOperation extends BaseR {
             return (byte) (a | b);
         }
         @Override
+        public PackedLogicalImpl op(PackedLogicalImpl a, PackedLogicalImpl b, int[] dimensions, Names names) {
+            return PackedLogicalImpl.or(a, b, dimensions, names);
+        }
+        @Override
         public int op(int a, int b) {
             if (a == RLogical.TRUE) {
                 return RLogical.TRUE;
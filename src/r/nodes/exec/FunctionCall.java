@@ -13,6 +13,8 @@ import r.runtime.*;
 public abstract class FunctionCall extends AbstractCall {
 
     public final static boolean PROMISES = true; // note, this has been on true for a long time, probably won't work without anymore
+    public static final boolean INLINE_CLOSURES = true; // splice the bodies of small top-level closures into their call sites
+    public static final boolean STATISTICS = Utils.getProperty("RConsole.callsite.stats", false); // hit statistics of generic call sites
 
     @Child RNode callableExpr;
     protected final int[] dotsArgs; // FIXME: move to FunctionCall?
@@ -181,7 +183,10 @@ public abstract class FunctionCall extends AbstractCall {
                         if ((argNames == null || !hasNonNullName) && function.dotsIndex() == -1 && !hasNullExpr && argExprs.length <= 3 && argExprs.length == function.nparams()) {
                             // a positional call
                             // TODO: very surprisingly, this seems to be helping only very little, if at all...
-                            n = PositionalTopLevelClosureCall.create(ast, fcallName, callableExpr, argNames, argExprs, closure.function());
+                            n = INLINE_CLOSURES ? InlinedClosureCall.create(ast, fcallName, callableExpr, argNames, argExprs, function, callerFrame == null ? null : callerFrame.function()) : null;
+                            if (n == null) {
+                                n = PositionalTopLevelClosureCall.create(ast, fcallName, callableExpr, argNames, argExprs, function);
+                            }
                         } else {
                             n = new SimpleTopLevelClosureCall(ast, fcallName, callableExpr, argNames, argExprs, closure.function());
                         }
@@ -415,7 +420,7 @@ public abstract class FunctionCall extends AbstractCall {
 
             @Override public Object execute(Frame callerFrame) {
                 Frame newFrame = function.createFrame(null);
-                newFrame.set(0, RPromise.createNormal(argExprs[0], callerFrame));
+                newFrame.set(0, promiseForArgument(callerFrame, 0));
                 return function.callNoDefaults(newFrame);
             }
         }
@@ -428,8 +433,8 @@ public abstract class FunctionCall extends AbstractCall {
 
             @Override public Object execute(Frame callerFrame) {
                 Frame newFrame = function.createFrame(null);
-                newFrame.set(0, RPromise.createNormal(argExprs[0], callerFrame));
-                newFrame.set(1, RPromise.createNormal(argExprs[1], callerFrame));
+                newFrame.set(0, promiseForArgument(callerFrame, 0));
+                newFrame.set(1, promiseForArgument(callerFrame, 1));
                 return function.callNoDefaults(newFrame);
             }
         }
@@ -442,9 +447,9 @@ public abstract class FunctionCall extends AbstractCall {
 
             @Override public Object execute(Frame callerFrame) {
                 Frame newFrame = function.createFrame(null);
-                newFrame.set(0, RPromise.createNormal(argExprs[0], callerFrame));
-                newFrame.set(1, RPromise.createNormal(argExprs[1], callerFrame));
-                newFrame.set(2, RPromise.createNormal(argExprs[2], callerFrame));
+                newFrame.set(0, promiseForArgument(callerFrame, 0));
+                newFrame.set(1, promiseForArgument(callerFrame, 1));
+                newFrame.set(2, promiseForArgument(callerFrame, 2));
                 return function.callNoDefaults(newFrame);
             }
         }
@@ -458,64 +463,236 @@ public abstract class FunctionCall extends AbstractCall {
 
     }
 
+    // a call to a small top-level closure, with a copy of the closure's body spliced in and executed in the caller's frame
+    //   the arguments are evaluated lazily, when a parameter is first read, and kept until the call returns; the previous
+    //   values are restored then, as the call site may be re-entered while evaluating an argument
+    public static final class InlinedClosureCall extends FunctionCall implements SymbolChangeListener {
+
+        public static final int MAX_ARGS = 3;
+
+        final Arguments args;
+        @Child RNode body;
+        boolean invalidated;
+
+        InlinedClosureCall(ASTNode ast, RNode callableExpr, RSymbol[] argNames, RNode[] argExprs) {
+            super(ast, callableExpr, argNames, argExprs, null);
+            this.args = new Arguments(this.argExprs);
+        }
+
+        // returns null if the function cannot be inlined
+        public static InlinedClosureCall create(ASTNode ast, RSymbol closureName, RNode callableExpr, RSymbol[] argNames, RNode[] argExprs, RFunction function, RFunction caller) {
+            if (argExprs.length > MAX_ARGS) {
+                return null;
+            }
+            RSymbol[] builtins = BuildInlinedTree.inlinableCalls(function, caller);
+            if (builtins == null) {
+                return null;
+            }
+            InlinedClosureCall n = new InlinedClosureCall(ast, callableExpr, argNames, argExprs);
+            n.body = n.adoptChild(new BuildInlinedTree(n.args, function.paramNames()).createBody(function, caller));
+            closureName.addChangeListener(n);
+            for (RSymbol b : builtins) {
+                b.addChangeListener(n);
+            }
+            return n;
+        }
+
+        @Override public Object execute(Frame callerFrame) {
+            Arguments a = args;
+            Object saved0 = a.value0;
+            Object saved1 = a.value1;
+            Object saved2 = a.value2;
+            a.value0 = null;
+            a.value1 = null;
+            a.value2 = null;
+            try {
+                return body.execute(callerFrame);
+            } finally {
+                a.value0 = saved0;
+                a.value1 = saved1;
+                a.value2 = saved2;
+            }
+        }
+
+        // the argument values of the current call, null when not yet evaluated
+        public static final class Arguments {
+            final RNode[] exprs; // shared with the call node
+            Object value0;
+            Object value1;
+            Object value2;
 
+            Arguments(RNode[] exprs) {
+                this.exprs = exprs;
+            }
+
+            Object get(int index, Frame callerFrame) {
+                switch (index) {
+                    case 0:
+                        if (value0 == null) {
+                            value0 = exprs[0].execute(callerFrame);
+                        }
+                        return value0;
+                    case 1:
+                        if (value1 == null) {
+                            value1 = exprs[1].execute(callerFrame);
+                        }
+                        return value1;
+                    default:
+                        assert Utils.check(index == 2);
+                        if (value2 == null) {
+                            value2 = exprs[2].execute(callerFrame);
+                        }
+                        return value2;
+                }
+            }
+        }
+
+        // a read of a parameter in the inlined body
+        public static final class Argument extends BaseR {
+            final Arguments args;
+            final int index;
+
+            public Argument(ASTNode ast, Arguments args, int index) {
+                super(ast);
+                this.args = args;
+                this.index = index;
+            }
+
+            @Override public Object execute(Frame frame) {
+                return args.get(index, frame);
+            }
+        }
+
+        @Override
+        protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
+            assert oldNode != null;
+            if (body == oldNode) {
+                body = newNode;
+                return adoptInternal(newNode);
+            }
+            return super.replaceChild(oldNode, newNode);
+        }
+
+        // the closure has been redefined, or one of the builtins called by it has been overridden
+        @Override
+        public boolean onChange(RSymbol symbol) {
+            if (!invalidated) {
+                invalidated = true;
+                RNode n = new GenericCall(ast, callableExpr, argNames, argExprs);
+                replace(n, "install GenericCall from InlinedClosureCall");
+            }
+            return false;
+        }
+    }
+
+    // a call site that has seen different callables, keeps a small polymorphic inline cache of the argument positions for the
+    // functions (closures) called from it; when more functions are seen than the cache can hold, the site becomes megamorphic
+    // and the positions are recomputed whenever the function changes
+    //
+    // NOTE: only a single builtin node is cached, the node adopts the argument expressions, which thus cannot be shared by several
+    // builtin nodes
     public static final class GenericCall extends FunctionCall {
 
-        Object lastCallable; // RCallable, but using Object to avoid cast
+        public static final int CACHE_SIZE = 4;
 
-        // for functions
-        RClosure lastClosure; // null when last callable wasn't a function (closure)
-        RFunction closureFunction;
-        int[] functionArgPositions;
-        Frame closureEnclosingFrame;
-        final DotsInfo functionDotsInfo = new DotsInfo();
+        final ClosureEntry[] closureEntries = new ClosureEntry[CACHE_SIZE];
+        int nClosureEntries;
+        ClosureEntry megamorphicEntry; // null when not megamorphic
 
         // for builtins
         RBuiltIn lastBuiltIn; // null when last callable wasn't a builtin
         RSymbol builtInName;
         @Child RNode builtInNode;
 
+        final CallSiteStatistics stats;
+
         GenericCall(ASTNode ast, RNode callableExpr, RSymbol[] argNames, RNode[] argExprs) {
             super(ast, callableExpr, argNames, argExprs, null);
+            stats = STATISTICS ? CallSiteStatistics.register(ast) : null;
         }
 
-        @Override public Object execute(Frame callerFrame) {
-            Object callable = callableExpr.execute(callerFrame);
-            if (callable == lastClosure) {
-                Frame newFrame = closureFunction.createFrame(closureEnclosingFrame);
-                placeArgs(callerFrame, newFrame, functionArgPositions, functionDotsInfo, closureFunction.dotsIndex());
-                return closureFunction.call(newFrame);
+        static final class ClosureEntry {
+            RFunction function;
+            int[] argPositions;
+            final DotsInfo dotsInfo = new DotsInfo();
+        }
+
+        ClosureEntry closureEntry(RFunction function) {
+            for (int i = 0; i < nClosureEntries; i++) {
+                ClosureEntry e = closureEntries[i];
+                if (e.function == function) {
+                    if (STATISTICS) {
+                        stats.hits++;
+                    }
+                    return e;
+                }
             }
-            if (callable == lastBuiltIn) { return builtInNode.execute(callerFrame); }
-            if (callable instanceof RClosure) {
-                RClosure closure = (RClosure) callable;
-                RFunction function = closure.function();
-                if (function != closureFunction) {
-                    closureFunction = function;
-                    functionArgPositions = computePositions(closureFunction, functionDotsInfo);
+            ClosureEntry e = megamorphicEntry;
+            if (e != null && e.function == function) {
+                if (STATISTICS) {
+                    stats.hits++;
                 }
-                closureEnclosingFrame = closure.enclosingFrame();
-                lastClosure = closure;
-                lastBuiltIn = null;
-                Frame newFrame = closureFunction.createFrame(closureEnclosingFrame);
-                placeArgs(callerFrame, newFrame, functionArgPositions, functionDotsInfo, closureFunction.dotsIndex());
-                return closureFunction.call(newFrame);
-            } else {
-                // callable instanceof RBuiltin
-                RBuiltIn builtIn = (RBuiltIn) callable;
-                RSymbol name = builtIn.name();
-                if (name != builtInName) {
-                    builtInName = name;
-                    if (builtInNode == null) {
-                        builtInNode = adoptChild(builtIn.callFactory().create(ast, argNames, argExprs));
-                    } else {
-                        builtInNode.replace(builtIn.callFactory().create(ast, argNames, argExprs));
+                return e;
+            }
+            if (STATISTICS) {
+                stats.misses++;
+            }
+            if (e == null) {
+                e = new ClosureEntry();
+                if (nClosureEntries < CACHE_SIZE) {
+                    closureEntries[nClosureEntries++] = e;
+                } else {
+                    megamorphicEntry = e;
+                    if (STATISTICS) {
+                        stats.megamorphic = true;
                     }
                 }
-                lastBuiltIn = builtIn;
-                lastClosure = null;
-                return builtInNode.execute(callerFrame);
             }
+            e.function = function;
+            e.argPositions = computePositions(function, e.dotsInfo);
+            return e;
+        }
+
+        Object callClosure(Frame callerFrame, RClosure closure) {
+            RFunction function = closure.function();
+            ClosureEntry e = closureEntry(function);
+            Frame newFrame = function.createFrame(closure.enclosingFrame());
+            placeArgs(callerFrame, newFrame, e.argPositions, e.dotsInfo, function.dotsIndex());
+            return function.call(newFrame);
+        }
+
+        RNode builtInNode(RBuiltIn builtIn) {
+            if (builtIn == lastBuiltIn) {
+                if (STATISTICS) {
+                    stats.hits++;
+                }
+                return builtInNode;
+            }
+            RSymbol name = builtIn.name();
+            if (name != builtInName) {
+                if (STATISTICS) {
+                    stats.misses++;
+                }
+                builtInName = name;
+                if (builtInNode == null) {
+                    builtInNode = adoptChild(builtIn.callFactory().create(ast, argNames, argExprs));
+                } else {
+                    builtInNode.replace(builtIn.callFactory().create(ast, argNames, argExprs));
+                }
+            } else if (STATISTICS) {
+                stats.hits++;
+            }
+            lastBuiltIn = builtIn;
+            return builtInNode;
+        }
+
+        @Override public Object execute(Frame callerFrame) {
+            Object callable = callableExpr.execute(callerFrame);
+            if (callable instanceof RClosure) {
+                return callClosure(callerFrame, (RClosure) callable);
+            }
+            // callable instanceof RBuiltin
+            return builtInNode((RBuiltIn) callable).execute(callerFrame);
         }
 
         @Override
@@ -528,88 +705,22 @@ public abstract class FunctionCall extends AbstractCall {
             return super.replaceChild(oldNode, newNode);
         }
 
-        // FIXME: essentially copy paste of execute
         // TODO: it would be far more important to have these in simple and stable builtin call than here
         @Override public int executeScalarLogical(Frame callerFrame) throws SpecializationException {
             Object callable = callableExpr.execute(callerFrame);
-            if (callable == lastClosure) {
-                Frame newFrame = closureFunction.createFrame(closureEnclosingFrame);
-                placeArgs(callerFrame, newFrame, functionArgPositions, functionDotsInfo, closureFunction.dotsIndex());
-                return RValueConversion.expectScalarLogical((RAny) closureFunction.call(newFrame));
-            }
-            if (callable == lastBuiltIn) { return builtInNode.executeScalarLogical(callerFrame); }
             if (callable instanceof RClosure) {
-                RClosure closure = (RClosure) callable;
-                RFunction function = closure.function();
-                if (function != closureFunction) {
-                    closureFunction = function;
-                    functionArgPositions = computePositions(closureFunction, functionDotsInfo);
-                }
-                closureEnclosingFrame = closure.enclosingFrame();
-                lastClosure = closure;
-                lastBuiltIn = null;
-                Frame newFrame = closureFunction.createFrame(closureEnclosingFrame);
-                placeArgs(callerFrame, newFrame, functionArgPositions, functionDotsInfo, closureFunction.dotsIndex());
-                return RValueConversion.expectScalarLogical((RAny) closureFunction.call(newFrame));
-            } else {
-                // callable instanceof RBuiltin
-                RBuiltIn builtIn = (RBuiltIn) callable;
-                RSymbol name = builtIn.name();
-                if (name != builtInName) {
-                    builtInName = name;
-                    if (builtInNode == null) {
-                        builtInNode = adoptChild(builtIn.callFactory().create(ast, argNames, argExprs));
-                    } else {
-                        builtInNode.replace(builtIn.callFactory().create(ast, argNames, argExprs));
-                    }
-                }
-                lastBuiltIn = builtIn;
-                lastClosure = null;
-                return builtInNode.executeScalarLogical(callerFrame);
+                return RValueConversion.expectScalarLogical((RAny) callClosure(callerFrame, (RClosure) callable));
             }
+            return builtInNode((RBuiltIn) callable).executeScalarLogical(callerFrame);
         }
 
-        // FIXME: essentially copy paste of execute
-        // TODO: it would be far more important to have these in simple and stable builtin call than here
         @Override public int executeScalarNonNALogical(Frame callerFrame) throws SpecializationException {
             Object callable = callableExpr.execute(callerFrame);
-            if (callable == lastClosure) {
-                Frame newFrame = closureFunction.createFrame(closureEnclosingFrame);
-                placeArgs(callerFrame, newFrame, functionArgPositions, functionDotsInfo, closureFunction.dotsIndex());
-                return RValueConversion.expectScalarNonNALogical((RAny) closureFunction.call(newFrame));
-            }
-            if (callable == lastBuiltIn) { return builtInNode.executeScalarNonNALogical(callerFrame); }
             if (callable instanceof RClosure) {
-                RClosure closure = (RClosure) callable;
-                RFunction function = closure.function();
-                if (function != closureFunction) {
-                    closureFunction = function;
-                    functionArgPositions = computePositions(closureFunction, functionDotsInfo);
-                }
-                closureEnclosingFrame = closure.enclosingFrame();
-                lastClosure = closure;
-                lastBuiltIn = null;
-                Frame newFrame = closureFunction.createFrame(closureEnclosingFrame);
-                placeArgs(callerFrame, newFrame, functionArgPositions, functionDotsInfo, closureFunction.dotsIndex());
-                return RValueConversion.expectScalarNonNALogical((RAny) closureFunction.call(newFrame));
-            } else {
-                // callable instanceof RBuiltin
-                RBuiltIn builtIn = (RBuiltIn) callable;
-                RSymbol name = builtIn.name();
-                if (name != builtInName) {
-                    builtInName = name;
-                    if (builtInNode == null) {
-                        builtInNode = adoptChild(builtIn.callFactory().create(ast, argNames, argExprs));
-                    } else {
-                        builtInNode.replace(builtIn.callFactory().create(ast, argNames, argExprs));
-                    }
-                }
-                lastBuiltIn = builtIn;
-                lastClosure = null;
-                return builtInNode.executeScalarNonNALogical(callerFrame);
+                return RValueConversion.expectScalarNonNALogical((RAny) callClosure(callerFrame, (RClosure) callable));
             }
+            return builtInNode((RBuiltIn) callable).executeScalarNonNALogical(callerFrame);
         }
-
     }
 
     // function call that passes "..."
@@ -730,7 +841,11 @@ public abstract class FunctionCall extends AbstractCall {
             if (i == nextDots) {
                 for (int k = 0; k < dotsArgLen; k++, j++) {
                     actualArgNames[j] = dotsArgNames[k];
-                    actualArgValues[j] = dotsArgValues[k]; // FIXME: GNU-R would create a recursive promise here
+                    Object value = dotsArgValues[k]; // FIXME: GNU-R would create a recursive promise here
+                    if (value instanceof RPromise) {
+                        ((RPromise) value).markShared(); // now held also by the new frame
+                    }
+                    actualArgValues[j] = value;
                 }
                 dotsIndex++;
                 if (dotsIndex < ndots) {
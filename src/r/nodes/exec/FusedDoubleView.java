@@ -0,0 +1,159 @@
+package r.nodes.exec;
+
+import java.util.*;
+
+import r.data.*;
+import r.data.RAny.Attributes;
+import r.data.RArray.Names;
+import r.data.internal.*;
+
+// a chain of element-wise operations on a double vector (math builtins, unary minus, abs, arithmetic with a scalar),
+// formed when such an operation gets the lazy result of another one as its argument
+//   a lazy result is only returned by an operation once its profile shows the result is not accessed element by element,
+//   so the chain forms when the result is consumed in bulk
+//   the chain is materialized by a single loop over blocks of the vector, in which the operations are applied one after
+//   another to a block that stays in the cache, rather than by a pass over the whole vector per operation through
+//   nested views
+public final class FusedDoubleView extends View.RDoubleView implements RDouble {
+
+    public static final int MAX_STAGES = 16;
+    static final int BLOCK = 1024;
+
+    // an element-wise operation
+    public abstract static class Stage {
+        public abstract double op(double x);
+
+        // res[from..to) is op of x[from..to), res can be x; returns true when a warning is to be issued
+        public abstract boolean op(double[] x, double[] res, int from, int to);
+
+        // the warning, issued once per materialization
+        public void warning() {
+        }
+    }
+
+    // a lazy view that applies a stage to an argument of the same size
+    public interface Fusable {
+        RDouble fusableArgument();
+        Stage fusableStage();
+    }
+
+    final RDouble orig;
+    final Stage[] stages;
+    final int n;
+    final int[] dimensions;
+    final Names names;
+    final Attributes attributes;
+
+    FusedDoubleView(RDouble orig, Stage[] stages, int n, int[] dimensions, Names names, Attributes attributes) {
+        this.orig = orig;
+        this.stages = stages;
+        this.n = n;
+        this.dimensions = dimensions;
+        this.names = names;
+        this.attributes = attributes;
+        Attributes.markShared(attributes);
+    }
+
+    public static boolean isFusable(RDouble value) {
+        return value instanceof Fusable || (value instanceof FusedDoubleView && ((FusedDoubleView) value).stages.length < MAX_STAGES);
+    }
+
+    // the view of stage applied to the value, which has to be fusable
+    public static FusedDoubleView fuse(RDouble value, Stage stage, int[] dimensions, Names names, Attributes attributes) {
+        RDouble orig;
+        Stage[] stages;
+        if (value instanceof FusedDoubleView) {
+            FusedDoubleView fvalue = (FusedDoubleView) value;
+            orig = fvalue.orig;
+            stages = Arrays.copyOf(fvalue.stages, fvalue.stages.length + 1);
+        } else {
+            Fusable fvalue = (Fusable) value;
+            orig = fvalue.fusableArgument();
+            stages = new Stage[]{fvalue.fusableStage(), null};
+        }
+        stages[stages.length - 1] = stage;
+        return new FusedDoubleView(orig, stages, value.size(), dimensions, names, attributes);
+    }
+
+    @Override public int size() {
+        return n;
+    }
+
+    @Override public int[] dimensions() {
+        return dimensions;
+    }
+
+    @Override public Names names() {
+        return names;
+    }
+
+    @Override public Attributes attributes() {
+        return attributes;
+    }
+
+    @Override public boolean isSharedReal() {
+        return orig.isShared();
+    }
+
+    @Override public void ref() {
+        orig.ref();
+    }
+
+    @Override public boolean dependsOn(RAny value) {
+        return orig.dependsOn(value);
+    }
+
+    @Override public void visit_all(ValueVisitor v) {
+        orig.accept(v);
+    }
+
+    @Override public void accept(ValueVisitor v) {
+        v.visit(this);
+    }
+
+    @Override public double getDouble(int i) {
+        double d = orig.getDouble(i);
+        for (Stage s : stages) {
+            d = s.op(d);
+        }
+        return d;
+    }
+
+    @Override public void materializeInto(double[] resContent) {
+        if (orig instanceof DoubleImpl) {
+            apply(orig.getContent(), resContent);
+        } else if (orig instanceof RDoubleView) {
+            ((RDoubleView) orig).materializeInto(resContent);
+            apply(resContent, resContent);
+        } else {
+            super.materializeInto(resContent);
+        }
+    }
+
+    @Override public void materializeIntoOnTheFly(double[] resContent) {
+        if (orig instanceof DoubleImpl) {
+            apply(orig.getContent(), resContent); // element-wise, so resContent can be a dependency
+        } else {
+            super.materializeIntoOnTheFly(resContent);
+        }
+    }
+
+    private void apply(double[] x, double[] res) {
+        int warnings = 0;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            double[] src = x;
+            for (int s = 0; s < stages.length; s++) {
+                if (stages[s].op(src, res, from, to)) {
+                    warnings |= 1 << s;
+                }
+                src = res;
+            }
+        }
+        for (int s = 0; warnings != 0; s++, warnings >>>= 1) {
+            if ((warnings & 1) != 0) {
+                stages[s].warning();
+            }
+        }
+    }
+}
@@ -44,4 +44,14 @@ public class LazyBuild extends BaseR {
         }
     }
 
+    @Override
+    public final Object executeVoid(Frame frame) {
+        try {
+            throw new SpecializationException(null);
+        } catch (SpecializationException e) {
+            RNode node = RContext.createNode(getAST());
+            replace(node, "expandLazyBuildNode");
+            return node.executeVoid(frame);
+        }
+    }
 }
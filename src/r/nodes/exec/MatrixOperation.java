@@ -70,6 +70,24 @@ public abstract class MatrixOperation extends BaseR {
         return RDouble.RDoubleFactory.getMatrixFor(new double[] {res}, 1, 1);
     }
 
+    // transposed views are kept for BLAS, which can read the original matrix by rows
+    public static RDouble materializeUnlessTransposed(RDouble x) {
+        return isTransposed(x) ? x : x.materialize();
+    }
+
+    public static boolean isTransposed(RDouble x) {
+        return x instanceof RDouble.RDoubleTransposed;
+    }
+
+    // the matrix to pass to BLAS, together with blasTrans
+    public static RDouble blasOperand(RDouble x) {
+        return isTransposed(x) ? ((RDouble.RDoubleTransposed) x).original() : x;
+    }
+
+    public static String blasTrans(RDouble x) {
+        return isTransposed(x) ? "T" : "N";
+    }
+
     public static void checkNumeric(RAny l, RAny r, ASTNode ast) {
         // TODO: support also complex matrices
         checkNumeric(l, ast);
@@ -166,7 +184,7 @@ public abstract class MatrixOperation extends BaseR {
             int p = dimb[1];
 
             double[] res;
-            if (DGEMM_NA_WORKAROUND && (RDouble.RDoubleUtils.hasNAorNaN(a) || RDouble.RDoubleUtils.hasNAorNaN(b)) ||
+            if (DGEMM_NA_WORKAROUND && (RDouble.RDoubleUtils.hasNAorNaN(blasOperand(a)) || RDouble.RDoubleUtils.hasNAorNaN(blasOperand(b))) ||
                     m == 0 || n == 0 || p == 0) {
                 if (USE_PRIMITIVE_ACCESS && a.size() > 1 && b.size() > 1) {
                     res =  matrixTimesMatrixPrimitive(((DoubleImpl) a.materialize()).getContent(), ((DoubleImpl) b.materialize()).getContent(), m, n, p);
@@ -174,7 +192,7 @@ public abstract class MatrixOperation extends BaseR {
                     res = matrixTimesMatrixGetters(a, b, m, n, p);
                 }
             } else {
-                res = matrixTimesMatrixNative(((DoubleImpl) a.materialize()).getContent(), ((DoubleImpl) b.materialize()).getContent(), m, n, p);
+                res = matrixTimesMatrixNative(a, b, m, n, p);
             }
 
             return RDouble.RDoubleFactory.getFor(res, new int[] {m, p}, null);
@@ -215,6 +233,15 @@ public abstract class MatrixOperation extends BaseR {
             return content;
         }
 
+        // a is m x n, b is n x p, a transposed view is passed to BLAS as its original matrix with the "T" flag
+        public static double[] matrixTimesMatrixNative(RDouble a, RDouble b, int m, int n, int p) {
+
+            double[] res = new double[m * p];
+            BLAS.getInstance().dgemm(blasTrans(a), blasTrans(b), m, p, n, 1.0, blasOperand(a).getContent(), isTransposed(a) ? n : m,
+                            blasOperand(b).getContent(), isTransposed(b) ? p : n, 0.0, res, m);
+            return res;
+        }
+
         public static double[] matrixTimesMatrixNative(double[] a, double[] b, int m, int n, int p) {
 
             double[] res = new double[m * p];
@@ -226,8 +253,8 @@ public abstract class MatrixOperation extends BaseR {
         public Object execute(RAny l, RAny r) {
 
             checkNumeric(l, r, ast); // TODO: support also complex matrices
-            RDouble ld = l.asDouble().materialize(); // FIXME: double materialization (again in matrixTimesMatrixNative)
-            RDouble rd = r.asDouble().materialize();
+            RDouble ld = materializeUnlessTransposed(l.asDouble());
+            RDouble rd = materializeUnlessTransposed(r.asDouble());
             int[] ldims = ld.dimensions();
             int nldims = ldims == null ? 0 : ldims.length;
             int[] rdims = rd.dimensions();
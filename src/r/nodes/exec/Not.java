@@ -93,6 +93,9 @@ public abstract class Not extends BaseR {
 
         @Override
         RAny execute(RAny value) {
+            if (value instanceof PackedLogicalImpl) {
+                return ((PackedLogicalImpl) value).not();
+            }
             if (value instanceof RLogical || value instanceof RDouble || value instanceof RInt) {
                 final RLogical lvalue = value.asLogical();
 
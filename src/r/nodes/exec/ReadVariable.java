@@ -57,7 +57,9 @@ public abstract class ReadVariable extends BaseR {
                         node = getReadOnlyFromTopLevel(getAST(), symbol); // FIXME: could also add a listener here
                         reason = "installReadOnlyFromTopLevelNode";
                     } else if ((slot = frame.findVariable(symbol)) != -1) {
-                        if (frame instanceof SmallFrame) {
+                        if (holdsUnboxed(frame, slot)) {
+                            node = new ReadLocalUnboxed(getAST(), symbol, slot);
+                        } else if (frame instanceof SmallFrame) {
                             node = getSimpleReadLocalSmallFrame(getAST(), symbol, slot, (SmallFrame) frame);
                         } else {
                             node = getSimpleReadLocal(getAST(), symbol, slot);
@@ -116,12 +118,12 @@ public abstract class ReadVariable extends BaseR {
                     SmallFrame.SmallFrame1Slot sframe = Utils.cast(frame);
                     try {
                         Object value =  RPromise.force(sframe.slot1);
-                        if (value == null) {
+                        if (value == null || value instanceof Frame.Unboxed) {
                             throw new SpecializationException(null);
                         }
                         return value;
                     } catch (SpecializationException e) {
-                        return replace(getReadLocal(ast, symbol, slot)).execute(frame);
+                        return replace(getReadLocalOnMiss(ast, symbol, slot, frame)).execute(frame);
                     }
                 }
             };
@@ -134,12 +136,12 @@ public abstract class ReadVariable extends BaseR {
                     SmallFrame.SmallFrame2Slots sframe = Utils.cast(frame);
                     try {
                         Object value =  RPromise.force(sframe.slot1);
-                        if (value == null) {
+                        if (value == null || value instanceof Frame.Unboxed) {
                             throw new SpecializationException(null);
                         }
                         return value;
                     } catch (SpecializationException e) {
-                        return replace(getReadLocal(ast, symbol, slot)).execute(frame);
+                        return replace(getReadLocalOnMiss(ast, symbol, slot, frame)).execute(frame);
                     }
                 }
             };
@@ -152,12 +154,12 @@ public abstract class ReadVariable extends BaseR {
                     SmallFrame.SmallFrame2Slots sframe = Utils.cast(frame);
                     try {
                         Object value =  RPromise.force(sframe.slot2);
-                        if (value == null) {
+                        if (value == null || value instanceof Frame.Unboxed) {
                             throw new SpecializationException(null);
                         }
                         return value;
                     } catch (SpecializationException e) {
-                        return replace(getReadLocal(ast, symbol, slot)).execute(frame);
+                        return replace(getReadLocalOnMiss(ast, symbol, slot, frame)).execute(frame);
                     }
                 }
             };
@@ -167,6 +169,80 @@ public abstract class ReadVariable extends BaseR {
     }
 
 
+    private static ReadVariable getReadLocalOnMiss(ASTNode orig, RSymbol sym, int slot, Frame frame) {
+        if (holdsUnboxed(frame, slot)) {
+            return new ReadLocalUnboxed(orig, sym, slot);
+        }
+        return getReadLocal(orig, sym, slot);
+    }
+
+    static boolean holdsUnboxed(Frame frame, int slot) {
+        if (frame.getSlot(slot) instanceof Frame.Unboxed) {
+            return true;
+        }
+        byte kind = frame.descriptor().slotKind(slot);
+        return kind != FrameDescriptor.EMPTY && kind != FrameDescriptor.OBJECT;
+    }
+
+    // a local variable that holds (or is expected to hold) an unboxed scalar, which can be read without boxing it by the nodes
+    // that take scalars; when the variable holds a different value, these fall back to the boxed value
+    public static class ReadLocalUnboxed extends ReadVariable {
+        final int slot;
+
+        public ReadLocalUnboxed(ASTNode orig, RSymbol sym, int slot) {
+            super(orig, sym);
+            this.slot = slot;
+        }
+
+        @Override
+        public final Object execute(Frame frame) {
+            try {
+                Object value = frame.getObjectForcingPromises(slot);
+                if (value == null) {
+                    throw new SpecializationException(null);
+                }
+                return value;
+            } catch (SpecializationException e) {
+                return replace(getReadLocal(ast, symbol, slot)).execute(frame);
+            }
+        }
+
+        @Override
+        public final int executeScalarInteger(Frame frame) throws SpecializationException {
+            if (frame.getSlot(slot) == Frame.UNBOXED_INT) {
+                return frame.getUnboxedInt(slot);
+            }
+            return RValueConversion.expectScalarInteger((RAny) execute(frame));
+        }
+
+        @Override
+        public final double executeScalarDouble(Frame frame) throws SpecializationException {
+            if (frame.getSlot(slot) == Frame.UNBOXED_DOUBLE) {
+                return frame.getUnboxedDouble(slot);
+            }
+            return RValueConversion.expectScalarDouble((RAny) execute(frame));
+        }
+
+        @Override
+        public final int executeScalarLogical(Frame frame) throws SpecializationException {
+            if (frame.getSlot(slot) == Frame.UNBOXED_LOGICAL) {
+                return frame.getUnboxedLogical(slot);
+            }
+            return RValueConversion.expectScalarLogical((RAny) execute(frame));
+        }
+
+        @Override
+        public final int executeScalarNonNALogical(Frame frame) throws SpecializationException {
+            if (frame.getSlot(slot) == Frame.UNBOXED_LOGICAL) {
+                int value = frame.getUnboxedLogical(slot);
+                if (value != RLogical.NA) {
+                    return value;
+                }
+            }
+            return RValueConversion.expectScalarNonNALogical((RAny) execute(frame));
+        }
+    }
+
     private static ReadVariable getReadLocal(ASTNode orig, RSymbol sym, final int slot) {
         return new ReadVariable(orig, sym) {
 
@@ -271,12 +347,12 @@ public abstract class ReadVariable extends BaseR {
         };
     }
 
-    private static ReadVariable getReadOnlyFromTopLevel(ASTNode orig, RSymbol sym) {
+    // also used by inlined closure calls, the closure only sees top-level variables even if the frame has inserted ones
+    public static ReadVariable getReadOnlyFromTopLevel(ASTNode orig, RSymbol sym) {
         return new ReadVariable(orig, sym) {
 
             @Override
             public final Object execute(Frame frame) {
-                assert Utils.check(frame == null);
                 Object val = symbol.getValue();
                 if (val == null) {  // TODO: another node
                     return readNonVariablePerhapsBuiltin(ast, symbol);
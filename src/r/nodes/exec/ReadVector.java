@@ -88,9 +88,23 @@ public abstract class ReadVector extends BaseR {
         assert Utils.check(getNewNode() == null);
         RAny base = (RAny) lhs.execute(frame); // note: order is important
         if (getNewNode() != null) {
-            return ((ReadVector)getNewNode()).executeWithBase(frame, base);
+            return keepFactor(base, ((ReadVector)getNewNode()).executeWithBase(frame, base), subset);
         }
-        return executeWithBase(frame, base);
+        return keepFactor(base, executeWithBase(frame, base), subset);
+    }
+
+    // a subset of a factor is a factor with the same levels (the selections drop the attributes other than names)
+    static Object keepFactor(RAny base, Object res, boolean subset) {
+        if (subset && base.attributes() != null && res instanceof RInt && ((RInt) res).attributes() == null && RInt.RFactorUtils.isFactor(base)) {
+            RInt r = (RInt) res;
+            int size = r.size();
+            int[] codes = new int[size];
+            for (int i = 0; i < size; i++) {
+                codes[i] = r.getInt(i);
+            }
+            return RInt.RFactorUtils.withCodes((RInt) base, codes, r.names());
+        }
+        return res;
     }
 
     public Object executeWithBase(Frame frame, RAny base) {
@@ -242,9 +256,9 @@ public abstract class ReadVector extends BaseR {
             assert Utils.check(getNewNode() == null);
             RAny base = (RAny) lhs.execute(frame);
             if (getNewNode() != null) {
-                return ((ReadVector.SimpleConstantScalarIntSelection)getNewNode()).executeWithBase(frame, base);
+                return keepFactor(base, ((ReadVector.SimpleConstantScalarIntSelection)getNewNode()).executeWithBase(frame, base), subset);
             }
-            return executeWithBase(frame, base);
+            return keepFactor(base, executeWithBase(frame, base), subset);
         }
 
         @Override
@@ -1447,6 +1461,9 @@ public abstract class ReadVector extends BaseR {
                 int isize = lindex.size();
                 int bsize = abase.size();
                 if (isize != bsize) { throw new SpecializationException(Failure.NOT_SAME_LENGTH); }
+                if (lindex instanceof PackedLogicalImpl) {
+                    return LogicalSelection.executePackedLogicalVector((PackedLogicalImpl) lindex, abase, null);
+                }
                 int nsize = 0;
                 for (int i = 0; i < isize; i++) {
                     if (lindex.getLogical(i) != RLogical.FALSE) {
@@ -1501,6 +1518,9 @@ public abstract class ReadVector extends BaseR {
             RSymbol[] symbols = (names == null) ? null : names.sequence();
             RSymbol[] newSymbols = null;
 
+            if (isize == bsize && index instanceof PackedLogicalImpl) {
+                return executePackedLogicalVector((PackedLogicalImpl) index, base, symbols);
+            }
             if (isize >= bsize) {
                 // no re-use of index, but index can be longer than base
                 int nsize = 0;
@@ -1591,6 +1611,71 @@ public abstract class ReadVector extends BaseR {
             }
         }
 
+        // the index has the same size as the base, only the set bits of the TRUE and NA elements are visited
+        public static RAny executePackedLogicalVector(PackedLogicalImpl index, RArray base, RSymbol[] symbols) {
+            long[] values = index.values();
+            long[] nas = index.nas();
+            int nsize = index.countNonFalse();
+            Names newNames = null;
+            if (symbols != null) {
+                RSymbol[] newSymbols = new RSymbol[nsize];
+                int j = 0;
+                for (int w = 0; w < values.length; w++) {
+                    long word = values[w] | nas[w];
+                    while (word != 0) {
+                        int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                        newSymbols[j++] = (nas[w] & (word & -word)) != 0 ? RSymbol.NA_SYMBOL : symbols[i];
+                        word &= word - 1;
+                    }
+                }
+                newNames = Names.create(newSymbols);
+            }
+            if (base instanceof DoubleImpl) {
+                double[] bcontent = ((DoubleImpl) base).getContent();
+                double[] content = new double[nsize];
+                int j = 0;
+                for (int w = 0; w < values.length; w++) {
+                    long word = values[w] | nas[w];
+                    while (word != 0) {
+                        int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                        content[j++] = (nas[w] & (word & -word)) != 0 ? RDouble.NA : bcontent[i];
+                        word &= word - 1;
+                    }
+                }
+                return RDouble.RDoubleFactory.getFor(content, null, newNames);
+            }
+            if (base instanceof IntImpl) {
+                int[] bcontent = ((IntImpl) base).getContent();
+                int[] content = new int[nsize];
+                int j = 0;
+                for (int w = 0; w < values.length; w++) {
+                    long word = values[w] | nas[w];
+                    while (word != 0) {
+                        int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                        content[j++] = (nas[w] & (word & -word)) != 0 ? RInt.NA : bcontent[i];
+                        word &= word - 1;
+                    }
+                }
+                return RInt.RIntFactory.getFor(content, null, newNames);
+            }
+            RArray res = Utils.createArray(base, nsize, newNames != null);
+            int j = 0;
+            for (int w = 0; w < values.length; w++) {
+                long word = values[w] | nas[w];
+                while (word != 0) {
+                    int i = (w << 6) + Long.numberOfTrailingZeros(word);
+                    if ((nas[w] & (word & -word)) != 0) {
+                        Utils.setNA(res, j);
+                    } else {
+                        res.set(j, base.get(i));
+                    }
+                    j++;
+                    word &= word - 1;
+                }
+            }
+            return newNames != null ? res.setNames(newNames) : res;
+        }
+
         @Override public RAny execute(RAny index, RAny base) {
             if (DEBUG_SEL) Utils.debug("selection - executing LogicalSelection");
             try {
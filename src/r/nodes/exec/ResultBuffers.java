@@ -0,0 +1,53 @@
+package r.nodes.exec;
+
+import r.data.*;
+import r.data.internal.*;
+import r.runtime.*;
+
+// the result arrays of a node that computes eagerly, kept so that the node can compute into one of them again once it is
+// no longer referenced; in a loop body, that is typically the result of the previous-but-one iteration, as the previous
+// one is still held by the variable it was assigned to
+//   a result with zero reference count may still be held where it is not counted (on the Java stack, or by a builtin
+//   collecting the results of calls, after a function returned it), but not across iterations of a loop within the same
+//   function activation, so the results are forgotten whenever the node executes in a different frame (which includes
+//   recursive calls)
+public final class ResultBuffers {
+
+    private static final int N = 2;
+
+    private final DoubleImpl[] results = new DoubleImpl[N];
+    private Frame frame;
+    private int next;
+
+    // called each time the node executes, before it allocates a result
+    public void enter(Frame f) {
+        if (f != frame) {
+            frame = f;
+            for (int i = 0; i < N; i++) {
+                results[i] = null;
+            }
+        }
+    }
+
+    // the content of a kept result of the given size that is no longer referenced, or a new array
+    public double[] allocateDouble(int size) {
+        for (int i = 0; i < N; i++) {
+            DoubleImpl r = results[i];
+            if (r != null && r.isTemporary() && r.size() == size) {
+                results[i] = null;
+                RefCount.onResultReuse();
+                return r.getContent();
+            }
+        }
+        return new double[size];
+    }
+
+    // keeps a result computed into an array from allocateDouble
+    public RDouble keep(RDouble res) {
+        if (res instanceof DoubleImpl) {
+            results[next] = (DoubleImpl) res;
+            next = (next + 1) % N;
+        }
+        return res;
+    }
+}
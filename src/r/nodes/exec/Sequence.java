@@ -1,5 +1,6 @@
 package r.nodes.exec;
 
+import r.data.*;
 import r.nodes.ast.*;
 import r.runtime.*;
 
@@ -15,12 +16,18 @@ public class Sequence extends BaseR {
 
     @Override public final Object execute(Frame frame) {
 
-        Object res = null;
+        int last = exprs.length - 1;
+        for (int i = 0; i < last; i++) {
+            exprs[i].executeVoid(frame); // the value is not needed, so e.g. a local scalar assignment need not box it
+        }
+        return last >= 0 ? exprs[last].execute(frame) : null;
+    }
+
+    @Override public final Object executeVoid(Frame frame) {
         for (RNode e : exprs) {
-            res = null; // NOTE: this line is important, it allows the GC to clean-up temporaries
-            res = e.execute(frame);
+            e.executeVoid(frame);
         }
-        return res;
+        return RNull.getNull();
     }
 
     @Override
@@ -48,10 +55,16 @@ public class Sequence extends BaseR {
         }
 
         @Override public final Object execute(Frame frame) {
-            child1.execute(frame);
+            child1.executeVoid(frame);
             return child2.execute(frame);
         }
 
+        @Override public final Object executeVoid(Frame frame) {
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            return RNull.getNull();
+        }
+
         @Override
         protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
             assert oldNode != null;
@@ -81,11 +94,18 @@ public class Sequence extends BaseR {
         }
 
         @Override public final Object execute(Frame frame) {
-            child1.execute(frame);
-            child2.execute(frame);
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
             return child3.execute(frame);
         }
 
+        @Override public final Object executeVoid(Frame frame) {
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
+            return RNull.getNull();
+        }
+
         @Override
         protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
             assert oldNode != null;
@@ -121,12 +141,20 @@ public class Sequence extends BaseR {
         }
 
         @Override public final Object execute(Frame frame) {
-            child1.execute(frame);
-            child2.execute(frame);
-            child3.execute(frame);
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
             return child4.execute(frame);
         }
 
+        @Override public final Object executeVoid(Frame frame) {
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
+            child4.executeVoid(frame);
+            return RNull.getNull();
+        }
+
         @Override
         protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
             assert oldNode != null;
@@ -168,13 +196,22 @@ public class Sequence extends BaseR {
         }
 
         @Override public final Object execute(Frame frame) {
-            child1.execute(frame);
-            child2.execute(frame);
-            child3.execute(frame);
-            child4.execute(frame);
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
+            child4.executeVoid(frame);
             return child5.execute(frame);
         }
 
+        @Override public final Object executeVoid(Frame frame) {
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
+            child4.executeVoid(frame);
+            child5.executeVoid(frame);
+            return RNull.getNull();
+        }
+
         @Override
         protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
             assert oldNode != null;
@@ -222,14 +259,24 @@ public class Sequence extends BaseR {
         }
 
         @Override public final Object execute(Frame frame) {
-            child1.execute(frame);
-            child2.execute(frame);
-            child3.execute(frame);
-            child4.execute(frame);
-            child5.execute(frame);
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
+            child4.executeVoid(frame);
+            child5.executeVoid(frame);
             return child6.execute(frame);
         }
 
+        @Override public final Object executeVoid(Frame frame) {
+            child1.executeVoid(frame);
+            child2.executeVoid(frame);
+            child3.executeVoid(frame);
+            child4.executeVoid(frame);
+            child5.executeVoid(frame);
+            child6.executeVoid(frame);
+            return RNull.getNull();
+        }
+
         @Override
         protected <N extends RNode> N replaceChild(RNode oldNode, N newNode) {
             assert oldNode != null;
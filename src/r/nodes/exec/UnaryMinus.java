@@ -17,7 +17,7 @@ public abstract class UnaryMinus extends BaseR {
     }
 
     @Override
-    public final Object execute(Frame frame) {
+    public Object execute(Frame frame) {
         RAny value = (RAny) lhs.execute(frame);
         return execute(value);
     }
@@ -91,7 +91,14 @@ public abstract class UnaryMinus extends BaseR {
             return RInt.RIntFactory.getScalar(-i); // NOTE: this also works for NA
         }
 
-        public Specialized createSimple(RAny valueTemplate) {
+        private static RBigInt forBigInt(RBigInt bvalue) {
+            return RBigInt.RBigIntFactory.getScalar(bvalue.getBigInteger().negate());
+        }
+
+        public NumericScalar createSimple(RAny valueTemplate) {
+            if (valueTemplate instanceof ScalarDoubleImpl) {
+                return new ScalarDouble(ast, lhs);
+            }
             if (valueTemplate instanceof RComplex) {
                 Minus minus = new Minus() {
                     @Override
@@ -148,6 +155,9 @@ public abstract class UnaryMinus extends BaseR {
                     if (value instanceof RLogical) {
                         return forInt(value.asInt());
                     }
+                    if (value instanceof RBigInt) {
+                        return forBigInt((RBigInt) value);
+                    }
                     throw RError.getInvalidArgTypeUnary(ast);
                 }
             };
@@ -156,13 +166,55 @@ public abstract class UnaryMinus extends BaseR {
 
         @Override
         public RAny execute(RAny value) {
-            Specialized sn = createSimple(value);
-            if (sn != null) {
-                replace(sn, "specialize Scalar");
-                return sn.execute(value);
-            } else {
+            NumericScalar sn = createSimple(value);
+            if (sn == null) {
                 sn = createGeneric();
-                replace(sn, "specialize Scalar");
+            }
+            replace(sn, "specialize Scalar");
+            return sn.execute(value);
+        }
+
+        // the argument is a scalar double, which the child gives unboxed
+        static final class ScalarDouble extends NumericScalar {
+            ScalarDouble(ASTNode ast, RNode lhs) {
+                super(ast, lhs);
+            }
+
+            @Override
+            public Object execute(Frame frame) {
+                try {
+                    return RDouble.RDoubleFactory.getScalar(executeScalarDouble(frame));
+                } catch (SpecializationException e) {
+                    return e.getResult();
+                }
+            }
+
+            @Override
+            public double executeScalarDouble(Frame frame) throws SpecializationException {
+                double d;
+                try {
+                    d = lhs.executeScalarDouble(frame);
+                } catch (SpecializationException e) {
+                    throw new SpecializationException(generalize((RAny) e.getResult()));
+                }
+                return RDouble.RDoubleUtils.arithIsNA(d) ? RDouble.NA : -d;
+            }
+
+            @Override
+            public RAny execute(RAny value) {
+                if (value instanceof ScalarDoubleImpl) {
+                    double d = ((ScalarDoubleImpl) value).getDouble();
+                    return RDouble.RDoubleFactory.getScalar(RDouble.RDoubleUtils.arithIsNA(d) ? RDouble.NA : -d);
+                }
+                return generalize(value);
+            }
+
+            RAny generalize(RAny value) {
+                if (getNewNode() != null) {
+                    return ((UnaryMinus) getNewNode()).execute(value);
+                }
+                Specialized sn = createGeneric();
+                replace(sn, "install Scalar.Generic from Scalar.ScalarDouble");
                 return sn.execute(value);
             }
         }
@@ -246,23 +298,10 @@ public abstract class UnaryMinus extends BaseR {
             }
             if (value instanceof RDouble) {
                 final RDouble dvalue = (RDouble) value;
-                return TracingView.ViewTrace.trace(new View.RDoubleProxy<RDouble>(dvalue) {
-
-                    @Override
-                    public double getDouble(int i) {
-                        double d = dvalue.getDouble(i);
-                        if (RDouble.RDoubleUtils.arithIsNA(d)) {
-                            return RDouble.NA;
-                        } else {
-                            return -d;
-                        }
-                    }
-
-                    @Override
-                    public void accept(ValueVisitor v) {
-                        v.visit(this);
-                    }
-                });
+                if (FusedDoubleView.isFusable(dvalue)) {
+                    return FusedDoubleView.fuse(dvalue, STAGE, dvalue.dimensions(), dvalue.names(), dvalue.attributes());
+                }
+                return TracingView.ViewTrace.trace(new DoubleMinusView(dvalue));
             }
             if (value instanceof RInt || value instanceof RLogical) {
                 final RInt ivalue = value.asInt();
@@ -301,10 +340,59 @@ public abstract class UnaryMinus extends BaseR {
                     }
                 });
             }
+            if (value instanceof RBigInt) {
+                return NumericScalar.forBigInt((RBigInt) value);
+            }
             throw RError.getInvalidArgTypeUnary(ast);
         }
     }
 
+    static double uminus(double d) {
+        if (RDouble.RDoubleUtils.arithIsNA(d)) {
+            return RDouble.NA;
+        } else {
+            return -d;
+        }
+    }
+
+    static final FusedDoubleView.Stage STAGE = new FusedDoubleView.Stage() {
+        @Override public double op(double x) {
+            return uminus(x);
+        }
+
+        @Override public boolean op(double[] x, double[] res, int from, int to) {
+            for (int i = from; i < to; i++) {
+                res[i] = uminus(x[i]);
+            }
+            return false;
+        }
+    };
+
+    static final class DoubleMinusView extends View.RDoubleProxy<RDouble> implements FusedDoubleView.Fusable {
+
+        DoubleMinusView(RDouble orig) {
+            super(orig);
+        }
+
+        @Override
+        public double getDouble(int i) {
+            return uminus(orig.getDouble(i));
+        }
+
+        @Override
+        public void accept(ValueVisitor v) {
+            v.visit(this);
+        }
+
+        @Override public RDouble fusableArgument() {
+            return orig;
+        }
+
+        @Override public FusedDoubleView.Stage fusableStage() {
+            return STAGE;
+        }
+    }
+
     public static void uminus(int[] x, int[] res) {
         for (int i = 0; i < x.length; i++) {
             res[i] = -x[i];  // NOTE: this also works for NA
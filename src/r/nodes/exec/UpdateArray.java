@@ -1756,8 +1756,9 @@ public class UpdateArray extends UpdateArrayAssignment.AssignmentNode {
         @Override public RAny execute(Frame frame, RAny lhsParam, RAny rhs) {
             RAny lhs;
             try {
-                if (!(lhsParam instanceof IntImpl) || !(rhs instanceof IntImpl) || lhsParam.isShared()) { throw new SpecializationException(null); }
-                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || (lhsParam == rhs)) {
+                if (!(lhsParam instanceof IntImpl) || !(rhs instanceof IntImpl)) { throw new SpecializationException(null); }
+                // with accurate reference counts the lhs is rarely shared, so copying it here is cheaper than leaving the direct specialization
+                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || lhsParam.isShared() || lhsParam == rhs) {
                     lhs = ValueCopy.INT_TO_INT_DIRECT.copy(lhsParam);
                 } else {
                     lhs = lhsParam;
@@ -1845,9 +1846,9 @@ public class UpdateArray extends UpdateArrayAssignment.AssignmentNode {
         @Override public RAny execute(Frame frame, RAny lhsParam, RAny rhs) {
             try {
                 RAny lhs;
-                if (!(lhsParam instanceof DoubleImpl) || !(rhs instanceof IntImpl) || lhsParam.isShared()) { throw new SpecializationException(null); }
-                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS) {
-                    lhs = ValueCopy.DOUBLE_TO_DOUBLE_DIRECT.copy(lhs);
+                if (!(lhsParam instanceof DoubleImpl) || !(rhs instanceof IntImpl)) { throw new SpecializationException(null); }
+                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || lhsParam.isShared()) {
+                    lhs = ValueCopy.DOUBLE_TO_DOUBLE_DIRECT.copy(lhsParam);
                 } else {
                     lhs = lhsParam;
                 }
@@ -1935,8 +1936,8 @@ public class UpdateArray extends UpdateArrayAssignment.AssignmentNode {
         @Override public RAny execute(Frame frame, RAny lhsParam, RAny rhs) {
             try {
                 RAny lhs;
-                if (!(lhsParam instanceof DoubleImpl) || !(rhs instanceof DoubleImpl) || lhsParam.isShared()) { throw new SpecializationException(null); }
-                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || (lhsParam == rhs)) {
+                if (!(lhsParam instanceof DoubleImpl) || !(rhs instanceof DoubleImpl)) { throw new SpecializationException(null); }
+                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || lhsParam.isShared() || lhsParam == rhs) {
                     lhs = ValueCopy.DOUBLE_TO_DOUBLE_DIRECT.copy(lhsParam);
                 } else {
                     lhs = lhsParam;
@@ -2026,9 +2027,9 @@ public class UpdateArray extends UpdateArrayAssignment.AssignmentNode {
         @Override public RAny execute(Frame frame, RAny lhsParam, RAny rhs) {
             try {
                 RAny lhs;
-                if (!(lhsParam instanceof ComplexImpl) || !(rhs instanceof IntImpl) || lhsParam.isShared()) { throw new SpecializationException(null); }
-                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS) {
-                    lhs = ValueCopy.COMPLEX_TO_COMPLEX_DIRECT.copy(lhs);
+                if (!(lhsParam instanceof ComplexImpl) || !(rhs instanceof IntImpl)) { throw new SpecializationException(null); }
+                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || lhsParam.isShared()) {
+                    lhs = ValueCopy.COMPLEX_TO_COMPLEX_DIRECT.copy(lhsParam);
                 } else {
                     lhs = lhsParam;
                 }
@@ -2118,9 +2119,9 @@ public class UpdateArray extends UpdateArrayAssignment.AssignmentNode {
         @Override public RAny execute(Frame frame, RAny lhsParam, RAny rhs) {
             try {
                 RAny lhs;
-                if (!(lhsParam instanceof ComplexImpl) || !(rhs instanceof DoubleImpl) || lhsParam.isShared()) { throw new SpecializationException(null); }
-                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS) {
-                    lhs = ValueCopy.COMPLEX_TO_COMPLEX_DIRECT.copy(lhs);
+                if (!(lhsParam instanceof ComplexImpl) || !(rhs instanceof DoubleImpl)) { throw new SpecializationException(null); }
+                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || lhsParam.isShared()) {
+                    lhs = ValueCopy.COMPLEX_TO_COMPLEX_DIRECT.copy(lhsParam);
                 } else {
                     lhs = lhsParam;
                 }
@@ -2211,8 +2212,8 @@ public class UpdateArray extends UpdateArrayAssignment.AssignmentNode {
         @Override public RAny execute(Frame frame, RAny lhsParam, RAny rhs) {
             try {
                 RAny lhs;
-                if (!(lhsParam instanceof ComplexImpl) || !(rhs instanceof ComplexImpl) || lhsParam.isShared()) { throw new SpecializationException(null); }
-                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || (lhsParam == rhs)) {
+                if (!(lhsParam instanceof ComplexImpl) || !(rhs instanceof ComplexImpl)) { throw new SpecializationException(null); }
+                if (!Configuration.ARRAY_UPDATE_DO_NOT_COPY_LHS_WHEN_NO_ALIAS_IN_DIRECT_SPECIALIZATIONS || lhsParam.isShared() || lhsParam == rhs) {
                     lhs = ValueCopy.COMPLEX_TO_COMPLEX_DIRECT.copy(lhsParam);
                 } else {
                     lhs = lhsParam;
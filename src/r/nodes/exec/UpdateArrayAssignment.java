@@ -2,6 +2,7 @@ package r.nodes.exec;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.errors.RError;
 import r.nodes.ast.*;
 import r.runtime.*;
@@ -132,6 +133,8 @@ public abstract class UpdateArrayAssignment extends BaseR {
             RAny newLhs = assignment.execute(frame, lhsValue, rhsValue);
             if (lhsValue != newLhs) {
                 frame.writeAtRef(varSlot, newLhs);
+            } else {
+                RefCount.onInPlaceUpdate(lhsValue);
             }
 
             try {
@@ -170,6 +173,8 @@ public abstract class UpdateArrayAssignment extends BaseR {
             RAny newLhs = assignment.execute(frame, lhsValue, rhsValue);
             if (lhsValue != newLhs) {
                 frame.writeAtRef(varSlot, newLhs);
+            } else {
+                RefCount.onInPlaceUpdate(lhsValue);
             }
             return rhsValue;
         }
@@ -201,6 +206,8 @@ public abstract class UpdateArrayAssignment extends BaseR {
             RAny newLhs = assignment.execute(frame, lhsValue, rhsValue);
             if (lhsValue != newLhs) {
                 frame.writeAtRef(varSlot, newLhs);
+            } else {
+                RefCount.onInPlaceUpdate(lhsValue);
             }
             return rhsValue;
         }
@@ -222,6 +229,8 @@ public abstract class UpdateArrayAssignment extends BaseR {
             RAny newLhs = assignment.execute(frame, lhsValue, rhsValue);
             if (lhsValue != newLhs) {
                 Frame.writeToTopLevelRef(varName, newLhs);
+            } else {
+                RefCount.onInPlaceUpdate(lhsValue);
             }
             return rhsValue;
         }
@@ -245,6 +254,8 @@ public abstract class UpdateArrayAssignment extends BaseR {
             RAny newLhs = assignment.execute(frame, lhsValue, rhsVal);
             if (lhsValue != newLhs) {
                 Frame.writeToTopLevelRef(varName, newLhs);
+            } else {
+                RefCount.onInPlaceUpdate(lhsValue);
             }
             return rhsVal;
         }
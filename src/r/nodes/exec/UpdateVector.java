@@ -92,7 +92,7 @@ public abstract class UpdateVector extends BaseR {
             throw RError.getUnknownVariable(ast, var);
         }
         // NOTE: we don't ref here
-        newVector = execute(base, index, value);
+        newVector = update(base, index, value);
         assign.execute(frame); // FIXME: may ref unnecessarily
         return value;
     }
@@ -115,16 +115,18 @@ public abstract class UpdateVector extends BaseR {
             if (frameSlot != -1) {
                 RAny base = Utils.cast(frame.getObjectForcingPromises(frameSlot));
                 if (base != null) {
-                    RAny newBase = execute(base, index, value);
+                    RAny newBase = update(base, index, value);
                     if (newBase != base) {
                         frame.writeAtRef(frameSlot, newBase);
+                    } else {
+                        RefCount.onInPlaceUpdate(base);
                     }
                 } else { // this should be uncommon
                     base = Utils.cast(frame.readViaWriteSetSlowPath(var));
                     if (base == null) { throw RError.getUnknownVariable(getAST(), var); }
                     base.ref(); // reading from parent, hence need to copy on update
                     // ref once will make it shared unless it is stateless (like int sequence)
-                    RAny newBase = execute(base, index, value);
+                    RAny newBase = update(base, index, value);
                     // now typically base != newBase, but not always (an update may actually change nothing in the base vector)
                     frame.writeAtRef(frameSlot, newBase);
                 }
@@ -134,7 +136,7 @@ public abstract class UpdateVector extends BaseR {
                 RAny base = Utils.cast(frame.read(var));
                 if (base == null) { throw RError.getUnknownVariable(getAST(), var); }
                 base.ref(); // TODO: this may ref unnecessarily, will copy every time invoked
-                RAny newBase = execute(base, index, value);
+                RAny newBase = update(base, index, value);
                 assert Utils.check(base != newBase);
                 frame.writeToExtension(var, newBase);
             }
@@ -142,9 +144,11 @@ public abstract class UpdateVector extends BaseR {
             // variable is top-level
             RAny base = Utils.cast(var.getValue());
             if (base == null) { throw RError.getUnknownVariable(getAST(), var); }
-            RAny newBase = execute(base, index, value);
+            RAny newBase = update(base, index, value);
             if (newBase != base) {
                 Frame.writeToTopLevelRef(var, newBase);
+            } else {
+                RefCount.onInPlaceUpdate(base);
             }
         }
         return value;
@@ -177,6 +181,29 @@ public abstract class UpdateVector extends BaseR {
 
     abstract RAny execute(RAny base, RAny index, RAny value);
 
+    private RAny update(RAny base, RAny index, RAny value) {
+        if (base.attributes() != null && value instanceof RArray && !(value instanceof RList) && RInt.RFactorUtils.isFactor(base)) {
+            value = factorCodes((RInt) base, (RArray) value, ast);
+        }
+        return execute(base, index, value);
+    }
+
+    // the values assigned into a factor are replaced by the codes of their levels, so that the factor stays integer-coded; a value
+    // that is not a level gives NA with a warning
+    public static RInt factorCodes(RInt f, RArray value, ASTNode ast) {
+        RString s = RInt.RFactorUtils.isFactor(value) ? RInt.RFactorUtils.labels((RInt) value) : value.asString();
+        RString levels = RInt.RFactorUtils.levels(f);
+        int[] codes = RInt.RFactorUtils.encode(s, levels != null ? levels : RString.EMPTY);
+        for (int i = 0; i < codes.length; i++) {
+            if (codes[i] == RInt.NA && s.getString(i) != RString.NA) {
+                RContext.warning(ast, RError.INVALID_FACTOR_LEVEL);
+                break;
+            }
+        }
+        return RInt.RIntFactory.getFor(codes);
+    }
+
+
     // FIXME: move these to some other file?
     public static Names expandNames(Names names, int newSize) {
         RSymbol[] oldSymbols = names.sequence();
@@ -632,6 +659,16 @@ public abstract class UpdateVector extends BaseR {
                 } else {
                     int zpos = pos - 1;
                     int nsize = zpos + 1;
+                    if (base == typedBase) {
+                        RArray grown = RArray.RArrayUtils.resizeInPlace(base, nsize);
+                        if (grown != null) {
+                            for (int i = bsize; i < zpos; i++) {
+                                Utils.setNA(grown, i);
+                            }
+                            grown.set(zpos, rawValue);
+                            return grown;
+                        }
+                    }
                     RArray res = Utils.createArray(typedBase, nsize, names != null).setAttributes(base.attributesRef()); // drop
                                                                                                                          // dimensions
                     int i = 0;
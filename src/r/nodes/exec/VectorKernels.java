@@ -0,0 +1,625 @@
+package r.nodes.exec;
+
+import r.data.*;
+
+// tight loops over the contents of vectors, written so that the JIT compiler can turn them into SIMD code (no calls and
+// no branches on the elements in the main loops); they are used when the native (MKL) vector library is not available
+//
+// the int loops collect NA operands, NA results and overflows of a block in a reduction while writing it, and only a block
+// that has some is redone by the NA-aware scalar operation; when the result is one of the operands, a block is checked
+// before it is written instead
+public final class VectorKernels {
+
+    static final int BLOCK = 1024;
+
+    // comparison operators, see ValueComparison.kernelOp
+    public static final int NONE = -1;
+    public static final int EQ = 0;
+    public static final int NE = 1;
+    public static final int LT = 2;
+    public static final int LE = 3;
+    public static final int GT = 4;
+    public static final int GE = 5;
+
+    // the operator for swapped operands, x op y == y mirror(op) x
+    public static int mirror(int op) {
+        switch (op) {
+            case LT: return GT;
+            case LE: return GE;
+            case GT: return LT;
+            case GE: return LE;
+            default: return op;
+        }
+    }
+
+    // int arithmetic, the result of an operation with NA is NA, an overflow gives NA and makes the loop return true;
+    // a value and its negation have the sign bit set only for NA (the smallest int), so that an NA operand or result
+    // and an overflow set the sign bit of the bits collected for a block
+
+    static int addBad(int a, int b, int r) {
+        return ((a ^ r) & (b ^ r)) | (a & -a) | (b & -b) | (r & -r);
+    }
+
+    static int subBad(int a, int b, int r) {
+        return ((a ^ b) & (a ^ r)) | (a & -a) | (b & -b) | (r & -r);
+    }
+
+    static int multBad(int a, int b, long l) {
+        int r = (int) l;
+        int high = (int) ((l ^ r) >>> 32);
+        return (high | -high) | (a & -a) | (b & -b) | (r & -r);
+    }
+
+    public static boolean add(int[] x, int[] y, int[] res, int n) {
+        boolean inPlace = res == x || res == y;
+        boolean overflow = false;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            int bad = 0;
+            if (inPlace) {
+                for (int i = from; i < to; i++) {
+                    int a = x[i];
+                    int b = y[i];
+                    bad |= addBad(a, b, a + b);
+                }
+                if (bad < 0) {
+                    overflow |= addNA(x, y, res, from, to);
+                    continue;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int a = x[i];
+                int b = y[i];
+                int r = a + b;
+                bad |= addBad(a, b, r);
+                res[i] = r;
+            }
+            if (bad < 0) {
+                overflow |= addNA(x, y, res, from, to);
+            }
+        }
+        return overflow;
+    }
+
+    static boolean addNA(int[] x, int[] y, int[] res, int from, int to) {
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int a = x[i];
+            int b = y[i];
+            if (a == RInt.NA || b == RInt.NA) {
+                res[i] = RInt.NA;
+            } else {
+                int r = Arithmetic.Add.add(a, b);
+                overflow |= r == RInt.NA;
+                res[i] = r;
+            }
+        }
+        return overflow;
+    }
+
+    public static boolean add(int[] x, int y, int[] res, int n) {
+        if (y == RInt.NA) {
+            fill(res, RInt.NA, n);
+            return false;
+        }
+        boolean inPlace = res == x;
+        boolean overflow = false;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            int bad = 0;
+            if (inPlace) {
+                for (int i = from; i < to; i++) {
+                    int a = x[i];
+                    bad |= addBad(a, y, a + y);
+                }
+                if (bad < 0) {
+                    overflow |= addNA(x, y, res, from, to);
+                    continue;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int a = x[i];
+                int r = a + y;
+                bad |= addBad(a, y, r);
+                res[i] = r;
+            }
+            if (bad < 0) {
+                overflow |= addNA(x, y, res, from, to);
+            }
+        }
+        return overflow;
+    }
+
+    static boolean addNA(int[] x, int y, int[] res, int from, int to) {
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int a = x[i];
+            if (a == RInt.NA) {
+                res[i] = RInt.NA;
+            } else {
+                int r = Arithmetic.Add.add(a, y);
+                overflow |= r == RInt.NA;
+                res[i] = r;
+            }
+        }
+        return overflow;
+    }
+
+    public static boolean sub(int[] x, int[] y, int[] res, int n) {
+        boolean inPlace = res == x || res == y;
+        boolean overflow = false;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            int bad = 0;
+            if (inPlace) {
+                for (int i = from; i < to; i++) {
+                    int a = x[i];
+                    int b = y[i];
+                    bad |= subBad(a, b, a - b);
+                }
+                if (bad < 0) {
+                    overflow |= subNA(x, y, res, from, to);
+                    continue;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int a = x[i];
+                int b = y[i];
+                int r = a - b;
+                bad |= subBad(a, b, r);
+                res[i] = r;
+            }
+            if (bad < 0) {
+                overflow |= subNA(x, y, res, from, to);
+            }
+        }
+        return overflow;
+    }
+
+    static boolean subNA(int[] x, int[] y, int[] res, int from, int to) {
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int a = x[i];
+            int b = y[i];
+            if (a == RInt.NA || b == RInt.NA) {
+                res[i] = RInt.NA;
+            } else {
+                int r = Arithmetic.Sub.sub(a, b);
+                overflow |= r == RInt.NA;
+                res[i] = r;
+            }
+        }
+        return overflow;
+    }
+
+    // x - y when reversed is false, y - x otherwise
+    public static boolean sub(int[] x, int y, int[] res, int n, boolean reversed) {
+        if (y == RInt.NA) {
+            fill(res, RInt.NA, n);
+            return false;
+        }
+        boolean inPlace = res == x;
+        boolean overflow = false;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            int bad = 0;
+            if (inPlace) {
+                if (!reversed) {
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        bad |= subBad(a, y, a - y);
+                    }
+                } else {
+                    for (int i = from; i < to; i++) {
+                        int b = x[i];
+                        bad |= subBad(y, b, y - b);
+                    }
+                }
+                if (bad < 0) {
+                    overflow |= subNA(x, y, res, from, to, reversed);
+                    continue;
+                }
+            }
+            if (!reversed) {
+                for (int i = from; i < to; i++) {
+                    int a = x[i];
+                    int r = a - y;
+                    bad |= subBad(a, y, r);
+                    res[i] = r;
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    int b = x[i];
+                    int r = y - b;
+                    bad |= subBad(y, b, r);
+                    res[i] = r;
+                }
+            }
+            if (bad < 0) {
+                overflow |= subNA(x, y, res, from, to, reversed);
+            }
+        }
+        return overflow;
+    }
+
+    static boolean subNA(int[] x, int y, int[] res, int from, int to, boolean reversed) {
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int a = x[i];
+            if (a == RInt.NA) {
+                res[i] = RInt.NA;
+            } else {
+                int r = reversed ? Arithmetic.Sub.sub(y, a) : Arithmetic.Sub.sub(a, y);
+                overflow |= r == RInt.NA;
+                res[i] = r;
+            }
+        }
+        return overflow;
+    }
+
+    public static boolean mult(int[] x, int[] y, int[] res, int n) {
+        boolean inPlace = res == x || res == y;
+        boolean overflow = false;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            int bad = 0;
+            if (inPlace) {
+                for (int i = from; i < to; i++) {
+                    int a = x[i];
+                    int b = y[i];
+                    bad |= multBad(a, b, (long) a * (long) b);
+                }
+                if (bad < 0) {
+                    overflow |= multNA(x, y, res, from, to);
+                    continue;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int a = x[i];
+                int b = y[i];
+                long l = (long) a * (long) b;
+                bad |= multBad(a, b, l);
+                res[i] = (int) l;
+            }
+            if (bad < 0) {
+                overflow |= multNA(x, y, res, from, to);
+            }
+        }
+        return overflow;
+    }
+
+    static boolean multNA(int[] x, int[] y, int[] res, int from, int to) {
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int a = x[i];
+            int b = y[i];
+            if (a == RInt.NA || b == RInt.NA) {
+                res[i] = RInt.NA;
+            } else {
+                int r = Arithmetic.Mult.mult(a, b);
+                overflow |= r == RInt.NA;
+                res[i] = r;
+            }
+        }
+        return overflow;
+    }
+
+    public static boolean mult(int[] x, int y, int[] res, int n) {
+        if (y == RInt.NA) {
+            fill(res, RInt.NA, n);
+            return false;
+        }
+        boolean inPlace = res == x;
+        boolean overflow = false;
+        for (int from = 0; from < n; from += BLOCK) {
+            int to = Math.min(n, from + BLOCK);
+            int bad = 0;
+            if (inPlace) {
+                for (int i = from; i < to; i++) {
+                    int a = x[i];
+                    bad |= multBad(a, y, (long) a * (long) y);
+                }
+                if (bad < 0) {
+                    overflow |= multNA(x, y, res, from, to);
+                    continue;
+                }
+            }
+            for (int i = from; i < to; i++) {
+                int a = x[i];
+                long l = (long) a * (long) y;
+                bad |= multBad(a, y, l);
+                res[i] = (int) l;
+            }
+            if (bad < 0) {
+                overflow |= multNA(x, y, res, from, to);
+            }
+        }
+        return overflow;
+    }
+
+    static boolean multNA(int[] x, int y, int[] res, int from, int to) {
+        boolean overflow = false;
+        for (int i = from; i < to; i++) {
+            int a = x[i];
+            if (a == RInt.NA) {
+                res[i] = RInt.NA;
+            } else {
+                int r = Arithmetic.Mult.mult(a, y);
+                overflow |= r == RInt.NA;
+                res[i] = r;
+            }
+        }
+        return overflow;
+    }
+
+    // comparisons into logicals, NA when an element is NA (or NaN); the scalar is not NA
+
+    public static void compare(int op, double[] x, double y, int[] res, int n) {
+        switch (op) {
+            case EQ:
+                for (int i = 0; i < n; i++) {
+                    double a = x[i];
+                    res[i] = a == y ? RLogical.TRUE : (a != a ? RLogical.NA : RLogical.FALSE);
+                }
+                break;
+            case NE:
+                for (int i = 0; i < n; i++) {
+                    double a = x[i];
+                    res[i] = a != y ? (a != a ? RLogical.NA : RLogical.TRUE) : RLogical.FALSE;
+                }
+                break;
+            case LT:
+                for (int i = 0; i < n; i++) {
+                    double a = x[i];
+                    res[i] = a < y ? RLogical.TRUE : (a != a ? RLogical.NA : RLogical.FALSE);
+                }
+                break;
+            case LE:
+                for (int i = 0; i < n; i++) {
+                    double a = x[i];
+                    res[i] = a <= y ? RLogical.TRUE : (a != a ? RLogical.NA : RLogical.FALSE);
+                }
+                break;
+            case GT:
+                for (int i = 0; i < n; i++) {
+                    double a = x[i];
+                    res[i] = a > y ? RLogical.TRUE : (a != a ? RLogical.NA : RLogical.FALSE);
+                }
+                break;
+            case GE:
+                for (int i = 0; i < n; i++) {
+                    double a = x[i];
+                    res[i] = a >= y ? RLogical.TRUE : (a != a ? RLogical.NA : RLogical.FALSE);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    public static void compare(int op, int[] x, int y, int[] res, int n) {
+        switch (op) {
+            case EQ:
+                for (int i = 0; i < n; i++) {
+                    int a = x[i];
+                    res[i] = a == RInt.NA ? RLogical.NA : (a == y ? RLogical.TRUE : RLogical.FALSE);
+                }
+                break;
+            case NE:
+                for (int i = 0; i < n; i++) {
+                    int a = x[i];
+                    res[i] = a == RInt.NA ? RLogical.NA : (a != y ? RLogical.TRUE : RLogical.FALSE);
+                }
+                break;
+            case LT:
+                for (int i = 0; i < n; i++) {
+                    int a = x[i];
+                    res[i] = a == RInt.NA ? RLogical.NA : (a < y ? RLogical.TRUE : RLogical.FALSE);
+                }
+                break;
+            case LE:
+                for (int i = 0; i < n; i++) {
+                    int a = x[i];
+                    res[i] = a == RInt.NA ? RLogical.NA : (a <= y ? RLogical.TRUE : RLogical.FALSE);
+                }
+                break;
+            case GT:
+                for (int i = 0; i < n; i++) {
+                    int a = x[i];
+                    res[i] = a == RInt.NA ? RLogical.NA : (a > y ? RLogical.TRUE : RLogical.FALSE);
+                }
+                break;
+            case GE:
+                for (int i = 0; i < n; i++) {
+                    int a = x[i];
+                    res[i] = a == RInt.NA ? RLogical.NA : (a >= y ? RLogical.TRUE : RLogical.FALSE);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+    // comparisons into packed logicals (see PackedLogicalImpl), a word of 64 result bits is collected at a time, the
+    // values of NA elements are cleared at the end of the word
+
+    public static void compare(int op, double[] x, double y, long[] values, long[] nas, int n) {
+        int nwords = values.length;
+        for (int w = 0; w < nwords; w++) {
+            int from = w << 6;
+            int to = Math.min(from + 64, n);
+            long v = 0;
+            long na = 0;
+            switch (op) {
+                case EQ:
+                    for (int i = from; i < to; i++) {
+                        double a = x[i];
+                        v |= (a == y ? 1L : 0L) << i;
+                        na |= (a != a ? 1L : 0L) << i;
+                    }
+                    break;
+                case NE:
+                    for (int i = from; i < to; i++) {
+                        double a = x[i];
+                        v |= (a != y ? 1L : 0L) << i;
+                        na |= (a != a ? 1L : 0L) << i;
+                    }
+                    break;
+                case LT:
+                    for (int i = from; i < to; i++) {
+                        double a = x[i];
+                        v |= (a < y ? 1L : 0L) << i;
+                        na |= (a != a ? 1L : 0L) << i;
+                    }
+                    break;
+                case LE:
+                    for (int i = from; i < to; i++) {
+                        double a = x[i];
+                        v |= (a <= y ? 1L : 0L) << i;
+                        na |= (a != a ? 1L : 0L) << i;
+                    }
+                    break;
+                case GT:
+                    for (int i = from; i < to; i++) {
+                        double a = x[i];
+                        v |= (a > y ? 1L : 0L) << i;
+                        na |= (a != a ? 1L : 0L) << i;
+                    }
+                    break;
+                case GE:
+                    for (int i = from; i < to; i++) {
+                        double a = x[i];
+                        v |= (a >= y ? 1L : 0L) << i;
+                        na |= (a != a ? 1L : 0L) << i;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException();
+            }
+            values[w] = v & ~na;
+            nas[w] = na;
+        }
+    }
+
+    public static void compare(int op, int[] x, int y, long[] values, long[] nas, int n) {
+        int nwords = values.length;
+        for (int w = 0; w < nwords; w++) {
+            int from = w << 6;
+            int to = Math.min(from + 64, n);
+            long v = 0;
+            long na = 0;
+            switch (op) {
+                case EQ:
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        v |= (a == y ? 1L : 0L) << i;
+                        na |= (a == RInt.NA ? 1L : 0L) << i;
+                    }
+                    break;
+                case NE:
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        v |= (a != y ? 1L : 0L) << i;
+                        na |= (a == RInt.NA ? 1L : 0L) << i;
+                    }
+                    break;
+                case LT:
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        v |= (a < y ? 1L : 0L) << i;
+                        na |= (a == RInt.NA ? 1L : 0L) << i;
+                    }
+                    break;
+                case LE:
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        v |= (a <= y ? 1L : 0L) << i;
+                        na |= (a == RInt.NA ? 1L : 0L) << i;
+                    }
+                    break;
+                case GT:
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        v |= (a > y ? 1L : 0L) << i;
+                        na |= (a == RInt.NA ? 1L : 0L) << i;
+                    }
+                    break;
+                case GE:
+                    for (int i = from; i < to; i++) {
+                        int a = x[i];
+                        v |= (a >= y ? 1L : 0L) << i;
+                        na |= (a == RInt.NA ? 1L : 0L) << i;
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException();
+            }
+            values[w] = v & ~na;
+            nas[w] = na;
+        }
+    }
+
+    // math
+
+    // sqrt of x[start..end), NA for NA and NaN, returns true when a NaN is produced (from a negative number); a NaN result
+    // is collected by a sum, which is NaN if any of the results is (also for an infinite one, which is then only redone)
+    public static boolean sqrt(double[] x, double[] res, int start, int end) {
+        boolean inPlace = res == x;
+        boolean nan = false;
+        for (int from = start; from < end; from += BLOCK) {
+            int to = Math.min(end, from + BLOCK);
+            if (inPlace) {
+                double min = Double.POSITIVE_INFINITY;
+                for (int i = from; i < to; i++) {
+                    min = Math.min(min, x[i]); // NaN if any is NaN
+                }
+                if (min >= 0) {
+                    for (int i = from; i < to; i++) {
+                        res[i] = Math.sqrt(x[i]);
+                    }
+                } else {
+                    nan |= sqrtNA(x, res, from, to);
+                }
+            } else {
+                double sum = 0;
+                for (int i = from; i < to; i++) {
+                    double r = Math.sqrt(x[i]);
+                    res[i] = r;
+                    sum += r * 0;
+                }
+                if (sum != sum) {
+                    nan |= sqrtNA(x, res, from, to);
+                }
+            }
+        }
+        return nan;
+    }
+
+    static boolean sqrtNA(double[] x, double[] res, int from, int to) {
+        boolean nan = false;
+        for (int i = from; i < to; i++) {
+            double d = x[i];
+            if (d != d) {
+                res[i] = RDouble.NA;
+            } else {
+                double r = Math.sqrt(d);
+                nan |= r != r;
+                res[i] = r;
+            }
+        }
+        return nan;
+    }
+
+    // NA (the smallest int) stays NA
+    public static void abs(int[] x, int[] res, int n) {
+        for (int i = 0; i < n; i++) {
+            res[i] = Math.abs(x[i]);
+        }
+    }
+
+    static void fill(int[] res, int value, int n) {
+        for (int i = 0; i < n; i++) {
+            res[i] = value;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package r.nodes.exec;
 
 import r.*;
 import r.data.*;
+import r.data.internal.*;
 import r.nodes.ast.*;
 import r.runtime.*;
 
@@ -51,8 +52,19 @@ public abstract class WriteVariable extends BaseR {
                     } else {
                         int slot = frame.findVariable(symbol);
                         if (slot != -1) {
-                            node = getWriteLocal(getAST(), symbol, slot, expr);
-                            reason = "installWriteLocalNode";
+                            // the value decides whether the variable is kept unboxed
+                            RAny val = Utils.cast(expr.execute(frame));
+                            byte kind = observeKind(frame.descriptor(), slot, val);
+                            if (kind == FrameDescriptor.OBJECT) {
+                                node = getWriteLocal(getAST(), symbol, slot, expr);
+                                reason = "installWriteLocalNode";
+                            } else {
+                                node = getWriteLocalUnboxed(getAST(), symbol, slot, expr, kind);
+                                reason = "installWriteLocalUnboxedNode";
+                            }
+                            replace(node, reason);
+                            frame.writeAtCondRef(slot, val);
+                            return val;
                         } else {
                             // this is only reachable with dynamic invocation (e.g. through eval)
                             node = getWriteExtension(getAST(), symbol, expr);
@@ -82,6 +94,106 @@ public abstract class WriteVariable extends BaseR {
         };
     }
 
+    static byte kindOf(RAny val) {
+        if (val instanceof ScalarDoubleImpl) {
+            return FrameDescriptor.DOUBLE;
+        }
+        if (val instanceof ScalarIntImpl) {
+            return FrameDescriptor.INT;
+        }
+        if (val instanceof ScalarLogicalImpl) {
+            return FrameDescriptor.LOGICAL;
+        }
+        return FrameDescriptor.OBJECT;
+    }
+
+    // records the kind of a value written to a local slot, a slot that gets values of different kinds is not kept unboxed
+    static byte observeKind(FrameDescriptor descriptor, int slot, RAny val) {
+        byte kind = kindOf(val);
+        byte oldKind = descriptor.slotKind(slot);
+        if (oldKind != kind) {
+            if (oldKind != FrameDescriptor.EMPTY) {
+                kind = FrameDescriptor.OBJECT;
+            }
+            descriptor.setSlotKind(slot, kind);
+        }
+        return kind;
+    }
+
+    // writes a scalar of the given kind to a local slot, the value is taken from the expression unboxed (so that e.g. scalar
+    // arithmetic does not allocate its result) and stored unboxed in the frame; a value of a different kind turns the slot generic
+    public static WriteVariable getWriteLocalUnboxed(ASTNode orig, RSymbol sym, final int slot, RNode rhs, final byte kind) {
+        return new WriteVariable(orig, sym, rhs) {
+
+            @Override public final Object execute(Frame frame) {
+                try {
+                    switch (kind) {
+                        case FrameDescriptor.INT: {
+                            int value = expr.executeScalarInteger(frame);
+                            frame.writeUnboxedInt(slot, value);
+                            return RInt.RIntFactory.getScalar(value);
+                        }
+                        case FrameDescriptor.DOUBLE: {
+                            double value = expr.executeScalarDouble(frame);
+                            frame.writeUnboxedDouble(slot, value);
+                            return RDouble.RDoubleFactory.getScalar(value);
+                        }
+                        default: {
+                            int value = expr.executeScalarLogical(frame);
+                            frame.writeUnboxedLogical(slot, value);
+                            return RLogical.RLogicalFactory.getScalar(value);
+                        }
+                    }
+                } catch (SpecializationException e) {
+                    return write(frame, (RAny) e.getResult());
+                }
+            }
+
+            // the value is not used, so it is not boxed at all
+            @Override public final Object executeVoid(Frame frame) {
+                try {
+                    switch (kind) {
+                        case FrameDescriptor.INT:
+                            frame.writeUnboxedInt(slot, expr.executeScalarInteger(frame));
+                            break;
+                        case FrameDescriptor.DOUBLE:
+                            frame.writeUnboxedDouble(slot, expr.executeScalarDouble(frame));
+                            break;
+                        default:
+                            frame.writeUnboxedLogical(slot, expr.executeScalarLogical(frame));
+                    }
+                } catch (SpecializationException e) {
+                    write(frame, (RAny) e.getResult());
+                }
+                return RNull.getNull();
+            }
+
+            // a value that did not come unboxed, it is still stored unboxed when it is a scalar of the kind
+            RAny write(Frame frame, RAny val) {
+                if (kindOf(val) != kind) {
+                    frame.descriptor().setSlotKind(slot, FrameDescriptor.OBJECT);
+                    replace(getWriteLocal(ast, symbol, slot, expr), "installWriteLocalNode from WriteLocalUnboxed");
+                    frame.writeAtCondRef(slot, val);
+                    return val;
+                }
+                switch (kind) {
+                    case FrameDescriptor.INT:
+                        frame.writeUnboxedInt(slot, ((ScalarIntImpl) val).getInt());
+                        break;
+                    case FrameDescriptor.DOUBLE:
+                        frame.writeUnboxedDouble(slot, ((ScalarDoubleImpl) val).getDouble());
+                        break;
+                    default:
+                        frame.writeUnboxedLogical(slot, ((ScalarLogicalImpl) val).getLogical());
+                }
+                if (DEBUG_W) {
+                    Utils.debug("write - " + symbol.pretty() + " local-unboxed, wrote " + val + " (" + val.pretty() + ") to slot " + slot);
+                }
+                return val;
+            }
+        };
+    }
+
     public static WriteVariable getWriteTopLevel(ASTNode orig, RSymbol sym, RNode rhs) {
         return new WriteVariable(orig, sym, rhs) {
 
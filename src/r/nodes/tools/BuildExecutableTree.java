@@ -70,7 +70,7 @@ public class BuildExecutableTree implements Visitor {
         }
     }
 
-    @SuppressWarnings("static-method") private RNode createLazyTree(ASTNode ast) {
+    @SuppressWarnings("static-method") RNode createLazyTree(ASTNode ast) {
         return new LazyBuild(ast);
     }
 
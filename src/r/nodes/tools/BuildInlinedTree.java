@@ -0,0 +1,149 @@
+package r.nodes.tools;
+
+import java.util.*;
+
+import r.builtins.*;
+import r.data.*;
+import r.nodes.ast.*;
+import r.nodes.exec.RNode;
+import r.nodes.exec.ReadVariable;
+import r.nodes.exec.FunctionCall.InlinedClosureCall;
+import r.nodes.exec.FunctionCall.InlinedClosureCall.Arguments;
+
+// builds the executable tree of a copy of a small closure's body that is spliced into a call site in the caller
+//   the reads of parameters become reads of the call site's (lazily evaluated) arguments, other variables are read from
+//   top-level, the rest is built as if the body was written in the caller
+public class BuildInlinedTree extends BuildExecutableTree {
+
+    public static final int MAX_INLINED_SIZE = 16; // AST nodes
+
+    // builtins that look at the function (frame) they are called from, also to find a function given by name, or at the
+    // expressions of their arguments
+    private static final Set<String> INTROSPECTIVE_BUILTINS = new HashSet<>(Arrays.asList("missing", "substitute", "quote", "delayedAssign", "eval", "assign",
+                    "get", "exists", "ls", "new.env", "as.environment", "source", "return", "Recall", "sys.function", "sys.call", "parent.frame", "environment",
+                    "on.exit", "nargs", "lapply", "sapply", "mapply", "Map", "Filter", "Reduce", "do.call", "outer"));
+
+    final Arguments args;
+    final RSymbol[] paramNames;
+
+    public BuildInlinedTree(Arguments args, RSymbol[] paramNames) {
+        this.args = args;
+        this.paramNames = paramNames;
+    }
+
+    public RNode createBody(RFunction function, RFunction caller) {
+        ASTNode body = ((Function) function.getSource()).getBody();
+        return createTree(new CopyVisitor().duplicate(body), caller);
+    }
+
+    @Override RNode createLazyTree(ASTNode ast) {
+        return createTree(ast); // the body is small, and LazyBuild would not know about the arguments
+    }
+
+    @Override public void visit(SimpleAccessVariable readVariable) {
+        RSymbol symbol = readVariable.getSymbol();
+        for (int i = 0; i < paramNames.length; i++) {
+            if (paramNames[i] == symbol) {
+                result = new InlinedClosureCall.Argument(readVariable, args, i);
+                return;
+            }
+        }
+        result = ReadVariable.getReadOnlyFromTopLevel(readVariable, symbol);
+    }
+
+    // the builtins called by the body, or null if the function cannot be inlined into the caller (caller is null at top-level)
+    public static RSymbol[] inlinableCalls(RFunction function, RFunction caller) {
+        if (function.dotsIndex() != -1 || function.nlocals() != function.nparams()) {
+            return null;
+        }
+        Checker c = new Checker(function.paramNames(), caller);
+        ((Function) function.getSource()).getBody().accept(c);
+        if (!c.ok || c.size > MAX_INLINED_SIZE) {
+            return null;
+        }
+        return c.builtins.toArray(new RSymbol[c.builtins.size()]);
+    }
+
+    static final class Checker extends BasicVisitor {
+        final RSymbol[] paramNames;
+        final RFunction caller;
+        final ArrayList<RSymbol> builtins = new ArrayList<>();
+        boolean ok = true;
+        int size;
+
+        Checker(RSymbol[] paramNames, RFunction caller) {
+            this.paramNames = paramNames;
+            this.caller = caller;
+        }
+
+        // a free variable would be looked up in the caller rather than at top-level
+        boolean visibleInCaller(RSymbol symbol) {
+            return caller != null && caller.hasLocalOrEnclosingSlot(symbol);
+        }
+
+        @Override public void visit(ASTNode n) {
+            size++;
+            n.visit_all(this);
+        }
+
+        @Override public void visit(SimpleAccessVariable n) {
+            RSymbol symbol = n.getSymbol();
+            if (symbol == RSymbol.THREE_DOTS_SYMBOL || symbol.dotDotValue() != -1) {
+                ok = false;
+            } else if (!Arrays.asList(paramNames).contains(symbol) && visibleInCaller(symbol)) {
+                ok = false;
+            }
+            super.visit(n);
+        }
+
+        @Override public void visit(FunctionCall n) {
+            RSymbol name = n.getName();
+            // only builtins, their arguments are not promises that could outlive the inlined call
+            if (n.isAssignment() || Primitives.getBuiltIn(name, null) == null || name.builtinIsOverridden() || visibleInCaller(name) || INTROSPECTIVE_BUILTINS.contains(name.name())) {
+                ok = false;
+            } else if (!builtins.contains(name)) {
+                builtins.add(name);
+            }
+            super.visit(n);
+        }
+
+        @Override public void visit(Function n) {
+            ok = false;
+        }
+
+        @Override public void visit(Loop n) {
+            ok = false;
+        }
+
+        @Override public void visit(ControlStatement n) {
+            ok = false;
+        }
+
+        @Override public void visit(SimpleAssignVariable n) {
+            ok = false;
+        }
+
+        @Override public void visit(UpdateVector n) {
+            ok = false;
+        }
+
+        @Override public void visit(UpdateField n) {
+            ok = false;
+        }
+
+        @Override public void visit(UpdateExpression n) {
+            ok = false;
+        }
+    }
+
+    // unlike DuplicateVisitor, copies also the leaves, which would otherwise get the copy as their parent
+    static final class CopyVisitor extends DuplicateVisitor {
+        @Override public void visit(SimpleAccessVariable n) {
+            result = new SimpleAccessVariable(n.getSymbol());
+        }
+
+        @Override public void visit(r.nodes.ast.Constant n) {
+            result = new r.nodes.ast.Constant(n.getValue());
+        }
+    }
+}
@@ -4,6 +4,7 @@ import r.*;
 import r.data.*;
 import r.data.RFunction.EnclosingSlot;
 import r.data.internal.*;
+import r.nodes.exec.*;
 
 public abstract class Frame {
 
@@ -11,10 +12,12 @@ public abstract class Frame {
 
     Object returnValue;  // for top-level frames, used to store REnvironment
     boolean isDirty; // FIXME: move down? empty frames can't be dirty
+    boolean escaped; // reachable after the function returns, hence not releasing references (see RefCount)
     final Frame enclosingFrame;
     final RFunction function;
     FrameExtension extension;
     REnvironment environment;
+    RNode[] onExit; // expressions registered by on.exit, evaluated in this frame when the function exits
 
     public Frame(RFunction function, Frame enclosingFrame) {
         this.function = function;
@@ -22,8 +25,91 @@ public abstract class Frame {
     }
 
     public abstract FrameDescriptor descriptor();
-    public abstract Object get(int i);
-    public abstract void set(int i, Object value);
+
+    // the raw content of a slot, which may be one of the Unboxed markers
+    public abstract Object getSlot(int i);
+    public abstract void setSlot(int i, Object value);
+
+    // unboxed scalar values of local variables, a slot with its value here holds the marker of the value's kind
+    //   ints and logicals are stored as they are, doubles as their raw bits
+    long[] unboxed;
+
+    public static final class Unboxed {
+        final byte kind;
+
+        private Unboxed(byte kind) {
+            this.kind = kind;
+        }
+
+        RAny box(long value) {
+            switch (kind) {
+                case FrameDescriptor.INT:
+                    return RInt.RIntFactory.getScalar((int) value);
+                case FrameDescriptor.DOUBLE:
+                    return RDouble.RDoubleFactory.getScalar(Double.longBitsToDouble(value));
+                default:
+                    assert Utils.check(kind == FrameDescriptor.LOGICAL);
+                    return RLogical.RLogicalFactory.getScalar((int) value);
+            }
+        }
+    }
+
+    public static final Unboxed UNBOXED_INT = new Unboxed(FrameDescriptor.INT);
+    public static final Unboxed UNBOXED_DOUBLE = new Unboxed(FrameDescriptor.DOUBLE);
+    public static final Unboxed UNBOXED_LOGICAL = new Unboxed(FrameDescriptor.LOGICAL);
+
+    // the value of a slot, an unboxed value gets boxed (scalars have no reference counts, so the box needs no ref)
+    public final Object get(int i) {
+        Object value = getSlot(i);
+        if (value instanceof Unboxed) {
+            return ((Unboxed) value).box(unboxed[i]);
+        }
+        return value;
+    }
+
+    public final void set(int i, Object value) {
+        setSlot(i, value);
+    }
+
+    public final int getUnboxedInt(int i) {
+        return (int) unboxed[i];
+    }
+
+    public final double getUnboxedDouble(int i) {
+        return Double.longBitsToDouble(unboxed[i]);
+    }
+
+    public final int getUnboxedLogical(int i) {
+        return (int) unboxed[i];
+    }
+
+    public final void writeUnboxedInt(int slot, int value) {
+        writeUnboxed(slot, UNBOXED_INT, value);
+    }
+
+    public final void writeUnboxedDouble(int slot, double value) {
+        writeUnboxed(slot, UNBOXED_DOUBLE, Double.doubleToRawLongBits(value));
+    }
+
+    public final void writeUnboxedLogical(int slot, int value) {
+        writeUnboxed(slot, UNBOXED_LOGICAL, value);
+    }
+
+    private void writeUnboxed(int slot, Unboxed kind, long value) {
+        long[] u = unboxed;
+        if (u == null) {
+            u = new long[descriptor().numberOfSlots()];
+            unboxed = u;
+        }
+        u[slot] = value;
+        Object oldContent = getSlot(slot);
+        if (oldContent != kind) {
+            setSlot(slot, kind);
+            if (!(oldContent instanceof Unboxed)) {
+                RefCount.release(oldContent);
+            }
+        }
+    }
 
 
     public Frame enclosingFrame() {
@@ -57,11 +143,83 @@ public abstract class Frame {
 
     public REnvironment environment() {
         if (environment == null) {
+            markEscaped();
             environment = new EnvironmentImpl(this);
         }
         return environment;
     }
 
+    public boolean isEscaped() {
+        return escaped;
+    }
+
+    // called when the frame becomes reachable via a closure or an environment
+    //   the enclosing frames are reachable as well, and so are the frames of unforced promises held by this frame
+    public void markEscaped() {
+        if (escaped) {
+            return;
+        }
+        escaped = true;
+        if (enclosingFrame != null) {
+            enclosingFrame.markEscaped();
+        }
+        int nslots = descriptor().numberOfSlots();
+        for (int i = 0; i < nslots; i++) {
+            Object value = getSlot(i);
+            if (value instanceof RPromise) {
+                ((RPromise) value).markEscaped();
+            } else if (value instanceof RDots) {
+                for (Object o : ((RDots) value).values()) {
+                    if (o instanceof RPromise) {
+                        ((RPromise) o).markEscaped();
+                    }
+                }
+            }
+        }
+    }
+
+    // called when the function of the frame returns, drops the references held by local variables and argument promises
+    public void release() {
+        if (escaped) {
+            return;
+        }
+        int nslots = descriptor().numberOfSlots();
+        for (int i = 0; i < nslots; i++) {
+            Object value = getSlot(i);
+            if (value instanceof RDots) {
+                for (Object o : ((RDots) value).values()) {
+                    RefCount.release(o);
+                }
+            } else {
+                RefCount.release(value);
+            }
+        }
+    }
+
+    public void onExit(RNode expr, boolean add) {
+        if (expr == null) {
+            onExit = null;
+        } else if (add && onExit != null) {
+            RNode[] newOnExit = new RNode[onExit.length + 1];
+            System.arraycopy(onExit, 0, newOnExit, 0, onExit.length);
+            newOnExit[onExit.length] = expr;
+            onExit = newOnExit;
+        } else {
+            onExit = new RNode[]{expr};
+        }
+    }
+
+    // evaluates (once) the expressions registered by on.exit
+    public void runOnExit() {
+        RNode[] exprs = onExit;
+        if (exprs != null) {
+            onExit = null;
+            for (RNode e : exprs) {
+                e.execute(this);
+            }
+        }
+    }
+
     public void returnValue(RAny value) {
         returnValue = value;
     }
@@ -660,6 +818,7 @@ public abstract class Frame {
                 sym.setValue(value);
                 value.ref();
             }
+            RefCount.release(oldValue);
         }
     }
 
@@ -672,6 +831,7 @@ public abstract class Frame {
     }
 
     public static void writeToTopLevelRef(RSymbol sym, RAny value) {
+        Object oldValue = sym.getValueNoForce();
         if (View.ON_ASSIGNMENT_LISTENERS &&  value instanceof View) {
             ((View) value).onAssignment(sym.getValue());
         }
@@ -681,6 +841,7 @@ public abstract class Frame {
             sym.setValue(value);
             value.ref();
         }
+        RefCount.release(oldValue);
     }
 
     public void writeToExtension(RSymbol sym, RAny value) {
@@ -728,6 +889,7 @@ public abstract class Frame {
                 set(slot, value);
                 value.ref();
             }
+            RefCount.release(oldContent);
         }
     }
 
@@ -740,27 +902,31 @@ public abstract class Frame {
     }
 
     public void writeAtRef(int slot, Object value) {
+        Object oldContent = get(slot);
         if (View.ON_ASSIGNMENT_LISTENERS &&  value instanceof View) {
-            ((View) value).onAssignment(get(slot));
+            ((View) value).onAssignment(oldContent);
         }
         if (MATERIALIZE_ON_ASSIGNMENT && value instanceof View.ParametricView) {
-            writeView(slot, (View) value, get(slot));
+            writeView(slot, (View) value, oldContent);
         } else {
             set(slot, value);
             ((RAny) value).ref();
         }
+        RefCount.release(oldContent);
     }
 
     public void writeAtRef(int slot, RAny value) {
+        Object oldContent = get(slot);
         if (View.ON_ASSIGNMENT_LISTENERS &&  value instanceof View) {
-            ((View) value).onAssignment(get(slot));
+            ((View) value).onAssignment(oldContent);
         }
         if (MATERIALIZE_ON_ASSIGNMENT && value instanceof View.ParametricView) {
-            writeView(slot, (View) value, get(slot));
+            writeView(slot, (View) value, oldContent);
         } else {
             set(slot, value);
             value.ref();
         }
+        RefCount.release(oldContent);
     }
 
     // starts from enclosing
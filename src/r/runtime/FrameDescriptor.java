@@ -6,8 +6,19 @@ public class FrameDescriptor {
 
     RSymbol[] names;
 
+    // the kinds of values written to the slots, shared by all frames of the function: a slot becomes one of the unboxed
+    // kinds when the first value written to it is a scalar int, double or logical, and OBJECT once another value is written
+    byte[] kinds;
+
+    public static final byte EMPTY = 0;
+    public static final byte INT = 1;
+    public static final byte DOUBLE = 2;
+    public static final byte LOGICAL = 3;
+    public static final byte OBJECT = 4;
+
     public FrameDescriptor(RSymbol[] names) {
         this.names = names;
+        this.kinds = new byte[names.length];
     }
 
     public int findFrameSlot(RSymbol name) {
@@ -26,4 +37,12 @@ public class FrameDescriptor {
     public RSymbol[] names() {
         return names;
     }
+
+    public byte slotKind(int slot) {
+        return kinds[slot];
+    }
+
+    public void setSlotKind(int slot, byte kind) {
+        kinds[slot] = kind;
+    }
 }
@@ -20,12 +20,12 @@ public class GenericFrame extends Frame {
     }
 
     @Override
-    public Object get(int i) {
+    public Object getSlot(int i) {
         return variables[i];
     }
 
     @Override
-    public void set(int i, Object value) {
+    public void setSlot(int i, Object value) {
         variables[i] = value;
     }
 
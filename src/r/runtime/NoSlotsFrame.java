@@ -17,13 +17,13 @@ public class NoSlotsFrame extends Frame {
     }
 
     @Override
-    public Object get(int i) {
+    public Object getSlot(int i) {
         assert Utils.check(false, "frame has no slots");
         return null;
     }
 
     @Override
-    public void set(int i, Object value) {
+    public void setSlot(int i, Object value) {
         assert Utils.check(false, "frame has no slots");
     }
 
@@ -0,0 +1,65 @@
+package r.ifc;
+
+import javax.script.*;
+
+import org.junit.*;
+
+public class TestScriptEngine {
+
+    @Test public void testLookup() {
+        ScriptEngine engine = new ScriptEngineManager().getEngineByName("R");
+        Assert.assertNotNull(engine);
+        Assert.assertTrue(engine instanceof Compilable);
+    }
+
+    @Test public void testEval() throws ScriptException {
+        ScriptEngine engine = new RScriptEngine();
+        Assert.assertArrayEquals(new double[]{3}, (double[]) engine.eval("1 + 2"), 0);
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, (int[]) engine.eval("1:3"));
+        Assert.assertArrayEquals(new String[]{"a", null}, (String[]) engine.eval("c(\"a\", NA)"));
+        Assert.assertNull(engine.eval("NULL"));
+    }
+
+    @Test public void testBindings() throws ScriptException {
+        ScriptEngine engine = new RScriptEngine();
+        double[] x = {1, 2, 3};
+        engine.put("x", x);
+        engine.put("k", 2);
+        engine.put("s", new String[]{"u", "v"});
+        Assert.assertArrayEquals(new double[]{2, 4, 6}, (double[]) engine.eval("x * k"), 0);
+        Assert.assertArrayEquals(new String[]{"u!", "v!"}, (String[]) engine.eval("paste(s, \"!\", sep=\"\")"));
+        engine.eval("x[1] <- 10 ; y <- x");
+        Assert.assertArrayEquals(new double[]{1, 2, 3}, x, 0); // the bound array is never written to
+    }
+
+    @Test public void testNoSharing() throws ScriptException {
+        ScriptEngine engine = new RScriptEngine();
+        engine.eval("y <- c(1, 2, 3) ; n <- 1:3");
+        double[] y = (double[]) engine.eval("y");
+        y[0] = 10;
+        int[] n = (int[]) engine.eval("n");
+        n[0] = 10;
+        Assert.assertArrayEquals(new double[]{1, 2, 3}, (double[]) engine.eval("y"), 0); // R values are not written to
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, (int[]) engine.eval("n"));
+        double[] x = {1, 2, 3};
+        engine.put("x", x);
+        engine.eval("z <- x");
+        x[0] = 10;
+        Assert.assertArrayEquals(new double[]{1, 2, 3}, (double[]) engine.eval("z"), 0); // nor does R see later writes
+    }
+
+    @Test public void testCompiled() throws ScriptException {
+        RScriptEngine engine = new RScriptEngine();
+        CompiledScript script = engine.compile("f <- function(v) { s <- 0 ; for (e in v) s <- s + e ; s } ; f(x)");
+        for (int i = 1; i <= 10; i++) {
+            double[] x = new double[i];
+            java.util.Arrays.fill(x, 1.5);
+            engine.put("x", x);
+            Assert.assertArrayEquals(new double[]{1.5 * i}, (double[]) script.eval(), 0);
+        }
+    }
+
+    @Test(expected = ScriptException.class) public void testError() throws ScriptException {
+        new RScriptEngine().eval("stop(\"boom\")");
+    }
+}
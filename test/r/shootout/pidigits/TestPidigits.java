@@ -10,4 +10,10 @@ public class TestPidigits extends ShootoutTestBase {
         assertShootout("pidigits", "pidigits", 10, "3141592653\t:10\n", null, "NULL");
         assertShootout("pidigits", "pidigits", 20, "3141592653\t:10\n5897932384\t:20\n", null, "NULL");
     }
+
+    @Test
+    public void testPidigits2() {
+        assertShootout("pidigits", "pidigits-2", 10, "3141592653\t:10\n", null, "NULL");
+        assertShootout("pidigits", "pidigits-2", 20, "3141592653\t:10\n5897932384\t:20\n", null, "NULL");
+    }
 }
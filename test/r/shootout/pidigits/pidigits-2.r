@@ -0,0 +1,50 @@
+# ------------------------------------------------------------------
+# The Computer Language Shootout
+# http://shootout.alioth.debian.org/
+#
+# the pidigits program on native big integers (as.bigz) instead of
+# emulating them by vectors of base-10000 digits
+# ------------------------------------------------------------------
+
+zeropad <- function(s, n)
+    paste(sep="", paste(collapse="", rep('0', max(0L, n - nchar(s)))), s)
+
+pidigits <- function(args) {
+    N = if (length(args)) as.integer(args[[1]]) else 100L
+    i <- k <- ns <- 0L
+    k1 <- 1L
+    a <- t <- u <- as.bigz(0)
+    n <- d <- as.bigz(1)
+    while (TRUE) {
+        k <- k + 1L
+        t <- n * 2L
+        n <- n * k
+        a <- a + t
+        k1 <- k1 + 2L
+        a <- a * k1
+        d <- d * k1
+        if (a >= n) {
+            n3a <- n * 3L + a
+            t <- n3a %/% d
+            td <- t * d
+            u <- n3a - td + n
+            if (d > u) {
+                ns <- ns * 10L + as.integer(t)
+                i <- i + 1L
+                if (i %% 5L == 0L) {
+                    cat(zeropad(as.character(ns), 5))
+                    if (i %% 2L == 0L)
+                        cat(sep="", "\t:", i, "\n")
+                    ns = 0L
+                }
+                if (i >= N)
+                    break
+                a <- (a - td) * 10L
+                n <- n * 10L
+            }
+        }
+    }
+}
+
+if (!exists("i_am_wrapper"))
+    pidigits(commandArgs(trailingOnly=TRUE))
@@ -104,6 +104,9 @@ public class TestSimpleArithmetic extends SimpleTestBase {
         assertEval("{ f <- function(a, b) { a + b } ; f(1+2i, 3) ; f(1, 2) }", "3.0");
         assertEval("{ 1L / 2L }", "0.5");
         assertEval("{ f <- function(a, b) { a / b } ; f(1L, 2L) ; f(1, 2) }", "0.5");
+        assertEval("{ f <- function(a, b, c) { x <- a * b + -c / 2 ; sqrt(x) } ; f(2, 3, 4) ; f(2L, 3, 4) ; f(1, 2, c(4,2)) }", "0.0, 1.0");
+        assertEval("{ f <- function(a, b, c) { x <- a * b + -c / 2 ; sqrt(x) } ; f(2, 3, 4) ; f(NA, 3, 4) }", "NA");
+        assertEval("{ f <- function(x) if (x < 0.5) x else f(x - 1) + f(x / 2) ; f(5.5) ; f(5L) }", "-1.0625");
         assertEval("{ (1:2)[3] / 2L }", "NA");
         assertEval("{ 2L / (1:2)[3] }", "NA");
         assertEval("{ a <- (1:2)[3] ; b <- 2L ; a / b }", "NA");
@@ -333,6 +336,8 @@ public class TestSimpleArithmetic extends SimpleTestBase {
         assertEval("{ m <- matrix(c(NA,1,0/0,2), nrow=2) ; 1:2 %*% m }", "     [,1] [,2]\n[1,]   NA  NaN");
         assertEval("{ m <- double() ; dim(m) <- c(0,0) ; m %*% m }", "<0 x 0 matrix>");
         assertEval("{ m <- matrix(c(NA,1,4,2), nrow=2) ; t(m) %*% m }", "     [,1] [,2]\n[1,]   NA   NA\n[2,]   NA 20.0");
+        assertEval("{ a <- matrix(c(1,2,3,4,5,6), nrow=2) ; b <- matrix(c(1,2,3,4,5,6,7,8,9,10,11,12), nrow=3) ; t(b) %*% t(a) }", "      [,1]  [,2]\n[1,]  22.0  28.0\n[2,]  49.0  64.0\n[3,]  76.0 100.0\n[4,] 103.0 136.0");
+        assertEval("{ a <- matrix(c(1,2,3,4,5,6), nrow=2) ; x <- t(a) ; x[1,2] <- 10 ; list(x %*% a, a) }", "[[1]]\n     [,1] [,2] [,3]\n[1,] 21.0 43.0 65.0\n[2,] 11.0 25.0 39.0\n[3,] 17.0 39.0 61.0\n\n[[2]]\n     [,1] [,2] [,3]\n[1,]  1.0  3.0  5.0\n[2,]  2.0  4.0  6.0");
         assertEval("{ matrix(c(3,1,0/0,2), nrow=2) %*% matrix(1:6,nrow=2) }", "     [,1] [,2] [,3]\n[1,]  NaN  NaN  NaN\n[2,]  5.0 11.0 17.0");
         assertEvalError("{ as.raw(1:3) %*% 1:3 }", "requires numeric/complex matrix/vector arguments");
 
@@ -474,12 +479,27 @@ public class TestSimpleArithmetic extends SimpleTestBase {
         assertEvalWarning("{ c(2147483647L,2147483647L) + 1:4 }", "NA, NA, NA, NA", "NAs produced by integer overflow");
         assertEvalWarning("{ c(1L,2L,3L,4L) + c(2147483647L,2147483647L) }", "NA, NA, NA, NA", "NAs produced by integer overflow");
         assertEvalWarning("{ c(2147483647L,2147483647L) + c(1L,2L,3L,4L) }", "NA, NA, NA, NA", "NAs produced by integer overflow");
+        assertEvalWarning("{ x <- c(5L,2147483647L,NA,-2L) ; y <- x * c(2L,2L,3L,-1073741824L) ; y[1] <- y[1] ; y }", "10L, NA, NA, NA", "NAs produced by integer overflow");
+        assertEvalWarning("{ x <- c(-2147483647L,1L,NA) ; y <- x - 1L ; y[2] <- y[2] ; c(y, 1L - x) }", "NA, 0L, NA, NA, 0L, NA", "NAs produced by integer overflow");
 
         assertEval("{ 0 %*% NA }", "     [,1]\n[1,]   NA");
         assertEval("{ NA %*% 0 }", "     [,1]\n[1,]   NA");
 
     }
 
+    @Test
+    public void testBigIntegers() throws RecognitionException {
+        assertEval("{ x <- as.bigz(\"123456789012345678901234567890\") ; x * x }", "15241578753238836750495351562536198787501905199875019052100");
+        assertEval("{ f <- function(n) { r <- as.bigz(1) ; for (i in 1:n) r <- r * i ; r } ; f(25) }", "15511210043330985984000000");
+        assertEval("{ x <- as.bigz(10) ; c(as.character(x %/% -3), as.character(x %% -3), as.character(-x %/% 3), as.character(-x %% 3)) }", "\"-4\", \"-2\", \"-4\", \"2\"");
+        assertEval("{ as.bigz(2)^100 - 1L }", "1267650600228229401496703205375");
+        assertEval("{ as.bigz(3) / 2L }", "1.5");
+        assertEval("{ x <- as.bigz(\"99999999999999999999\") ; c(x > 1e3, x == x + 0L, 3L < -x, is.bigz(x), is.bigz(1)) }", "TRUE, TRUE, FALSE, TRUE, FALSE");
+        assertEval("{ as.bigz(5) + NA }", "NA");
+        assertEvalError("{ as.bigz(c(1,2)) }", "big integer operations need operands of length one");
+        assertEvalError("{ as.bigz(\"1x\") }", "cannot convert to a big integer");
+    }
+
     @Test
     public void testArithmeticUpdate() throws RecognitionException {
         assertEval("{ x <- 3 ; f <- function(z) { if (z) { x <- 1 } ; x <- x + 1L ; x } ; f(FALSE) }", "4.0");
@@ -322,6 +322,64 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ n <- 1 ; cnt <- function() { n <<- n + 1 ; n } ; lapply(1:3, function(x,y,z) { x*y + z*100 }, cnt(), cnt()) }", "[[1]]\n302.0\n\n[[2]]\n304.0\n\n[[3]]\n306.0");
     }
 
+    @Test
+    public void testFunctional() throws RecognitionException {
+        assertEval("{ Reduce(function(a,b) a+b, 1:5) }", "15L");
+        assertEval("{ Reduce(`+`, 1:4, accumulate=TRUE) }", "1L, 3L, 6L, 10L");
+        assertEval("{ Reduce(function(a,b) paste(a,b), c(\"a\",\"b\",\"c\"), right=TRUE, accumulate=TRUE) }", "\"a b c\", \"b c\", \"c\"");
+        assertEval("{ Reduce(\"+\", list(1,2,3), 100) }", "106.0");
+        assertEval("{ Reduce(function(a,b) a*b, list(), 7) }", "7.0");
+        assertEval("{ Reduce(function(a,b) { a[1] <- a[1] + b ; a }, list(1,2,3), c(0,0), accumulate=TRUE) }", "[[1]]\n0.0, 0.0\n\n[[2]]\n1.0, 0.0\n\n[[3]]\n3.0, 0.0\n\n[[4]]\n6.0, 0.0");
+        assertEval("{ Filter(function(x) x > 2, c(a=1,b=3,c=5)) }", "  b   c\n3.0 5.0");
+        assertEval("{ Filter(function(x) x %% 2 == 0, 1:10) }", "2L, 4L, 6L, 8L, 10L");
+        assertEval("{ mapply(function(x,y) x+y, 1:3, 4:6) }", "5L, 7L, 9L");
+        assertEval("{ mapply(function(x,y) x+y, c(a=1,b=2), 10) }", "   a    b\n11.0 12.0");
+        assertEval("{ mapply(function(x,y,z) x+y+z, 1:3, 4:6, MoreArgs=list(z=100)) }", "105.0, 107.0, 109.0");
+        assertEval("{ mapply(rep, 1:2, 2:1) }", "[[1]]\n1L, 1L\n\n[[2]]\n2L");
+        assertEval("{ Map(function(x,y) x*y, 1:2, 3:4) }", "[[1]]\n3L\n\n[[2]]\n8L");
+        assertEval("{ do.call(\"sum\", list(1,2,3)) }", "6.0");
+        assertEval("{ do.call(paste, list(\"a\", \"b\", sep=\"-\")) }", "\"a-b\"");
+        assertEval("{ f <- function(x,y) x-y ; g <- function(l) do.call(f, l) ; g(list(1,2)) ; g(list(y=1,x=10)) }", "9.0");
+        assertEval("{ f <- function(x,y) x-y ; s <- 0 ; for (i in 1:3) s <- s + do.call(f, list(i, 1)) ; s }", "3.0");
+        assertEval("{ lz <- function(x, y) { r <- if (x > 0) do.call(lz, list(x - 1, x)) else 0 ; r + y } ; lz(3, 100) }", "106.0");
+        assertEval("{ f <- function(n) if (n == 0) 0 else Reduce(function(a, b) a + b + f(n - 1), 1:3) ; f(2) }", "18.0");
+        assertEval("{ f <- function(v) if (length(v) == 0) 0 else sum(unlist(Map(function(x, r) x + f(r), v[1], list(v[-1])))) ; f(1:4) }", "10.0");
+        assertEvalError("{ mapply(function(x,y) x, 1:2, integer()) }", "zero-length inputs cannot be mixed with those of non-zero length");
+    }
+
+    @Test
+    public void testFactor() throws RecognitionException {
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\",NA)) ; f }", "b, a, b, <NA>\nLevels: a b");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\")) ; levels(f) }", "\"a\", \"b\"");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\")) ; nlevels(f) }", "2L");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\")) ; as.integer(f) ; as.integer(f) }", "2L, 1L, 2L");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\")) ; as.character(f) }", "\"b\", \"a\", \"b\"");
+        assertEval("{ factor(c(10L,2L,10L)) }", "10L, 2L, 10L\nLevels: 2L 10L");
+        assertEval("{ factor(c(\"x\",\"w\"), levels=c(\"y\",\"x\")) }", "x, <NA>\nLevels: y x");
+        assertEval("{ factor(c(\"x\",\"y\"), labels=\"L\") }", "L1, L2\nLevels: L1 L2");
+        assertEval("{ levels(1:3) }", "NULL");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\",NA)) ; f == \"b\" }", "TRUE, FALSE, TRUE, NA");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\")) ; f != \"c\" }", "TRUE, TRUE, TRUE");
+        assertEval("{ f <- factor(c(\"b\",\"a\")) ; g <- factor(c(\"a\",\"a\")) ; f == g }", "FALSE, TRUE");
+        assertEval("{ f <- factor(c(\"b\",\"a\")) ; f == factor(c(\"b\",\"c\")) }", "TRUE, FALSE");
+        assertEval("{ factor(c(1,2,1)) == 1 }", "TRUE, FALSE, TRUE");
+        assertEval("{ order(factor(c(\"b\",\"c\",\"a\"), levels=c(\"c\",\"b\",\"a\"))) }", "2L, 1L, 3L");
+        assertEval("{ x <- rep(c(\"q\",\"b\",NA,\"a\"), 20) ; o <- order(x) ; o[c(1,21,41,61)] }", "4L, 2L, 1L, 3L");
+        assertEval("{ tabulate(factor(c(\"b\",\"a\",\"b\",NA), levels=c(\"a\",\"b\",\"c\"))) }", "1L, 2L, 0L");
+        assertEval("{ tabulate(c(2,3,3,5), nbins=3) }", "0L, 1L, 2L");
+        assertEvalError("{ factor(1:3, labels=c(\"a\",\"b\")) }", "invalid 'labels'; length 2 should be 1 or 3");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"b\")) ; f[3] <- \"a\" ; f }", "b, a, a\nLevels: a b");
+        assertEvalWarning("{ f <- factor(c(\"b\",\"a\",\"b\")) ; f[2] <- \"c\" ; f }", "b, <NA>, b\nLevels: a b", "invalid factor level, NA generated");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"c\")) ; rev(f) }", "c, a, b\nLevels: a b c");
+        assertEval("{ f <- factor(c(\"b\",\"a\",\"c\")) ; f[c(3,1)] }", "c, b\nLevels: a b c");
+        assertEval("{ f <- factor(c(\"a\",\"b\",\"a\")) ; i <- as.integer(f) ; f[1] <- \"b\" ; i }", "1L, 2L, 1L");
+        assertEval("{ f <- factor(c(\"a\",\"b\",\"a\")) ; i <- as.integer(f) ; i[1] <- 2L ; f }", "a, b, a\nLevels: a b");
+        assertEvalError("{ f <- factor(c(\"b\",\"a\")) ; f < \"b\" }", "'<' not meaningful for factors");
+        assertEval("{ o <- factor(c(\"lo\",\"hi\",\"mid\"), levels=c(\"lo\",\"mid\",\"hi\"), ordered=TRUE) ; o < \"mid\" }", "TRUE, FALSE, FALSE");
+        assertEval("{ o <- factor(c(\"lo\",\"hi\",\"mid\"), levels=c(\"lo\",\"mid\",\"hi\"), ordered=TRUE) ; o >= o[3] }", "FALSE, TRUE, TRUE");
+        assertEval("{ factor(c(\"b\",\"a\"), ordered=TRUE) }", "b, a\nLevels: a < b");
+    }
+
     @Test
     public void testCat() throws RecognitionException {
         assertEval("{ cat(\"hi\",1:3,\"hello\") }", "hi 1L 2L 3L hello", "NULL");
@@ -430,6 +488,20 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ cumsum(c(1,0/0,5+1i)) }", "1.0+0.0i, NaN+0.0i, NaN+1.0i");
     }
 
+    @Test
+    public void testCumulativeOperations() throws RecognitionException {
+        assertEval("{ cumprod(1:5) }", "1.0, 2.0, 6.0, 24.0, 120.0");
+        assertEval("{ cumprod(c(2,0/0,3)) }", "2.0, NA, NA");
+        assertEval("{ cumprod(c(1+1i, 2+0i)) }", "1.0+1.0i, 2.0+2.0i");
+        assertEval("{ cummax(c(1L,3L,2L,5L)) }", "1L, 3L, 3L, 5L");
+        assertEval("{ cummax(c(1L,NA,2L)) }", "1L, NA, NA");
+        assertEval("{ cummin(c(5,3,4,1)) }", "5.0, 3.0, 3.0, 1.0");
+        assertEval("{ cummin(c(a=TRUE,b=FALSE,c=TRUE)) }", " a  b  c\n1L 0L 0L");
+        assertEval("{ x <- (1:300000 %% 1000L) - 400L ; c(cumsum(x)[300000], cummax(x)[300000], cummin(x)[300000]) }", "29850000L, 599L, -400L");
+        assertEval("{ x <- rep(1000L, 300000) ; x[200000] <- NA ; y <- cumsum(x) ; c(y[199999], sum(is.na(y))) }", "199999000L, 100001L");
+        assertEvalError("{ cummax(1+1i) }", "'cummax' not defined for complex numbers");
+    }
+
     @Test
     public void testWhich() throws RecognitionException {
         assertEval("{ which(c(TRUE, FALSE, NA, TRUE)) }", "1L, 4L");
@@ -475,6 +547,7 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ nchar(c(\"hello\", \"hi\")) }", "5L, 2L");
         assertEval("{ nchar(c(\"hello\", \"hi\", 10, 130)) }", "5L, 2L, 4L, 5L"); // incompatible with R because of different number printing
         assertEval("{ nchar(c(10,130)) }", "4L, 5L"); // incompatible with R because of different number printing
+        assertEval("{ nchar(readLines(\"test/r/simple/data/text/lines.txt\", n=1)) }", "5L");
     }
 
     @Test
@@ -494,6 +567,7 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ paste() }", "character(0)");
         assertEval("{ paste(sep=\"\") }", "character(0)");
         assertEval("{ a <- as.raw(200) ; b <- as.raw(255) ; paste(a, b) }", "\"c8 ff\"");
+        assertEval("{ paste(NA, c(\"a\",\"b\")) }", "\"NA a\", \"NA b\"");
 
         assertEval("{ file.path(\"a\", \"b\", c(\"d\",\"e\",\"f\")) }", "\"a/b/d\", \"a/b/e\", \"a/b/f\"");
         assertEval("{ file.path() }", "character(0)");
@@ -506,6 +580,7 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ substr(\"123456\", start=2.8, stop=4) }", "\"234\"");
         assertEval("{ substr(c(\"hello\", \"bye\"), start=c(1,2,3), stop=4) }", "\"hell\", \"ye\"");
         assertEval("{ substr(\"fastr\", start=NA, stop=2) }", "NA");
+        assertEval("{ substr(c(\"hello\", \"bye\"), start=c(0,3), stop=2) }", "\"he\", \"\"");
 
         assertEval("{ substring(\"123456\", first=2, last=4) }", "\"234\"");
         assertEval("{ substring(\"123456\", first=2.8, last=4) }", "\"234\"");
@@ -513,6 +588,62 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ substring(\"fastr\", first=NA, last=2) }", "NA");
     }
 
+    @Test
+    public void testReadLines() throws RecognitionException {
+        assertEval("{ readLines(\"test/r/simple/data/text/lines.txt\") }", "\"hello\", \"world\", \"hello\", \"FastR is fast\", \"\", \"bye\"");
+        assertEval("{ readLines(\"test/r/simple/data/text/lines.txt\", n=2) }", "\"hello\", \"world\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; nchar(x) }", "5L, 5L, 5L, 13L, 0L, 3L");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; substr(x, 2, 4) }", "\"ell\", \"orl\", \"ell\", \"ast\", \"\", \"ye\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; substr(x, 0, 1) }", "\"h\", \"w\", \"h\", \"F\", \"\", \"b\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; paste(x, collapse=\"|\") }", "\"hello|world|hello|FastR is fast||bye\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; paste(\"<\", x, \">\", sep=\"\") }", "\"<hello>\", \"<world>\", \"<hello>\", \"<FastR is fast>\", \"<>\", \"<bye>\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; toupper(x) }", "\"HELLO\", \"WORLD\", \"HELLO\", \"FASTR IS FAST\", \"\", \"BYE\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; x == \"hello\" }", "TRUE, FALSE, TRUE, FALSE, FALSE, FALSE");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; \"g\" < x }", "TRUE, TRUE, TRUE, FALSE, FALSE, FALSE");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; x == rev(x) }", "FALSE, FALSE, FALSE, FALSE, FALSE, FALSE");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; x[2] <- \"there\" ; x[1:3] }", "\"hello\", \"there\", \"hello\"");
+        assertEval("{ x <- readLines(\"test/r/simple/data/text/lines.txt\") ; names(x) <- c(\"a\",\"b\",\"c\",\"d\",\"e\",\"f\") ; x[\"d\"] }", "              d\n\"FastR is fast\"");
+    }
+
+    @Test
+    public void testReadTable() throws RecognitionException {
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\") ; names(d) }", "\"id\", \"value\", \"ok\", \"name\"");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\") ; d$id }", "1L, 2L, 3L");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\") ; d$value }", "2.5, NA, 1000.0");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\") ; d$ok }", "TRUE, FALSE, NA");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\") ; d$name }", "\"a, b\", \"c\", \"say \"hi\"\"");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\", colClasses=c(\"character\", \"numeric\", NA, NA), nrows=2) ; c(d$id, d$value) }", "\"1\", \"2\", \"2.5\", NA");
+        assertEval("{ d <- read.table(\"test/r/simple/data/text/table.txt\", header=TRUE) ; d$y }", "\"a\", \"b c\", \"d\"");
+        assertEval("{ d <- read.table(\"test/r/simple/data/text/table.txt\", skip=2) ; d$V1 }", "1L, 2L, 3L");
+        assertEval("{ con <- file(\"test/r/simple/data/text/table.csv\", \"r\") ; h <- readLines(con, n=1) ; d <- read.csv(con, header=FALSE) ; close(con) ; d$V1 }", "1L, 2L, 3L");
+        assertEval("{ con <- file(\"test/r/simple/data/text/table.csv\", \"r\") ; d <- read.csv(con) ; x <- readLines(con) ; close(con) ; c(length(x), d$id) }", "0L, 1L, 2L, 3L");
+        assertEval("{ d <- read.table(\"test/r/simple/data/text/table.txt\", header=TRUE, stringsAsFactors=TRUE) ; d$y }", "a, b c, d\nLevels: a b c d");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\", stringsAsFactors=TRUE) ; levels(d$name) }", "\"a, b\", \"c\", \"say \"hi\"\"");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\", colClasses=c(\"character\", NA, NA, NA), stringsAsFactors=TRUE) ; c(is.null(levels(d$id)), is.null(levels(d$name))) }", "TRUE, FALSE");
+    }
+
+    @Test
+    public void testGzfile() throws RecognitionException {
+        assertEval("{ readLines(gzfile(\"test/r/simple/data/text/lines.txt.gz\")) }", "\"hello\", \"world\", \"hello\", \"FastR is fast\", \"\", \"bye\"");
+        assertEval("{ readLines(gzfile(\"test/r/simple/data/text/lines.txt.gz\"), n=2) }", "\"hello\", \"world\"");
+        assertEval("{ x <- readLines(gzfile(\"test/r/simple/data/text/lines.txt\")) ; length(x) }", "6L");
+        assertEval("{ con <- gzfile(\"test/r/simple/data/text/lines.txt.gz\", \"r\") ; x <- readLines(con, n=1) ; y <- readLines(con) ; close(con) ; c(x, y[3]) }", "\"hello\", \"FastR is fast\"");
+        assertEval("{ con <- gzcon(file(\"test/r/simple/data/text/lines.txt.gz\", \"rb\")) ; x <- readLines(con) ; close(con) ; x[4] }", "\"FastR is fast\"");
+        assertEval("{ scan(gzfile(\"test/r/simple/data/text/lines.txt.gz\"), what=\"\", quiet=TRUE) }", "\"hello\", \"world\", \"hello\", \"FastR\", \"is\", \"fast\", \"bye\"");
+    }
+
+    @Test
+    public void testWriteTable() throws RecognitionException {
+        assertEval("{ writeLines(c(\"a\", NA, \"b\")) }", "a\nNA\nb\n", "NULL");
+        assertEval("{ writeLines(c(\"a\", \"b\"), sep=\" \") }", "a b ", "NULL");
+        assertEval("{ write.csv(list(x=c(1.5, NA, 3), y=c(\"a\", \"say \\\"hi\\\"\", NA))) }", "\"\",\"x\",\"y\"\n\"1\",1.5,\"a\"\n\"2\",NA,\"say \"\"hi\"\"\"\n\"3\",3,NA\n", "NULL");
+        assertEval("{ write.table(matrix(1:4, nrow=2), row.names=FALSE, col.names=FALSE) }", "1 3\n2 4\n", "NULL");
+        assertEval("{ write.table(list(a=c(TRUE, FALSE), b=c(0.25, -1e10)), quote=FALSE, sep=\"\\t\") }", "a\tb\n1\tTRUE\t0.25\n2\tFALSE\t-1.0E10\n", "NULL");
+        assertEval("{ d <- read.csv(\"test/r/simple/data/text/table.csv\", stringsAsFactors=TRUE) ; write.csv(d[c(\"id\", \"name\")], row.names=FALSE) }", "\"id\",\"name\"\n1,\"a, b\"\n2,\"c\"\n3,\"say \"\"hi\"\"\"\n", "NULL");
+        assertEval("{ write.table(factor(c(\"b\", NA, \"a\")), col.names=FALSE) }", "\"1\" \"b\"\n\"2\" NA\n\"3\" \"a\"\n", "NULL");
+        assertEvalError("{ write.csv(list(x=1:2, y=1:3)) }", "arguments imply differing number of rows: 2, 3");
+    }
+
     @Test
     public void testOrder() throws RecognitionException {
         assertEval("{ order(1:3) }", "1L, 2L, 3L");
@@ -561,6 +692,13 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ exp(-abs((0+1i)/(0+0i))) }", "0.0");
         assertEval("{ floor(c(0.2,-3.4)) }", "0.0, -4.0");
         assertEval("{ ceiling(c(0.2,-3.4,NA,0/0,1/0)) }", "1.0, -3.0, NA, NaN, Infinity");
+
+        // chains of element-wise operations in a loop, fused once they are lazy
+        assertEval("{ f <- function(x) { r <- NULL ; for (i in 1:3) { r <- sqrt(abs(-x) * 4) + 1 ; r[2] <- r[2] } ; r } ; f(c(1,4,0/0,NA,(3:20)^2)) }",
+                        "3.0, 5.0, NA, NA, 7.0, 9.0, 11.0, 13.0, 15.0, 17.0, 19.0, 21.0, 23.0, 25.0, 27.0, 29.0, 31.0, 33.0, 35.0, 37.0, 39.0, 41.0");
+        assertEval("{ f <- function(x) { s <- 0 ; for (i in 1:3) { s <- s + sum(floor(2 - exp(log(x)) / 2)) } ; s } ; f(1:25 + 0.5) }", "-393.0");
+        assertEvalWarning("{ f <- function(x) { for (i in 1:3) { r <- sqrt(abs(x) - 4) ; r[1] <- 0 } ; r } ; f(c(1, 2, (0:20)^2 + 4, -1)) }",
+                        "0.0, NaN, 0.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0, 11.0, 12.0, 13.0, 14.0, 15.0, 16.0, 17.0, 18.0, 19.0, 20.0, NaN", "NaNs produced");
     }
 
     @Test
@@ -600,12 +738,37 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ gsub(\"h\",\"\", c(\"hello\", \"hi\", \"bye\") }", "\"ello\", \"i\", \"bye\"");
 
         assertEval("{ gsub(\"([a-e])\",\"\\\\1\\\\1\", \"prague alley\") }", "\"praaguee aalleey\"");
+        assertEval("{ gsub(\"[aeiou]+\", \"_\", c(\"beautiful\", \"queue\", NA), useBytes=TRUE) }", "\"b_t_f_l\", \"q_\", NA");
+        assertEval("{ gsub(\"x*\", \"-\", \"abc\", useBytes=TRUE) }", "\"-a-b-c-\"");
+        assertEval("{ gsub(\"A|B\", \"\\\\$\", \"xAyB\", ignore.case=TRUE, useBytes=TRUE) }", "\"x$y$\"");
+        assertEval("{ gsub(\"([a-e])\",\"\\\\1\\\\1\", \"prague alley\", useBytes=TRUE) }", "\"praaguee aalleey\"");
     }
 
     @Test
     public void testRegExpr() throws RecognitionException {
         assertEval("gregexpr(\"(a)[^a]\\\\1\", c(\"andrea apart\", \"amadeus\", NA))", "[[1]]\n6L\n\n[[2]]\n1L\n\n[[3]]\nNA"); // NOTE: this is without attributes
         assertEval("regexpr(\"(a)[^a]\\\\1\", c(\"andrea apart\", \"amadeus\", NA))", "6L, 1L, NA"); // NOTE: this is without attributes
+        assertEval("gregexpr(\"a[^a]a|c\", c(\"banana cabana\", \"xyz\", NA), useBytes=TRUE)", "[[1]]\n2L, 8L, 9L\n\n[[2]]\n-1L\n\n[[3]]\nNA");
+        assertEval("regexpr(\"n+a\", c(\"banana\", \"nnna\", \"x\", NA), perl=TRUE, useBytes=TRUE)", "3L, 1L, -1L, NA");
+        // a pattern with exponentially many DFA states, run on a random a/b string long enough to exceed the state limit
+        assertEval("{ x <- 1 ; v <- character(30000) ; for (i in 1:30000) { x <- (x * 69069 + 1) %% 4294967296 ; v[i] <- if (x < 2147483648) \"a\" else \"b\" } ; " +
+                        "s <- paste(c(v, \"a\", rep(\"b\", 14), \"cxyz\"), collapse=\"\") ; " +
+                        "c(regexpr(\"[ab]*a[ab]{14}c\", s, useBytes=TRUE), regexpr(\"a[ab]{14}c\", s, useBytes=TRUE), sub(\"[ab]*a[ab]{14}c\", \"\", s, useBytes=TRUE)) }",
+                        "\"1L\", \"30001L\", \"xyz\"");
+    }
+
+    @Test
+    public void testGrep() throws RecognitionException {
+        assertEval("{ grepl(\"an\", c(\"banana\", \"apple\", NA, \"ANT\")) }", "TRUE, FALSE, FALSE, FALSE");
+        assertEval("{ grepl(\"an\", c(\"banana\", \"apple\", NA, \"ANT\"), ignore.case=TRUE, fixed=TRUE) }", "TRUE, FALSE, FALSE, TRUE");
+        assertEval("{ grepl(\"error|fatal|panic\", c(\"an ERROR\", \"fatal: x\", \"ok\", \"kernel panic\"), ignore.case=TRUE) }", "TRUE, TRUE, FALSE, TRUE");
+        assertEval("{ grepl(\"a.c\", c(\"abc\", \"a.c\", \"xyz\"), fixed=TRUE) }", "FALSE, TRUE, FALSE");
+        assertEval("{ grepl(\"a.c\", c(\"abc\", \"a.c\", \"xyz\"), perl=TRUE) }", "TRUE, TRUE, FALSE");
+        assertEval("{ grep(\"e\", c(a=\"one\", b=\"two\", c=\"three\")) }", "1L, 3L");
+        assertEval("{ grep(\"e\", c(a=\"one\", b=\"two\", c=\"three\"), value=TRUE) }", "    a       c\n\"one\" \"three\"");
+        assertEval("{ grep(\"e\", c(\"one\", \"two\", \"three\", NA), invert=TRUE) }", "2L, 4L");
+        assertEval("{ regexpr(\"ana\", c(\"banana\", \"xx\", NA), fixed=TRUE) }", "2L, -1L, NA");
+        assertEval("{ gregexpr(\"AN\", \"banana\", fixed=TRUE, ignore.case=TRUE) }", "[[1]]\n2L, 4L");
     }
 
     @Test
@@ -1020,6 +1183,8 @@ public class TestSimpleBuiltins extends SimpleTestBase {
         assertEval("{ crossprod(1:3, matrix(1:6, ncol=2)) }", "     [,1] [,2]\n[1,] 14.0 32.0");
         assertEval("{ crossprod(t(1:2), 5) }", "     [,1]\n[1,]  5.0\n[2,] 10.0");
         assertEval("{ crossprod(c(1,NA,2), matrix(1:6, ncol=2)) }", "     [,1] [,2]\n[1,]   NA   NA");
+        assertEval("{ m <- matrix(c(1,2,3,4,5,6), nrow=2) ; crossprod(t(m)) }", "     [,1] [,2]\n[1,] 35.0 44.0\n[2,] 44.0 56.0");
+        assertEval("{ m <- matrix(c(1,2,3,4,5,6), nrow=2) ; crossprod(t(m), matrix(1:3, nrow=3)) }", "     [,1]\n[1,] 22.0\n[2,] 28.0");
     }
 
     @Test
@@ -1328,6 +1493,30 @@ public class TestSimpleBuiltins extends SimpleTestBase {
     @Test
     public void testDiagnostics() throws RecognitionException {
         assertEvalError("{ f <- function() { stop(\"hello\",\"world\") } ; f() }", "helloworld");
+        assertEvalWarning("{ f <- function() { warning(\"careful\") ; 1 } ; f() }", "1.0", "careful");
+        assertEvalError("{ stop(simpleError(\"custom\")) }", "custom");
+    }
+
+    @Test
+    public void testConditions() throws RecognitionException {
+        assertEval("{ tryCatch(stop(\"boom\"), error=function(e) conditionMessage(e)) }", "\"boom\"");
+        assertEval("{ tryCatch(1 + 1, error=function(e) 0) }", "2.0");
+        assertEval("{ tryCatch(as.integer(\"x\"), warning=function(w) conditionMessage(w)) }", "\"NAs introduced by coercion\"");
+        assertEval("{ tryCatch(stop(\"a\"), warning=function(w) \"w\", error=function(e) \"e\") }", "\"e\"");
+        assertEval("{ tryCatch(tryCatch(stop(\"inner\"), warning=function(w) \"w\"), condition=function(c) c$message) }", "\"inner\"");
+        assertEval("{ x <- 0 ; tryCatch(stop(\"a\"), error=function(e) 1, finally=x <- 10) ; x }", "10.0");
+        assertEval("{ f <- function(n) if (n == 0) stop(\"bottom\") else f(n - 1) ; tryCatch(f(20), error=function(e) conditionMessage(e)) }", "\"bottom\"");
+        assertEval("{ c <- simpleCondition(\"msg\") ; attr(c, \"class\") <- c(\"custom\", \"condition\") ; tryCatch(signalCondition(c), custom=function(c) 1) }", "1.0");
+        assertEval("{ signalCondition(simpleCondition(\"msg\")) }", "NULL");
+        assertEval("{ r <- try(stop(\"oops\"), silent=TRUE) ; attr(r, \"class\") }", "\"try-error\"");
+        assertEval("{ try(1 + 1) }", "2.0");
+    }
+
+    @Test
+    public void testOnExit() throws RecognitionException {
+        assertEval("{ x <- 0 ; f <- function() { on.exit(x <<- x + 1) ; 2 } ; c(f(), x) }", "2.0, 1.0");
+        assertEval("{ x <- 0 ; f <- function() { on.exit(x <<- 1) ; on.exit(x <<- x * 10, add=TRUE) ; stop(\"fail\") } ; tryCatch(f(), error=function(e) x) }", "10.0");
+        assertEval("{ x <- 0 ; f <- function() { on.exit(x <<- 1) ; on.exit(x <<- 5) ; return(3) } ; c(f(), x) }", "3.0, 5.0");
     }
 
     @Test
@@ -109,6 +109,7 @@ public class TestSimpleComparison extends SimpleTestBase {
         assertEval("{ f <- function(a,b) { a > b } ; f(1,2) ; f(1L,2) ; f(2L[2], 1) }", "NA");
         assertEval("{ f <- function(a,b) { a > b } ; f(1,2) ; f(1L,2) ; f(2L, 1L[2]) }", "NA");
         assertEval("{ f <- function(a,b) { a > b } ; f(1,2) ; f(1L,2) ; f(2L[2], 1L) }", "NA");
+        assertEval("{ f <- function(a,b) { a * 2 > b + 1 } ; f(1,2) ; f(2, 0/0) ; f(2,c(1,4)) ; f(3L,2) }", "TRUE");
 
         assertEval("{ z <- TRUE; dim(z) <- c(1) ; dim(z == TRUE) }", "1L");
         assertEvalError("{ z <- TRUE; dim(z) <- c(1) ; u <- 1:3 ; dim(u) <- 3 ; u == z }", "non-conformable arrays");
@@ -195,4 +196,15 @@ public class TestSimpleComparison extends SimpleTestBase {
         assertEval("{ m <- matrix(1:6, nrow=2) ; m > c(1,2,3) }", "      [,1]  [,2] [,3]\n[1,] FALSE FALSE TRUE\n[2,] FALSE  TRUE TRUE");
     }
 
+    @Test
+    public void testPackedLogicals() throws RecognitionException {
+        assertEval("{ x <- c(1:300, NA, 302:1000) + 0.5 ; m <- x > 500 ; c(sum(m), sum(m, na.rm=TRUE), sum(!m, na.rm=TRUE)) }", "NA, 501L, 498L");
+        assertEval("{ x <- c(1:300, NA, 302:1000) ; m <- x > 500L ; c(any(m), all(m), any(x > 5000L), all(x > 0L, na.rm=TRUE)) }", "TRUE, FALSE, NA, TRUE");
+        assertEval("{ x <- c(1:300, NA, 302:1000) ; m <- x > 500L ; n <- x < 100L ; c(sum(m & n, na.rm=TRUE), sum(m | n, na.rm=TRUE), sum(is.na(m & !m)), sum(is.na(m | !m))) }", "0L, 599L, 1L, 1L");
+        assertEval("{ x <- c(1:300, NA, 302:1000) + 0.5 ; m <- x > 999 ; c(which(m), m[299:302]) }", "999L, 1000L, 0L, 0L, NA, 0L");
+        assertEval("{ x <- c(1:300, NA, 302:1000) + 0.5 ; x[x > 998 | x < 2] }", "1.5, NA, 998.5, 999.5, 1000.5");
+        assertEval("{ x <- 1:1000 ; names(x) <- rep(c(\"a\", \"b\", \"c\"), length.out=1000) ; names(x[x > 997L]) }", "\"b\", \"c\", \"a\"");
+        assertEval("{ x <- rep(c(\"x\", \"y\"), 500) ; m <- 1:1000 >= 999L ; m[1] <- TRUE ; x[m] }", "\"x\", \"x\", \"y\"");
+    }
+
 }
@@ -102,6 +102,12 @@ public class TestSimpleFunctions extends SimpleTestBase {
 
         assertEval("{ g <- function() {3} ; f <- function() { g() } ; f(); g <- function() {4} ; f() }", "4.0");
         assertEval("{ f <- function() { c(1,10) } ; c <- sum ; f() }", "11.0");
+        assertEval("{ sq <- function(x) { x * x } ; f <- function(n) { s <- 0 ; for (i in 1:n) { s <- s + sq(i) } ; s } ; a <- f(3) ; sq <- function(x) { -x } ; c(a, f(3)) }", "14.0, -6.0");
+        assertEval("{ n <- 0 ; g <- function() { n <<- n + 1 ; n } ; d <- function(x, y) { if (x > 0) x + x else y } ; f <- function() { d(g(), stop(\"unused\")) } ; c(f(), n) }", "2.0, 1.0");
+        assertEval("{ h <- function(x) { c(x, 1) } ; f <- function() { h(2) } ; a <- f() ; c <- function(...) { 42 } ; list(a, f()) }", "[[1]]\n2.0, 1.0\n\n[[2]]\n42.0");
+        assertEval("{ x <- 3 ; g <- function(y) { x + y } ; f <- function() { x <- 10 ; g(x) } ; f() }", "13.0");
+        assertEval("{ f <- function(func, a) { func(b=a) } ; g <- function(a=1, b=2) { a - b } ; h <- function(b, a=10) { a * b } ; c(f(g, 5), f(h, 5), f(g, 1), f(h, 1)) }", "-4.0, 50.0, 0.0, 10.0");
+        assertEval("{ fs <- list(function(x) x, function(y, x) x, function(x, y=2) x * y, function(..., z) ..1, function(x) -x, function(a, x) x + 1) ; f <- function(i) { g <- fs[[i]] ; g(x=3) } ; c(f(1), f(2), f(3), f(4), f(5), f(6), f(3), f(1)) }", "3.0, 3.0, 6.0, 3.0, -3.0, 4.0, 6.0, 3.0");
     }
 
     @Test
@@ -129,6 +135,10 @@ public class TestSimpleFunctions extends SimpleTestBase {
             assertEval("{ f <- function(a) { g <- function(b) { a <<- 3; b } ; g(a) } ; x <- 1 ; f(x) }", "3.0");
             assertEval("{ f <- function(x) { function() {x} } ; a <- 1 ; b <- f(a) ; a <- 10 ; b() }", "10.0");
             assertEvalError("{ f <- function(x = y, y = x) { y } ; f() }", "promise already under evaluation: recursive default argument reference?");
+            assertEval("{ f <- function(a, b) { b ; a } ; g <- function() { x <- 1 ; f(x, x <- 5) } ; g() }", "5.0");
+            assertEval("{ f <- function(v) { function() v } ; g <- function() { x <- 1 ; h <- f(x) ; x <- 9 ; h() } ; g() }", "9.0");
+            assertEval("{ f <- function(x) { substitute(x) } ; g <- function() { y <- 2 ; f(y) } ; g() }", "y");
+            assertEval("{ f <- function(x) { substitute(x) } ; f(3) }", "3.0");
         }
     }
 
@@ -48,8 +48,29 @@ public class TestSimpleLoop extends SimpleTestBase {
         assertEval("{ i <- 1 ; r <- NULL ; for(v in list(NA,1)) { r[i] <- typeof(v) ; i <- i + 1 } ; r }", "\"logical\", \"double\"");
     }
 
+    @Test
+    public void testUnboxedLocals() throws RecognitionException {
+        assertEval("{ f <- function(n) { k <- 0L ; while (k < n) k <- k + 1L ; k } ; f(10L) ; f(3L) }", "3L");
+        assertEval("{ f <- function(n) { s <- 0 ; for (i in 1:n) { s <- s + i } ; c(s, i) } ; f(10) }", "55.0, 10.0");
+        assertEval("{ f <- function() { x <- 1 ; y <- x ; x <- 2 ; c(x, y) } ; f() }", "2.0, 1.0");
+        assertEval("{ f <- function(v) { x <- 1L ; x <- x + 1L ; x <- v ; x } ; f(2L) ; f(\"a\") }", "\"a\"");
+        assertEval("{ f <- function(n) { b <- TRUE ; for (i in 1:n) b <- !b ; b } ; f(3) }", "FALSE");
+        assertEval("{ f <- function() { z <- (a <- 5L) ; for (i in 1:2) NULL ; c(z, a, i) } ; f() }", "5L, 5L, 2L");
+        assertEval("{ f <- function() { k <- 1 ; g <- function() k <<- k + 1 ; for (i in 1:3) g() ; k } ; f() }", "4.0");
+        assertEval("{ f <- function(n) { s <- 0 ; k <- 0L ; for (i in 1:n) { s <- s + i * 0.5 ; k <- k + i %% 3L } ; c(s, k) } ; f(6L) ; f(4L) }", "5.0, 4.0");
+        assertEval("{ f <- function(x) { y <- 1L ; y <- y + x ; y } ; f(1L) ; f(2.5) ; f(1L) }", "2L");
+        assertEvalWarning("{ f <- function(x) { y <- 2L ; y <- y * x ; y } ; f(2L) ; f(1073741824L) }", "NA", "NAs produced by integer overflow");
+    }
+
     @Test
     public void testDynamic() throws RecognitionException {
         assertEval("{ l <- quote({x <- 0 ; for(i in 1:10) { x <- x + i } ; x}) ; f <- function() { eval(l) } ; x <<- 10 ; f() }", "55.0");
     }
+
+    @Test
+    public void testResultReuse() throws RecognitionException {
+        // p holds the result of the previous iteration, which must not be overwritten when the one before it is reused
+        assertEval("{ f <- function(n) { x <- (1:100) + 0 ; x[1] <- 0 ; y <- x ; y[2] <- 0 ; s <- 0 ; p <- x - x ; for (i in 1:n) { d <- x - y ; s <- s + sum(d[2:4]) ; d[3] <- i ; s <- s + 1000 * p[3] + d[3] ; p <- d } ; s } ; f(10) }", "45075.0");
+        assertEval("{ f <- function(n) { x <- (1:100) + 0 ; x[1] <- 0 ; y <- x ; y[2] <- 0 ; s <- 0 ; for (i in 1:n) { d <- x - y ; s <- s + sum(d[2:4]) ; d[3] <- i ; s <- s + d[3] } ; s } ; f(10) }", "75.0");
+    }
 }
@@ -1019,6 +1019,30 @@ public class TestSimpleVectors extends SimpleTestBase {
         assertEval("{ x <- 1:3 ; f <- function() { x[2] <- 10 ; x[2] <<- 100 ; x[2] <- 1000 } ; f() ; x }", "1.0, 100.0, 3.0");
     }
 
+    @Test
+    public void testUpdateAfterRelease() throws RecognitionException {
+        assertEval("{ f <- function(v) v[1] ; x <- c(1,2,3) ; for (i in 1:3) { f(x) ; x[i] <- 10 * i } ; x }", "10.0, 20.0, 30.0");
+        assertEval("{ f <- function(v) { v[1] <- 100 ; v } ; x <- c(1,2,3) ; y <- f(x) ; x[2] <- 0 ; c(x, y) }", "1.0, 0.0, 3.0, 100.0, 2.0, 3.0");
+        assertEval("{ x <- c(1,2,3) ; y <- x ; y <- 0 ; x[1] <- 5 ; x }", "5.0, 2.0, 3.0");
+        assertEval("{ x <- c(1,2,3) ; y <- x ; z <- y ; y <- 0 ; x[1] <- 5 ; z }", "1.0, 2.0, 3.0");
+        assertEval("{ f <- function(v) { w <- v ; w } ; x <- c(1,2,3) ; y <- f(x) ; x[1] <- 5 ; y }", "1.0, 2.0, 3.0");
+        assertEval("{ f <- function(v) { function() v } ; x <- c(1,2,3) ; g <- f(x) ; g() ; x[1] <- 5 ; g() }", "1.0, 2.0, 3.0");
+        assertEval("{ f <- function(v) { v[1] ; function() v } ; x <- c(1,2,3) ; g <- f(x) ; x[1] <- 5 ; g() }", "1.0, 2.0, 3.0");
+        assertEval("{ g <- function(a) a[1] ; f <- function(...) { g(...) ; h <- function(b) { b[1] <- 0 ; b } ; h(...) } ; x <- c(1,2,3) ; f(x) ; x }", "1.0, 2.0, 3.0");
+        assertEval("{ f <- function(v) { attr(v, \"b\") <- v ; attr(v, \"b\") } ; x <- c(1,2,3) ; y <- f(x) ; x[1] <- 5 ; y }", "1.0, 2.0, 3.0");
+        assertEval("{ m <- matrix(1:4, nrow=2) ; f <- function(a) a[1,1] ; for (i in 1:2) { f(m) ; m[i,i] <- 10L } ; as.vector(m) }", "10L, 2L, 3L, 10L");
+    }
+
+    @Test
+    public void testAppendGrowth() throws RecognitionException {
+        assertEval("{ v <- c() ; for (i in 1:20) v[length(v) + 1] <- i ; sum(v) }", "210L");
+        assertEval("{ x <- 1:3 ; x[4] <- 10L ; x[6] <- 1L ; x }", "1L, 2L, 3L, 10L, NA, 1L");
+        assertEval("{ x <- 1:3 ; x[4] <- 10L ; y <- x ; x[5] <- 11L ; y }", "1L, 2L, 3L, 10L");
+        assertEval("{ l <- list(1) ; l[[2]] <- 2 ; g <- l ; l[[3]] <- 3 ; c(length(g), length(l)) }", "2L, 3L");
+        assertEval("{ s <- c(\"a\",\"b\") ; s[3] <- \"c\" ; length(s) <- 2 ; s[4] <- \"d\" ; s }", "\"a\", \"b\", NA, \"d\"");
+        assertEval("{ z <- c(1,2) ; length(z) <- 4 ; z[3] <- 3 ; length(z) <- 1 ; length(z) <- 3 ; z }", "1.0, NA, NA");
+    }
+
     @Test
     public void testMatrixIndex() throws RecognitionException {
         assertEval("{ m <- matrix(1:6, nrow=2) ; m[1,2] }", "3L");